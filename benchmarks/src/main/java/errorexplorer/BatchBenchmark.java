@@ -0,0 +1,64 @@
+package errorexplorer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@OperationsPerInvocation(OperandState.SIZE)
+public class BatchBenchmark {
+    // Array-at-a-time simulation against a plain Binary64Core loop; scores are per element
+
+    private static final Kernel DOT = Kernel.compile("sum(a[i]*b[i])");
+
+    @State(Scope.Thread)
+    public static class Output {
+        long[] out = new long[OperandState.SIZE];
+    }
+
+    @Benchmark
+    public long[] batchAdd(OperandState s, Output o) {
+        BatchSimulator.compute(Op.ADD, s.aBits, s.bBits, o.out);
+        return o.out;
+    }
+
+    @Benchmark
+    public long[] scalarAdd(OperandState s, Output o) {
+        for (int i = 0; i < OperandState.SIZE; i++) o.out[i] = Binary64Core.add(s.aBits[i], s.bBits[i]);
+        return o.out;
+    }
+
+    @Benchmark
+    public long[] batchMultiply(OperandState s, Output o) {
+        BatchSimulator.compute(Op.MUL, s.aBits, s.bBits, o.out);
+        return o.out;
+    }
+
+    @Benchmark
+    public long kernelDot(OperandState s) {
+        // Compiled once, interpreted per element: compare with scalarDot for the interpreter's overhead
+        Kernel.Run run = DOT.start(Rounding.NEAREST_EVEN, false);
+        run.elements(s.columns, null, 0, OperandState.SIZE);
+        return run.finish();
+    }
+
+    @Benchmark
+    public long scalarDot(OperandState s) {
+        long acc = 0;
+        for (int i = 0; i < OperandState.SIZE; i++) acc = Binary64Core.add(acc, Binary64Core.multiply(s.aBits[i], s.bBits[i]));
+        return acc;
+    }
+}
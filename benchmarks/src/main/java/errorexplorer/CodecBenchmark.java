@@ -0,0 +1,67 @@
+package errorexplorer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+    // DecimalCodec against the JDK on OperandState's operands: parsing their shortest decimals and hex floats,
+    // and formatting them
+
+    @State(Scope.Thread)
+    public static class Text {
+        String[] decimal = new String[OperandState.SIZE], hexFloat = new String[OperandState.SIZE];
+        byte[][] decimalBytes = new byte[OperandState.SIZE][], hexFloatBytes = new byte[OperandState.SIZE][];
+        final byte[] out = new byte[DecimalCodec.MAX_LENGTH];
+
+        @Setup(Level.Trial)
+        public void render(OperandState s) {
+            for (int k = 0; k < OperandState.SIZE; k++) {
+                decimal[k] = DecimalCodec.toString(s.aBits[k]);
+                hexFloat[k] = Double.toHexString(s.aDouble[k]);
+                decimalBytes[k] = decimal[k].getBytes(StandardCharsets.ISO_8859_1);
+                hexFloatBytes[k] = hexFloat[k].getBytes(StandardCharsets.ISO_8859_1);
+            }
+        }
+    }
+
+    @Benchmark
+    public long parse(OperandState s, Text t) {
+        byte[] b = t.decimalBytes[s.next()];
+        return DecimalCodec.parse(b, 0, b.length);
+    }
+
+    @Benchmark
+    public double parseJdk(OperandState s, Text t) { return Double.parseDouble(t.decimal[s.next()]); }
+
+    @Benchmark
+    public long parseHexFloat(OperandState s, Text t) {
+        byte[] b = t.hexFloatBytes[s.next()];
+        return DecimalCodec.parse(b, 0, b.length);
+    }
+
+    @Benchmark
+    public double parseHexFloatJdk(OperandState s, Text t) { return Double.parseDouble(t.hexFloat[s.next()]); }
+
+    @Benchmark
+    public int format(OperandState s, Text t) { return DecimalCodec.format(s.aBits[s.next()], t.out, 0); }
+
+    @Benchmark
+    public String formatJdk(OperandState s) { return Double.toString(s.aDouble[s.next()]); }
+}
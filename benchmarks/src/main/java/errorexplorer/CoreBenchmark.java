@@ -0,0 +1,72 @@
+package errorexplorer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoreBenchmark {
+    // The allocation-free long core on the same operands as PipelineBenchmark, for before/after comparisons
+
+    @Benchmark
+    public long pack(OperandState s) {
+        int i = s.next();
+        return Binary64Core.pack(s.packSign[i], s.packExp[i], s.packMant[i]);
+    }
+
+    @Benchmark
+    public long addOrSub(OperandState s) {
+        int i = s.next();
+        return Binary64Core.addOrSub(s.aBits[i], s.bBits[i], (i & 1) != 0);
+    }
+
+    @Benchmark
+    public long multiply(OperandState s) {
+        int i = s.next();
+        return Binary64Core.multiply(s.aBits[i], s.bBits[i]);
+    }
+
+    @Benchmark
+    public long divide(OperandState s) {
+        int i = s.next();
+        return Binary64Core.divide(s.aBits[i], s.bBits[i]);
+    }
+
+    @Benchmark
+    public long sqrt(OperandState s) {
+        int i = s.next();
+        return Binary64Core.sqrt(s.aBits[i]);
+    }
+
+    @Benchmark
+    public long fma(OperandState s) {
+        // The previous pair's A serves as the addend
+        int i = s.next();
+        return Binary64Core.fma(s.aBits[i], s.bBits[i], s.aBits[(i - 1) & (OperandState.SIZE - 1)]);
+    }
+
+    @Benchmark
+    public long[] allModes(OperandState s) {
+        // One op rounded five ways; compare with addOrSub to see what the extra roundings cost
+        int i = s.next();
+        Binary64Core.allModes((i & 1) != 0 ? Op.SUB : Op.ADD, s.aBits[i], s.bBits[i], s.modes, 0);
+        return s.modes;
+    }
+
+    @Benchmark
+    public long analyzed(OperandState s) {
+        // addOrSub plus its ulp error and flags from the status word; compare with allModes
+        int i = s.next();
+        return s.analysis.run((i & 1) != 0 ? Op.SUB : Op.ADD, s.aBits[i], s.bBits[i], 0, Rounding.NEAREST_EVEN);
+    }
+}
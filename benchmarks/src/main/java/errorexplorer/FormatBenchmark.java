@@ -0,0 +1,108 @@
+package errorexplorer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatBenchmark {
+    // The non-binary64 engines on OperandState's operands rounded into each format:
+    // NarrowCore for binary16/bfloat16/binary32 (scalar and array-at-a-time) and Binary128Core
+
+    @State(Scope.Thread)
+    public static class Narrow {
+        @Param({"binary16", "bfloat16", "binary32"})
+        public String format;
+
+        Format fmt;
+        NarrowCore core;
+        int[] a = new int[OperandState.SIZE], b = new int[OperandState.SIZE], out = new int[OperandState.SIZE];
+
+        @Setup(Level.Trial)
+        public void convert(OperandState s) {
+            fmt = Format.parse(format);
+            core = fmt.narrow;
+            for (int k = 0; k < OperandState.SIZE; k++) {
+                a[k] = (int) fmt.fromDouble(s.aDouble[k], Rounding.NEAREST_EVEN);
+                b[k] = (int) fmt.fromDouble(Double.longBitsToDouble(s.bBits[k]), Rounding.NEAREST_EVEN);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Quad {
+        long[] a = new long[2 * OperandState.SIZE], b = new long[2 * OperandState.SIZE];
+        final long[] out = new long[2];
+
+        @Setup(Level.Trial)
+        public void convert(OperandState s) {
+            for (int k = 0; k < OperandState.SIZE; k++) {
+                Binary128Core.fromDouble(s.aDouble[k], a, 2 * k);
+                Binary128Core.fromDouble(Double.longBitsToDouble(s.bBits[k]), b, 2 * k);
+                a[2 * k + 1] ^= s.aBits[k] >>> 11; // fill the low word so the wide paths see full-width mantissas
+            }
+        }
+    }
+
+    @Benchmark
+    public int narrowAddOrSub(OperandState s, Narrow n) {
+        int i = s.next();
+        return n.core.addOrSub(n.a[i], n.b[i], (i & 1) != 0, Rounding.NEAREST_EVEN);
+    }
+
+    @Benchmark
+    public int narrowMultiply(OperandState s, Narrow n) {
+        int i = s.next();
+        return n.core.multiply(n.a[i], n.b[i], Rounding.NEAREST_EVEN);
+    }
+
+    @Benchmark
+    public int narrowDivide(OperandState s, Narrow n) {
+        int i = s.next();
+        return n.core.divide(n.a[i], n.b[i], Rounding.NEAREST_EVEN);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OperandState.SIZE)
+    public int[] narrowBatchAdd(Narrow n) {
+        BatchSimulator.compute(n.fmt, Op.ADD, Rounding.NEAREST_EVEN, n.a, n.b, n.out, 0, OperandState.SIZE);
+        return n.out;
+    }
+
+    @Benchmark
+    public long[] quadAddOrSub(OperandState s, Quad q) {
+        int i = s.next();
+        Binary128Core.addOrSub(q.a[2 * i], q.a[2 * i + 1], q.b[2 * i], q.b[2 * i + 1], (i & 1) != 0, Rounding.NEAREST_EVEN, q.out, 0);
+        return q.out;
+    }
+
+    @Benchmark
+    public long[] quadMultiply(OperandState s, Quad q) {
+        int i = s.next();
+        Binary128Core.multiply(q.a[2 * i], q.a[2 * i + 1], q.b[2 * i], q.b[2 * i + 1], Rounding.NEAREST_EVEN, q.out, 0);
+        return q.out;
+    }
+
+    @Benchmark
+    public long[] quadDivide(OperandState s, Quad q) {
+        int i = s.next();
+        Binary128Core.divide(q.a[2 * i], q.a[2 * i + 1], q.b[2 * i], q.b[2 * i + 1], Rounding.NEAREST_EVEN, q.out, 0);
+        return q.out;
+    }
+}
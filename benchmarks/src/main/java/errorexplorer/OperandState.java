@@ -0,0 +1,85 @@
+package errorexplorer;
+
+import java.math.BigInteger;
+import java.util.SplittableRandom;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+@State(Scope.Thread)
+public class OperandState {
+    // Pre-generated operands so the benchmarks measure the simulator, not input generation.
+    // Each distribution targets a different branch: normals, the subnormal paths, and specials.
+
+    static final int SIZE = 1024; // power of two, cycled through with a mask
+
+    @Param({"normal", "subnormal", "special"})
+    public String distribution;
+
+    long[] aBits = new long[SIZE], bBits = new long[SIZE];
+    final long[][] columns = { aBits, bBits };          // Kernel input columns
+    double[] aDouble = new double[SIZE];
+    String[] aString = new String[SIZE], bString = new String[SIZE];
+
+    // Inputs for pack: sign, unbiased exponent and mantissa with GRS (value = mant * 2^(exp - 55))
+    int[] packSign = new int[SIZE], packExp = new int[SIZE];
+    long[] packMant = new long[SIZE];
+    BigInteger[] packMantBig = new BigInteger[SIZE];
+
+    // Recorded step traces for conciseWhy
+    Trace[] steps = new Trace[SIZE];
+
+    final Trace why = new Trace();
+    final long[] modes = new long[Rounding.values().length];
+    final ErrorAnalysis analysis = new ErrorAnalysis();
+    private int i;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        SplittableRandom r = new SplittableRandom(42);
+        for (int k = 0; k < SIZE; k++) {
+            aBits[k] = operand(r);
+            bBits[k] = operand(r);
+            aDouble[k] = Double.longBitsToDouble(aBits[k]);
+            aString[k] = Minimal_Floating_Simulator.toBits(aBits[k]);
+            bString[k] = Minimal_Floating_Simulator.toBits(bBits[k]);
+
+            packSign[k] = r.nextInt(2);
+            packMant[k] = (1L << 55) | (r.nextLong() >>> 9);
+            packExp[k] = switch (distribution) {
+                case "subnormal" -> -1022 - r.nextInt(60);               // denormalize before rounding
+                case "special" -> r.nextBoolean() ? 1023 + r.nextInt(4)  // overflow to infinity
+                                                  : -1100 - r.nextInt(100); // underflow to zero
+                default -> r.nextInt(400) - 200;
+            };
+            if (distribution.equals("special") && r.nextInt(4) == 0) packMant[k] = 0; // signed zero
+            packMantBig[k] = BigInteger.valueOf(packMant[k]);
+
+            Op op = Op.values()[k & 3];
+            steps[k] = Simulator.simulate(op, aBits[k], bBits[k]).trace();
+        }
+    }
+
+    private long operand(SplittableRandom r) {
+        long sign = r.nextBoolean() ? Long.MIN_VALUE : 0;
+        long frac = r.nextLong() & 0x000FFFFFFFFFFFFFL;
+        return switch (distribution) {
+            case "subnormal" -> sign | ((long) r.nextInt(2) << 52) | frac;  // subnormals and MIN_NORMAL range
+            case "special" -> switch (r.nextInt(5)) {
+                case 0 -> sign;                                              // ±0
+                case 1 -> sign | 0x7FF0000000000000L;                        // ±Inf
+                case 2 -> 0x7FF8000000000000L | frac;                        // NaN with payload
+                case 3 -> sign | 0x7FEFFFFFFFFFFFFFL;                        // ±MAX_VALUE
+                default -> sign | ((long) (1023 + r.nextInt(20)) << 52) | frac;
+            };
+            default -> sign | ((long) (1023 - 200 + r.nextInt(400)) << 52) | frac;
+        };
+    }
+
+    int next() { return i = (i + 1) & (SIZE - 1); }
+
+    Trace why() { return why.clear(); }
+}
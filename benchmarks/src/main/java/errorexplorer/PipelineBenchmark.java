@@ -0,0 +1,56 @@
+package errorexplorer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PipelineBenchmark {
+    // Each stage of the String/BigInteger explanation pipeline measured on its own
+
+    @Benchmark
+    public String toBits(OperandState s) { return Minimal_Floating_Simulator.toBits(s.aDouble[s.next()]); }
+
+    @Benchmark
+    public double fromBits(OperandState s) { return Minimal_Floating_Simulator.fromBits(s.aString[s.next()]); }
+
+    @Benchmark
+    public Object unpack(OperandState s) { return Minimal_Floating_Simulator.unpack(s.aString[s.next()]); }
+
+    @Benchmark
+    public String pack(OperandState s) {
+        int i = s.next();
+        return Minimal_Floating_Simulator.pack(s.packSign[i], s.packExp[i], s.packMantBig[i], Rounding.NEAREST_EVEN, s.why());
+    }
+
+    @Benchmark
+    public String addOrSub(OperandState s) {
+        int i = s.next();
+        return Minimal_Floating_Simulator.addOrSub(s.aString[i], s.bString[i], (i & 1) != 0, Rounding.NEAREST_EVEN, s.why());
+    }
+
+    @Benchmark
+    public String multiply(OperandState s) {
+        int i = s.next();
+        return Minimal_Floating_Simulator.multiply(s.aString[i], s.bString[i], Rounding.NEAREST_EVEN, s.why());
+    }
+
+    @Benchmark
+    public String divide(OperandState s) {
+        int i = s.next();
+        return Minimal_Floating_Simulator.divide(s.aString[i], s.bString[i], Rounding.NEAREST_EVEN, s.why());
+    }
+
+    @Benchmark
+    public String conciseWhy(OperandState s) { return Minimal_Floating_Simulator.conciseWhy(s.steps[s.next()]); }
+}
@@ -0,0 +1,186 @@
+package errorexplorer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+final class AsciiIO {
+    // Line-oriented text I/O over byte buffers for the batch paths: Lines splits input lines into
+    // whitespace-separated fields by offset, and Sink appends fields, bit patterns and numbers straight into
+    // its buffer, so a line costs no Strings in either direction. Numbers go through DecimalCodec. Lines end at
+    // \n (a \r before it is dropped); input is read as ASCII and non-ASCII output is written as UTF-8.
+
+    private AsciiIO() {}
+
+    static final class Lines {
+        // The current line is buf[start, end), trimmed; its fields are buf[from[k], to[k]) for k < fields
+        private final InputStream in;
+        byte[] buf = new byte[1 << 16];
+        int start, end;
+        int fields;
+        final int[] from = new int[8], to = new int[8];
+        private int next, limit;
+        private long number;
+        private boolean eof;
+
+        Lines(InputStream in) { this.in = in; }
+
+        long number() { return number; }
+
+        boolean next() throws IOException {
+        // Advance to the next line; false at the end of input
+            int nl;
+            while ((nl = indexOf('\n', next, limit)) < 0 && !eof) fill();
+            if (nl < 0) {
+                if (next == limit) return false;
+                nl = limit;                          // last line without a newline
+            }
+            start = next;
+            end = nl > start && buf[nl - 1] == '\r' ? nl - 1 : nl;
+            next = Math.min(nl + 1, limit);
+            number++;
+            while (start < end && buf[start] <= ' ') start++;
+            while (end > start && buf[end - 1] <= ' ') end--;
+            return true;
+        }
+
+        boolean skip() {
+        // Blank and comment lines
+            return start == end || buf[start] == '#';
+        }
+
+        int split() {
+        // Fields of the current line; returns how many (fields past the eighth are counted, not recorded)
+            fields = 0;
+            for (int i = start; i < end; ) {
+                while (i < end && buf[i] <= ' ') i++;
+                if (i == end) break;
+                int f = i;
+                while (i < end && buf[i] > ' ') i++;
+                if (fields < from.length) {
+                    from[fields] = f;
+                    to[fields] = i;
+                }
+                fields++;
+            }
+            return fields;
+        }
+
+        long operand(int k) { return DecimalCodec.parse(buf, from[k], to[k]); }
+
+        Op op(int k) { return Op.parse(buf, from[k], to[k]); }
+
+        String field(int k) { return new String(buf, from[k], to[k] - from[k], StandardCharsets.ISO_8859_1); }
+
+        String line() { return new String(buf, start, end - start, StandardCharsets.ISO_8859_1); }
+
+        private int indexOf(int b, int from, int to) {
+            for (int i = from; i < to; i++) if (buf[i] == b) return i;
+            return -1;
+        }
+
+        private void fill() throws IOException {
+        // Move the unread tail to the front (growing the buffer for an overlong line) and read more after it
+            int tail = limit - next;
+            if (tail == buf.length) buf = java.util.Arrays.copyOf(buf, buf.length * 2);
+            System.arraycopy(buf, next, buf, 0, tail);
+            next = 0;
+            limit = tail;
+            int n = in.read(buf, limit, buf.length - limit);
+            if (n < 0) eof = true;
+            else limit += n;
+        }
+    }
+
+    static final class Sink implements Closeable {
+        // Buffered output; append() mirrors StringBuilder's, with doubles in their shortest round-trip form
+        private final OutputStream out;
+        private final byte[] buf = new byte[1 << 16];
+        private int at;
+
+        Sink(OutputStream out) { this.out = out; }
+
+        private void room(int n) throws IOException {
+            if (at + n > buf.length) flushBuffer();
+        }
+
+        Sink append(char c) throws IOException {
+            if (c >= 0x80) return append(String.valueOf(c));
+            room(1);
+            buf[at++] = (byte) c;
+            return this;
+        }
+
+        Sink append(CharSequence s) throws IOException {
+            int n = s.length();
+            for (int i = 0; i < n; i++) {
+                char c = s.charAt(i);
+                if (c >= 0x80) return bytes(s.subSequence(i, n).toString().getBytes(StandardCharsets.UTF_8));
+                if (at == buf.length) flushBuffer();
+                buf[at++] = (byte) c;
+            }
+            return this;
+        }
+
+        Sink append(long v) throws IOException {
+            room(20);
+            if (v < 0) {
+                buf[at++] = '-';
+                if (v == Long.MIN_VALUE) return append("9223372036854775808");
+                v = -v;
+            }
+            int digits = 1;
+            for (long x = v; x >= 10; x /= 10) digits++;
+            int end = at + digits, i = end;
+            do {
+                buf[--i] = (byte) ('0' + v % 10);
+                v /= 10;
+            } while (v != 0);
+            at = end;
+            return this;
+        }
+
+        Sink append(double v) throws IOException { return value(Double.doubleToRawLongBits(v)); }
+
+        Sink value(long bits) throws IOException {
+        // The binary64 value of `bits` as a decimal
+            room(DecimalCodec.MAX_LENGTH);
+            at = DecimalCodec.format(bits, buf, at);
+            return this;
+        }
+
+        Sink hex(long bits) throws IOException {
+        // Raw bits as 0x and 16 hex digits
+            room(18);
+            at = DecimalCodec.hex(bits, buf, at);
+            return this;
+        }
+
+        private Sink bytes(byte[] b) throws IOException {
+            flushBuffer();
+            out.write(b);
+            return this;
+        }
+
+        private void flushBuffer() throws IOException {
+            out.write(buf, 0, at);
+            at = 0;
+        }
+
+        void flush() throws IOException {
+            flushBuffer();
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                out.close();
+            }
+        }
+    }
+}
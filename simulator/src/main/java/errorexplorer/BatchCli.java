@@ -0,0 +1,677 @@
+package errorexplorer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+
+final class BatchCli {
+    // Command-line batch mode: streams a file of operand pairs through the Simulator one line at a time,
+    // so memory use stays constant no matter how large the input is. Lines are read and written as bytes
+    // (AsciiIO) and binary64 numbers parsed and printed by DecimalCodec, without a String per field.
+    //
+    // Input lines:   <op> <a> <b>        op = add|sub|mul|div or + - * /
+    //                sqrt <a>            square root
+    //                fma <a> <b> <c>     a * b + c rounded once
+    //                                    operands are decimals, hex floats such as 0x1.8p3, or raw bits as 0x
+    //                                    followed by 16 hex digits or 0b followed by 64 binary digits
+    //                                    (with --format, decimals are rounded straight into that format and
+    //                                    raw bits take as many hex digits as the format is wide)
+    // Output lines:  <op> <a bits> <b bits> <result bits> <result decimal> [ulp error, relative error, flags] [steps]
+    //                (decimals are the shortest that read back to the same bits)
+    //                (tab separated)
+    //                b bits is "-" for sqrt and "<b bits>,<c bits>" for fma, so the columns stay fixed
+    // With --rounding all: <op> <a bits> <b bits> <bits per rounding mode...> <down decimal> <up decimal>
+    // With --kernel:       one element per line, a column per kernel input; see Kernel for the language
+    // With --datapath:     <op> <a bits> <b bits> <result bits> <result decimal> <correct bits> <ulps off>
+
+    private BatchCli() {}
+
+    static final String USAGE =
+        "Usage: java -jar error-explorer.jar --batch <input|-> [--out <output|->] [--trace [--cache n]] [--errors fast|exact]\n" +
+        "                                    [--stats <file.csv|file.json> [--every n]] [--rounding mode|all] [--format name]\n" +
+        "       java -jar error-explorer.jar --kernel <formula> --batch <input|-> [--out <output|->] [--rounding mode] [--attribute]\n" +
+        "       java -jar error-explorer.jar --datapath <settings> --batch <input|-> [--out <output|->] [--rounding mode] [--format name]\n" +
+        "       java -jar error-explorer.jar --verify <pairs> [--seed n] [--mismatches n] [--engine core|pipeline] [--threads n]\n" +
+        "       java -jar error-explorer.jar --sweep <op> <a> <b> <steps> [--points n] [--rounding mode] [--out <output|->]\n" +
+        "       java -jar error-explorer.jar --explore <op> --format name [--window lo:hi] [--exhaustive] [--rounding mode] [--out <output|->]\n" +
+        "       java -jar error-explorer.jar --encode <input> --out <file.bin> [--chunk n]\n" +
+        "       java -jar error-explorer.jar --mapped <file.bin> --out <results.bin> [--threads n] [--rounding mode] [--stats <file> [--every n]]\n" +
+        "       java -jar error-explorer.jar --decode <file.bin> [--out <output|->]\n" +
+        "       any of the above with --metrics\n" +
+        "  --batch       file of \"op a b\" lines, or \"sqrt a\" and \"fma a b c\" (- for stdin); operands are decimals,\n" +
+        "                hex floats (0x1.8p3) or raw bits (0x and 16 hex digits, or 0b and 64 binary digits)\n" +
+        "  --out         where to write results (default: stdout)\n" +
+        "  --trace       run the explanation pipeline and append its step trace to each line\n" +
+        "  --cache       with --trace, how many results to cache for repeated operand pairs (default: 100000, 0 = off)\n" +
+        "  --errors      add each result's rounding error (ulps, relative) and IEEE flags, with totals on stderr;\n" +
+        "                fast reads it off the G/R/S bits (to 1/8 ulp), exact compares with a BigDecimal result\n" +
+        "  --stats       write histograms of rounding decisions, alignment shifts, normalization and ulp error;\n" +
+        "                CSV rows, or JSON lines when the file name ends in .json\n" +
+        "  --every       with --stats, also write a snapshot every n ops (default: only at the end)\n" +
+        "  --rounding    rne (default), rna, rtz, rtp or rtn; \"all\" rounds every line under all five modes in one pass\n" +
+        "  --format      binary64 (default), binary16, bfloat16, binary32, binary128, or e<exp>m<frac> such as e4m3\n" +
+        "  --kernel      compile a formula such as \"sum(x[i]*y[i])\", \"kahan(x)\" or \"horner(x, 1, 0.5, 0.25)\" and run\n" +
+        "                every --batch line (one element, a column per input in order of first appearance) through it\n" +
+        "  --attribute   with --kernel, append each step's local rounding error in ulps\n" +
+        "  --datapath    run every --batch line on a rounding datapath such as \"working=64\" (double rounding through\n" +
+        "                64 bits) or \"extra=1,sticky=off\" (a guard bit only), next to the correctly rounded result and\n" +
+        "                how many ulps apart they are, with totals on stderr; settings are working=<bits> (default: the\n" +
+        "                format's precision), extra=<bits> below it (default: 3) and sticky=on|off (default: on)\n" +
+        "  --verify      check that many random and edge-biased operand pairs against native doubles (e.g. 1e9)\n" +
+        "  --seed        random seed for --verify (default: 1)\n" +
+        "  --mismatches  how many mismatches to print (default: 20)\n" +
+        "  --engine      core (Binary64Core, default) or pipeline (String/BigInteger explanation path)\n" +
+        "  --threads     fork-join parallelism (default: all cores)\n" +
+        "  --sweep       x = a, then x = x op b repeated <steps> times; writes step,value,abs_error,ulp_error as CSV\n" +
+        "  --points      how many evenly spaced sweep samples to write (default: 2000)\n" +
+        "  --explore     rounding error of <op> over the operand plane, one CSV row per exponent of A and sign and\n" +
+        "                exponent of B; a format up to 32 bits wide, or binary64 (default window: exponents -10:10)\n" +
+        "  --window      unbiased exponents lo:hi to cover (default: every finite exponent, subnormals are -bias)\n" +
+        "  --exhaustive  with --explore, run every pair instead of 256 sampled pairs per cell (formats up to 16 bits)\n" +
+        "  --encode      convert \"op a b\" lines into the memory-mapped binary operand format\n" +
+        "  --chunk       records per chunk, the unit of parallel work and of resuming (default: 1048576, at most 134217727)\n" +
+        "  --mapped      run a binary operand file into a binary result file of result bits and status words under\n" +
+        "                --rounding (recorded in its header); rerun to resume after an interruption\n" +
+        "  --decode      print a binary operand or result file as text\n" +
+        "  --metrics     count ops, special cases, subnormals, rounding increments, carries and overflows, sample\n" +
+        "                op latencies, and print them on stderr at the end (also published over JMX and JFR)\n";
+
+    static int run(String[] args) throws IOException {
+    // Parse options, then stream input to output; returns the process exit code. With --metrics the
+    // hot-path counters go to stderr at the end (main() has switched them on before any op ran)
+        int code = execute(args);
+        if (Arrays.asList(args).contains("--metrics")) {
+            System.err.print(Metrics.ENABLED ? "metrics:\n" + Metrics.snapshot().format(null)
+                                             : "metrics: off (set -Derrorexplorer.metrics=true)\n");
+        }
+        return code;
+    }
+
+    private static int execute(String[] args) throws IOException {
+    // Parse and check the options, then run the one mode they select
+        Options o;
+        try {
+            o = Options.parse(args);
+            if (o.help) {
+                System.out.print(USAGE);
+                return 0;
+            }
+            o.check();
+        } catch (IllegalArgumentException ex) {
+            System.err.print(ex.getMessage() + "\n" + USAGE);
+            return 2;
+        }
+        if (o.verify >= 0) return Verifier.main(o.verify, o.seed, o.mismatches, o.engine, o.threads);
+        if (o.encode != null) return encode(o);
+        if (o.mapped != null) {
+            try (BatchStats.Snapshots snapshots = o.stats != null ? snapshots(o.stats, o.every) : null) {
+                return mapped(Path.of(o.mapped), Path.of(o.out), o.threads, o.rounding, snapshots);
+            }
+        }
+        if (o.decode != null) {
+            try (AsciiIO.Sink w = new AsciiIO.Sink(output(o.out))) {
+                MappedBatch.decode(Path.of(o.decode), w);
+                return 0;
+            }
+        }
+        if (o.explore != null) return explore(o);
+        if (o.sweep != null) {
+            try (BufferedWriter w = new BufferedWriter(create(o.out), 1 << 16)) {
+                return sweep(o.sweep, o.points, o.rounding, w);
+            }
+        }
+        return batch(o);
+    }
+
+    static final class Options {
+        // Every command-line option, as parsed; check() then rejects combinations no mode accepts
+
+        String in, out = "-";
+        boolean trace, help;
+        int cacheEntries = 100_000;
+        long verify = -1, seed = 1;
+        int mismatches = 20, threads;
+        Verifier.Engine engine = Verifier.Engine.CORE;
+        String[] sweep;
+        Op explore;
+        String window;
+        boolean exhaustive;
+        int points = 2000;
+        Rounding rounding = Rounding.NEAREST_EVEN;
+        boolean allModes;
+        Format format = Format.BINARY64;
+        String encode, mapped, decode;
+        Kernel kernel;
+        String datapath;
+        String errors, stats;
+        long every;
+        boolean attribute;
+        Datapath dp;
+        int chunk = OperandFile.DEFAULT_CHUNK;
+        boolean cacheSet, verifyOnly, threadsSet;         // options that only --trace, --verify (or --mapped) read were given
+
+        static Options parse(String[] args) {
+            Options o = new Options();
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--batch" -> o.in = value(args, ++i);
+                    case "--out" -> o.out = value(args, ++i);
+                    case "--trace" -> o.trace = true;
+                    case "--cache" -> { o.cacheEntries = (int) Math.min(Integer.MAX_VALUE, count(value(args, ++i))); o.cacheSet = true; }
+                    case "--rounding" -> {
+                        String mode = value(args, ++i);
+                        o.allModes = mode.equalsIgnoreCase("all");
+                        if (!o.allModes) o.rounding = Rounding.parse(mode);
+                    }
+                    case "--format" -> o.format = Format.parse(value(args, ++i));
+                    case "--kernel" -> o.kernel = Kernel.compile(value(args, ++i));
+                    case "--attribute" -> o.attribute = true;
+                    case "--datapath" -> o.datapath = value(args, ++i);
+                    case "--errors" -> {
+                        o.errors = value(args, ++i).toLowerCase(Locale.ROOT);
+                        if (!o.errors.equals("fast") && !o.errors.equals("exact")) throw new IllegalArgumentException("--errors takes fast or exact");
+                    }
+                    case "--stats" -> o.stats = value(args, ++i);
+                    case "--every" -> o.every = count(value(args, ++i));
+                    case "--verify" -> o.verify = count(value(args, ++i));
+                    case "--seed" -> { o.seed = Long.parseLong(value(args, ++i)); o.verifyOnly = true; }
+                    case "--mismatches" -> { o.mismatches = (int) count(value(args, ++i)); o.verifyOnly = true; }
+                    case "--engine" -> { o.engine = Verifier.Engine.valueOf(value(args, ++i).toUpperCase(Locale.ROOT)); o.verifyOnly = true; }
+                    case "--threads" -> { o.threads = (int) count(value(args, ++i)); o.threadsSet = true; }
+                    case "--sweep" -> {
+                        o.sweep = new String[4];
+                        for (int k = 0; k < 4; k++) o.sweep[k] = value(args, ++i);
+                    }
+                    case "--explore" -> o.explore = Op.parse(value(args, ++i));
+                    case "--window" -> o.window = value(args, ++i);
+                    case "--exhaustive" -> o.exhaustive = true;
+                    case "--points" -> o.points = (int) count(value(args, ++i));
+                    case "--encode" -> o.encode = value(args, ++i);
+                    case "--chunk" -> o.chunk = OperandFile.checkChunk(count(value(args, ++i)));
+                    case "--mapped" -> o.mapped = value(args, ++i);
+                    case "--decode" -> o.decode = value(args, ++i);
+                    case "--metrics" -> { }                  // handled by main() and run()
+                    case "--help", "-h" -> o.help = true;
+                    default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+            }
+            return o;
+        }
+
+        void check() {
+            int modes = (in != null ? 1 : 0) + (verify >= 0 ? 1 : 0) + (sweep != null ? 1 : 0) + (explore != null ? 1 : 0)
+                      + (encode != null ? 1 : 0) + (mapped != null ? 1 : 0) + (decode != null ? 1 : 0);
+            if (modes == 0) throw new IllegalArgumentException("--batch, --verify, --sweep, --explore, --encode, --mapped or --decode is required");
+            if (modes > 1) throw new IllegalArgumentException("--batch, --verify, --sweep, --explore, --encode, --mapped and --decode each run alone; pick one");
+            checkStream();
+            checkMapped();
+            checkParallel();
+            checkDatapath();
+            checkStats();
+        }
+
+        private void checkStream() {
+        // --batch and its variants, and the options --sweep and --explore share with it
+            if ((window != null || exhaustive) && explore == null) throw new IllegalArgumentException("--window and --exhaustive work with --explore only");
+            if (allModes && (trace || sweep != null || mapped != null)) throw new IllegalArgumentException("--rounding all works with --batch only, without --trace");
+            if (cacheSet && (!trace || format != Format.BINARY64)) throw new IllegalArgumentException("--cache works with binary64 --trace only");
+            if (format != Format.BINARY64 && ((in == null && explore == null) || allModes)) throw new IllegalArgumentException("--format works with --batch only, without --rounding all");
+            if (kernel != null && (in == null || trace || allModes || format != Format.BINARY64)) {
+                throw new IllegalArgumentException("--kernel needs --batch, and works without --trace, --rounding all and --format");
+            }
+            if (attribute && kernel == null) throw new IllegalArgumentException("--attribute works with --kernel only");
+            if (errors != null && (in == null || kernel != null || allModes || format != Format.BINARY64)) {
+                throw new IllegalArgumentException("--errors works with binary64 --batch only, without --kernel and --rounding all");
+            }
+        }
+
+        private void checkMapped() {
+        // --encode, --mapped and --decode
+            if ((encode != null || mapped != null) && out.equals("-")) throw new IllegalArgumentException("--out <file.bin> is required");
+        }
+
+        private void checkParallel() {
+        // --verify, and the fork-join parallelism it shares with --mapped
+            if (verifyOnly && verify < 0) throw new IllegalArgumentException("--seed, --mismatches and --engine work with --verify only");
+            if (threadsSet && verify < 0 && mapped == null) throw new IllegalArgumentException("--threads works with --verify and --mapped only");
+        }
+
+        private void checkDatapath() {
+            if (datapath == null) return;
+            if (in == null || trace || kernel != null || allModes || errors != null || stats != null) {
+                throw new IllegalArgumentException("--datapath needs --batch, and works without --trace, --kernel, --rounding all, --errors and --stats");
+            }
+            dp = Datapath.parse(format, datapath);
+        }
+
+        private void checkStats() {
+            if (stats != null && (mapped == null && (in == null || kernel != null || allModes || format != Format.BINARY64))) {
+                throw new IllegalArgumentException("--stats works with binary64 --batch (without --kernel and --rounding all) or --mapped");
+            }
+            if (every > 0 && stats == null) throw new IllegalArgumentException("--every works with --stats only");
+        }
+    }
+
+    private static int encode(Options o) {
+        try {
+            long n = MappedBatch.encode(Path.of(o.encode), Path.of(o.out), o.chunk);
+            System.err.println("Encoded " + n + " records into " + o.out);
+            return 0;
+        } catch (IOException ex) {
+            System.err.println(ex.getMessage());
+            return 1;
+        }
+    }
+
+    private static int explore(Options o) throws IOException {
+        SpaceExplorer ex;
+        try {
+            ex = explorer(o.format, o.explore, o.rounding, o.window, o.exhaustive);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return 2;
+        }
+        try (BufferedWriter w = new BufferedWriter(create(o.out), 1 << 16)) {
+            long t0 = System.nanoTime();
+            ex.writeGrid(w);
+            System.err.printf("explored in %.2f s%n", (System.nanoTime() - t0) / 1e9);
+            return 0;
+        }
+    }
+
+    private static int batch(Options o) throws IOException {
+    // --batch in whichever form the options chose: kernel, datapath, every mode, another format, or binary64
+        try (InputStream is = open(o.in);
+             AsciiIO.Sink w = new AsciiIO.Sink(output(o.out));
+             BatchStats.Snapshots snapshots = o.stats != null ? snapshots(o.stats, o.every) : null) {
+            AsciiIO.Lines r = new AsciiIO.Lines(is);
+            if (o.kernel != null) return stream(r, w, o.kernel, o.rounding, o.attribute, System.err) == 0 ? 0 : 1;
+            if (o.dp != null) return stream(r, w, o.dp, o.rounding, System.err) == 0 ? 0 : 1;
+            ResultCache cache = o.trace && o.format == Format.BINARY64 ? new ResultCache(o.cacheEntries, 64L << 20) : null;
+            ErrorAnalysis analysis = o.errors != null || o.stats != null ? new ErrorAnalysis() : null;
+            long bad = o.allModes ? streamAllModes(r, w, System.err)
+                     : o.format != Format.BINARY64 ? stream(r, w, o.trace, o.rounding, o.format, System.err)
+                     : stream(r, w, o.trace, o.rounding, cache, analysis, o.errors, snapshots, System.err);
+            if (cache != null) System.err.println("cache: " + cache.stats());
+            if (o.errors != null) System.err.println("errors: " + analysis.summary());
+            return bad == 0 ? 0 : 1;
+        }
+    }
+
+    static long stream(AsciiIO.Lines r, AsciiIO.Sink w, boolean trace, Rounding mode, ResultCache cache, PrintStream err) throws IOException {
+        return stream(r, w, trace, mode, cache, null, null, null, err);
+    }
+
+    static long stream(AsciiIO.Lines r, AsciiIO.Sink w, boolean trace, Rounding mode, ResultCache cache,
+                       ErrorAnalysis analysis, String errorMode, BatchStats.Snapshots stats, PrintStream err) throws IOException {
+    // Process line by line; malformed lines are reported and skipped. Returns the number of bad lines.
+    // Traced lines go through `cache` (when not null), so repeated operand pairs skip the pipeline. With `analysis`,
+    // results come from it (the same bits) and its totals keep running; `errorMode` ("fast" or "exact")
+    // adds the error columns, and `stats` records every result and writes its periodic snapshots.
+        boolean exact = "exact".equals(errorMode);
+        if (trace && cache == null) cache = new ResultCache(0, 0);       // caching off: every line runs the pipeline
+        w.append("# op\ta_bits\tb_bits\tresult_bits\tresult" + (errorMode != null ? "\tulp_error\trel_error\tflags" : "")
+            + (trace ? "\tsteps" : "") + "\n");
+        long errors = 0;
+        while (r.next()) {
+            if (r.skip()) continue;
+            try {
+                int fields = r.split();
+                Op op = r.op(0);
+                checkArity(op, fields);
+                long a = r.operand(1);
+                long b = op.arity() > 1 ? r.operand(2) : 0;
+                long c = op.arity() > 2 ? r.operand(3) : 0;
+
+                ResultCache.Entry traced = trace ? cache.get(op, a, b, c, mode) : null;
+                long res = analysis != null ? (exact ? analysis.runExact(op, a, b, c, mode).bits() : analysis.run(op, a, b, c, mode))
+                         : trace ? traced.bits() : Simulator.compute(op, a, b, c, mode);
+
+                w.append(op.toString()).append('\t').hex(a).append('\t');
+                operandColumn(w, op, b, c).append('\t').hex(res).append('\t').value(res);
+                if (stats != null) {
+                    stats.stats().record(analysis, op, mode);
+                    stats.tick();
+                }
+                if (errorMode != null) {
+                    w.append('\t').append(analysis.ulpError()).append('\t').append(analysis.relError())
+                     .append('\t').append(ErrorAnalysis.flagNames(analysis.flags()));
+                }
+                if (trace) w.append('\t').append(traced.steps());
+                w.append('\n');
+            } catch (IllegalArgumentException ex) {
+                errors++;
+                err.println("line " + r.number() + ": " + ex.getMessage());
+            }
+        }
+        return errors;
+    }
+
+    static long stream(AsciiIO.Lines r, AsciiIO.Sink w, boolean trace, Rounding mode, Format fmt, PrintStream err) throws IOException {
+    // stream() for any other format: operands and results go through the format's own engine
+        w.append("# format: " + fmt + "\n# op\ta_bits\tb_bits\tresult_bits\tresult" + (trace ? "\tsteps" : "") + "\n");
+        long errors = 0;
+        StringBuilder line = new StringBuilder(128);
+        Trace steps = trace ? new Trace() : Trace.OFF;
+        while (r.next()) {
+            if (r.skip()) continue;
+            try {
+                int fields = r.split();
+                Op op = r.op(0);
+                checkArity(op, fields);
+                BigInteger a = parseOperand(fmt, r.field(1), mode);
+                BigInteger b = op.arity() > 1 ? parseOperand(fmt, r.field(2), mode) : BigInteger.ZERO;
+                BigInteger c = op.arity() > 2 ? parseOperand(fmt, r.field(3), mode) : BigInteger.ZERO;
+
+                BigInteger res = trace ? fmt.simulate(op, a, b, c, mode, steps) : fmt.compute(op, a, b, c, mode);
+
+                line.setLength(0);
+                line.append(op).append('\t')
+                    .append(fmt.toHex(a)).append('\t')
+                    .append(operandColumn(op, fmt.toHex(b), fmt.toHex(c))).append('\t')
+                    .append(fmt.toHex(res)).append('\t')
+                    .append(fmt.toDecimalString(res));
+                if (trace) steps.appendTo(line.append('\t'));
+                line.append('\n');
+                w.append(line);
+            } catch (IllegalArgumentException ex) {
+                errors++;
+                err.println("line " + r.number() + ": " + ex.getMessage());
+            }
+        }
+        return errors;
+    }
+
+    static long stream(AsciiIO.Lines r, AsciiIO.Sink w, Kernel kernel, Rounding mode, boolean attribute, PrintStream err) throws IOException {
+    // Stream elements through a compiled kernel. Element-wise kernels write one line per element; reductions
+    // write a single result line at the end. With `attribute`, a step table follows as comment lines.
+        int k = kernel.inputs().size();
+        Kernel.Run run = kernel.start(mode, attribute);
+        StringBuilder line = new StringBuilder(128).append("# kernel: ").append(kernel).append('\n');
+        if (!kernel.reduces()) {
+            line.append("# ");
+            for (String name : kernel.inputs()) line.append(name).append("_bits\t");
+            line.append("result_bits\tresult\n");
+        }
+        w.append(line);
+        long errors = 0;
+        long[] in = new long[k];
+        while (r.next()) {
+            if (r.skip()) continue;
+            try {
+                if (r.split() != k) throw new IllegalArgumentException("expected " + k + " values: " + String.join(" ", kernel.inputs()));
+                for (int j = 0; j < k; j++) in[j] = r.operand(j);
+                long res = run.element(in);
+                if (kernel.reduces()) continue;
+
+                for (long bits : in) w.hex(bits).append('\t');
+                w.hex(res).append('\t').value(res).append('\n');
+            } catch (IllegalArgumentException ex) {
+                errors++;
+                err.println("line " + r.number() + ": " + ex.getMessage());
+            }
+        }
+        long res = run.finish();
+        if (kernel.reduces()) {
+            w.append("# elements: ").append(run.elementCount()).append("\n# result_bits\tresult\n")
+             .hex(res).append('\t').value(res).append('\n');
+        }
+        if (attribute) {
+            w.append("# step\tmeasured\tinexact\tmean_abs_ulp\tmax_abs_ulp\tmean_ulp\n");
+            for (Kernel.StepError e : run.errors()) {
+                line.setLength(0);
+                line.append("# ").append(e.step()).append('\t').append(e.measured()).append('\t').append(e.inexact())
+                    .append('\t').append(e.meanAbsUlp()).append('\t').append(e.maxAbsUlp()).append('\t').append(e.meanUlp()).append('\n');
+                w.append(line);
+            }
+        }
+        return errors;
+    }
+
+    static long stream(AsciiIO.Lines r, AsciiIO.Sink w, Datapath dp, Rounding mode, PrintStream err) throws IOException {
+    // Every line on the datapath next to the format's correctly rounded result, and how many ulps the datapath
+    // is off; totals on `err` at the end. One Datapath serves the whole stream, so ops allocate nothing.
+        Format fmt = dp.format();
+        boolean b64 = fmt == Format.BINARY64;
+        w.append("# datapath: " + dp + "\n# op\ta_bits\tb_bits\tresult_bits\tresult\tcorrect_bits\tulps_off\n");
+        long errors = 0, ops = 0, off = 0, maxOff = 0, sumOff = 0, nanOff = 0;
+        StringBuilder line = new StringBuilder(128);
+        while (r.next()) {
+            if (r.skip()) continue;
+            try {
+                int fields = r.split();
+                Op op = r.op(0);
+                checkArity(op, fields);
+                long a = b64 ? r.operand(1) : parseOperand(fmt, r.field(1), mode).longValue();
+                long b = op.arity() < 2 ? 0 : b64 ? r.operand(2) : parseOperand(fmt, r.field(2), mode).longValue();
+                long c = op.arity() < 3 ? 0 : b64 ? r.operand(3) : parseOperand(fmt, r.field(3), mode).longValue();
+
+                long res = dp.compute(op, a, b, c, mode), want = fmt.compute(op, a, b, c, mode);
+                long ulps = dp.ulps(res, want);
+
+                ops++;
+                if (ulps != 0) {
+                    off++;
+                    if (ulps == Long.MAX_VALUE) nanOff++;
+                    else {
+                        maxOff = Math.max(maxOff, Math.abs(ulps));
+                        sumOff += Math.abs(ulps);
+                    }
+                }
+                if (b64) {
+                    w.append(op.toString()).append('\t').hex(a).append('\t');
+                    operandColumn(w, op, b, c).append('\t').hex(res).append('\t').value(res).append('\t').hex(want);
+                } else {
+                    line.setLength(0);
+                    line.append(op).append('\t').append(fmt.toHex(BigInteger.valueOf(a))).append('\t')
+                        .append(operandColumn(op, fmt.toHex(BigInteger.valueOf(b)), fmt.toHex(BigInteger.valueOf(c)))).append('\t')
+                        .append(fmt.toHex(BigInteger.valueOf(res))).append('\t')
+                        .append(fmt.toDecimalString(BigInteger.valueOf(res))).append('\t')
+                        .append(fmt.toHex(BigInteger.valueOf(want)));
+                    w.append(line);
+                }
+                w.append('\t').append(ulps == Long.MAX_VALUE ? "nan" : Long.toString(ulps)).append('\n');
+            } catch (IllegalArgumentException ex) {
+                errors++;
+                err.println("line " + r.number() + ": " + ex.getMessage());
+            }
+        }
+        err.printf("datapath: %s: %d ops, %d off correct rounding (%.4f%%), max %d ulps, mean %.4f ulps over the ops off%s%n",
+            dp, ops, off, ops == 0 ? 0.0 : 100.0 * off / ops, maxOff, off == nanOff ? 0.0 : (double) sumOff / (off - nanOff),
+            nanOff == 0 ? "" : ", " + nanOff + " NaN where the correct result is not (or the reverse)");
+        return errors;
+    }
+
+    static BatchStats.Snapshots snapshots(String file, long every) throws IOException {
+        String name = file.toLowerCase(Locale.ROOT);
+        boolean json = name.endsWith(".json") || name.endsWith(".jsonl");
+        return new BatchStats.Snapshots(new BatchStats(), new BufferedWriter(create(file), 1 << 16), json, every);
+    }
+
+    static SpaceExplorer explorer(Format format, Op op, Rounding mode, String window, boolean exhaustive) {
+    // The explorer over `window` ("lo:hi", unbiased exponents) or the format's default window
+        if (window == null) return SpaceExplorer.full(format, op, mode, exhaustive);
+        String[] lohi = window.split(":");
+        if (lohi.length != 2) throw new IllegalArgumentException("--window takes lo:hi, such as -10:10");
+        try {
+            return new SpaceExplorer(format, op, mode, Integer.parseInt(lohi[0].trim()) + format.bias,
+                Integer.parseInt(lohi[1].trim()) + format.bias, exhaustive);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--window takes lo:hi, such as -10:10");
+        }
+    }
+
+    static int mapped(Path in, Path out, int threads, Rounding mode, BatchStats.Snapshots snapshots) throws IOException {
+    // Binary batch run with a one-line summary on stderr. With `snapshots`, each chunk records into its own
+    // BatchStats, merged into the snapshot totals as the chunk finishes
+        ForkJoinPool pool = threads > 0
+            ? new ForkJoinPool(threads) : ForkJoinPool.commonPool();
+        try {
+            MappedBatch.Stats st = MappedBatch.run(in, out, pool, mode, snapshots == null ? null : chunk -> {
+                synchronized (snapshots) {
+                    snapshots.stats().merge(chunk);
+                    try {
+                        snapshots.tick();
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                }
+            });
+            double secs = st.nanos() / 1e9;
+            System.err.printf("%,d records in %d chunks (%d already done) in %.2f s, %,.0f ops/s%n",
+                st.records(), st.chunksRun(), st.chunksSkipped(), secs, secs > 0 ? st.records() / secs : 0.0);
+            return 0;
+        } finally {
+            if (pool != ForkJoinPool.commonPool()) pool.shutdown();
+        }
+    }
+
+    static long streamAllModes(AsciiIO.Lines r, AsciiIO.Sink w, PrintStream err) throws IOException {
+    // Like stream(), but every line is rounded under all modes from a single run of the op;
+    // the last two columns are the round-down and round-up results that bracket the exact value
+        Rounding[] modes = Rounding.values();
+        StringBuilder line = new StringBuilder(256).append("# op\ta_bits\tb_bits");
+        for (Rounding m : modes) line.append('\t').append(m.abbrev());
+        w.append(line).append("\tdown\tup\n");
+        long errors = 0;
+        long[] res = new long[modes.length];
+        while (r.next()) {
+            if (r.skip()) continue;
+            try {
+                int fields = r.split();
+                Op op = r.op(0);
+                checkArity(op, fields);
+                long a = r.operand(1);
+                long b = op.arity() > 1 ? r.operand(2) : 0;
+                long c = op.arity() > 2 ? r.operand(3) : 0;
+                Simulator.computeAllModes(op, a, b, c, res);
+
+                w.append(op.toString()).append('\t').hex(a).append('\t');
+                operandColumn(w, op, b, c);
+                for (long bits : res) w.append('\t').hex(bits);
+                w.append('\t').value(res[Rounding.TOWARD_NEGATIVE.ordinal()])
+                 .append('\t').value(res[Rounding.TOWARD_POSITIVE.ordinal()])
+                 .append('\n');
+            } catch (IllegalArgumentException ex) {
+                errors++;
+                err.println("line " + r.number() + ": " + ex.getMessage());
+            }
+        }
+        return errors;
+    }
+
+    static int sweep(String[] spec, int points, Rounding mode, Writer w) throws IOException {
+    // Stream the sampled error points of a sweep as CSV; the reference uses the decimals as given
+        Sweep sw;
+        try {
+            BigDecimal a = new BigDecimal(spec[1]), b = new BigDecimal(spec[2]);
+            sw = new Sweep(Op.parse(spec[0]), Double.doubleToRawLongBits(a.doubleValue()),
+                Double.doubleToRawLongBits(b.doubleValue()), a, b, count(spec[3]), points, mode);
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            return 2;
+        }
+        w.write("step,value,abs_error,ulp_error\n");
+        StringBuilder line = new StringBuilder(96);
+        try {
+            sw.run(p -> {
+                line.setLength(0);
+                line.append(p.step()).append(',').append(p.value()).append(',')
+                    .append(p.absError()).append(',').append(p.ulpError()).append('\n');
+                try {
+                    w.append(line);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        return 0;
+    }
+
+    static void checkArity(Op op, String[] f) { checkArity(op, f.length); }
+
+    static void checkArity(Op op, int fields) {
+        if (fields != 1 + op.arity()) {
+            throw new IllegalArgumentException("expected <op> <a>" + (op.arity() > 1 ? " <b>" : "") + (op.arity() > 2 ? " <c>" : ""));
+        }
+    }
+
+    static String operandColumn(Op op, String b, String c) {
+    // The b_bits column: "-" when the op has no B, "b,c" for FMA
+        return switch (op.arity()) {
+            case 1 -> "-";
+            case 2 -> b;
+            default -> b + "," + c;
+        };
+    }
+
+    static AsciiIO.Sink operandColumn(AsciiIO.Sink w, Op op, long b, long c) throws IOException {
+        return switch (op.arity()) {
+            case 1 -> w.append('-');
+            case 2 -> w.hex(b);
+            default -> w.hex(b).append(',').hex(c);
+        };
+    }
+
+    static long parseOperand(String s) {
+    // Raw bit pattern (0x and 16 hex digits, 0b and 64 binary digits), hex float or decimal; see DecimalCodec
+        return DecimalCodec.parse(s);
+    }
+
+    static BigInteger parseOperand(Format fmt, String s, Rounding mode) {
+    // Raw bits sized to the format, or a decimal rounded into it under the batch's rounding mode
+        if (s.startsWith("0x") || s.startsWith("0X")) return fmt.parseHex(s);
+        return fmt.parseDecimal(s, mode);
+    }
+
+    static String hex(long bits) {
+        byte[] b = new byte[18];
+        DecimalCodec.hex(bits, b, 0);
+        return new String(b, StandardCharsets.ISO_8859_1);
+    }
+
+    static long count(String s) {
+    // Non-negative count; accepts underscores and scientific notation ("1_000_000", "2e9")
+        try {
+            long n = new BigDecimal(s.replace("_", "")).longValueExact();
+            if (n < 0) throw new IllegalArgumentException("Count must not be negative: " + s);
+            return n;
+        } catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Not a whole number: " + s);
+        }
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) throw new IllegalArgumentException("Missing value for " + args[i - 1]);
+        return args[i];
+    }
+
+    private static InputStream open(String path) throws IOException {
+        if (path.equals("-")) return System.in;
+        return Files.newInputStream(Path.of(path));
+    }
+
+    private static OutputStream output(String path) throws IOException {
+        if (path.equals("-")) return System.out;
+        return Files.newOutputStream(Path.of(path));
+    }
+
+    private static Writer create(String path) throws IOException {
+        return new OutputStreamWriter(output(path), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,109 @@
+package errorexplorer;
+
+import java.util.Objects;
+
+public final class BatchSimulator {
+    // Array-at-a-time simulation: one op over whole operand columns, no per-element objects.
+    // Add and sub use the Vector API kernels when jdk.incubator.vector is available
+    // (run with --add-modules jdk.incubator.vector); otherwise, and for mul/div, a scalar
+    // Binary64Core loop. The Vector API has no 64x64->128 lane multiply, so mul/div (and sqrt, fma) stay scalar.
+    // The vector kernels round to nearest even; other rounding modes take the scalar loop.
+
+    private static final boolean VECTOR = !"false".equals(System.getProperty("errorexplorer.vector"))
+        && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    private BatchSimulator() {}
+
+    public static boolean vectorized() { return VECTOR; }
+
+    public static void compute(Op op, long[] a, long[] b, long[] out) {
+        checkLengths(a.length, b.length, out.length);
+        compute(op, a, b, out, 0, a.length);
+    }
+
+    public static void compute(Op op, long[] a, long[] b, long[] out, int from, int to) {
+        compute(op, Rounding.NEAREST_EVEN, a, b, out, from, to);
+    }
+
+    public static void compute(Op op, Rounding mode, long[] a, long[] b, long[] out, int from, int to) {
+    // out[i] = a[i] op b[i] for i in [from, to), rounded under `mode`; out may be the same array as a or b
+        Objects.requireNonNull(op, "op");
+        Objects.requireNonNull(mode, "mode");
+        Objects.checkFromToIndex(from, to, Math.min(a.length, Math.min(b.length, out.length)));
+        if (VECTOR && (op == Op.ADD || op == Op.SUB) && mode == Rounding.NEAREST_EVEN) {
+            VectorKernels.addOrSub(a, b, out, from, to, op == Op.SUB);
+            return;
+        }
+        switch (op) {
+            case ADD -> { for (int i = from; i < to; i++) out[i] = Binary64Core.addOrSub(a[i], b[i], false, mode); }
+            case SUB -> { for (int i = from; i < to; i++) out[i] = Binary64Core.addOrSub(a[i], b[i], true, mode); }
+            case MUL -> { for (int i = from; i < to; i++) out[i] = Binary64Core.multiply(a[i], b[i], mode); }
+            case DIV -> { for (int i = from; i < to; i++) out[i] = Binary64Core.divide(a[i], b[i], mode); }
+            case SQRT -> { for (int i = from; i < to; i++) out[i] = Binary64Core.sqrt(a[i], mode); }
+            case FMA -> throw new IllegalArgumentException("FMA takes three operand columns");
+        }
+    }
+
+    public static void fma(Rounding mode, long[] a, long[] b, long[] c, long[] out, int from, int to) {
+    // out[i] = a[i] * b[i] + c[i] with a single rounding under `mode`
+        Objects.requireNonNull(mode, "mode");
+        Objects.checkFromToIndex(from, to, Math.min(Math.min(a.length, b.length), Math.min(c.length, out.length)));
+        for (int i = from; i < to; i++) out[i] = Binary64Core.fma(a[i], b[i], c[i], mode);
+    }
+
+    public static void computeAllModes(Op op, long[] a, long[] b, long[][] out, int from, int to) {
+    // out[mode.ordinal()][i] = a[i] op b[i] under every rounding mode, each op run once.
+    // out[TOWARD_NEGATIVE] and out[TOWARD_POSITIVE] bracket the exact result.
+        Objects.requireNonNull(op, "op");
+        Rounding[] modes = Rounding.values();
+        if (out.length < modes.length) throw new IllegalArgumentException("Need one output column per rounding mode");
+        int n = Math.min(a.length, b.length);
+        for (long[] column : out) n = Math.min(n, column.length);
+        Objects.checkFromToIndex(from, to, n);
+        long[] row = new long[modes.length];
+        for (int i = from; i < to; i++) {
+            Binary64Core.allModes(op, a[i], b[i], row, 0);
+            for (int m = 0; m < row.length; m++) out[m][i] = row[m];
+        }
+    }
+
+    public static void compute(Format fmt, Op op, Rounding mode, int[] a, int[] b, int[] out, int from, int to) {
+    // Formats up to 32 bits wide (binary16, bfloat16, binary32, ...): bit patterns in the low bits of each int
+        Objects.requireNonNull(op, "op");
+        Objects.requireNonNull(mode, "mode");
+        if (fmt.narrow == null) throw new IllegalArgumentException(fmt + " is wider than 32 bits");
+        Objects.checkFromToIndex(from, to, Math.min(a.length, Math.min(b.length, out.length)));
+        NarrowCore core = fmt.narrow;
+        switch (op) {
+            case ADD -> { for (int i = from; i < to; i++) out[i] = core.addOrSub(a[i], b[i], false, mode); }
+            case SUB -> { for (int i = from; i < to; i++) out[i] = core.addOrSub(a[i], b[i], true, mode); }
+            case MUL -> { for (int i = from; i < to; i++) out[i] = core.multiply(a[i], b[i], mode); }
+            case DIV -> { for (int i = from; i < to; i++) out[i] = core.divide(a[i], b[i], mode); }
+            case SQRT -> { for (int i = from; i < to; i++) out[i] = (int) fmt.compute(op, a[i] & 0xFFFF_FFFFL, 0, 0, mode); }
+            case FMA -> throw new IllegalArgumentException("FMA takes three operand columns");
+        }
+    }
+
+    public static void compute(Op op, double[] a, double[] b, double[] out) {
+        checkLengths(a.length, b.length, out.length);
+        compute(op, a, b, out, 0, a.length);
+    }
+
+    public static void compute(Op op, double[] a, double[] b, double[] out, int from, int to) {
+    // Same as the long[] form, on double columns (the simulated result, not the hardware one)
+        Objects.requireNonNull(op, "op");
+        Objects.checkFromToIndex(from, to, Math.min(a.length, Math.min(b.length, out.length)));
+        if (VECTOR && (op == Op.ADD || op == Op.SUB)) {
+            VectorKernels.addOrSub(a, b, out, from, to, op == Op.SUB);
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            long r = Simulator.compute(op, Double.doubleToRawLongBits(a[i]), Double.doubleToRawLongBits(b[i]));
+            out[i] = Double.longBitsToDouble(r);
+        }
+    }
+
+    private static void checkLengths(int a, int b, int out) {
+        if (a != b || a != out) throw new IllegalArgumentException("Arrays differ in length: " + a + ", " + b + ", " + out);
+    }
+}
@@ -0,0 +1,244 @@
+package errorexplorer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+public final class BatchStats {
+    // Fixed-memory distribution of rounding outcomes over a batch, fed one op at a time from the
+    // Binary64Core status word (see ErrorAnalysis.status()):
+    //   rounding  how the final rounding went, by G/R/S pattern: exact, or truncated / incremented in magnitude
+    //   align     add, sub and fma: exponent difference the smaller operand was shifted across (64 = 64 or more)
+    //   norm      per op: how far the leading bit moved (+1 carry out, -k for k cancelled bits, "cancelled" for
+    //             an exact zero)
+    //   ulp       signed ulp error, in a Histogram to within 1/32 of a value
+    //   flags     IEEE-754 exceptions raised
+    // Memory does not grow with the batch. Not thread-safe: keep one per thread (or per chunk of work) and
+    // merge() them, so recording never contends. Snapshots write it as CSV rows or one JSON line.
+
+    private static final Op[] OPS = Op.values();
+    private static final ErrorAnalysis.Flag[] FLAGS = ErrorAnalysis.Flag.values();
+    private static final int ALIGN_BUCKETS = 65, NORM_BUCKETS = 256;
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+    private static final String[] QUANTILE_LABELS = { "p50", "p90", "p99", "p999" };
+
+    public static final String CSV_HEADER = "ops,metric,op,bin,value\n";
+
+    private long ops, unmeasured, overflowed, special;
+    private final long[] opCounts = new long[OPS.length];
+    private final long[] flagCounts = new long[FLAGS.length];
+    private final long[] rounding = new long[16];             // grs << 1 | incremented
+    private final long[][] align = new long[OPS.length][ALIGN_BUCKETS];
+    private final long[][] norm = new long[OPS.length][NORM_BUCKETS]; // norm + 128
+    private final Histogram ulp = new Histogram(-30, 64, 5);
+
+    public void record(Op op, Rounding mode, long status, double ulpError, int flags) {
+    // One op: its status word, its ulp error (NaN when it has none) and its ErrorAnalysis flag bits
+        ops++;
+        opCounts[op.ordinal()]++;
+        for (int k = 0; k < FLAGS.length; k++) flagCounts[k] += flags >>> k & 1;
+        if (Binary64Core.overflowed(status, mode)) {
+            overflowed++;                                   // out of range before rounding, or carried there by it
+        } else if (status == 0) {
+            special++; // decided without rounding: NaN, infinity or zero operands
+        } else {
+            int grs = (int) (status & Binary64Core.STATUS_GRS);
+            rounding[grs << 1 | (int) (status >>> (Binary64Core.STATUS_UP_SHIFT + mode.ordinal()) & 1)]++;
+        }
+        if ((status & Binary64Core.STATUS_SHAPED) != 0) {
+            if (op == Op.ADD || op == Op.SUB || op == Op.FMA) align[op.ordinal()][Math.min(Binary64Core.align(status), ALIGN_BUCKETS - 1)]++;
+            norm[op.ordinal()][Binary64Core.norm(status) + 128]++;
+        }
+        if (Double.isNaN(ulpError)) unmeasured++;
+        else ulp.record(ulpError);
+    }
+
+    public void record(ErrorAnalysis analysis, Op op, Rounding mode) {
+    // The op `analysis` just ran
+        record(op, mode, analysis.status(), analysis.ulpError(), analysis.flags());
+    }
+
+    public void merge(BatchStats other) {
+        ops += other.ops;
+        unmeasured += other.unmeasured;
+        overflowed += other.overflowed;
+        special += other.special;
+        add(opCounts, other.opCounts);
+        add(flagCounts, other.flagCounts);
+        add(rounding, other.rounding);
+        for (int o = 0; o < OPS.length; o++) {
+            add(align[o], other.align[o]);
+            add(norm[o], other.norm[o]);
+        }
+        ulp.merge(other.ulp);
+    }
+
+    private static void add(long[] into, long[] from) {
+        for (int i = 0; i < into.length; i++) into[i] += from[i];
+    }
+
+    public long ops() { return ops; }
+
+    public long overflowed() { return overflowed; }
+
+    public long special() { return special; }
+
+    public long count(Op op) { return opCounts[op.ordinal()]; }
+
+    public long count(ErrorAnalysis.Flag f) { return flagCounts[f.ordinal()]; }
+
+    public long rounded(int grs, boolean incremented) { return rounding[grs << 1 | (incremented ? 1 : 0)]; }
+
+    public long aligned(Op op, int shift) { return align[op.ordinal()][Math.min(shift, ALIGN_BUCKETS - 1)]; }
+
+    public long normalized(Op op, int move) { return norm[op.ordinal()][move + 128]; }
+
+    public Histogram ulpErrors() { return ulp; }
+
+    // Snapshots: every row and line carries the op count it was taken at
+
+    public void writeCsv(Appendable out) throws IOException {
+    // Rows of CSV_HEADER's columns; bin is a label such as "101:up", "64+", "-3", "0.125..0.12890625" or "p99"
+        StringBuilder b = new StringBuilder(4096);
+        Row row = (metric, op, bin, value) -> b.append(ops).append(',').append(metric).append(',')
+            .append(op).append(',').append(bin).append(',').append(value).append('\n');
+        row.put("ops", "*", "total", ops);
+        row.put("ops", "*", "overflowed", overflowed);
+        row.put("ops", "*", "special", special);
+        row.put("ops", "*", "unmeasured", unmeasured);
+        for (Op o : OPS) if (opCounts[o.ordinal()] != 0) row.put("ops", o.toString(), "total", opCounts[o.ordinal()]);
+        for (ErrorAnalysis.Flag f : FLAGS) row.put("flag", "*", ErrorAnalysis.flagNames(f.bit()), count(f));
+        for (int i = 0; i < rounding.length; i++) if (rounding[i] != 0) row.put("rounding", "*", roundingLabel(i), rounding[i]);
+        for (Op o : OPS) {
+            long[] a = align[o.ordinal()], n = norm[o.ordinal()];
+            for (int i = 0; i < a.length; i++) if (a[i] != 0) row.put("align", o.toString(), alignLabel(i), a[i]);
+            for (int i = 0; i < n.length; i++) if (n[i] != 0) row.put("norm", o.toString(), normLabel(i), n[i]);
+        }
+        for (int q = 0; q < QUANTILES.length; q++) row.put("ulp", "*", QUANTILE_LABELS[q], ulp.quantile(QUANTILES[q]));
+        row.put("ulp", "*", "mean", ulp.mean());
+        row.put("ulp", "*", "min", ulp.min());
+        row.put("ulp", "*", "max", ulp.max());
+        ulp.forEachBucket((low, high, count) -> row.put("ulp", "*", low + ".." + high, count));
+        out.append(b);
+    }
+
+    private interface Row {
+        void put(String metric, String op, String bin, Object value);
+    }
+
+    public void writeJson(Appendable out) throws IOException {
+    // One JSON object on one line (JSON Lines), with the same content as writeCsv
+        StringBuilder b = new StringBuilder(4096);
+        b.append("{\"ops\":").append(ops).append(",\"overflowed\":").append(overflowed)
+         .append(",\"special\":").append(special).append(",\"unmeasured\":").append(unmeasured).append(",\"by_op\":{");
+        String sep = "";
+        for (Op o : OPS) {
+            if (opCounts[o.ordinal()] == 0) continue;
+            b.append(sep).append('"').append(o).append("\":").append(opCounts[o.ordinal()]);
+            sep = ",";
+        }
+        b.append("},\"flags\":{");
+        for (ErrorAnalysis.Flag f : FLAGS) b.append(f.ordinal() == 0 ? "" : ",").append('"').append(ErrorAnalysis.flagNames(f.bit())).append("\":").append(count(f));
+        b.append("},\"rounding\":{");
+        sep = "";
+        for (int i = 0; i < rounding.length; i++) {
+            if (rounding[i] == 0) continue;
+            b.append(sep).append('"').append(roundingLabel(i)).append("\":").append(rounding[i]);
+            sep = ",";
+        }
+        b.append('}');
+        perOp(b, "align", align, BatchStats::alignLabel);
+        perOp(b, "norm", norm, BatchStats::normLabel);
+        b.append(",\"ulp\":{\"count\":").append(ulp.count()).append(",\"mean\":").append(json(ulp.mean()))
+         .append(",\"min\":").append(json(ulp.min())).append(",\"max\":").append(json(ulp.max()));
+        for (int q = 0; q < QUANTILES.length; q++) b.append(",\"").append(QUANTILE_LABELS[q]).append("\":").append(json(ulp.quantile(QUANTILES[q])));
+        b.append(",\"buckets\":[");
+        int mark = b.length();
+        ulp.forEachBucket((low, high, count) -> b.append(b.length() == mark ? "" : ",")
+            .append('[').append(json(low)).append(',').append(json(high)).append(',').append(count).append(']'));
+        out.append(b.append("]}}\n"));
+    }
+
+    private interface Label {
+        String of(int bucket);
+    }
+
+    private static void perOp(StringBuilder b, String name, long[][] table, Label label) {
+        b.append(",\"").append(name).append("\":{");
+        String opSep = "";
+        for (Op o : OPS) {
+            long[] t = table[o.ordinal()];
+            String sep = "";
+            for (int i = 0; i < t.length; i++) {
+                if (t[i] == 0) continue;
+                if (sep.isEmpty()) b.append(opSep).append('"').append(o).append("\":{");
+                b.append(sep).append('"').append(label.of(i)).append("\":").append(t[i]);
+                sep = ",";
+            }
+            if (!sep.isEmpty()) {
+                b.append('}');
+                opSep = ",";
+            }
+        }
+        b.append('}');
+    }
+
+    private static String json(double v) { return Double.isFinite(v) ? Double.toString(v) : "null"; }
+
+    private static String roundingLabel(int i) {
+        int grs = i >> 1;
+        return "" + (grs >> 2) + (grs >> 1 & 1) + (grs & 1) + (grs == 0 ? ":exact" : (i & 1) != 0 ? ":up" : ":down");
+    }
+
+    private static String alignLabel(int i) { return i == ALIGN_BUCKETS - 1 ? (ALIGN_BUCKETS - 1) + "+" : Integer.toString(i); }
+
+    private static String normLabel(int i) {
+        int move = i - 128;
+        return move == Binary64Core.STATUS_CANCELLED ? "cancelled" : move > 0 ? "+" + move : Integer.toString(move);
+    }
+
+    public static final class Snapshots implements Closeable {
+        // Writes `stats` to `out` every `every` ops (0: only at the end) and once more when closed;
+        // as CSV rows under one header, or as one JSON line per snapshot
+        private final BatchStats stats;
+        private final Writer out;
+        private final boolean json;
+        private final long every;
+        private long next, written = -1;
+
+        public Snapshots(BatchStats stats, Writer out, boolean json, long every) throws IOException {
+            this.stats = stats;
+            this.out = out;
+            this.json = json;
+            this.every = every;
+            next = every > 0 ? every : Long.MAX_VALUE;
+            if (!json) out.write(CSV_HEADER);
+        }
+
+        public BatchStats stats() { return stats; }
+
+        public void tick() throws IOException {
+        // Call after recording; writes a snapshot each time another `every` ops have been recorded
+            if (stats.ops >= next) {
+                write();
+                next = (stats.ops / every + 1) * every;
+            }
+        }
+
+        private void write() throws IOException {
+            if (json) stats.writeJson(out);
+            else stats.writeCsv(out);
+            out.flush();
+            written = stats.ops;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (written != stats.ops) write();
+            } finally {
+                out.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package errorexplorer;
+
+import java.math.BigInteger;
+
+final class Binary128Core {
+    // Allocation-free binary128 arithmetic with every 128-bit quantity held as a (hi, lo) pair of longs.
+    // Same pipeline and rounding kernel as Binary64Core; results go to out[off] (hi) and out[off + 1] (lo).
+    // Mantissas are 113 bits, 116 with GRS attached. Multiply builds the 226-bit product from four
+    // 64x64 limb products; divide is long division in 14-bit digits estimated with a double.
+
+    static final int FRAC_BITS = 112;
+    static final int EXP_BIAS  = 16383;
+    static final int EXP_MAX   = 0x7FFF;
+    static final int EXT_BITS  = 3;                           // guard, round, sticky
+
+    private static final int HI_FRAC_BITS = FRAC_BITS - 64;   // fraction bits in the hi word: 48
+    private static final long SIGN_MASK = 0x8000000000000000L;
+    private static final long HI_FRAC_MASK = (1L << HI_FRAC_BITS) - 1;
+    private static final long HIDDEN_HI = 1L << HI_FRAC_BITS;
+    private static final long POS_INF_HI = (long) EXP_MAX << HI_FRAC_BITS;
+    private static final long QNAN_HI = POS_INF_HI | 1L << (HI_FRAC_BITS - 1); // same quiet NaN the String path returns
+    private static final int TOP = FRAC_BITS + EXT_BITS;     // leading 1 of [113 main | 3 GRS]: 115
+    private static final int MIN_EXP = 1 - EXP_BIAS;
+
+    private Binary128Core() {}
+
+    static void compute(Op op, long aHi, long aLo, long bHi, long bLo, Rounding mode, long[] out, int off) {
+        switch (op) {
+            case ADD -> addOrSub(aHi, aLo, bHi, bLo, false, mode, out, off);
+            case SUB -> addOrSub(aHi, aLo, bHi, bLo, true, mode, out, off);
+            case MUL -> multiply(aHi, aLo, bHi, bLo, mode, out, off);
+            case DIV -> divide(aHi, aLo, bHi, bLo, mode, out, off);
+            case SQRT -> {                                        // no quad square root yet: the pipeline
+                BigInteger r = Format.BINARY128.simulate(op, Format.join(aHi, aLo), BigInteger.ZERO, mode, Trace.OFF);
+                out[off] = Format.hi(r);
+                out[off + 1] = r.longValue();
+            }
+            case FMA -> throw new IllegalArgumentException("FMA takes three operands");
+        }
+    }
+
+    static void addOrSub(long aHi, long aLo, long bHi, long bLo, boolean subtractB, Rounding mode, long[] out, int off) {
+    // Exponent alignment with sticky, signed-magnitude add/sub, then pack
+        if (subtractB) bHi ^= SIGN_MASK;
+        int eA = biasedExp(aHi), eB = biasedExp(bHi);
+        if (eA == EXP_MAX || eB == EXP_MAX) { specialsAddLike(aHi, aLo, bHi, bLo, out, off); return; }
+
+        int sA = (int) (aHi >>> 63), sB = (int) (bHi >>> 63);
+        long mAHi = aHi & HI_FRAC_MASK, mALo = aLo, mBHi = bHi & HI_FRAC_MASK, mBLo = bLo;
+
+        // Zeros: x + 0 = x, and +0 + -0 = +0 (-0 when rounding toward -infinity)
+        boolean aZero = eA == 0 && (mAHi | mALo) == 0, bZero = eB == 0 && (mBHi | mBLo) == 0;
+        if (aZero && bZero) {
+            if (sA == sB) set(out, off, aHi, aLo);
+            else set(out, off, signedZero(mode.exactZeroSign()), 0);
+            return;
+        }
+        if (aZero) { set(out, off, bHi, bLo); return; }
+        if (bZero) { set(out, off, aHi, aLo); return; }
+
+        // Attach the hidden 1 for normals; subnormals use the minimum exponent
+        if (eA != 0) mAHi |= HIDDEN_HI; else eA = 1;
+        if (eB != 0) mBHi |= HIDDEN_HI; else eB = 1;
+
+        // Order by magnitude so subtraction never goes negative
+        if (eA < eB || (eA == eB && compare(mAHi, mALo, mBHi, mBLo) < 0)) {
+            int te = eA; eA = eB; eB = te;
+            long t = mAHi; mAHi = mBHi; mBHi = t;
+            t = mALo; mALo = mBLo; mBLo = t;
+            int ts = sA; sA = sB; sB = ts;
+        }
+
+        // Attach GRS, then align B (right-shift with sticky)
+        long aAccHi = shlHi(mAHi, mALo, EXT_BITS), aAccLo = mALo << EXT_BITS;
+        long bHi3 = shlHi(mBHi, mBLo, EXT_BITS), bLo3 = mBLo << EXT_BITS;
+        int d = eA - eB;
+        long bAccHi = shrHi(bHi3, bLo3, d), bAccLo = shrLo(bHi3, bLo3, d) | (lost(bHi3, bLo3, d) ? 1 : 0);
+
+        long resHi, resLo;
+        if (sA == sB) {
+            resLo = aAccLo + bAccLo;
+            resHi = aAccHi + bAccHi + (Long.compareUnsigned(resLo, aAccLo) < 0 ? 1 : 0);
+        } else {
+            resLo = aAccLo - bAccLo;
+            resHi = aAccHi - bAccHi - (Long.compareUnsigned(aAccLo, bAccLo) < 0 ? 1 : 0);
+            if ((resHi | resLo) == 0) { set(out, off, signedZero(mode.exactZeroSign()), 0); return; } // exact cancellation
+        }
+        pack(sA, eA - EXP_BIAS, resHi, resLo, mode, out, off);
+    }
+
+    static void multiply(long aHi, long aLo, long bHi, long bLo, Rounding mode, long[] out, int off) {
+    // 113x113 -> 226-bit product from four limb products, top bits kept with sticky
+        int sign = (int) ((aHi ^ bHi) >>> 63);
+        int eA = biasedExp(aHi), eB = biasedExp(bHi);
+        long fAHi = aHi & HI_FRAC_MASK, fBHi = bHi & HI_FRAC_MASK;
+
+        // Specials
+        if (isNaN(eA, fAHi, aLo) || isNaN(eB, fBHi, bLo)) { set(out, off, QNAN_HI, 0); return; }
+        boolean aZero = eA == 0 && (fAHi | aLo) == 0, bZero = eB == 0 && (fBHi | bLo) == 0;
+        boolean aInf = eA == EXP_MAX, bInf = eB == EXP_MAX;
+        if ((aInf && bZero) || (bInf && aZero)) { set(out, off, QNAN_HI, 0); return; }
+        if (aInf || bInf) { set(out, off, inf(sign), 0); return; }
+        if (aZero || bZero) { set(out, off, signedZero(sign), 0); return; }
+
+        int nA = normalizeShift(eA, fAHi, aLo), nB = normalizeShift(eB, fBHi, bLo);
+        long mAHi = mantissaHi(eA, fAHi, aLo, nA), mALo = shlLo(aLo, nA);
+        long mBHi = mantissaHi(eB, fBHi, bLo, nB), mBLo = shlLo(bLo, nB);
+        int xA = unbiasedExp(eA, nA), xB = unbiasedExp(eB, nB);
+
+        // Limb products; the hi words are below 2^49 so mAHi * mBHi stays below 2^98
+        long p0 = mALo * mBLo,  u1 = unsignedMultiplyHigh(mALo, mBLo);
+        long v0 = mALo * mBHi,  v1 = unsignedMultiplyHigh(mALo, mBHi);
+        long w0 = mAHi * mBLo,  w1 = unsignedMultiplyHigh(mAHi, mBLo);
+        long x0 = mAHi * mBHi,  x1 = Math.multiplyHigh(mAHi, mBHi);
+
+        // Column sums with carries: product = p3:p2:p1:p0, in [2^224, 2^226)
+        long p1 = u1 + v0;
+        long c = Long.compareUnsigned(p1, u1) < 0 ? 1 : 0;
+        long t = p1 + w0;
+        c += Long.compareUnsigned(t, p1) < 0 ? 1 : 0;
+        p1 = t;
+        long p2 = v1 + w1;
+        long c2 = Long.compareUnsigned(p2, v1) < 0 ? 1 : 0;
+        t = p2 + x0;
+        c2 += Long.compareUnsigned(t, p2) < 0 ? 1 : 0;
+        p2 = t + c;
+        c2 += Long.compareUnsigned(p2, t) < 0 ? 1 : 0;
+        long p3 = x1 + c2;
+
+        // Keep product >> 108 (117..118 bits) and fold the low 108 bits into sticky
+        long mHi = (p3 << 20) | (p2 >>> 44);
+        long mLo = (p2 << 20) | (p1 >>> 44);
+        if (p0 != 0 || (p1 & ((1L << 44) - 1)) != 0) mLo |= 1;
+        pack(sign, xA + xB - 1, mHi, mLo, mode, out, off);
+    }
+
+    static void divide(long aHi, long aLo, long bHi, long bLo, Rounding mode, long[] out, int off) {
+    // Long division to a 117-bit quotient; the remainder becomes sticky
+        int sign = (int) ((aHi ^ bHi) >>> 63);
+        int eA = biasedExp(aHi), eB = biasedExp(bHi);
+        long fAHi = aHi & HI_FRAC_MASK, fBHi = bHi & HI_FRAC_MASK;
+
+        // Specials
+        if (isNaN(eA, fAHi, aLo) || isNaN(eB, fBHi, bLo)) { set(out, off, QNAN_HI, 0); return; }
+        boolean aZero = eA == 0 && (fAHi | aLo) == 0, bZero = eB == 0 && (fBHi | bLo) == 0;
+        boolean aInf = eA == EXP_MAX, bInf = eB == EXP_MAX;
+        if ((aInf && bInf) || (aZero && bZero)) { set(out, off, QNAN_HI, 0); return; }
+        if (aInf || bZero) { set(out, off, inf(sign), 0); return; }
+        if (bInf || aZero) { set(out, off, signedZero(sign), 0); return; }
+
+        int nA = normalizeShift(eA, fAHi, aLo), nB = normalizeShift(eB, fBHi, bLo);
+        long rHi = mantissaHi(eA, fAHi, aLo, nA), rLo = shlLo(aLo, nA);
+        long dHi = mantissaHi(eB, fBHi, bLo, nB), dLo = shlLo(bLo, nB);
+        int xA = unbiasedExp(eA, nA), xB = unbiasedExp(eB, nB);
+
+        // q = floor(mA * 2^116 / mB): the leading bit, then 14-bit digits. Each digit comes from the shifted
+        // remainder times a double reciprocal of mB, which is off by at most one and fixed up right after;
+        // the remainder stays below mB < 2^113, so shifting it left by 14 never overflows
+        long qHi = 0, qLo = 0;
+        if (compare(rHi, rLo, dHi, dLo) >= 0) {
+            long lo = rLo - dLo;
+            rHi = rHi - dHi - (Long.compareUnsigned(rLo, dLo) < 0 ? 1 : 0);
+            rLo = lo;
+            qLo = 1;
+        }
+        double recip = 1 / approx(dHi, dLo);
+        for (int done = 0; done < 116; ) {
+            int k = Math.min(14, 116 - done);
+            rHi = (rHi << k) | (rLo >>> (64 - k));
+            rLo <<= k;
+            long digit = Math.min((long) (approx(rHi, rLo) * recip), (1L << k) - 1);
+
+            // r -= digit * mB
+            long pLo = dLo * digit, pHi = dHi * digit + unsignedMultiplyHigh(dLo, digit);
+            long lo = rLo - pLo;
+            rHi = rHi - pHi - (Long.compareUnsigned(rLo, pLo) < 0 ? 1 : 0);
+            rLo = lo;
+            if (rHi < 0) {                                 // digit one too high
+                lo = rLo + dLo;
+                rHi = rHi + dHi + (Long.compareUnsigned(lo, rLo) < 0 ? 1 : 0);
+                rLo = lo;
+                digit--;
+            } else if (compare(rHi, rLo, dHi, dLo) >= 0) { // digit one too low
+                lo = rLo - dLo;
+                rHi = rHi - dHi - (Long.compareUnsigned(rLo, dLo) < 0 ? 1 : 0);
+                rLo = lo;
+                digit++;
+            }
+            qHi = (qHi << k) | (qLo >>> (64 - k));
+            qLo = (qLo << k) | digit;
+            done += k;
+        }
+        if ((rHi | rLo) != 0) qLo |= 1;
+        pack(sign, xA - xB - 1, qHi, qLo, mode, out, off);
+    }
+
+    // Packing with final normalization and G/R/S rounding under the selected mode
+
+    static void pack(int sign, int unbiasedExp, long mHi, long mLo, Rounding mode, long[] out, int off) {
+    // Value is (mHi:mLo) * 2^(unbiasedExp - 115); normalize, round once, and assemble the bits
+        if ((mHi | mLo) == 0) { set(out, off, signedZero(sign), 0); return; }
+
+        // Normalize so the leading 1 sits at bit 115, keeping shifted-out bits as sticky
+        int lead = mHi != 0 ? 127 - Long.numberOfLeadingZeros(mHi) : 63 - Long.numberOfLeadingZeros(mLo);
+        int shift = lead - TOP;
+        if (shift > 0) {
+            boolean sticky = lost(mHi, mLo, shift);
+            long hi = shrHi(mHi, mLo, shift);
+            mLo = shrLo(mHi, mLo, shift) | (sticky ? 1 : 0);
+            mHi = hi;
+        } else if (shift < 0) {
+            mHi = shlHi(mHi, mLo, -shift);
+            mLo = shlLo(mLo, -shift);
+        }
+        int eField = unbiasedExp + shift + EXP_BIAS;
+
+        if (eField >= EXP_MAX) { // overflow before rounding
+            if (mode.overflowsToInfinity(sign)) set(out, off, inf(sign), 0);
+            else set(out, off, (POS_INF_HI - 1) | ((long) sign << 63), -1L);
+            return;
+        }
+        if (eField <= 0) {
+            // Subnormal: denormalize first so the single rounding step lands on 112 bits
+            int k = 1 - eField;
+            boolean sticky = lost(mHi, mLo, k);
+            long hi = shrHi(mHi, mLo, k);
+            mLo = shrLo(mHi, mLo, k) | (sticky ? 1 : 0);
+            mHi = hi;
+            eField = 1;
+        }
+
+        // As in Binary64Core: main keeps the hidden 1, so adding (eField - 1) to the hi word
+        // gives the truncated magnitude, and one ulp up carries through the exponent
+        int grs = (int) mLo & 0b111;
+        long lo = shrLo(mHi, mLo, EXT_BITS);
+        long hi = ((long) (eField - 1) << HI_FRAC_BITS) + (mHi >>> EXT_BITS);
+        int up = Rounding.incrementMask(sign, (lo & 1) != 0, grs) >>> mode.ordinal() & 1;
+        lo += up;
+        if (up != 0 && lo == 0) hi++;
+        set(out, off, hi | ((long) sign << 63), lo);
+    }
+
+    // Conversions to and from binary64
+
+    static void fromDouble(double x, long[] out, int off) {
+    // Exact: every double is a binary128 value
+        long bits = Double.doubleToRawLongBits(x);
+        int sign = (int) (bits >>> 63);
+        int e = (int) (bits >>> 52) & 0x7FF;
+        long f = bits & Binary64Core.FRAC_MASK;
+        if (e == 0x7FF) { set(out, off, f != 0 ? QNAN_HI : inf(sign), 0); return; }
+        if (e == 0 && f == 0) { set(out, off, signedZero(sign), 0); return; }
+        long m = e != 0 ? f | Binary64Core.HIDDEN : f;
+        int x64 = (e != 0 ? e : 1) - Binary64Core.EXP_BIAS;
+        // value = m * 2^(x - 52) = m * 2^(exp - 115)
+        pack(sign, x64 + 63, 0, m, Rounding.NEAREST_EVEN, out, off);
+    }
+
+    static double toDouble(long hi, long lo) {
+    // Rounded to nearest even
+        int sign = (int) (hi >>> 63), e = biasedExp(hi);
+        long fHi = hi & HI_FRAC_MASK;
+        if (e == EXP_MAX) return (fHi | lo) != 0 ? Double.NaN : (sign != 0 ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY);
+        if (e == 0 && (fHi | lo) == 0) return sign != 0 ? -0.0 : 0.0;
+        long mHi = e != 0 ? fHi | HIDDEN_HI : fHi;
+        int x = (e != 0 ? e : 1) - EXP_BIAS;
+        // Keep the top 63 of the 113 mantissa bits, the rest as sticky: value = m * 2^(x - 62) = m * 2^(exp - 55)
+        long m = shrLo(mHi, lo, 50) | (lost(mHi, lo, 50) ? 1 : 0);
+        return Double.longBitsToDouble(Binary64Core.pack(sign, x - 7, m));
+    }
+
+    // 128-bit helpers on (hi, lo) pairs
+
+    static int compare(long aHi, long aLo, long bHi, long bLo) {
+        int c = Long.compareUnsigned(aHi, bHi);
+        return c != 0 ? c : Long.compareUnsigned(aLo, bLo);
+    }
+
+    static long shrHi(long hi, long lo, int k) {
+        if (k == 0) return hi;
+        return k < 64 ? hi >>> k : 0;
+    }
+
+    static long shrLo(long hi, long lo, int k) {
+        if (k == 0) return lo;
+        if (k < 64) return (lo >>> k) | (hi << (64 - k));
+        return k < 128 ? hi >>> (k - 64) : 0;
+    }
+
+    static boolean lost(long hi, long lo, int k) {
+    // Whether any of the k low bits shifted out by a right shift are nonzero
+        if (k <= 0) return false;
+        if (k < 64) return (lo << (64 - k)) != 0;
+        if (k == 64) return lo != 0;
+        if (k < 128) return lo != 0 || (hi << (128 - k)) != 0;
+        return (hi | lo) != 0;
+    }
+
+    static long shlHi(long hi, long lo, int k) {
+        if (k == 0) return hi;
+        return k < 64 ? (hi << k) | (lo >>> (64 - k)) : lo << (k - 64);
+    }
+
+    static long shlLo(long lo, int k) { return k < 64 ? lo << k : 0; }
+
+    private static double approx(long hi, long lo) {
+    // hi * 2^64 + lo (both unsigned) to about double precision
+        return hi * 0x1p64 + (lo >>> 1) * 2.0;
+    }
+
+    private static long unsignedMultiplyHigh(long a, long b) {
+    // Math.unsignedMultiplyHigh arrived in Java 18
+        return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+    }
+
+    // Field helpers
+
+    private static int biasedExp(long hi) { return (int) (hi >>> HI_FRAC_BITS) & EXP_MAX; }
+
+    private static boolean isNaN(int e, long fHi, long fLo) { return e == EXP_MAX && (fHi | fLo) != 0; }
+
+    private static int normalizeShift(int e, long fHi, long fLo) {
+    // Left shift that brings a subnormal fraction's leading 1 up to bit 112 (0 for normals)
+        if (e != 0) return 0;
+        int lead = fHi != 0 ? 127 - Long.numberOfLeadingZeros(fHi) : 63 - Long.numberOfLeadingZeros(fLo);
+        return FRAC_BITS - lead;
+    }
+
+    private static long mantissaHi(int e, long fHi, long fLo, int n) {
+    // Hi word of the 113-bit mantissa with leading 1 at bit 112 (the lo word is shlLo(fLo, n))
+        return e != 0 ? fHi | HIDDEN_HI : shlHi(fHi, fLo, n);
+    }
+
+    private static int unbiasedExp(int e, int n) {
+    // Exponent matching the normalized mantissa
+        return e != 0 ? e - EXP_BIAS : MIN_EXP - n;
+    }
+
+    private static void specialsAddLike(long aHi, long aLo, long bHi, long bLo, long[] out, int off) {
+    // At least one operand is Inf or NaN
+        boolean aNaN = isNaN(biasedExp(aHi), aHi & HI_FRAC_MASK, aLo), bNaN = isNaN(biasedExp(bHi), bHi & HI_FRAC_MASK, bLo);
+        if (aNaN || bNaN) { set(out, off, QNAN_HI, 0); return; }
+        boolean aInf = biasedExp(aHi) == EXP_MAX, bInf = biasedExp(bHi) == EXP_MAX;
+        if (aInf && bInf) {
+            if (aHi == bHi) set(out, off, aHi, aLo);
+            else set(out, off, QNAN_HI, 0);
+            return;
+        }
+        if (aInf) set(out, off, aHi, aLo);
+        else set(out, off, bHi, bLo);
+    }
+
+    private static long inf(int sign) { return POS_INF_HI | ((long) sign << 63); }
+
+    private static long signedZero(int sign) { return (long) sign << 63; }
+
+    private static void set(long[] out, int off, long hi, long lo) {
+        out[off] = hi;
+        out[off + 1] = lo;
+    }
+}
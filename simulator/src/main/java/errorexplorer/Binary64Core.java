@@ -0,0 +1,518 @@
+package errorexplorer;
+
+final class Binary64Core {
+    // Allocation-free binary64 arithmetic on raw long bits.
+    // Same pipeline as the String/BigInteger path in Minimal_Floating_Simulator
+    // (unpack -> align -> add/sub/mul/div -> normalize -> GRS round -> pack),
+    // but every field and mantissa lives in a primitive long.
+    // Every op takes a Rounding mode (round-to-nearest-even when omitted); allModes() runs an op once
+    // and rounds the same intermediate result under every mode.
+
+    // Binary64 layout
+    static final int FRAC_BITS = 52;
+    static final int EXP_BIAS  = 1023;
+    static final int EXP_MAX   = 0x7FF;
+    static final int EXT_BITS  = 3;                      // guard, round, sticky
+
+    static final long SIGN_MASK = 0x8000000000000000L;
+    static final long EXP_MASK  = 0x7FF0000000000000L;
+    static final long FRAC_MASK = 0x000FFFFFFFFFFFFFL;
+    static final long HIDDEN    = 1L << FRAC_BITS;
+    static final long QNAN      = 0x7FF8000000000000L;   // same quiet NaN the String path returns
+    static final long POS_INF   = EXP_MASK;
+
+    // Position of the leading 1 in a normalized mantissa with GRS attached: [53 main | 3 GRS]
+    private static final int TOP = FRAC_BITS + EXT_BITS; // 55
+    private static final int MIN_EXP = 1 - EXP_BIAS;     // exponent used for subnormals
+    private static final long MAX_FINITE = POS_INF - 1;
+    private static final Rounding[] MODES = Rounding.values();
+
+    // Status word, written to all[off + STATUS] when `all` has room past the per-mode results: the G/R/S
+    // bits the final rounding saw, which modes incremented, and whether the result overflowed or was
+    // tiny before rounding. STATUS_AT_MAX marks a truncated magnitude of MAX_VALUE, which overflows in just
+    // the modes that increment it; overflowed() combines the two. Error analysis reads the rounding error
+    // off it without a second run.
+    // Finite ops on finite nonzero operands are also "shaped": the exponent difference add/sub and fma
+    // aligned across, and how far the leading bit moved from where it starts (+1 carry out, -k for k
+    // cancelled bits, STATUS_CANCELLED for an exact zero); see align() and norm()
+    static final int STATUS = 5;                         // == Rounding.values().length
+    static final long STATUS_GRS = 0b111;
+    static final int STATUS_UP_SHIFT = 3;                // Rounding.incrementMask() in bits 3..7
+    static final long STATUS_TINY = 1L << 8, STATUS_OVERFLOW = 1L << 9, STATUS_SHAPED = 1L << 10, STATUS_AT_MAX = 1L << 11;
+    static final int STATUS_ALIGN_SHIFT = 16, STATUS_ALIGN_MAX = 0xFFF; // bits 16..27, saturating
+    static final int STATUS_NORM_SHIFT = 32;             // bits 32..39, a signed byte
+    static final int STATUS_CANCELLED = Byte.MIN_VALUE;
+
+    private Binary64Core() {}
+
+    // Arithmetic operations: add, sub, mul, div
+
+    static long add(long aBits, long bBits) { return addOrSub(aBits, bBits, false); }
+
+    static long sub(long aBits, long bBits) { return addOrSub(aBits, bBits, true); }
+
+    static long addOrSub(long aBits, long bBits, boolean subtractB) {
+        return addOrSub(aBits, bBits, subtractB, Rounding.NEAREST_EVEN, null, 0);
+    }
+
+    static long addOrSub(long aBits, long bBits, boolean subtractB, Rounding mode) {
+        return addOrSub(aBits, bBits, subtractB, mode, null, 0);
+    }
+
+    static long multiply(long aBits, long bBits) { return multiply(aBits, bBits, Rounding.NEAREST_EVEN, null, 0); }
+
+    static long multiply(long aBits, long bBits, Rounding mode) { return multiply(aBits, bBits, mode, null, 0); }
+
+    static long divide(long aBits, long bBits) { return divide(aBits, bBits, Rounding.NEAREST_EVEN, null, 0); }
+
+    static long divide(long aBits, long bBits, Rounding mode) { return divide(aBits, bBits, mode, null, 0); }
+
+    static long sqrt(long aBits) { return sqrt(aBits, Rounding.NEAREST_EVEN, null, 0); }
+
+    static long sqrt(long aBits, Rounding mode) { return sqrt(aBits, mode, null, 0); }
+
+    static long fma(long aBits, long bBits, long cBits) { return fma(aBits, bBits, cBits, Rounding.NEAREST_EVEN, null, 0); }
+
+    static long fma(long aBits, long bBits, long cBits, Rounding mode) { return fma(aBits, bBits, cBits, mode, null, 0); }
+
+    static void allModes(Op op, long aBits, long bBits, long[] out, int off) {
+    // out[off + mode.ordinal()] = the result under each rounding mode, from a single run of the op
+        switch (op) {
+            case ADD -> addOrSub(aBits, bBits, false, Rounding.NEAREST_EVEN, out, off);
+            case SUB -> addOrSub(aBits, bBits, true, Rounding.NEAREST_EVEN, out, off);
+            case MUL -> multiply(aBits, bBits, Rounding.NEAREST_EVEN, out, off);
+            case DIV -> divide(aBits, bBits, Rounding.NEAREST_EVEN, out, off);
+            case SQRT -> sqrt(aBits, Rounding.NEAREST_EVEN, out, off);
+            case FMA -> throw new IllegalArgumentException("FMA takes three operands");
+        }
+    }
+
+    static void allModes(Op op, long aBits, long bBits, long cBits, long[] out, int off) {
+        if (op == Op.FMA) fma(aBits, bBits, cBits, Rounding.NEAREST_EVEN, out, off);
+        else allModes(op, aBits, bBits, out, off);
+    }
+
+    // The ops below return the result under `mode` and, when `all` is non-null, also fill
+    // all[off .. off + 4] with the result under every mode (and all[off + STATUS] if it fits)
+
+    // Each is a thin wrapper that counts and samples the run for Metrics when it is enabled
+
+    private static long addOrSub(long aBits, long bBits, boolean subtractB, Rounding mode, long[] all, int off) {
+        if (!Metrics.ENABLED) return sum(aBits, bBits, subtractB, mode, all, off);
+        Op op = subtractB ? Op.SUB : Op.ADD;
+        long t0 = Metrics.begin(Metrics.CORE, op);
+        long bits = sum(aBits, bBits, subtractB, mode, all, off);
+        Metrics.end(Metrics.CORE, op, t0);
+        return bits;
+    }
+
+    private static long multiply(long aBits, long bBits, Rounding mode, long[] all, int off) {
+        if (!Metrics.ENABLED) return product(aBits, bBits, mode, all, off);
+        long t0 = Metrics.begin(Metrics.CORE, Op.MUL);
+        long bits = product(aBits, bBits, mode, all, off);
+        Metrics.end(Metrics.CORE, Op.MUL, t0);
+        return bits;
+    }
+
+    private static long divide(long aBits, long bBits, Rounding mode, long[] all, int off) {
+        if (!Metrics.ENABLED) return quotient(aBits, bBits, mode, all, off);
+        long t0 = Metrics.begin(Metrics.CORE, Op.DIV);
+        long bits = quotient(aBits, bBits, mode, all, off);
+        Metrics.end(Metrics.CORE, Op.DIV, t0);
+        return bits;
+    }
+
+    private static long sqrt(long aBits, Rounding mode, long[] all, int off) {
+        if (!Metrics.ENABLED) return root(aBits, mode, all, off);
+        long t0 = Metrics.begin(Metrics.CORE, Op.SQRT);
+        long bits = root(aBits, mode, all, off);
+        Metrics.end(Metrics.CORE, Op.SQRT, t0);
+        return bits;
+    }
+
+    private static long fma(long aBits, long bBits, long cBits, Rounding mode, long[] all, int off) {
+        if (!Metrics.ENABLED) return fused(aBits, bBits, cBits, mode, all, off);
+        long t0 = Metrics.begin(Metrics.CORE, Op.FMA);
+        long bits = fused(aBits, bBits, cBits, mode, all, off);
+        Metrics.end(Metrics.CORE, Op.FMA, t0);
+        return bits;
+    }
+
+    private static long sum(long aBits, long bBits, boolean subtractB, Rounding mode, long[] all, int off) {
+    // Exponent alignment with sticky, signed-magnitude add/sub, then pack
+        if (subtractB) bBits ^= SIGN_MASK;
+        int eA = biasedExp(aBits), eB = biasedExp(bBits);
+        if (eA == EXP_MAX || eB == EXP_MAX) return special(specialsAddLike(aBits, bBits), all, off);
+
+        int sA = (int) (aBits >>> 63), sB = (int) (bBits >>> 63);
+        long mA = aBits & FRAC_MASK, mB = bBits & FRAC_MASK;
+
+        // Zeros: x + 0 = x, and +0 + -0 = +0 (-0 when rounding toward -infinity)
+        boolean aZero = eA == 0 && mA == 0, bZero = eB == 0 && mB == 0;
+        if (aZero && bZero) return sA == sB ? special(aBits, all, off) : specialZero(mode, all, off);
+        if (aZero) return special(bBits, all, off);
+        if (bZero) return special(aBits, all, off);
+
+        // Attach the hidden 1 for normals; subnormals use the minimum exponent
+        if (Metrics.ENABLED) {
+            if (eA == 0) Metrics.count(Metrics.CORE, Metrics.SUBNORMAL_OPERAND);
+            if (eB == 0) Metrics.count(Metrics.CORE, Metrics.SUBNORMAL_OPERAND);
+        }
+        if (eA != 0) mA |= HIDDEN; else eA = 1;
+        if (eB != 0) mB |= HIDDEN; else eB = 1;
+
+        // Order by magnitude so subtraction never goes negative
+        if (eA < eB || (eA == eB && mA < mB)) {
+            int te = eA; eA = eB; eB = te;
+            long tm = mA; mA = mB; mB = tm;
+            int ts = sA; sA = sB; sB = ts;
+        }
+
+        // Align exponents (right-shift smaller exponent's mantissa with sticky). One bit beyond G/R/S,
+        // so a one-bit cancellation shifts that bit up instead of the sticky, and the status word's
+        // G/R/S still bound the discarded fraction
+        long aAcc = mA << (EXT_BITS + 1);
+        long bAcc = shiftRightWithSticky(mB << (EXT_BITS + 1), eA - eB);
+
+        long res;
+        if (sA == sB) {
+            res = aAcc + bAcc;
+        } else {
+            res = aAcc - bAcc;
+            if (res == 0) return shape(exactZero(mode, all, off), all, off, eA - eB, STATUS_CANCELLED); // exact cancellation
+        }
+        long bits = pack(sA, eA - EXP_BIAS - 1, res, mode, all, off);
+        // aAcc's leading 1 sits at TOP + 1
+        return all == null ? bits : shape(bits, all, off, eA - eB, 62 - Long.numberOfLeadingZeros(res) - TOP);
+    }
+
+    private static long product(long aBits, long bBits, Rounding mode, long[] all, int off) {
+    // 53x53 -> 106-bit product via Math.multiplyHigh, top bits kept with sticky
+        int sign = (int) ((aBits ^ bBits) >>> 63);
+        int eA = biasedExp(aBits), eB = biasedExp(bBits);
+        long fA = aBits & FRAC_MASK, fB = bBits & FRAC_MASK;
+
+        // Specials
+        if (isNaN(eA, fA) || isNaN(eB, fB)) return special(QNAN, all, off);
+        boolean aZero = eA == 0 && fA == 0, bZero = eB == 0 && fB == 0;
+        boolean aInf = eA == EXP_MAX, bInf = eB == EXP_MAX;
+        if ((aInf && bZero) || (bInf && aZero)) return special(QNAN, all, off);
+        if (aInf || bInf) return special(inf(sign), all, off);
+        if (aZero || bZero) return special(signedZero(sign), all, off);
+
+        long mA = mantissa(eA, fA), mB = mantissa(eB, fB);
+        int xA = unbiasedExp(eA, fA), xB = unbiasedExp(eB, fB);
+
+        // Both mantissas are in [2^52, 2^53), so the product is in [2^104, 2^106)
+        long hi = Math.multiplyHigh(mA, mB);
+        long lo = mA * mB;
+
+        // Keep product >> 48 (56..58 bits) and fold the low 48 bits into sticky
+        long mant = (hi << 16) | (lo >>> 48) | ((lo & 0xFFFF_FFFF_FFFFL) != 0 ? 1 : 0);
+        long bits = pack(sign, xA + xB - 1, mant, mode, all, off);
+        return all == null ? bits : shape(bits, all, off, 0, (int) (hi >>> 41)); // product >= 2^105: carry
+    }
+
+    private static long quotient(long aBits, long bBits, Rounding mode, long[] all, int off) {
+    // Long division in 10-bit chunks to a 61-bit quotient; the remainder becomes sticky
+        int sign = (int) ((aBits ^ bBits) >>> 63);
+        int eA = biasedExp(aBits), eB = biasedExp(bBits);
+        long fA = aBits & FRAC_MASK, fB = bBits & FRAC_MASK;
+
+        // Specials
+        if (isNaN(eA, fA) || isNaN(eB, fB)) return special(QNAN, all, off);
+        boolean aZero = eA == 0 && fA == 0, bZero = eB == 0 && fB == 0;
+        boolean aInf = eA == EXP_MAX, bInf = eB == EXP_MAX;
+        if (aInf && bInf) return special(QNAN, all, off);
+        if (aZero && bZero) return special(QNAN, all, off);
+        if (aInf) return special(inf(sign), all, off);
+        if (bInf) return special(signedZero(sign), all, off);
+        if (bZero) return special(inf(sign), all, off);
+        if (aZero) return special(signedZero(sign), all, off);
+
+        long mA = mantissa(eA, fA), mB = mantissa(eB, fB);
+        int xA = unbiasedExp(eA, fA), xB = unbiasedExp(eB, fB);
+
+        // q = floor(mA * 2^60 / mB); remainders stay below 2^53 so r << 10 never overflows
+        long q = mA / mB, r = mA % mB;
+        for (int i = 0; i < 6; i++) {
+            r <<= 10;
+            q = (q << 10) | (r / mB);
+            r %= mB;
+        }
+        long bits = pack(sign, xA - xB - 5, q | (r != 0 ? 1 : 0), mode, all, off);
+        return all == null ? bits : shape(bits, all, off, 0, mA < mB ? -1 : 0);
+    }
+
+    private static long root(long aBits, Rounding mode, long[] all, int off) {
+    // Integer square root of the mantissa scaled into [2^110, 2^112); the remainder becomes sticky
+        int e = biasedExp(aBits);
+        long f = aBits & FRAC_MASK;
+
+        // Specials: sqrt(±0) = ±0, sqrt(+Inf) = +Inf, anything else negative is invalid
+        if (isNaN(e, f)) return special(QNAN, all, off);
+        if (e == 0 && f == 0) return special(aBits, all, off);
+        if (aBits < 0) return special(QNAN, all, off);
+        if (e == EXP_MAX) return special(aBits, all, off);
+
+        // value = m * 2^x with x made even, m in [2^52, 2^54)
+        long m = mantissa(e, f);
+        int x = unbiasedExp(e, f) - FRAC_BITS;
+        if ((x & 1) != 0) { m <<= 1; x--; }
+
+        // s = floor(sqrt(m * 2^58)) lies in [2^55, 2^56): 53 bits plus GRS. The hardware square root of m
+        // only seeds it (to within a few units); one Newton step and exact integer fix-ups settle it.
+        // r = m * 2^58 - s^2 stays far below 2^63, so its low word is exact
+        long n = m << 58;
+        long s = (long) (Math.sqrt((double) m) * 0x1p29);
+        long r = n - s * s;
+        s += r / (2 * s);
+        r = n - s * s;
+        while (r < 0) { s--; r += 2 * s + 1; }
+        while (r > 2 * s) { s++; r -= 2 * s - 1; }
+        long bits = pack(0, x / 2 - 29 + TOP, s | (r != 0 ? 1 : 0), mode, all, off);
+        return all == null ? bits : shape(bits, all, off, 0, 0);
+    }
+
+    private static long fused(long aBits, long bBits, long cBits, Rounding mode, long[] all, int off) {
+    // Exact 106-bit product plus C in a 128-bit accumulator, rounded once
+        int eA = biasedExp(aBits), eB = biasedExp(bBits), eC = biasedExp(cBits);
+        long fA = aBits & FRAC_MASK, fB = bBits & FRAC_MASK, fC = cBits & FRAC_MASK;
+        int pSign = (int) ((aBits ^ bBits) >>> 63), cSign = (int) (cBits >>> 63);
+
+        // Specials: NaNs, then an invalid product (Inf * 0, or Inf - Inf once C is added), then infinities
+        if (isNaN(eA, fA) || isNaN(eB, fB) || isNaN(eC, fC)) return special(QNAN, all, off);
+        boolean aZero = eA == 0 && fA == 0, bZero = eB == 0 && fB == 0, cZero = eC == 0 && fC == 0;
+        boolean aInf = eA == EXP_MAX, bInf = eB == EXP_MAX, cInf = eC == EXP_MAX;
+        if ((aInf && bZero) || (bInf && aZero)) return special(QNAN, all, off);
+        if (aInf || bInf) return special(cInf && cSign != pSign ? QNAN : inf(pSign), all, off);
+        if (cInf) return special(cBits, all, off);
+        if (aZero || bZero) {
+            if (!cZero) return special(cBits, all, off);
+            return pSign == cSign ? special(signedZero(pSign), all, off) : specialZero(mode, all, off);
+        }
+        if (cZero) return product(aBits, bBits, mode, all, off);
+
+        // Product (pHi:pLo) * 2^eP in [2^104, 2^106) units; addend mC * 2^eCl
+        long mA = mantissa(eA, fA), mB = mantissa(eB, fB), mC = mantissa(eC, fC);
+        int eP = unbiasedExp(eA, fA) + unbiasedExp(eB, fB) - 2 * FRAC_BITS;
+        int eCl = unbiasedExp(eC, fC) - FRAC_BITS;
+        long pHi = Math.multiplyHigh(mA, mB), pLo = mA * mB;
+
+        // Common exponent t, as in the pipeline: never more than 112 bits below the larger leading bit,
+        // so both fit in 128 bits; anything below t only matters as sticky
+        int pLead = eP + 127 - Long.numberOfLeadingZeros(pHi), cLead = eCl + FRAC_BITS;
+        int lead = Math.max(pLead, cLead);
+        int t = Math.max(Math.min(eP, eCl), lead - 112);
+        long xHi, xLo, yHi, yLo;
+        if (eP >= t) {
+            xHi = Binary128Core.shlHi(pHi, pLo, eP - t);
+            xLo = Binary128Core.shlLo(pLo, eP - t);
+        } else {
+            xHi = Binary128Core.shrHi(pHi, pLo, t - eP);
+            xLo = Binary128Core.shrLo(pHi, pLo, t - eP) | (Binary128Core.lost(pHi, pLo, t - eP) ? 1 : 0);
+        }
+        if (eCl >= t) {
+            yHi = Binary128Core.shlHi(0, mC, eCl - t);
+            yLo = Binary128Core.shlLo(mC, eCl - t);
+        } else {
+            yHi = 0;
+            yLo = Binary128Core.shrLo(0, mC, t - eCl) | (Binary128Core.lost(0, mC, t - eCl) ? 1 : 0);
+        }
+
+        // Signed-magnitude add/sub
+        long hi, lo;
+        int sign;
+        if (pSign == cSign) {
+            lo = xLo + yLo;
+            hi = xHi + yHi + (Long.compareUnsigned(lo, xLo) < 0 ? 1 : 0);
+            sign = pSign;
+        } else {
+            int cmp = Binary128Core.compare(xHi, xLo, yHi, yLo);
+            if (cmp == 0) return shape(exactZero(mode, all, off), all, off, Math.abs(pLead - cLead), STATUS_CANCELLED);
+            if (cmp < 0) {
+                long th = xHi; xHi = yHi; yHi = th;
+                long tl = xLo; xLo = yLo; yLo = tl;
+            }
+            lo = xLo - yLo;
+            hi = xHi - yHi - (Long.compareUnsigned(xLo, yLo) < 0 ? 1 : 0);
+            sign = cmp > 0 ? pSign : cSign;
+        }
+
+        // Down to at most 63 bits with sticky for pack: value = m * 2^(t + k) = m * 2^(exp - 55)
+        int top = hi != 0 ? 127 - Long.numberOfLeadingZeros(hi) : 63 - Long.numberOfLeadingZeros(lo);
+        int k = Math.max(0, top - 62);
+        long m = Binary128Core.shrLo(hi, lo, k) | (Binary128Core.lost(hi, lo, k) ? 1 : 0);
+        long bits = pack(sign, t + k + TOP, m, mode, all, off);
+        return all == null ? bits : shape(bits, all, off, Math.abs(pLead - cLead), t + top - lead);
+    }
+
+    // Packing with final normalization and G/R/S rounding under the selected mode
+
+    static long pack(int sign, int unbiasedExp, long mantWithGRS) {
+        return pack(sign, unbiasedExp, mantWithGRS, Rounding.NEAREST_EVEN, null, 0);
+    }
+
+    static long pack(int sign, int unbiasedExp, long mantWithGRS, Rounding mode) {
+        return pack(sign, unbiasedExp, mantWithGRS, mode, null, 0);
+    }
+
+    private static long pack(int sign, int unbiasedExp, long mantWithGRS, Rounding mode, long[] all, int off) {
+    // Value is mantWithGRS * 2^(unbiasedExp - 55); normalize, round once, and assemble the bits
+        if (mantWithGRS == 0) return exact(signedZero(sign), all, off);
+
+        // Normalize so the leading 1 sits at bit 55, keeping shifted-out bits as sticky
+        int shift = (63 - Long.numberOfLeadingZeros(mantWithGRS)) - TOP;
+        long m = shift > 0 ? shiftRightWithSticky(mantWithGRS, shift) : mantWithGRS << -shift;
+        int eField = unbiasedExp + shift + EXP_BIAS;
+
+        if (eField >= EXP_MAX) { // overflow before rounding
+            if (all != null) {
+                for (Rounding r : MODES) all[off + r.ordinal()] = overflow(sign, r);
+                status(all, off, STATUS_OVERFLOW);
+            }
+            if (Metrics.ENABLED) Metrics.count(Metrics.CORE, Metrics.OVERFLOW);
+            return overflow(sign, mode);
+        }
+        boolean tiny = eField <= 0;
+        if (tiny) {
+            // Subnormal: denormalize first so the single rounding step below lands on 52 bits
+            m = shiftRightWithSticky(m, 1 - eField);
+            eField = 1;
+        }
+
+        // main still carries the hidden 1, so (eField - 1) + main is the truncated magnitude's bits.
+        // One ulp up from there bumps the exponent on carry, turns a rounded-up subnormal into the
+        // smallest normal, and reaches Inf from MAX_VALUE
+        long truncated = ((long) (eField - 1) << FRAC_BITS) + (m >>> EXT_BITS) | ((long) sign << 63);
+        int grs = (int) m & 0b111;
+        int up = Rounding.incrementMask(sign, (truncated & 1) != 0, grs);
+        if (all != null) {
+            for (int r = 0; r < MODES.length; r++) all[off + r] = truncated + (up >>> r & 1);
+            boolean atMax = (truncated & ~SIGN_MASK) == MAX_FINITE;
+            status(all, off, grs | (long) up << STATUS_UP_SHIFT | (tiny ? STATUS_TINY : 0) | (atMax ? STATUS_AT_MAX : 0));
+        }
+        long inc = up >>> mode.ordinal() & 1;
+        if (Metrics.ENABLED) roundingEvents(tiny, inc, truncated);
+        return truncated + inc;
+    }
+
+    private static void roundingEvents(boolean tiny, long inc, long truncated) {
+    // As in the pipeline: a carry is an increment that ripples out of a normal significand into the
+    // exponent, and a carry into the infinity exponent is also an overflow
+        if (tiny) Metrics.count(Metrics.CORE, Metrics.SUBNORMAL_RESULT);
+        if (inc == 0) return;
+        Metrics.count(Metrics.CORE, Metrics.INCREMENT);
+        if (tiny || (truncated & FRAC_MASK) != FRAC_MASK) return;
+        Metrics.count(Metrics.CORE, Metrics.CARRY);
+        if ((truncated + inc & EXP_MASK) == EXP_MASK) Metrics.count(Metrics.CORE, Metrics.OVERFLOW);
+    }
+
+    private static long overflow(int sign, Rounding mode) {
+        return (mode.overflowsToInfinity(sign) ? POS_INF : MAX_FINITE) | ((long) sign << 63);
+    }
+
+    private static long special(long bits, long[] all, int off) {
+    // A NaN, infinite or zero operand decided the result: counted as a special-case short-circuit, as in the pipeline
+        if (Metrics.ENABLED) Metrics.count(Metrics.CORE, Metrics.SPECIAL);
+        return exact(bits, all, off);
+    }
+
+    private static long exact(long bits, long[] all, int off) {
+    // A result that needs no rounding is the same under every mode
+        if (all != null) {
+            for (int r = 0; r < MODES.length; r++) all[off + r] = bits;
+            status(all, off, 0);
+        }
+        return bits;
+    }
+
+    private static long exactZero(Rounding mode, long[] all, int off) {
+    // Exact zero sum of opposite-signed operands
+        if (all != null) {
+            for (Rounding r : MODES) all[off + r.ordinal()] = signedZero(r.exactZeroSign());
+            status(all, off, 0);
+        }
+        return signedZero(mode.exactZeroSign());
+    }
+
+    private static long specialZero(Rounding mode, long[] all, int off) {
+    // Zero operands summing to an exact zero: a special-case short-circuit, unlike an exact cancellation
+        if (Metrics.ENABLED) Metrics.count(Metrics.CORE, Metrics.SPECIAL);
+        return exactZero(mode, all, off);
+    }
+
+    private static void status(long[] all, int off, long status) {
+        if (all.length > off + STATUS) all[off + STATUS] = status;
+    }
+
+    private static long shape(long bits, long[] all, int off, int align, int norm) {
+    // Add the alignment and normalization fields to the status word pack just wrote
+        if (all != null && all.length > off + STATUS) {
+            all[off + STATUS] |= STATUS_SHAPED | (long) Math.min(align, STATUS_ALIGN_MAX) << STATUS_ALIGN_SHIFT
+                | (long) (norm & 0xFF) << STATUS_NORM_SHIFT;
+        }
+        return bits;
+    }
+
+    static boolean overflowed(long status, Rounding mode) {
+    // Whether the result under `mode` overflowed: before rounding, or by the increment that carries MAX_VALUE to infinity
+        return (status & STATUS_OVERFLOW) != 0
+            || (status & STATUS_AT_MAX) != 0 && (status >>> (STATUS_UP_SHIFT + mode.ordinal()) & 1) != 0;
+    }
+
+    static boolean special(Op op, long aBits, long bBits, long cBits) {
+    // Whether an operand decides the op before any rounding: the NaN, infinity and zero checks each op starts
+    // with (a negative SQRT operand too; FMA's C only when NaN or infinite). Such results have status 0, but
+    // so do exact cancellations, so only the operands tell them apart
+        return switch (op) {
+            case SQRT -> aBits < 0 || isSpecial(aBits);
+            case FMA -> isSpecial(aBits) || isSpecial(bBits) || (cBits & EXP_MASK) == EXP_MASK;
+            default -> isSpecial(aBits) || isSpecial(bBits);
+        };
+    }
+
+    private static boolean isSpecial(long bits) { return (bits & EXP_MASK) == EXP_MASK || (bits & ~SIGN_MASK) == 0; }
+
+    static int align(long status) { return (int) (status >>> STATUS_ALIGN_SHIFT) & STATUS_ALIGN_MAX; }
+
+    static int norm(long status) { return (byte) (status >>> STATUS_NORM_SHIFT); }
+
+    static long shiftRightWithSticky(long x, int k) {
+    // Right-shift with sticky bit: if any lost bits are nonzero, set LSB
+        if (k <= 0) return x;
+        if (k >= 64) return x != 0 ? 1 : 0;
+        return (x >>> k) | ((x << (64 - k)) != 0 ? 1 : 0);
+    }
+
+    // Field helpers
+
+    private static int biasedExp(long bits) { return (int) (bits >>> FRAC_BITS) & EXP_MAX; }
+
+    private static boolean isNaN(int e, long f) { return e == EXP_MAX && f != 0; }
+
+    private static long mantissa(int e, long f) {
+    // 53-bit mantissa with leading 1 at bit 52; subnormals are shifted up to match
+        if (e != 0) return f | HIDDEN;
+        if (Metrics.ENABLED) Metrics.count(Metrics.CORE, Metrics.SUBNORMAL_OPERAND);
+        return f << (Long.numberOfLeadingZeros(f) - 11);
+    }
+
+    private static int unbiasedExp(int e, long f) {
+    // Exponent matching mantissa(e, f)
+        return e != 0 ? e - EXP_BIAS : MIN_EXP - (Long.numberOfLeadingZeros(f) - 11);
+    }
+
+    private static long specialsAddLike(long aBits, long bBits) {
+    // At least one operand is Inf or NaN
+        boolean aNaN = (aBits & ~SIGN_MASK) > POS_INF, bNaN = (bBits & ~SIGN_MASK) > POS_INF;
+        if (aNaN || bNaN) return QNAN;
+        boolean aInf = (aBits & ~SIGN_MASK) == POS_INF, bInf = (bBits & ~SIGN_MASK) == POS_INF;
+        if (aInf && bInf) return aBits == bBits ? aBits : QNAN;
+        return aInf ? aBits : bBits;
+    }
+
+    private static long inf(int sign) { return POS_INF | ((long) sign << 63); }
+
+    private static long signedZero(int sign) { return (long) sign << 63; }
+}
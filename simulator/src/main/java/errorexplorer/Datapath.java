@@ -0,0 +1,400 @@
+package errorexplorer;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+public final class Datapath {
+    // A configurable rounding datapath, for measuring what a narrower (or wider) FPU costs against correct
+    // rounding. The pipeline and the cores keep exactly EXT_BITS = 3 bits below the result's last place and
+    // fold everything shifted out past them into the lowest one (sticky). Here that is a setting:
+    //   working  significand bits of the intermediate result, at least the format's precision. When wider,
+    //            the result is rounded twice: to `working` bits with an unbounded exponent, then correctly
+    //            into the format (subnormals and overflow included), like x87 extended precision stored
+    //            to a double
+    //   extra    bits kept below the working last place to round from (0 truncates)
+    //   sticky   whether bits shifted out below the extra bits are OR-ed into the lowest one, or lost
+    //            (with extra = 0 that is the last place itself: von Neumann rounding)
+    // Every right shift (alignment, normalization, denormalization) and the quotient and root remainders go
+    // through that one rule; products are exact until they are shifted. NaN, infinite and zero operands
+    // are passed to the format's own engine, since their results are exact on any datapath.
+    // working = precision, extra = 3 with sticky on is the pipeline itself, and agrees with Format.compute.
+    // Significands live in multiword registers allocated once per Datapath, so an op allocates nothing;
+    // a Datapath is therefore not thread-safe: use one per thread.
+
+    static final int MAX_WORKING = 4096, MAX_EXTRA = 64;
+
+    final Format fmt;
+    final int working, extra;
+    final boolean sticky;
+
+    private final int minLsb;                // weight of the format's last place at its smallest exponent
+    private final long inf, fracMask;
+    private final Register acc, other, trial;
+    private int sign, exp;                   // the value in flight is (-1)^sign * acc * 2^exp
+
+    public Datapath(Format fmt, int working, int extra, boolean sticky) {
+        if (fmt.width > 64) throw new IllegalArgumentException("The datapath takes formats up to 64 bits wide: " + fmt);
+        if (working < fmt.precision || working > MAX_WORKING) {
+            throw new IllegalArgumentException("Working precision must be between " + fmt.precision + " and " + MAX_WORKING + " bits: " + working);
+        }
+        if (extra < 0 || extra > MAX_EXTRA) throw new IllegalArgumentException("Extra bits must be between 0 and " + MAX_EXTRA + ": " + extra);
+        this.fmt = fmt;
+        this.working = working;
+        this.extra = extra;
+        this.sticky = sticky;
+        this.minLsb = 1 - fmt.bias - fmt.fracBits;
+        this.inf = (long) fmt.expMax << fmt.fracBits;
+        this.fracMask = (1L << fmt.fracBits) - 1;
+        // Widest value any op holds: a DIV quotient of precision + working + extra bits, a SQRT remainder
+        // about four bits past its working + extra + 3 bit root, FMA's 2 * precision + extra bit sum; plus a carry
+        int bits = working + Math.max(fmt.precision, 5) + extra + 1;
+        int words = Math.max(2, (bits + 63) / 64);
+        acc = new Register(words);
+        other = new Register(words);
+        trial = new Register(words);
+    }
+
+    public static Datapath parse(Format fmt, String spec) {
+    // "working=64,extra=1,sticky=off" in any order; settings left out keep the pipeline's values
+        int working = fmt.precision, extra = Binary64Core.EXT_BITS;
+        boolean sticky = true;
+        for (String part : spec.split(",")) {
+            String t = part.trim().toLowerCase(Locale.ROOT);
+            if (t.isEmpty()) continue;
+            int eq = t.indexOf('=');
+            String key = eq < 0 ? t : t.substring(0, eq).trim(), value = eq < 0 ? "" : t.substring(eq + 1).trim();
+            try {
+                switch (key) {
+                    case "working" -> working = Integer.parseInt(value);
+                    case "extra" -> extra = Integer.parseInt(value);
+                    case "sticky" -> sticky = switch (value) {
+                        case "on", "true", "yes" -> true;
+                        case "off", "false", "no" -> false;
+                        default -> throw new IllegalArgumentException("sticky takes on or off: " + part.trim());
+                    };
+                    default -> throw new IllegalArgumentException("Unknown datapath setting: " + key + " (use working, extra and sticky)");
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Not a number of bits: " + part.trim());
+            }
+        }
+        return new Datapath(fmt, working, extra, sticky);
+    }
+
+    public Format format() { return fmt; }
+
+    @Override
+    public String toString() {
+        return fmt + " working=" + working + ",extra=" + extra + ",sticky=" + (sticky ? "on" : "off");
+    }
+
+    public long compute(Op op, long aBits, long bBits, long cBits, Rounding mode) {
+    // Bit patterns in the low `width` bits, as in Format.compute
+        switch (op) {
+            case ADD, SUB -> {
+                if (!ordinary(aBits) || !ordinary(bBits)) break;
+                acc.set(mant(aBits));
+                other.set(mant(bBits));
+                return sum(signOf(aBits), lsb(aBits), fmt.precision, signOf(bBits) ^ (op == Op.SUB ? 1 : 0), lsb(bBits),
+                           fmt.precision, working + extra, mode);
+            }
+            case MUL -> {
+                if (!ordinary(aBits) || !ordinary(bBits)) break;
+                acc.multiply(mant(aBits), mant(bBits));
+                sign = signOf(aBits) ^ signOf(bBits);
+                exp = lsb(aBits) + lsb(bBits);
+                return finish(mode);
+            }
+            case DIV -> {
+                if (!ordinary(aBits) || !ordinary(bBits)) break;
+                long mA = mant(aBits), mB = mant(bBits);
+                int sA = fmt.precision - bitLength(mA), sB = fmt.precision - bitLength(mB);
+                int n = working + extra + 1;                         // quotient bits: n or n + 1
+                if (acc.divide(mA << sA, mB << sB, n) && sticky) acc.w[0] |= 1;
+                sign = signOf(aBits) ^ signOf(bBits);
+                exp = (lsb(aBits) - sA) - (lsb(bBits) - sB) - n;
+                return finish(mode);
+            }
+            case SQRT -> {
+                if (!ordinary(aBits) || signOf(aBits) != 0) break;
+                long m = mant(aBits);
+                int s = fmt.precision - bitLength(m), e = lsb(aBits) - s;
+                m <<= s;
+                if ((e & 1) != 0) { m <<= 1; e--; }                  // even exponent: its half is exact
+                int n = working + extra + 2 - (bitLength(m) + 1) / 2; // root bits: at least working + extra + 2
+                if (sqrt(m, n) && sticky) acc.w[0] |= 1;
+                sign = 0;
+                exp = e / 2 - n;
+                return finish(mode);
+            }
+            case FMA -> {
+                if (!ordinary(aBits) || !ordinary(bBits) || !finite(cBits)) break;
+                acc.multiply(mant(aBits), mant(bBits));
+                int sP = signOf(aBits) ^ signOf(bBits), eP = lsb(aBits) + lsb(bBits);
+                if (!ordinary(cBits)) {                               // a * b + 0: the product rounded on this datapath
+                    sign = sP;
+                    exp = eP;
+                    return finish(mode);
+                }
+                other.set(mant(cBits));
+                return sum(sP, eP, 2 * fmt.precision, signOf(cBits), lsb(cBits), fmt.precision,
+                           Math.max(2 * fmt.precision, working) + extra, mode);
+            }
+        }
+        return fmt.compute(op, aBits, bBits, cBits, mode);
+    }
+
+    long ulps(long x, long y) {
+    // Distance from y to x in ulps of the format (adjacent bit patterns are one apart, infinity is one past
+    // the largest finite value); 0 when both are NaN
+        long mag = fmt.width == 64 ? Long.MAX_VALUE : (1L << (fmt.width - 1)) - 1;
+        boolean nanX = (x & mag) > inf, nanY = (y & mag) > inf;
+        if (nanX || nanY) return nanX && nanY ? 0 : Long.MAX_VALUE;
+        long ox = (x & mag) * (signOf(x) == 0 ? 1 : -1), oy = (y & mag) * (signOf(y) == 0 ? 1 : -1);
+        return ox - oy;
+    }
+
+    // Operand fields
+
+    private int signOf(long bits) { return (int) (bits >>> (fmt.width - 1)) & 1; }
+
+    private boolean finite(long bits) { return (bits >>> fmt.fracBits & fmt.expMax) != fmt.expMax; }
+
+    private boolean ordinary(long bits) {
+    // Finite and nonzero
+        return finite(bits) && (bits & (inf | fracMask)) != 0;
+    }
+
+    private long mant(long bits) {
+        long f = bits & fracMask;
+        return (bits & inf) == 0 ? f : f | 1L << fmt.fracBits;
+    }
+
+    private int lsb(long bits) {
+    // Weight of the operand's last place
+        int e = (int) (bits >>> fmt.fracBits & fmt.expMax);
+        return Math.max(e, 1) - fmt.bias - fmt.fracBits;
+    }
+
+    private static int bitLength(long m) { return 64 - Long.numberOfLeadingZeros(m); }
+
+    // The datapath
+
+    private long sum(int sA, int eA, int nA, int sB, int eB, int nB, int width, Rounding mode) {
+    // acc * 2^eA plus other * 2^eB (signs sA, sB), each first placed at the top of a `width`-bit register
+    // by its nominal width nA, nB; the one with the smaller exponent is then shifted right to align
+        acc.shiftLeft(width - nA);
+        other.shiftLeft(width - nB);
+        eA -= width - nA;
+        eB -= width - nB;
+        if (eA < eB) shiftOut(acc, eB - eA);
+        else shiftOut(other, eA - eB);
+        exp = Math.max(eA, eB);
+        if (sA == sB) {
+            acc.add(other);
+            sign = sA;
+        } else {
+            int cmp = acc.compareTo(other);
+            if (cmp == 0) return (long) mode.exactZeroSign() << (fmt.width - 1);
+            if (cmp > 0) {
+                acc.subtract(other);
+                sign = sA;
+            } else {
+                other.subtract(acc);
+                acc.set(other);
+                sign = sB;
+            }
+        }
+        return finish(mode);
+    }
+
+    private long finish(Rounding mode) {
+    // Round acc * 2^exp into the format: once on the datapath, or twice when its working precision is wider
+        if (working > fmt.precision) {
+            round(working, extra, sticky, false, mode);
+            round(fmt.precision, 2, true, true, mode);            // exact: the working result has no more bits
+        } else {
+            round(fmt.precision, extra, sticky, true, mode);
+        }
+        long s = (long) sign << (fmt.width - 1);
+        if (acc.isZero()) return s;
+        long m = acc.w[0];
+        if (acc.bitLength() < fmt.precision) return s | m;      // subnormal
+        long e = exp + fmt.fracBits + fmt.bias;
+        if (e >= fmt.expMax) return s | (mode.overflowsToInfinity(sign) ? inf : inf - 1);
+        return s | e << fmt.fracBits | (m & fracMask);
+    }
+
+    private void round(int keep, int below, boolean fold, boolean bounded, Rounding mode) {
+    // Normalize acc to keep + below bits, then round off the `below` bits; `fold` is the sticky setting for
+    // the bits shifted out on the way. With `bounded`, results under the format's smallest normal exponent
+    // are denormalized first, so they are rounded at the subnormal last place
+        int s = acc.bitLength() - (keep + below);
+        if (s > 0) shiftOut(acc, s, fold);
+        else acc.shiftLeft(-s);
+        exp += s;
+        int k = minLsb - below - exp;
+        if (bounded && k > 0) {
+            shiftOut(acc, k, fold);
+            exp += k;
+        }
+        int grs = below == 0 ? 0 : (acc.testBit(below - 1) ? 0b100 : 0) | (acc.anyBelow(below - 1) ? 1 : 0);
+        acc.shiftRight(below);
+        exp += below;
+        if (mode.increment(sign, acc.testBit(0), grs)) {
+            acc.increment();
+            if (acc.bitLength() > keep) {                        // carry out: the bit dropped is 0
+                acc.shiftRight(1);
+                exp++;
+            }
+        }
+    }
+
+    private void shiftOut(Register r, int k) { shiftOut(r, k, sticky); }
+
+    private static void shiftOut(Register r, int k, boolean fold) {
+        if (k > 0 && r.shiftRight(k) && fold) r.w[0] |= 1;
+    }
+
+    private boolean sqrt(long m, int n) {
+    // acc = floor(sqrt(m * 2^(2n))), one bit per step; true when the remainder is nonzero
+        Register rem = other;
+        acc.set(0);
+        rem.set(0);
+        for (int i = (bitLength(m) + 2 * n + 1) / 2 - 1; i >= 0; i--) {
+            int j = 2 * i - 2 * n;                               // the pair's low bit in m
+            long pair = j >= 0 ? m >>> j & 3 : j == -1 ? (m & 1) << 1 : 0;
+            rem.shiftLeft(2);
+            rem.w[0] |= pair;
+            trial.setQuadruplePlusOne(acc);
+            acc.shiftLeft(1);
+            if (rem.compareTo(trial) >= 0) {
+                rem.subtract(trial);
+                acc.w[0] |= 1;
+            }
+        }
+        return !rem.isZero();
+    }
+
+    private static final class Register {
+        // A non-negative integer in a fixed number of 64-bit words, least significant first; every op works in place
+
+        final long[] w;
+
+        Register(int words) { w = new long[words]; }
+
+        void set(long v) {
+            Arrays.fill(w, 0);
+            w[0] = v;
+        }
+
+        void set(Register o) { System.arraycopy(o.w, 0, w, 0, w.length); }
+
+        void setQuadruplePlusOne(Register o) {
+        // 4 * o + 1 in one pass, the trial divisor of a root digit step
+            for (int i = w.length - 1; i > 0; i--) w[i] = o.w[i] << 2 | o.w[i - 1] >>> 62;
+            w[0] = o.w[0] << 2 | 1;
+        }
+
+        void multiply(long a, long b) {
+        // a * b for a, b < 2^63
+            Arrays.fill(w, 0);
+            w[0] = a * b;
+            w[1] = Math.multiplyHigh(a, b);
+        }
+
+        boolean divide(long a, long b, int n) {
+        // floor(a * 2^n / b) for a, b < 2^62, restoring one quotient bit per step; true when the remainder is nonzero
+            Arrays.fill(w, 0);
+            long r = 0;
+            for (int i = Datapath.bitLength(a) + n - 1; i >= 0; i--) {
+                r = r << 1 | (i >= n ? a >>> (i - n) & 1 : 0);
+                long t = r - b, fits = ~t >> 63;                 // all ones when r >= b
+                r = t & fits | r & ~fits;
+                w[i >>> 6] |= (fits & 1) << (i & 63);
+            }
+            return r != 0;
+        }
+
+        boolean isZero() {
+            for (long x : w) if (x != 0) return false;
+            return true;
+        }
+
+        int bitLength() {
+            for (int i = w.length - 1; i >= 0; i--) if (w[i] != 0) return i * 64 + Datapath.bitLength(w[i]);
+            return 0;
+        }
+
+        boolean testBit(int i) { return i >>> 6 < w.length && (w[i >>> 6] >>> (i & 63) & 1) != 0; }
+
+        boolean anyBelow(int k) {
+        // Whether any of bits 0 .. k-1 is set
+            int full = Math.min(k >>> 6, w.length);
+            for (int i = 0; i < full; i++) if (w[i] != 0) return true;
+            return full < w.length && (k & 63) != 0 && (w[full] & (1L << (k & 63)) - 1) != 0;
+        }
+
+        void shiftLeft(int k) {
+            if (k < 64) {
+                if (k == 0) return;
+                for (int i = w.length - 1; i > 0; i--) w[i] = w[i] << k | w[i - 1] >>> (64 - k);
+                w[0] <<= k;
+                return;
+            }
+            int ws = k >>> 6, bs = k & 63;
+            for (int i = w.length - 1; i >= 0; i--) {
+                long hi = i - ws >= 0 ? w[i - ws] : 0, lo = i - ws - 1 >= 0 ? w[i - ws - 1] : 0;
+                w[i] = bs == 0 ? hi : hi << bs | lo >>> (64 - bs);
+            }
+        }
+
+        boolean shiftRight(int k) {
+        // True when a set bit was shifted out
+            boolean lost = anyBelow(k);
+            int ws = k >>> 6, bs = k & 63, n = w.length;
+            if (ws == 0) {
+                if (bs == 0) return false;
+                for (int i = 0; i < n - 1; i++) w[i] = w[i] >>> bs | w[i + 1] << (64 - bs);
+                w[n - 1] >>>= bs;
+                return lost;
+            }
+            for (int i = 0; i < n; i++) {
+                long lo = i + ws < n ? w[i + ws] : 0, hi = i + ws + 1 < n ? w[i + ws + 1] : 0;
+                w[i] = bs == 0 ? lo : lo >>> bs | hi << (64 - bs);
+            }
+            return lost;
+        }
+
+        void add(Register o) {
+            long carry = 0;
+            for (int i = 0; i < w.length; i++) {
+                long x = w[i], s = x + o.w[i], t = s + carry;
+                carry = Long.compareUnsigned(s, x) < 0 || (carry != 0 && t == 0) ? 1 : 0;
+                w[i] = t;
+            }
+        }
+
+        void subtract(Register o) {
+        // this - o, for this >= o
+            long borrow = 0;
+            for (int i = 0; i < w.length; i++) {
+                long x = w[i], d = x - o.w[i], t = d - borrow;
+                borrow = Long.compareUnsigned(x, o.w[i]) < 0 || (borrow != 0 && d == 0) ? 1 : 0;
+                w[i] = t;
+            }
+        }
+
+        void increment() {
+            for (int i = 0; i < w.length && ++w[i] == 0; i++) { }
+        }
+
+        int compareTo(Register o) {
+            for (int i = w.length - 1; i >= 0; i--) {
+                int c = Long.compareUnsigned(w[i], o.w[i]);
+                if (c != 0) return c;
+            }
+            return 0;
+        }
+    }
+}
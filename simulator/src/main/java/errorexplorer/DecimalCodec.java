@@ -0,0 +1,394 @@
+package errorexplorer;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+final class DecimalCodec {
+    // binary64 bits <-> text, straight over ASCII bytes, so bulk I/O never builds a String per number.
+    //   parse    decimals ("-1.5", "2.5e-300"), hex floats as Double.parseDouble reads them ("0x1.8p3"), raw bits
+    //            as 0x and 16 hex digits or 0b and 64 binary digits, and inf, infinity and nan in any case.
+    //            Decimals with at most 19 significant digits take Clinger's exact fast path when the digits and
+    //            the power of ten are both exact doubles, otherwise Eisel-Lemire: one 64 x 128-bit product
+    //            against a table of truncated powers of five (Lemire, "Number Parsing at a Gigabyte per
+    //            Second", 2021). Longer decimals are rounded from their first 19 digits both down and up, and
+    //            only when the two disagree does the text go to Double.parseDouble. Round-to-nearest-even.
+    //   format   the shortest decimal that parses back to the same bits, nearest to the value on ties
+    //            (Schubfach: Giulietti, "The Schubfach way to render doubles", 2020), laid out like
+    //            Double.toString: plain from 10^-3 up to 10^7, "d.dddE<n>" outside, always one fraction digit.
+    // Both tables are built once from BigInteger at class load.
+
+    private DecimalCodec() {}
+
+    static final int MAX_LENGTH = 24;                // "-2.2250738585072014E-308"
+
+    private static final long INF = Binary64Core.POS_INF;
+    private static final long MASK_63 = Long.MAX_VALUE;
+    private static final double[] EXACT_POW10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    // Eisel-Lemire: 5^q for q in [Q_LO, Q_HI] as 128 bits {hi, lo} with the top bit set; truncated for q >= 0,
+    // rounded up (then truncated) for q < 0. Below Q_LO every decimal is zero, above Q_HI infinite
+    private static final int Q_LO = -342, Q_HI = 308;
+    private static final long[] POW5 = new long[2 * (Q_HI - Q_LO + 1)];
+
+    // Schubfach: for k in [K_MIN, K_MAX], g = floor(10^-k 2^-r) + 1 with r chosen so 2^125 <= g < 2^126,
+    // split as g1 2^63 + g0
+    private static final int K_MIN = -324, K_MAX = 292;
+    private static final long[] G = new long[2 * (K_MAX - K_MIN + 1)];
+    private static final int C_TINY = 3;             // subnormal significands below this need one more digit
+    private static final int Q_MIN = -1074;          // exponent of the subnormal ulp
+
+    static {
+        BigInteger two128 = BigInteger.ONE.shiftLeft(128);
+        for (int q = Q_LO; q <= Q_HI; q++) {
+            BigInteger p = BigInteger.valueOf(5).pow(Math.abs(q)), c;
+            if (q >= 0) {
+                c = p.shiftLeft(Math.max(0, 128 - p.bitLength())).shiftRight(Math.max(0, p.bitLength() - 128));
+            } else {
+                int z = p.bitLength();
+                c = BigInteger.ONE.shiftLeft(q >= -27 ? z + 127 : 2 * z + 128).divide(p).add(BigInteger.ONE);
+                while (c.compareTo(two128) >= 0) c = c.shiftRight(1);
+            }
+            POW5[2 * (q - Q_LO)] = c.shiftRight(64).longValue();
+            POW5[2 * (q - Q_LO) + 1] = c.longValue();
+        }
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            int r = flog2pow10(-k) - 125;
+            BigInteger g = -k >= 0
+                ? BigInteger.TEN.pow(-k).shiftLeft(Math.max(0, -r)).shiftRight(Math.max(0, r)).add(BigInteger.ONE)
+                : BigInteger.ONE.shiftLeft(-r).divide(BigInteger.TEN.pow(k)).add(BigInteger.ONE);
+            G[2 * (k - K_MIN)] = g.shiftRight(63).longValue();
+            G[2 * (k - K_MIN) + 1] = g.longValue() & MASK_63;
+        }
+    }
+
+    // Parsing
+
+    static long parse(CharSequence text) {
+    // parse() over a String, trimmed; for the GUI fields and one-off literals
+        String s = text.toString().trim();
+        byte[] b = new byte[s.length()];
+        for (int i = 0; i < b.length; i++) {
+            char ch = s.charAt(i);
+            b[i] = ch < 0x80 ? (byte) ch : (byte) '?';
+        }
+        return parse(b, 0, b.length);
+    }
+
+    static long parse(byte[] s, int from, int to) {
+    // The bits of the number in s[from, to); throws NumberFormatException when it is not one
+        int i = from;
+        boolean neg = false;
+        if (i < to && (s[i] == '-' || s[i] == '+')) neg = s[i++] == '-';
+        if (to - i > 2 && s[i] == '0' && (s[i + 1] | 0x20) == 'x') return hex(s, from, i + 2, to, neg);
+        if (to - i > 2 && s[i] == '0' && (s[i + 1] | 0x20) == 'b') return binary(s, from, i + 2, to, neg);
+        if (i < to && (s[i] | 0x20) >= 'i') return word(s, from, i, to, neg);
+
+        long w = 0;                                  // the first 19 significant digits, unsigned
+        int digits = 0, exp10 = 0;
+        boolean any = false, truncated = false;
+        for (; i < to && isDigit(s[i]); i++) {
+            any = true;
+            if (digits < 19) {
+                w = w * 10 + (s[i] - '0');
+                if (w != 0) digits++;
+            } else {
+                exp10++;
+                truncated |= s[i] != '0';
+            }
+        }
+        if (i < to && s[i] == '.') {
+            for (i++; i < to && isDigit(s[i]); i++) {
+                any = true;
+                if (digits < 19) {
+                    w = w * 10 + (s[i] - '0');
+                    if (w != 0) digits++;
+                    exp10--;
+                } else {
+                    truncated |= s[i] != '0';
+                }
+            }
+        }
+        if (!any) throw invalid(s, from, to);
+        if (i < to && (s[i] | 0x20) == 'e') {
+            i++;
+            boolean negExp = false;
+            if (i < to && (s[i] == '-' || s[i] == '+')) negExp = s[i++] == '-';
+            if (i == to) throw invalid(s, from, to);
+            int e = 0;
+            for (; i < to && isDigit(s[i]); i++) e = Math.min(e * 10 + (s[i] - '0'), 1_000_000);
+            exp10 += negExp ? -e : e;
+        }
+        if (i != to) throw invalid(s, from, to);
+
+        long sign = neg ? Binary64Core.SIGN_MASK : 0;
+        if (w == 0) return sign;
+        if (!truncated && w >= 0 && w <= 1L << 53 && exp10 >= -22 && exp10 <= 22) {
+            double d = exp10 < 0 ? w / EXACT_POW10[-exp10] : w * EXACT_POW10[exp10];
+            return Double.doubleToRawLongBits(d) | sign;
+        }
+        long bits = eiselLemire(w, exp10);
+        if (truncated && bits >= 0 && bits != eiselLemire(w + 1, exp10)) bits = -1;
+        if (bits < 0) bits = Double.doubleToRawLongBits(Math.abs(Double.parseDouble(new String(s, from, to - from, StandardCharsets.ISO_8859_1))));
+        return bits | sign;
+    }
+
+    private static long eiselLemire(long w, int q) {
+    // w 10^q rounded to the nearest binary64 (w != 0, unsigned), or -1 when the 128-bit product cannot decide
+        if (q < Q_LO) return 0;
+        if (q > Q_HI) return INF;
+        int lz = Long.numberOfLeadingZeros(w);
+        w <<= lz;
+        int at = 2 * (q - Q_LO);
+        long hi = unsignedMultiplyHigh(w, POW5[at]), lo = w * POW5[at];
+        if ((hi & 0x1FF) == 0x1FF) {
+            // the low bits may carry into the 55 kept: bring in the next 64 bits of 5^q
+            long hi2 = unsignedMultiplyHigh(w, POW5[at + 1]), lo2 = w * POW5[at + 1];
+            lo += hi2;
+            if (Long.compareUnsigned(lo, hi2) < 0) hi++;
+            if (lo2 + 1 == 0 && lo + 1 == 0 && (hi & 0x1FF) == 0x1FF) return -1;
+        }
+        int upper = (int) (hi >>> 63);
+        long m = hi >>> (upper + 9);                 // 54 or 55 bits: 53 and a rounding bit
+        int e = (217_706 * q >> 16) + 63 + upper - lz + Binary64Core.EXP_BIAS;
+        if (e <= 0) {
+            // subnormal; no decimal lands exactly halfway here, so rounding half up is exact
+            if (1 - e >= 64) return 0;
+            m >>>= 1 - e;
+            m = (m + (m & 1)) >>> 1;
+            return m;                                // a carry into bit 52 is the smallest normal
+        }
+        if (Long.compareUnsigned(lo, 1) <= 0 && q >= -4 && q <= 23 && (m & 3) == 1 && m << (upper + 9) == hi) {
+            m &= ~1L;                                // exactly halfway: round to even
+        }
+        m = (m + (m & 1)) >>> 1;
+        if (m >= 2L << Binary64Core.FRAC_BITS) {
+            m >>>= 1;
+            e++;
+        }
+        if (e >= Binary64Core.EXP_MAX) return INF;
+        return (long) e << Binary64Core.FRAC_BITS | m & Binary64Core.FRAC_MASK;
+    }
+
+    private static long hex(byte[] s, int from, int i, int to, boolean neg) {
+    // 0x and 16 hex digits: raw bits (no sign). Otherwise a hex float, 0x<hex>[.<hex>]p<exp>, rounded once
+        int start = i;
+        long m = 0;
+        int e2 = 0, digits = 0;
+        boolean any = false, dot = false, sticky = false;
+        for (; i < to; i++) {
+            int d = hexDigit(s[i]);
+            if (d < 0) {
+                if (s[i] != '.' || dot) break;
+                dot = true;
+                continue;
+            }
+            any = true;
+            if (digits < 15) {
+                m = m << 4 | d;
+                if (m != 0) digits++;
+                if (dot) e2 -= 4;
+            } else {
+                sticky |= d != 0;
+                if (!dot) e2 += 4;
+            }
+        }
+        if (i == to && !dot) {
+            if (i - start != 16 || neg || s[from] == '+') throw new NumberFormatException("raw bits need 16 hex digits: " + text(s, from, to));
+            return parseHexBits(s, start, to);
+        }
+        if (!any || i == to || (s[i] | 0x20) != 'p') throw invalid(s, from, to);
+        i++;
+        boolean negExp = false;
+        if (i < to && (s[i] == '-' || s[i] == '+')) negExp = s[i++] == '-';
+        if (i == to) throw invalid(s, from, to);
+        int e = 0;
+        for (; i < to && isDigit(s[i]); i++) e = Math.min(e * 10 + (s[i] - '0'), 1_000_000);
+        if (i != to) throw invalid(s, from, to);
+        // value = m 2^(e2 + e), with the dropped digits as a sticky bit below m; pack() scales by 2^-55
+        return Binary64Core.pack(neg ? 1 : 0, e2 + (negExp ? -e : e) - 1 + 55, m << 1 | (sticky ? 1 : 0));
+    }
+
+    private static long parseHexBits(byte[] s, int from, int to) {
+        long bits = 0;
+        for (int i = from; i < to; i++) bits = bits << 4 | hexDigit(s[i]);
+        return bits;
+    }
+
+    private static long binary(byte[] s, int from, int i, int to, boolean neg) {
+    // 0b and 64 binary digits: raw bits
+        if (to - i != 64 || neg || s[from] == '+') throw new NumberFormatException("raw bits need 64 binary digits: " + text(s, from, to));
+        long bits = 0;
+        for (; i < to; i++) {
+            if (s[i] != '0' && s[i] != '1') throw invalid(s, from, to);
+            bits = bits << 1 | (s[i] - '0');
+        }
+        return bits;
+    }
+
+    private static long word(byte[] s, int from, int i, int to, boolean neg) {
+        if (matches(s, i, to, "inf") || matches(s, i, to, "infinity")) return INF | (neg ? Binary64Core.SIGN_MASK : 0);
+        if (matches(s, i, to, "nan")) return Binary64Core.QNAN;
+        throw invalid(s, from, to);
+    }
+
+    private static boolean matches(byte[] s, int from, int to, String lower) {
+        if (to - from != lower.length()) return false;
+        for (int k = 0; k < lower.length(); k++) if ((s[from + k] | 0x20) != lower.charAt(k)) return false;
+        return true;
+    }
+
+    private static boolean isDigit(byte b) { return b >= '0' && b <= '9'; }
+
+    private static int hexDigit(byte b) {
+        if (b >= '0' && b <= '9') return b - '0';
+        int l = b | 0x20;
+        return l >= 'a' && l <= 'f' ? l - 'a' + 10 : -1;
+    }
+
+    private static NumberFormatException invalid(byte[] s, int from, int to) {
+        return new NumberFormatException("Not a number: " + text(s, from, to));
+    }
+
+    private static String text(byte[] s, int from, int to) { return new String(s, from, to - from, StandardCharsets.ISO_8859_1); }
+
+    // Formatting
+
+    static String toString(long bits) {
+        byte[] b = new byte[MAX_LENGTH];
+        return new String(b, 0, format(bits, b, 0), StandardCharsets.ISO_8859_1);
+    }
+
+    static int hex(long bits, byte[] out, int at) {
+    // "0x" and 16 hex digits into out[at..]; returns the end
+        out[at] = '0';
+        out[at + 1] = 'x';
+        for (int k = 17; k >= 2; k--, bits >>>= 4) out[at + k] = (byte) "0123456789abcdef".charAt((int) bits & 0xF);
+        return at + 18;
+    }
+
+    static int format(long bits, byte[] out, int at) {
+    // The shortest round-trip decimal of `bits` into out[at..] (at most MAX_LENGTH bytes); returns the end
+        int bq = (int) (bits >>> Binary64Core.FRAC_BITS) & Binary64Core.EXP_MAX;
+        long t = bits & Binary64Core.FRAC_MASK;
+        if (bq == Binary64Core.EXP_MAX) return ascii(t != 0 ? "NaN" : bits < 0 ? "-Infinity" : "Infinity", out, at);
+        if (bits < 0) out[at++] = '-';
+        if (bq == 0 && t == 0) return ascii("0.0", out, at);
+        if (bq != 0) {
+            int mq = -Q_MIN + 1 - bq;
+            long c = Binary64Core.HIDDEN | t;
+            if (0 < mq && mq < 53 && (c >> mq) << mq == c) return layout(c >> mq, 0, out, at); // an integer
+            return shortest(-mq, c, 0, out, at);
+        }
+        return t < C_TINY ? shortest(Q_MIN, 10 * t, -1, out, at) : shortest(Q_MIN, t, 0, out, at);
+    }
+
+    private static int shortest(int q, long c, int dk, byte[] out, int at) {
+    // Schubfach on v = c 2^q: the decimals in v's rounding interval with the fewest digits, the one nearest v
+        int odd = (int) c & 1;
+        long cb = c << 2, cbr = cb + 2, cbl;
+        int k;
+        if (c != Binary64Core.HIDDEN || q == Q_MIN) {
+            cbl = cb - 2;                            // interval symmetric around v
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;                            // at a power of two the interval below is half as wide
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 2;
+        long g1 = G[2 * (k - K_MIN)], g0 = G[2 * (k - K_MIN) + 1];
+        long vb = rop(g1, g0, cb << h), vbl = rop(g1, g0, cbl << h), vbr = rop(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+        if (s >= 100) {
+            // one digit fewer: s' = floor(s / 10), then 10 s' and 10 (s' + 1)
+            long sp10 = 10 * Math.multiplyHigh(s, 115_292_150_460_684_698L << 4), tp10 = sp10 + 10;
+            boolean upin = vbl + odd <= sp10 << 2, wpin = (tp10 << 2) + odd <= vbr;
+            if (upin != wpin) return layout(upin ? sp10 : tp10, k, out, at);
+        }
+        long tt = s + 1;
+        boolean uin = vbl + odd <= s << 2, win = (tt << 2) + odd <= vbr;
+        if (uin != win) return layout(uin ? s : tt, k + dk, out, at);
+        long cmp = vb - (s + tt << 1);
+        return layout(cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : tt, k + dk, out, at);
+    }
+
+    private static long rop(long g1, long g0, long cp) {
+    // Round to odd of g cp 2^-127, where g = g1 2^63 + g0
+        long x1 = Math.multiplyHigh(g0, cp);
+        long y0 = g1 * cp, y1 = Math.multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    private static int layout(long f, int e, byte[] out, int at) {
+    // f 10^e (f != 0) as Double.toString lays it out
+        while (f % 10 == 0) {
+            f /= 10;
+            e++;
+        }
+        int len = 1;
+        for (long x = f; x >= 10; x /= 10) len++;
+        int point = len + e;                         // value = 0.d1 d2 ... 10^point
+        if (point > 0 && point <= 7) {
+            if (len <= point) {
+                at = digits(f, len, out, at);
+                for (int k = len; k < point; k++) out[at++] = '0';
+                out[at++] = '.';
+                out[at++] = '0';
+                return at;
+            }
+            digits(f, len, out, at + 1);
+            System.arraycopy(out, at + 1, out, at, point);
+            out[at + point] = '.';
+            return at + len + 1;
+        }
+        if (point > -3 && point <= 0) {
+            out[at++] = '0';
+            out[at++] = '.';
+            for (int k = point; k < 0; k++) out[at++] = '0';
+            return digits(f, len, out, at);
+        }
+        digits(f, len, out, at + 1);
+        out[at] = out[at + 1];
+        out[at + 1] = '.';
+        at += len + 1;
+        if (len == 1) out[at++] = '0';
+        out[at++] = 'E';
+        int x = point - 1;
+        if (x < 0) {
+            out[at++] = '-';
+            x = -x;
+        }
+        if (x >= 100) out[at++] = (byte) ('0' + x / 100);
+        if (x >= 10) out[at++] = (byte) ('0' + x / 10 % 10);
+        out[at++] = (byte) ('0' + x % 10);
+        return at;
+    }
+
+    private static int digits(long f, int len, byte[] out, int at) {
+    // The len decimal digits of f into out[at, at + len)
+        for (int k = at + len - 1; k >= at; k--, f /= 10) out[k] = (byte) ('0' + f % 10);
+        return at + len;
+    }
+
+    private static int ascii(String s, byte[] out, int at) {
+        for (int k = 0; k < s.length(); k++) out[at++] = (byte) s.charAt(k);
+        return at;
+    }
+
+    // floor(log10(2^e)), floor(log10(3/4 2^e)) and floor(log2(10^e)), exact over the ranges used
+
+    private static int flog10pow2(int e) { return (int) (e * 661_971_961_083L >> 41); }
+
+    private static int flog10threeQuartersPow2(int e) { return (int) (e * 661_971_961_083L + -274_743_187_321L >> 41); }
+
+    private static int flog2pow10(int e) { return (int) (e * 913_124_641_741L >> 38); }
+
+    private static long unsignedMultiplyHigh(long a, long b) {
+        return Math.multiplyHigh(a, b) + ((a >> 63) & b) + ((b >> 63) & a);
+    }
+}
@@ -0,0 +1,208 @@
+package errorexplorer;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+
+public final class ErrorAnalysis {
+    // Rounding error of simulated binary64 results, measured two ways and aggregated over a batch:
+    //   run()       the fast path: one Binary64Core run under every mode plus the status word from pack.
+    //               G, R and sticky place the discarded bits to within 1/8 ulp, so the error is the
+    //               middle of that interval; nothing is allocated
+    //   runExact()  the exact real result as a BigDecimal built from the operands' mantissas and exponents
+    //               (+ - * and fma exactly, / and sqrt to 40 digits), then the error against it
+    // Errors are (rounded - exact), in ulps of the binade the exact value falls in and relative to |exact|.
+    // Flags are IEEE-754's five exceptions; tininess for underflow is detected before rounding.
+    // One instance is not thread-safe; give each thread its own and merge() them at the end.
+
+    public enum Flag {
+        INVALID, DIV_BY_ZERO, OVERFLOW, UNDERFLOW, INEXACT;
+
+        public int bit() { return 1 << ordinal(); }
+    }
+
+    public record Result(long bits, BigDecimal exact, double ulpError, double relError, int flags) {
+        // One analyzed operation; exact is null when the result is not a real number (NaN or infinite
+        // operands, division by zero), and the errors are NaN when it is not finite or it overflowed
+
+        public double value() { return Double.longBitsToDouble(bits); }
+
+        public boolean has(Flag f) { return (flags & f.bit()) != 0; }
+
+        public String flagNames() { return ErrorAnalysis.flagNames(flags); }
+    }
+
+    public record Summary(long ops, long measured, long[] flagCounts,
+                          double meanAbsUlp, double maxAbsUlp, double meanUlp, double meanAbsRel, double maxAbsRel) {
+        // Batch totals: flagCounts[f.ordinal()] ops raised each flag; the ulp averages are over the
+        // `measured` ops with a finite result, the relative ones leave out results that underflowed
+
+        public long count(Flag f) { return flagCounts[f.ordinal()]; }
+
+        @Override
+        public String toString() {
+            StringBuilder b = new StringBuilder(160).append(String.format("%,d ops", ops));
+            for (Flag f : Flag.values()) b.append(", ").append(String.format("%,d", count(f))).append(' ').append(name(f));
+            return b.append(String.format("; |ulp error| mean %.4f max %.4f, signed mean %+.4f; |relative error| mean %.3g max %.3g",
+                meanAbsUlp, maxAbsUlp, meanUlp, meanAbsRel, maxAbsRel)).toString();
+        }
+    }
+
+    private static final MathContext REFERENCE = new MathContext(40); // well past binary64's 17 digits
+    private static final Flag[] FLAGS = Flag.values();
+    private static final int RTZ = Rounding.TOWARD_ZERO.ordinal();
+
+    private final long[] row = new long[Binary64Core.STATUS + 1];
+    private long ops, measured, measuredRel;
+    private final long[] flagCounts = new long[FLAGS.length];
+    private double sumAbsUlp, maxAbsUlp, sumUlp, sumAbsRel, maxAbsRel;
+    private double ulpError, relError;
+    private int flags;
+
+    public long run(Op op, long aBits, long bBits, long cBits, Rounding mode) {
+    // Fast path: the result bits under `mode`; its error and flags are then available from the getters
+        long bits = core(op, aBits, bBits, cBits, mode);
+        long status = row[Binary64Core.STATUS];
+        ulpError = Double.NaN;
+        relError = Double.NaN;
+        if (Double.isFinite(Double.longBitsToDouble(bits)) && !Binary64Core.overflowed(status, mode)) {
+            int grs = (int) (status & Binary64Core.STATUS_GRS);
+            if (grs == 0) {
+                ulpError = 0;
+                relError = 0;
+            } else {
+                // Discarded fraction d of an ulp: G and R exactly, sticky somewhere in the next quarter
+                double d = (grs >> 1) * 0.25 + (grs & 1) * 0.125;
+                boolean up = (status >>> (Binary64Core.STATUS_UP_SHIFT + mode.ordinal()) & 1) != 0;
+                double truncated = Double.longBitsToDouble(row[RTZ]);
+                double e = up ? 1 - d : -d;
+                ulpError = row[RTZ] < 0 ? -e : e;
+                relError = ulpError / (Math.abs(truncated) / Math.ulp(truncated) + d); // |exact| in ulps
+            }
+        }
+        record(op, aBits, bBits, cBits, bits, status, mode);
+        return bits;
+    }
+
+    public Result runExact(Op op, long aBits, long bBits, long cBits, Rounding mode) {
+    // Exact path: the error against the BigDecimal result; also counted in the running totals
+        long bits = core(op, aBits, bBits, cBits, mode);
+        long status = row[Binary64Core.STATUS];
+        double v = Double.longBitsToDouble(bits);
+        BigDecimal exact = exactValue(op, aBits, bBits, cBits);
+        if (exact == null && Double.isFinite(v)) exact = new BigDecimal(v); // x / Inf and the like: exactly 0
+        ulpError = Double.NaN;
+        relError = Double.NaN;
+        if (exact != null && Double.isFinite(v) && !Binary64Core.overflowed(status, mode)) {
+            BigDecimal diff = new BigDecimal(v).subtract(exact);
+            ulpError = inUlps(diff, row[RTZ]).doubleValue();
+            relError = exact.signum() == 0 ? 0 : diff.divide(exact.abs(), MathContext.DECIMAL64).doubleValue();
+        }
+        record(op, aBits, bBits, cBits, bits, status, mode);
+        return new Result(bits, exact, ulpError, relError, flags);
+    }
+
+    public static Result analyze(Op op, long aBits, long bBits, long cBits, Rounding mode) {
+    // One operation through the exact path, for display
+        return new ErrorAnalysis().runExact(op, aBits, bBits, cBits, mode);
+    }
+
+    // The last run
+
+    public double ulpError() { return ulpError; }
+
+    public double relError() { return relError; }
+
+    public int flags() { return flags; }
+
+    public long status() { return row[Binary64Core.STATUS]; }
+
+    // Running totals
+
+    public Summary summary() {
+        long m = Math.max(1, measured);
+        return new Summary(ops, measured, flagCounts.clone(),
+            sumAbsUlp / m, maxAbsUlp, sumUlp / m, sumAbsRel / Math.max(1, measuredRel), maxAbsRel);
+    }
+
+    public void merge(ErrorAnalysis other) {
+        ops += other.ops;
+        measured += other.measured;
+        measuredRel += other.measuredRel;
+        for (int f = 0; f < flagCounts.length; f++) flagCounts[f] += other.flagCounts[f];
+        sumAbsUlp += other.sumAbsUlp;
+        sumUlp += other.sumUlp;
+        sumAbsRel += other.sumAbsRel;
+        maxAbsUlp = Math.max(maxAbsUlp, other.maxAbsUlp);
+        maxAbsRel = Math.max(maxAbsRel, other.maxAbsRel);
+    }
+
+    private long core(Op op, long aBits, long bBits, long cBits, Rounding mode) {
+        Binary64Core.allModes(op, aBits, bBits, cBits, row, 0);
+        return row[mode.ordinal()];
+    }
+
+    private void record(Op op, long aBits, long bBits, long cBits, long bits, long status, Rounding mode) {
+        int f = 0;
+        boolean grs = (status & Binary64Core.STATUS_GRS) != 0;
+        boolean nanIn = isNaN(aBits) || (op.arity() > 1 && isNaN(bBits)) || (op.arity() > 2 && isNaN(cBits));
+        if (isNaN(bits) && !nanIn) f |= Flag.INVALID.bit();
+        if (op == Op.DIV && (bBits << 1) == 0 && isFinite(aBits) && (aBits << 1) != 0) f |= Flag.DIV_BY_ZERO.bit();
+        if (Binary64Core.overflowed(status, mode)) f |= Flag.OVERFLOW.bit() | Flag.INEXACT.bit();
+        if (grs) f |= Flag.INEXACT.bit();
+        if (grs && (status & Binary64Core.STATUS_TINY) != 0) f |= Flag.UNDERFLOW.bit();
+        flags = f;
+        for (int k = 0; k < FLAGS.length; k++) flagCounts[k] += f >>> k & 1;
+        ops++;
+        if (Double.isNaN(ulpError)) return;
+        measured++;
+        double abs = Math.abs(ulpError), rel = Math.abs(relError);
+        sumAbsUlp += abs;
+        sumUlp += ulpError;
+        if (abs > maxAbsUlp) maxAbsUlp = abs;
+        if ((f & Flag.UNDERFLOW.bit()) != 0) return; // relative to a value far below the precision kept
+        measuredRel++;
+        sumAbsRel += rel;
+        if (rel > maxAbsRel) maxAbsRel = rel;
+    }
+
+    static BigDecimal exactValue(Op op, long aBits, long bBits, long cBits) {
+    // The real result from the operands' exact values (mantissa * 2^exponent); null when there is none
+        if (!isFinite(aBits) || (op.arity() > 1 && !isFinite(bBits)) || (op.arity() > 2 && !isFinite(cBits))) return null;
+        BigDecimal a = new BigDecimal(Double.longBitsToDouble(aBits));
+        BigDecimal b = new BigDecimal(Double.longBitsToDouble(op.arity() > 1 ? bBits : 0));
+        return switch (op) {
+            case ADD -> a.add(b);
+            case SUB -> a.subtract(b);
+            case MUL -> a.multiply(b);
+            case DIV -> b.signum() == 0 ? null : a.divide(b, REFERENCE);
+            case SQRT -> a.signum() < 0 ? null : a.sqrt(REFERENCE);
+            case FMA -> a.multiply(b).add(new BigDecimal(Double.longBitsToDouble(cBits)));
+        };
+    }
+
+    private static BigDecimal inUlps(BigDecimal diff, long truncatedBits) {
+    // diff / ulp, where ulp = 2^-k is the spacing in the truncated result's binade (exact: a power of two)
+        int k = Binary64Core.EXP_BIAS + Binary64Core.FRAC_BITS - Math.max((int) (truncatedBits >>> Binary64Core.FRAC_BITS) & Binary64Core.EXP_MAX, 1);
+        BigDecimal scale = new BigDecimal(BigInteger.ONE.shiftLeft(Math.abs(k)));
+        return k >= 0 ? diff.multiply(scale) : diff.divide(scale);
+    }
+
+    static String flagNames(int flags) {
+    // "inexact,underflow", or "-" when no flag is raised
+        if (flags == 0) return "-";
+        StringBuilder b = new StringBuilder();
+        for (Flag f : FLAGS) {
+            if ((flags & f.bit()) == 0) continue;
+            if (b.length() > 0) b.append(',');
+            b.append(name(f));
+        }
+        return b.toString();
+    }
+
+    private static String name(Flag f) { return f.name().toLowerCase(java.util.Locale.ROOT).replace("_", "-"); }
+
+    private static boolean isNaN(long bits) { return (bits & ~Binary64Core.SIGN_MASK) > Binary64Core.POS_INF; }
+
+    private static boolean isFinite(long bits) { return (bits & Binary64Core.EXP_MASK) != Binary64Core.EXP_MASK; }
+}
@@ -0,0 +1,97 @@
+package errorexplorer;
+
+import java.awt.*;
+import java.util.List;
+import javax.swing.*;
+
+final class ErrorChartPanel extends JPanel {
+    // Line chart of rounding error (in ULPs) against step count, fed incrementally on the EDT
+    // while a sweep is running. Storage is fixed when the sweep starts, so it never grows with N.
+
+    private static final int MARGIN_LEFT = 80, MARGIN_RIGHT = 16, MARGIN_TOP = 28, MARGIN_BOTTOM = 40;
+
+    private long[] steps = new long[0];
+    private double[] ulp = new double[0];
+    private int size;
+    private long totalSteps = 1;
+    private double yMin = -1, yMax = 1;
+    private String title = "Run a sweep to chart error growth";
+    private Sweep.Point last;
+
+    ErrorChartPanel() {
+        setBackground(Color.WHITE);
+        setPreferredSize(new Dimension(0, 320));
+    }
+
+    void reset(long totalSteps, int capacity, String title) {
+    // Start a new series with room for `capacity` points
+        this.steps = new long[capacity];
+        this.ulp = new double[capacity];
+        this.size = 0;
+        this.totalSteps = Math.max(1, totalSteps);
+        this.yMin = -1;
+        this.yMax = 1;
+        this.title = title;
+        this.last = null;
+        repaint();
+    }
+
+    void append(List<Sweep.Point> batch) {
+    // Add newly sampled points; anything beyond the capacity is ignored
+        for (Sweep.Point p : batch) {
+            last = p;
+            if (size == steps.length || Double.isNaN(p.ulpError())) continue;
+            steps[size] = p.step();
+            ulp[size] = p.ulpError();
+            yMin = Math.min(yMin, ulp[size]);
+            yMax = Math.max(yMax, ulp[size]);
+            size++;
+        }
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g0) {
+        super.paintComponent(g0);
+        Graphics2D g = (Graphics2D) g0;
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 11));
+
+        int w = getWidth() - MARGIN_LEFT - MARGIN_RIGHT, h = getHeight() - MARGIN_TOP - MARGIN_BOTTOM;
+        if (w <= 0 || h <= 0) return;
+        int x0 = MARGIN_LEFT, y0 = MARGIN_TOP;
+
+        // Title and latest sample
+        g.setColor(Color.BLACK);
+        g.drawString(title, x0, 16);
+        if (last != null) {
+            String s = String.format("step %,d  value %s  abs err %.3g  ulp err %.3f",
+                last.step(), last.value(), last.absError(), last.ulpError());
+            g.drawString(s, x0, getHeight() - 8);
+        }
+
+        // Axes, zero line and y range labels
+        g.setColor(Color.LIGHT_GRAY);
+        g.drawRect(x0, y0, w, h);
+        int zeroY = y0 + (int) Math.round((yMax / (yMax - yMin)) * h);
+        g.drawLine(x0, zeroY, x0 + w, zeroY);
+        g.setColor(Color.DARK_GRAY);
+        g.drawString(String.format("%.3g ulp", yMax), 4, y0 + 10);
+        g.drawString(String.format("%.3g ulp", yMin), 4, y0 + h);
+        g.drawString("0", x0 - 12, zeroY + 4);
+        g.drawString(String.format("%,d", totalSteps), x0 + w - 90, y0 + h + 14);
+
+        // Series
+        if (size == 0) return;
+        g.setColor(new Color(0, 90, 200));
+        int px = -1, py = -1;
+        for (int i = 0; i < size; i++) {
+            int x = x0 + (int) Math.round((double) steps[i] / totalSteps * w);
+            int y = y0 + (int) Math.round((yMax - ulp[i]) / (yMax - yMin) * h);
+            if (px >= 0) g.drawLine(px, py, x, y);
+            else g.fillRect(x - 1, y - 1, 3, 3);
+            px = x;
+            py = y;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package errorexplorer;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Locale;
+import java.util.Objects;
+
+public final class Format {
+    // IEEE-754 style binary format: sign, expBits exponent bits, fracBits fraction bits.
+    // The String/BigInteger pipeline in Minimal_Floating_Simulator takes any Format; the fast engine
+    // is picked here once, when the Format is built:
+    //   width <= 32         NarrowCore     int bit patterns (binary16, bfloat16, binary32, custom)
+    //   binary64            Binary64Core   long bit patterns
+    //   binary128           Binary128Core  bit patterns in two longs
+    //   anything else       the pipeline (correct, but BigInteger-speed)
+
+    public static final Format BINARY16  = new Format("binary16", 5, 10);
+    public static final Format BFLOAT16  = new Format("bfloat16", 8, 7);
+    public static final Format BINARY32  = new Format("binary32", 8, 23);
+    public static final Format BINARY64  = new Format("binary64", 11, 52);
+    public static final Format BINARY128 = new Format("binary128", 15, 112);
+
+    private static final Format[] STANDARD = { BINARY16, BFLOAT16, BINARY32, BINARY64, BINARY128 };
+
+    enum Engine { NARROW, BINARY64, BINARY128, PIPELINE }
+
+    final String name;
+    final int expBits, fracBits, width, precision, bias, expMax;
+    final Engine engine;
+    final NarrowCore narrow; // null unless engine == NARROW
+
+    private Format(String name, int expBits, int fracBits) {
+        if (expBits < 2 || expBits > 15) throw new IllegalArgumentException("Exponent bits must be between 2 and 15: " + expBits);
+        if (fracBits < 1 || fracBits > 112) throw new IllegalArgumentException("Fraction bits must be between 1 and 112: " + fracBits);
+        this.name = name;
+        this.expBits = expBits;
+        this.fracBits = fracBits;
+        this.width = 1 + expBits + fracBits;
+        this.precision = fracBits + 1;
+        this.bias = (1 << (expBits - 1)) - 1;
+        this.expMax = (1 << expBits) - 1;
+        if (width <= 32) engine = Engine.NARROW;
+        else if (expBits == 11 && fracBits == 52) engine = Engine.BINARY64;
+        else if (expBits == 15 && fracBits == 112) engine = Engine.BINARY128;
+        else engine = Engine.PIPELINE;
+        this.narrow = engine == Engine.NARROW ? new NarrowCore(this) : null;
+    }
+
+    public static Format of(int expBits, int fracBits) {
+    // The standard format with these widths if there is one, otherwise a custom format
+        for (Format f : STANDARD) if (f.expBits == expBits && f.fracBits == fracBits) return f;
+        return new Format("e" + expBits + "m" + fracBits, expBits, fracBits);
+    }
+
+    public static Format parse(String token) {
+    // Standard names and common aliases ("fp16", "bf16", "single", "quad"), or "e<exp>m<frac>" such as "e4m3"
+        String t = token.trim().toLowerCase(Locale.ROOT);
+        switch (t) {
+            case "binary16", "fp16", "half" -> { return BINARY16; }
+            case "bfloat16", "bf16" -> { return BFLOAT16; }
+            case "binary32", "fp32", "single", "float" -> { return BINARY32; }
+            case "binary64", "fp64", "double" -> { return BINARY64; }
+            case "binary128", "fp128", "quad" -> { return BINARY128; }
+            default -> { }
+        }
+        int m = t.indexOf('m');
+        if (t.startsWith("e") && m > 1) {
+            try {
+                return of(Integer.parseInt(t.substring(1, m)), Integer.parseInt(t.substring(m + 1)));
+            } catch (NumberFormatException ignored) {
+                // fall through to the error below
+            }
+        }
+        throw new IllegalArgumentException("Unknown format: " + token);
+    }
+
+    public String name() { return name; }
+
+    public int expBits() { return expBits; }
+
+    public int fracBits() { return fracBits; }
+
+    public int width() { return width; }
+
+    @Override
+    public String toString() { return name; }
+
+    // Fast engines on raw bits
+
+    public long compute(Op op, long aBits, long bBits, Rounding mode) {
+    // Formats up to 64 bits wide; bit patterns sit in the low `width` bits
+        return compute(op, aBits, binaryOperand(op, bBits), 0, mode);
+    }
+
+    public long compute(Op op, long aBits, long bBits, long cBits, Rounding mode) {
+    // Any op; the narrow engine has no SQRT or FMA yet, so those take the pipeline
+        Objects.requireNonNull(op, "op");
+        return switch (engine) {
+            case NARROW -> op.arity() == 2 ? narrow.compute(op, (int) aBits, (int) bBits, mode) & 0xFFFF_FFFFL
+                : simulate(op, BigInteger.valueOf(aBits), BigInteger.valueOf(bBits), BigInteger.valueOf(cBits), mode, Trace.OFF).longValue();
+            case BINARY64 -> Simulator.compute(op, aBits, bBits, cBits, mode);
+            case BINARY128 -> throw new IllegalArgumentException("binary128 needs two longs per operand; use the BigInteger compute");
+            case PIPELINE -> {
+                if (width > 64) throw new IllegalArgumentException(name + " needs more than 64 bits per operand; use the BigInteger compute");
+                yield simulate(op, BigInteger.valueOf(aBits), BigInteger.valueOf(bBits), BigInteger.valueOf(cBits), mode, Trace.OFF).longValue();
+            }
+        };
+    }
+
+    public BigInteger compute(Op op, BigInteger aBits, BigInteger bBits, Rounding mode) {
+    // Any format, through its fast engine where it has one
+        return compute(op, aBits, binaryOperand(op, bBits), BigInteger.ZERO, mode);
+    }
+
+    public BigInteger compute(Op op, BigInteger aBits, BigInteger bBits, BigInteger cBits, Rounding mode) {
+        return switch (engine) {
+            case NARROW, BINARY64 -> BigInteger.valueOf(compute(op, aBits.longValue(), bBits.longValue(), cBits.longValue(), mode));
+            case BINARY128 -> {
+                if (op.arity() != 2) yield simulate(op, aBits, bBits, cBits, mode, Trace.OFF); // no quad SQRT/FMA yet
+                long[] out = new long[2];
+                Binary128Core.compute(op, hi(aBits), aBits.longValue(), hi(bBits), bBits.longValue(), mode, out, 0);
+                yield join(out[0], out[1]);
+            }
+            case PIPELINE -> simulate(op, aBits, bBits, cBits, mode, Trace.OFF);
+        };
+    }
+
+    public BigInteger simulate(Op op, BigInteger aBits, BigInteger bBits, Rounding mode, Trace trace) {
+    // The String/BigInteger explanation pipeline for this format, with its step trace
+        return simulate(op, aBits, binaryOperand(op, bBits), BigInteger.ZERO, mode, trace);
+    }
+
+    public BigInteger simulate(Op op, BigInteger aBits, BigInteger bBits, BigInteger cBits, Rounding mode, Trace trace) {
+        String a = toBitString(aBits), b = toBitString(bBits);
+        trace.clear();
+        long t0 = Metrics.ENABLED ? Metrics.begin(Metrics.PIPELINE, op) : 0;
+        String res = switch (op) {
+            case ADD -> Minimal_Floating_Simulator.addOrSub(this, a, b, false, mode, trace);
+            case SUB -> Minimal_Floating_Simulator.addOrSub(this, a, b, true, mode, trace);
+            case MUL -> Minimal_Floating_Simulator.multiply(this, a, b, mode, trace);
+            case DIV -> Minimal_Floating_Simulator.divide(this, a, b, mode, trace);
+            case SQRT -> Minimal_Floating_Simulator.sqrt(this, a, mode, trace);
+            case FMA -> Minimal_Floating_Simulator.fma(this, a, b, toBitString(cBits), mode, trace);
+        };
+        if (Metrics.ENABLED) Metrics.end(Metrics.PIPELINE, op, t0);
+        return new BigInteger(res, 2);
+    }
+
+    private static <T> T binaryOperand(Op op, T bBits) {
+    // The two-operand overloads cannot express FMA
+        if (op == Op.FMA) throw new IllegalArgumentException("FMA takes three operands");
+        return bBits;
+    }
+
+    // Conversions
+
+    public long fromDouble(double x, Rounding mode) {
+    // Round a double into this format (formats up to 64 bits wide)
+        return switch (engine) {
+            case NARROW -> narrow.fromDouble(x, mode) & 0xFFFF_FFFFL;
+            case BINARY64 -> Double.doubleToRawLongBits(x);
+            default -> {
+                if (width > 64) throw new IllegalArgumentException(name + " needs more than 64 bits per operand; use parseDecimal");
+                yield parseDecimal(x, mode).longValue();
+            }
+        };
+    }
+
+    public double toDouble(long bits) {
+    // The value as a double (exact for every standard format narrower than binary64)
+        return switch (engine) {
+            case NARROW -> narrow.toDouble((int) bits);
+            case BINARY64 -> Double.longBitsToDouble(bits);
+            default -> toDouble(BigInteger.valueOf(bits).and(mask()));
+        };
+    }
+
+    public double toDouble(BigInteger bits) {
+        if (engine == Engine.BINARY128) return Binary128Core.toDouble(hi(bits), bits.longValue());
+        if (width <= 64 && engine != Engine.PIPELINE) return toDouble(bits.longValue());
+        if (isNaN(bits)) return Double.NaN;
+        BigDecimal v = toBigDecimal(bits);
+        if (v == null) return bits.testBit(width - 1) ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        double d = v.doubleValue();
+        return d == 0 && bits.testBit(width - 1) ? -0.0 : d; // doubleValue() is correctly rounded
+    }
+
+    public BigInteger parseDecimal(String text, Rounding mode) {
+    // Correctly rounded decimal -> format conversion (no detour through double), plus inf/nan names
+        String t = text.trim();
+        String lower = t.toLowerCase(Locale.ROOT);
+        boolean neg = lower.startsWith("-");
+        String body = lower.startsWith("-") || lower.startsWith("+") ? lower.substring(1) : lower;
+        if (body.equals("nan")) return new BigInteger(Minimal_Floating_Simulator.qnan(this), 2);
+        if (body.equals("inf") || body.equals("infinity")) return signBit(neg).or(BigInteger.valueOf(expMax).shiftLeft(fracBits));
+        BigDecimal d;
+        try {
+            d = new BigDecimal(t);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Not a number: " + text);
+        }
+        if (d.signum() == 0) return signBit(neg);
+        return round(d.abs(), neg ? 1 : 0, mode);
+    }
+
+    public BigInteger parseDecimal(double x, Rounding mode) {
+        if (Double.isNaN(x)) return parseDecimal("nan", mode);
+        if (Double.isInfinite(x)) return parseDecimal(x > 0 ? "inf" : "-inf", mode);
+        if (x == 0) return signBit(Double.doubleToRawLongBits(x) < 0);
+        return round(new BigDecimal(x).abs(), x < 0 ? 1 : 0, mode);
+    }
+
+    private BigInteger round(BigDecimal abs, int sign, Rounding mode) {
+    // value = num / den; take enough quotient bits for [precision | GRS] and fold the remainder into sticky
+        int magnitude = abs.precision() - abs.scale(); // decimal digits before the point
+        if (magnitude > 5000 || magnitude < -5000) {
+            // Far outside every format's range (binary128 spans about 1e-4966 .. 1e4932): overflow or underflow
+            int exp = magnitude > 0 ? 1 << 20 : -(1 << 20);
+            return new BigInteger(Minimal_Floating_Simulator.pack(this, sign, exp, BigInteger.ONE, mode, Trace.OFF), 2);
+        }
+        BigInteger num = abs.unscaledValue(), den = BigInteger.ONE;
+        if (abs.scale() > 0) den = BigInteger.TEN.pow(abs.scale());
+        else num = num.multiply(BigInteger.TEN.pow(-abs.scale()));
+        int t = precision + 5 - (num.bitLength() - den.bitLength()); // quotient gets at least precision + 4 bits
+        BigInteger[] qr = t >= 0 ? num.shiftLeft(t).divideAndRemainder(den) : num.divideAndRemainder(den.shiftLeft(-t));
+        BigInteger q = qr[1].signum() != 0 ? qr[0].setBit(0) : qr[0];
+        // value = q * 2^-t = q * 2^(exp - fracBits - 3)
+        return new BigInteger(Minimal_Floating_Simulator.pack(this, sign, fracBits + 3 - t, q, mode, Trace.OFF), 2);
+    }
+
+    public BigDecimal toBigDecimal(BigInteger bits) {
+    // Exact value; null for infinities and NaN
+        int e = bits.shiftRight(fracBits).intValue() & expMax;
+        if (e == expMax) return null;
+        BigInteger m = bits.and(BigInteger.ONE.shiftLeft(fracBits).subtract(BigInteger.ONE));
+        if (e != 0) m = m.setBit(fracBits);
+        int scale = Math.max(e, 1) - bias - fracBits; // value = m * 2^scale
+        BigDecimal v = scale >= 0 ? new BigDecimal(m.shiftLeft(scale))
+                                  : new BigDecimal(m.multiply(BigInteger.valueOf(5).pow(-scale)), -scale);
+        return bits.testBit(width - 1) ? v.negate() : v;
+    }
+
+    public String toDecimalString(BigInteger bits) {
+    // Enough significant digits to identify the value in this format
+        if (isNaN(bits)) return "NaN";
+        BigDecimal v = toBigDecimal(bits);
+        if (v == null) return bits.testBit(width - 1) ? "-Infinity" : "Infinity";
+        if (v.signum() == 0) return bits.testBit(width - 1) ? "-0.0" : "0.0";
+        int digits = (int) Math.ceil(precision * Math.log10(2)) + 1;
+        BigDecimal r = v.round(new MathContext(digits, RoundingMode.HALF_EVEN)).stripTrailingZeros();
+        // Plain notation over the same range as Double.toString, scientific outside it
+        BigDecimal abs = r.abs();
+        boolean plain = abs.compareTo(new BigDecimal("1e-3")) >= 0 && abs.compareTo(new BigDecimal("1e7")) < 0;
+        return plain ? r.toPlainString() : r.toString();
+    }
+
+    // Bit-pattern helpers
+
+    String toBitString(BigInteger bits) {
+        String s = bits.and(mask()).toString(2);
+        return "0".repeat(width - s.length()) + s;
+    }
+
+    public String toHex(BigInteger bits) {
+        String h = bits.and(mask()).toString(16);
+        return "0x" + "0".repeat((width + 3) / 4 - h.length()) + h;
+    }
+
+    public BigInteger parseHex(String s) {
+    // 0x followed by exactly width/4 (rounded up) hex digits
+        int digits = (width + 3) / 4;
+        if (!(s.startsWith("0x") || s.startsWith("0X")) || s.length() != 2 + digits) {
+            throw new IllegalArgumentException(name + " raw bits need " + digits + " hex digits: " + s);
+        }
+        BigInteger v = new BigInteger(s.substring(2), 16);
+        if (v.bitLength() > width) throw new IllegalArgumentException("More than " + width + " bits: " + s);
+        return v;
+    }
+
+    boolean isNaN(BigInteger bits) {
+        int e = bits.shiftRight(fracBits).intValue() & expMax;
+        return e == expMax && bits.and(BigInteger.ONE.shiftLeft(fracBits).subtract(BigInteger.ONE)).signum() != 0;
+    }
+
+    private BigInteger mask() { return BigInteger.ONE.shiftLeft(width).subtract(BigInteger.ONE); }
+
+    private BigInteger signBit(boolean neg) { return neg ? BigInteger.ONE.shiftLeft(width - 1) : BigInteger.ZERO; }
+
+    static long hi(BigInteger bits) { return bits.shiftRight(64).longValue(); }
+
+    static BigInteger join(long hi, long lo) {
+        return BigInteger.valueOf(hi).shiftLeft(64).or(BigInteger.valueOf(lo).and(BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE)))
+            .and(BigInteger.ONE.shiftLeft(128).subtract(BigInteger.ONE));
+    }
+}
@@ -0,0 +1,381 @@
+package errorexplorer;
+
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.function.Supplier;
+import javax.swing.*;
+
+final class HeatmapPanel extends JPanel {
+    // Heatmap of a SpaceExplorer: A's bit patterns left to right, B's from most negative (bottom) to most
+    // positive (top), so at the coarsest levels every block is one exponent of A against one exponent of B.
+    // Drag to pan, wheel to zoom; each wheel step halves or doubles the patterns per cell. Only visible
+    // tiles are requested, nearest the center first, from one background thread that computes each tile's
+    // rows in parallel; until a tile arrives its parent level is drawn stretched, if that is cached.
+    // With "Every pair", a sampled run of the same settings is computed first and shown as a preview.
+
+    private static final int MARGIN_LEFT = 70, MARGIN_RIGHT = 16, MARGIN_TOP = 8, MARGIN_BOTTOM = 40;
+    private static final int BASE_PX = 4, MAX_PX = 32;
+    private static final Format[] FORMATS = { Format.BINARY16, Format.BFLOAT16, Format.BINARY32, Format.BINARY64 };
+    private static final Color[] RAMP = { new Color(20, 20, 90), new Color(40, 90, 200), new Color(40, 180, 160),
+                                          new Color(230, 220, 60), new Color(220, 40, 30) };
+
+    enum Metric {
+        MEAN_ABS("mean |ulp error|"), MAX_ABS("max |ulp error|"), MEAN("mean signed ulp error"), INEXACT("share inexact");
+
+        private final String label;
+
+        Metric(String label) { this.label = label; }
+
+        @Override
+        public String toString() { return label; }
+    }
+
+    private final Supplier<Rounding> rounding;
+    private final JComboBox<Format> format = new JComboBox<>(FORMATS);
+    private final JComboBox<Op> op = new JComboBox<>(new Op[] { Op.ADD, Op.SUB, Op.MUL, Op.DIV });
+    private final JTextField window = new JTextField("", 7);
+    private final JComboBox<Metric> metric = new JComboBox<>(Metric.values());
+    private final JCheckBox exhaustive = new JCheckBox("Every pair");
+    private final Plot plot = new Plot();
+
+    private volatile SpaceExplorer explorer, preview;
+    private volatile long generation;
+    private final LinkedBlockingDeque<Request> queue = new LinkedBlockingDeque<>();
+    private final Thread worker;
+
+    private record Request(long generation, boolean preview, int shift, long tx, long ty) {}
+
+    HeatmapPanel(Supplier<Rounding> rounding) {
+        super(new BorderLayout(0, 4));
+        this.rounding = rounding;
+        window.setToolTipText("Unbiased exponents lo:hi; blank for the whole format (binary64: -10:10)");
+        JButton explore = new JButton("Explore");
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT, 6, 0));
+        controls.add(format); controls.add(op);
+        controls.add(new JLabel("Exponents:")); controls.add(window);
+        controls.add(metric); controls.add(exhaustive); controls.add(explore);
+        add(controls, BorderLayout.NORTH);
+        add(plot, BorderLayout.CENTER);
+        setPreferredSize(new Dimension(0, 320));
+
+        explore.addActionListener(e -> start());
+        metric.addActionListener(e -> plot.recolor());
+
+        worker = new Thread(this::work, "heatmap-tiles");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void start() {
+    // A new explorer for the current settings; pending tiles of the previous one are dropped
+        SpaceExplorer ex, pre;
+        try {
+            String w = window.getText().isBlank() ? null : window.getText().trim();
+            ex = BatchCli.explorer((Format) format.getSelectedItem(), (Op) op.getSelectedItem(), rounding.get(), w, exhaustive.isSelected());
+            pre = ex.exhaustive ? BatchCli.explorer(ex.format, ex.op, ex.mode, w, false) : null;
+        } catch (IllegalArgumentException e) {
+            plot.message = "Error: " + e.getMessage();
+            plot.repaint();
+            return;
+        }
+        generation++;
+        queue.clear();
+        explorer = ex;
+        preview = pre;
+        worker.interrupt(); // abandons the tile in progress, if any
+        plot.reset(ex, pre);
+    }
+
+    private void work() {
+        while (true) {
+            Request r;
+            try {
+                r = queue.take();
+            } catch (InterruptedException e) {
+                continue;
+            }
+            SpaceExplorer ex = r.preview ? preview : explorer;
+            if (ex == null || r.generation != generation || ex.cached(r.shift, r.tx, r.ty) != null) continue;
+            try {
+                ex.tile(r.shift, r.tx, r.ty);
+            } catch (CancellationException e) {
+                Thread.interrupted();
+                if (r.generation == generation) queue.offerFirst(r); // interrupted for an older generation
+                continue;
+            }
+            SwingUtilities.invokeLater(plot::repaint);
+        }
+    }
+
+    private final class Plot extends JPanel {
+        private SpaceExplorer ex, pre;
+        private int shift, px = BASE_PX, maxShift;
+        private double ox, oy;                        // cell coordinates at the plot's left and bottom edges
+        private boolean fit;
+        private String message = "Pick a format and op, then Explore";
+        private int mouseX = -1, mouseY = -1, dragX, dragY;
+        private List<Request> requested = List.of();
+        private final Map<SpaceExplorer.Tile, BufferedImage> images = new WeakHashMap<>();
+
+        Plot() {
+            setBackground(Color.WHITE);
+            MouseAdapter m = new MouseAdapter() {
+                @Override
+                public void mousePressed(MouseEvent e) { dragX = e.getX(); dragY = e.getY(); }
+
+                @Override
+                public void mouseDragged(MouseEvent e) {
+                    ox -= (double) (e.getX() - dragX) / px;
+                    oy += (double) (e.getY() - dragY) / px;
+                    dragX = e.getX();
+                    dragY = e.getY();
+                    hover(e);
+                }
+
+                @Override
+                public void mouseMoved(MouseEvent e) { hover(e); }
+
+                @Override
+                public void mouseExited(MouseEvent e) { mouseX = -1; repaint(); }
+
+                @Override
+                public void mouseWheelMoved(MouseWheelEvent e) { zoom(e.getX(), e.getY(), e.getWheelRotation() < 0); }
+            };
+            addMouseListener(m);
+            addMouseMotionListener(m);
+            addMouseWheelListener(m);
+        }
+
+        void reset(SpaceExplorer ex, SpaceExplorer pre) {
+            this.ex = ex;
+            this.pre = pre;
+            images.clear();
+            requested = List.of();
+            message = null;
+            fit = true;
+            repaint();
+        }
+
+        void recolor() {
+            images.clear();
+            repaint();
+        }
+
+        private void hover(MouseEvent e) {
+            mouseX = e.getX();
+            mouseY = e.getY();
+            repaint();
+        }
+
+        private int plotWidth() { return getWidth() - MARGIN_LEFT - MARGIN_RIGHT; }
+
+        private int plotHeight() { return getHeight() - MARGIN_TOP - MARGIN_BOTTOM; }
+
+        private void fitView() {
+        // The coarsest level that still fills the plot, with the whole plane in view
+            int w = Math.max(1, plotWidth()), h = Math.max(1, plotHeight());
+            shift = 0;
+            while (ex.cells(ex.width(), shift) * BASE_PX > w || ex.cells(ex.height(), shift) * BASE_PX > h) shift++;
+            maxShift = shift;
+            px = BASE_PX;
+            while (px < MAX_PX && ex.cells(ex.width(), shift) * px * 2 <= w && ex.cells(ex.height(), shift) * px * 2 <= h) px *= 2;
+            ox = 0;
+            oy = 0;
+            fit = false;
+        }
+
+        private void zoom(int mx, int my, boolean in) {
+        // Keep the point under the mouse where it is
+            if (ex == null) return;
+            double cx = ox + (double) (mx - MARGIN_LEFT) / px, cy = oy + (double) (MARGIN_TOP + plotHeight() - my) / px;
+            if (in) {
+                if (shift > 0) { shift--; cx *= 2; cy *= 2; }
+                else if (px < MAX_PX) px *= 2;
+                else return;
+            } else {
+                if (px > BASE_PX) px /= 2;
+                else if (shift < maxShift) { shift++; cx /= 2; cy /= 2; }
+                else return;
+            }
+            ox = cx - (double) (mx - MARGIN_LEFT) / px;
+            oy = cy - (double) (MARGIN_TOP + plotHeight() - my) / px;
+            repaint();
+        }
+
+        @Override
+        protected void paintComponent(Graphics g0) {
+            super.paintComponent(g0);
+            Graphics2D g = (Graphics2D) g0;
+            g.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 11));
+            int w = plotWidth(), h = plotHeight(), x0 = MARGIN_LEFT, y0 = MARGIN_TOP;
+            if (w <= 0 || h <= 0) return;
+            if (ex == null || message != null) {
+                g.setColor(Color.DARK_GRAY);
+                g.drawString(message == null ? "" : message, x0, y0 + 16);
+                return;
+            }
+            if (fit) fitView();
+
+            // Tiles in view: cached ones drawn, missing ones requested nearest the center first
+            Shape clip = g.getClip();
+            g.clipRect(x0, y0, w, h);
+            long cells = SpaceExplorer.TILE;
+            long tx0 = Math.max(0, (long) Math.floor(ox / cells)), ty0 = Math.max(0, (long) Math.floor(oy / cells));
+            long tx1 = Math.min((ex.cells(ex.width(), shift) - 1) / cells, (long) Math.floor((ox + (double) w / px) / cells));
+            long ty1 = Math.min((ex.cells(ex.height(), shift) - 1) / cells, (long) Math.floor((oy + (double) h / px) / cells));
+            List<Request> missing = new ArrayList<>(), previews = new ArrayList<>();
+            for (long ty = ty0; ty <= ty1; ty++) {
+                for (long tx = tx0; tx <= tx1; tx++) {
+                    int sx = x0 + (int) Math.round((tx * cells - ox) * px);
+                    int sy = y0 + h - (int) Math.round(((ty + 1) * cells - oy) * px);
+                    int size = (int) (cells * px);
+                    SpaceExplorer.Tile t = ex.cached(shift, tx, ty);
+                    if (t != null) {
+                        g.drawImage(image(t), sx, sy, size, size, null);
+                        continue;
+                    }
+                    missing.add(new Request(generation, false, shift, tx, ty));
+                    SpaceExplorer.Tile sampled = pre != null ? pre.cached(shift, tx, ty) : null;
+                    if (pre != null && sampled == null) previews.add(new Request(generation, true, shift, tx, ty));
+                    SpaceExplorer.Tile parent = ex.cached(shift + 1, tx / 2, ty / 2);
+                    if (sampled != null) {
+                        g.drawImage(image(sampled), sx, sy, size, size, null);
+                    } else if (parent != null) {
+                        int half = (int) cells / 2, u = (int) (tx % 2) * half, v = (int) (1 - ty % 2) * half;
+                        g.drawImage(image(parent), sx, sy, sx + size, sy + size, u, v, u + half, v + half, null);
+                    } else {
+                        g.setColor(new Color(235, 235, 235));
+                        g.fillRect(sx, sy, size, size);
+                    }
+                }
+            }
+            request(previews, missing, (tx0 + tx1) / 2.0, (ty0 + ty1) / 2.0);
+            g.setClip(clip);
+
+            g.setColor(Color.LIGHT_GRAY);
+            g.drawRect(x0, y0, w, h);
+            axes(g, x0, y0, w, h);
+            status(g, x0, y0, w, h);
+        }
+
+        private void request(List<Request> previews, List<Request> missing, double cx, double cy) {
+        // Replace the queue when the set of missing tiles changes: previews first, each list center-out
+            java.util.Comparator<Request> order = (a, b) -> Double.compare(Math.hypot(a.tx - cx, a.ty - cy), Math.hypot(b.tx - cx, b.ty - cy));
+            previews.sort(order);
+            missing.sort(order);
+            previews.addAll(missing);
+            if (previews.equals(requested)) return;
+            requested = previews;
+            queue.clear();
+            queue.addAll(previews);
+        }
+
+        private BufferedImage image(SpaceExplorer.Tile t) {
+        // One pixel per cell, rows flipped so B grows upwards; cells outside the plane stay transparent
+            BufferedImage img = images.get(t);
+            if (img != null) return img;
+            int n = SpaceExplorer.TILE;
+            img = new BufferedImage(n, n, BufferedImage.TYPE_INT_ARGB);
+            Metric m = (Metric) metric.getSelectedItem();
+            double scale = ex.mode == Rounding.NEAREST_EVEN || ex.mode == Rounding.NEAREST_AWAY ? 0.5 : 1;
+            for (int j = 0; j < n; j++) {
+                for (int i = 0; i < n; i++) {
+                    int at = j * n + i;
+                    if (t.count[at] == 0) continue;
+                    int rgb;
+                    if (t.special[at] == t.count[at]) {
+                        rgb = 0xFF606060;
+                    } else {
+                        double v = switch (m) {
+                            case MEAN_ABS -> t.meanAbs[at] / scale;
+                            case MAX_ABS -> t.maxAbs[at] / scale;
+                            case MEAN -> (t.mean[at] / scale + 1) / 2;
+                            case INEXACT -> (double) t.inexact[at] / (t.count[at] - t.special[at]);
+                        };
+                        rgb = color(v);
+                    }
+                    img.setRGB(i, n - 1 - j, rgb);
+                }
+            }
+            images.put(t, img);
+            return img;
+        }
+
+        private int color(double v) {
+        // v in [0, 1] along RAMP
+            v = Math.max(0, Math.min(1, v)) * (RAMP.length - 1);
+            int k = Math.min((int) v, RAMP.length - 2);
+            double f = v - k;
+            Color a = RAMP[k], b = RAMP[k + 1];
+            return 0xFF000000 | (int) Math.round(a.getRed() + f * (b.getRed() - a.getRed())) << 16
+                | (int) Math.round(a.getGreen() + f * (b.getGreen() - a.getGreen())) << 8
+                | (int) Math.round(a.getBlue() + f * (b.getBlue() - a.getBlue()));
+        }
+
+        private void axes(Graphics2D g, int x0, int y0, int w, int h) {
+        // Exponent boundaries of A along the bottom and of B along the left, thinned to fit
+            g.setColor(Color.DARK_GRAY);
+            int frac = ex.format.fracBits, exps = ex.expHi - ex.expLo + 1;
+            double perExp = Math.scalb((double) px, frac - shift); // pixels per exponent
+            int every = 1;
+            while (perExp * every < 36) every *= 2;
+            for (int k = 0; k <= exps; k += every) {
+                int x = x0 + (int) Math.round(((double) ((long) k << frac >> shift) - ox) * px);
+                if (x >= x0 && x <= x0 + w) {
+                    g.drawLine(x, y0 + h, x, y0 + h + 4);
+                    g.drawString(boundary(k, ""), x - 8, y0 + h + 16);
+                }
+            }
+            for (int k = -exps / every * every; k <= exps; k += every) {
+                long row = ((long) (k + exps) << frac) >> shift;
+                int y = y0 + h - (int) Math.round((row - oy) * px);
+                if (y >= y0 && y <= y0 + h) {
+                    g.drawLine(x0 - 4, y, x0, y);
+                    g.drawString(boundary(Math.abs(k), k < 0 ? "-" : k > 0 || ex.expLo == 0 ? "" : "\u00B1"), 4, y + 4);
+                }
+            }
+            g.drawString("exponent of A  (" + ex.format + " " + ex.op.symbol() + ", " + ex.mode.abbrev()
+                + (ex.exhaustive ? ", every pair" : ", sampled") + ", " + metric.getSelectedItem() + ")", x0, y0 + h + 32);
+        }
+
+        private String boundary(int k, String sign) {
+        // Where the k-th exponent of the window starts: 2^e, or 0 for the subnormals
+            int biased = ex.expLo + k;
+            return biased == 0 ? "0" : sign + "2^" + (biased - ex.format.bias);
+        }
+
+        private void status(Graphics2D g, int x0, int y0, int w, int h) {
+        // The cell under the mouse: its A and B ranges and statistics
+            if (mouseX < x0 || mouseX > x0 + w || mouseY < y0 || mouseY > y0 + h) return;
+            long cx = (long) Math.floor(ox + (double) (mouseX - x0) / px);
+            long cy = (long) Math.floor(oy + (double) (y0 + h - mouseY) / px);
+            if (cx < 0 || cy < 0 || cx >= ex.cells(ex.width(), shift) || cy >= ex.cells(ex.height(), shift)) return;
+            SpaceExplorer.Tile t = ex.cached(shift, cx / SpaceExplorer.TILE, cy / SpaceExplorer.TILE);
+            long span = 1L << shift;
+            long xLast = Math.min((cx + 1) * span, ex.width()) - 1, yLast = Math.min((cy + 1) * span, ex.height()) - 1;
+            String text = String.format("A %s .. %s   B %s .. %s",
+                value(ex.aBits(cx * span)), value(ex.aBits(xLast)), value(ex.bBits(cy * span)), value(ex.bBits(yLast)));
+            if (t != null) {
+                int at = (int) (cy % SpaceExplorer.TILE) * SpaceExplorer.TILE + (int) (cx % SpaceExplorer.TILE);
+                text += String.format("   %,d pairs: |ulp| mean %.4f max %.4f, mean %+.4f, %,d inexact, %,d special",
+                    t.count[at], t.meanAbs[at], t.maxAbs[at], t.mean[at], t.inexact[at], t.special[at]);
+            }
+            FontMetrics fm = g.getFontMetrics();
+            g.setColor(new Color(255, 255, 255, 220));
+            g.fillRect(x0 + 2, y0 + 2, fm.stringWidth(text) + 8, fm.getHeight() + 4);
+            g.setColor(Color.BLACK);
+            g.drawString(text, x0 + 6, y0 + 4 + fm.getAscent());
+        }
+
+        private String value(long bits) { return String.format("%.6g", ex.format.toDouble(bits)); }
+    }
+}
@@ -0,0 +1,113 @@
+package errorexplorer;
+
+public final class Histogram {
+    // Fixed-memory log-linear histogram of signed doubles, in the style of HdrHistogram: each power of two
+    // from 2^minExp up to 2^maxExp is split into 2^subBits equal buckets, so a bucket's bounds are within a
+    // factor 1 + 2^-subBits of any value in it. Magnitudes below the range share the lowest bucket and
+    // magnitudes above it (and infinities) the highest; zeros have their own count, NaNs are not recorded.
+    // Values that are a small multiple of a power of two, such as eighths of an ulp, land on a bucket's
+    // lower bound exactly. Not thread-safe: record into one per thread and merge() them.
+
+    private final int minExp, maxExp, subBits;
+    private final long[] neg, pos;
+    private long zeros, count;
+    private double sum, min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+
+    public Histogram(int minExp, int maxExp, int subBits) {
+        if (minExp >= maxExp || minExp < Double.MIN_EXPONENT || maxExp > Double.MAX_EXPONENT + 1) {
+            throw new IllegalArgumentException("exponent range must lie within binary64's: " + minExp + ".." + maxExp);
+        }
+        if (subBits < 0 || subBits > 10) throw new IllegalArgumentException("subBits must be 0..10: " + subBits);
+        this.minExp = minExp;
+        this.maxExp = maxExp;
+        this.subBits = subBits;
+        neg = new long[(maxExp - minExp) << subBits];
+        pos = new long[neg.length];
+    }
+
+    public void record(double v) {
+        if (Double.isNaN(v)) return;
+        count++;
+        sum += v;
+        if (v < min) min = v;
+        if (v > max) max = v;
+        if (v == 0) zeros++;
+        else if (v > 0) pos[index(v)]++;
+        else neg[index(-v)]++;
+    }
+
+    private int index(double magnitude) {
+        int e = Math.getExponent(magnitude);
+        if (e < minExp) return 0;
+        if (e >= maxExp) return pos.length - 1;
+        int sub = (int) (Double.doubleToRawLongBits(magnitude) >>> (Binary64Core.FRAC_BITS - subBits)) & ((1 << subBits) - 1);
+        return (e - minExp) << subBits | sub;
+    }
+
+    private double lowerBound(int index) {
+    // Smallest magnitude that lands in bucket `index` (exact: a power of two times a short fraction)
+        int e = (index >>> subBits) + minExp;
+        return Math.scalb(1 + (index & ((1 << subBits) - 1)) / (double) (1 << subBits), e);
+    }
+
+    public void merge(Histogram other) {
+        if (other.minExp != minExp || other.maxExp != maxExp || other.subBits != subBits) {
+            throw new IllegalArgumentException("histograms have different bucket layouts");
+        }
+        for (int i = 0; i < pos.length; i++) {
+            neg[i] += other.neg[i];
+            pos[i] += other.pos[i];
+        }
+        zeros += other.zeros;
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public long count() { return count; }
+
+    public long zeros() { return zeros; }
+
+    public double mean() { return count == 0 ? Double.NaN : sum / count; }
+
+    public double min() { return count == 0 ? Double.NaN : min; }
+
+    public double max() { return count == 0 ? Double.NaN : max; }
+
+    public double quantile(double q) {
+    // The value at rank q * count in sorted order, as its bucket's bound nearest zero; min and max are exact
+        if (q < 0 || q > 1) throw new IllegalArgumentException("quantile must be in [0, 1]: " + q);
+        if (count == 0) return Double.NaN;
+        long rank = Math.max(1, (long) Math.ceil(q * count));
+        if (rank == 1) return min;
+        if (rank == count) return max;
+        long seen = 0;
+        for (int i = neg.length - 1; i >= 0; i--) {
+            seen += neg[i];
+            if (seen >= rank) return -lowerBound(i);
+        }
+        seen += zeros;
+        if (seen >= rank) return 0;
+        for (int i = 0; i < pos.length; i++) {
+            seen += pos[i];
+            if (seen >= rank) return lowerBound(i);
+        }
+        return max;
+    }
+
+    public interface BucketVisitor {
+        void bucket(double low, double high, long count);
+    }
+
+    public void forEachBucket(BucketVisitor v) {
+    // Non-empty buckets from the most negative up, zeros as [0, 0]; bounds are [low, high) in magnitude
+        for (int i = neg.length - 1; i >= 0; i--) if (neg[i] != 0) v.bucket(-upperBound(i), -lowerBound(i), neg[i]);
+        if (zeros != 0) v.bucket(0, 0, zeros);
+        for (int i = 0; i < pos.length; i++) if (pos[i] != 0) v.bucket(lowerBound(i), upperBound(i), pos[i]);
+    }
+
+    private double upperBound(int index) {
+        return index == pos.length - 1 ? Double.POSITIVE_INFINITY : lowerBound(index + 1);
+    }
+}
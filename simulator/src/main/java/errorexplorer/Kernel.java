@@ -0,0 +1,500 @@
+package errorexplorer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public final class Kernel {
+    // A formula compiled once into a flat instruction array over long registers (binary64 bit patterns)
+    // and interpreted per element through Binary64Core, so whole formulas run over millions of inputs
+    // without per-element objects.
+    //
+    //   expr  := term (('+' | '-') term)*
+    //   term  := unary (('*' | '/') unary)*
+    //   unary := '-' unary | atom
+    //   atom  := number | name | name '[' 'i' ']' | '(' expr ')'
+    //          | sqrt(e) | fma(a, b, c)          single operations, fma rounded once
+    //          | sum(e) | kahan(e)               reductions over all elements: naive and compensated summation
+    //          | horner(x, c0, c1, ..., cn)      c0 + x * (c1 + x * (... + x * cn)), one mul and one add per term
+    //
+    // Names are per-element inputs, bound to columns in order of first appearance; x and x[i] are the same.
+    // Numbers are decimals or 0x plus 16 hex digits, rounded to nearest when compiled.
+    // A kernel without reductions yields one result per element. One with reductions runs its reduction
+    // arguments per element and everything outside them once at the end, so inputs may only appear inside.
+    //
+    // Registers: inputs first, then constants, accumulators and one temp per instruction in the order the
+    // compiler meets them. Instruction pc is code[pc] with four ints in args[4 pc ..]: dst, a, b, c.
+
+    private static final byte ADD = 0, SUB = 1, MUL = 2, DIV = 3, SQRT = 4, FMA = 5, NEG = 6, MOV = 7;
+    private static final String[] SYMBOLS = { "+", "-", "*", "/", "sqrt", "fma", "-", "" };
+    private static final Op[] OPS = Op.values();                        // ADD..FMA share Op's ordinals
+
+    public record StepError(String step, long measured, long inexact, double meanAbsUlp, double maxAbsUlp, double meanUlp) {
+        // Local rounding error of one instruction over a run, in ulps of its result (rounded minus exact,
+        // given the instruction's already-rounded operands); non-finite results are not measured
+    }
+
+    private final String source;
+    private final List<String> inputs;
+    private final byte[] code;
+    private final int[] args;
+    private final int bodyEnd;            // code[0, bodyEnd) runs per element, the rest once at the end
+    private final int result;             // register holding the kernel's value
+    private final boolean reduces;
+    private final long[] initial;         // register file before the first element: constants set, the rest 0
+    private final String[] steps;         // disassembly, one line per instruction
+
+    private Kernel(String source, List<String> inputs, byte[] code, int[] args, int bodyEnd, int result,
+                   boolean reduces, long[] initial, String[] steps) {
+        this.source = source;
+        this.inputs = inputs;
+        this.code = code;
+        this.args = args;
+        this.bodyEnd = bodyEnd;
+        this.result = result;
+        this.reduces = reduces;
+        this.initial = initial;
+        this.steps = steps;
+    }
+
+    public static Kernel compile(String source) {
+        Objects.requireNonNull(source, "source");
+        return new Compiler(source).compile();
+    }
+
+    public String source() { return source; }
+
+    public List<String> inputs() { return inputs; }
+
+    public boolean reduces() { return reduces; }
+
+    public int size() { return code.length; }
+
+    public String step(int k) { return steps[k]; }
+
+    // Instruction access for Stepper, which replays one element an instruction at a time
+
+    Op op(int pc) { return code[pc] < NEG ? OPS[code[pc]] : null; }     // null for a negation or a move
+
+    boolean negates(int pc) { return code[pc] == NEG; }
+
+    int register(int pc, int k) { return args[4 * pc + k]; }            // k = 0: destination, 1..3: operands
+
+    int resultRegister() { return result; }
+
+    long[] registers(long[] in) {
+    // The register file one element starts from: inputs bound, constants set
+        if (in.length < inputs.size()) throw new IllegalArgumentException("Need " + inputs.size() + " inputs, got " + in.length);
+        long[] regs = java.util.Arrays.copyOf(initial, Math.max(1, initial.length));
+        System.arraycopy(in, 0, regs, 0, inputs.size());
+        return regs;
+    }
+
+    @Override
+    public String toString() { return source; }
+
+    public Run start(Rounding mode, boolean attribute) {
+    // A fresh evaluation; with `attribute`, every instruction's local rounding error is measured as it runs
+        return new Run(Objects.requireNonNull(mode, "mode"), attribute);
+    }
+
+    public final class Run {
+        // Mutable state of one evaluation: the register file plus the per-instruction error sums.
+        // Not thread-safe; use one Run per thread.
+
+        private final long[] regs;
+        private final Rounding mode;
+        private final long[] measured, inexact;     // null unless attributing
+        private final double[] sumAbs, maxAbs, sum;
+        private long elements;
+        private boolean finished;
+
+        private Run(Rounding mode, boolean attribute) {
+            this.regs = java.util.Arrays.copyOf(initial, Math.max(1, initial.length));
+            this.mode = mode;
+            int n = attribute ? code.length : 0;
+            this.measured = attribute ? new long[n] : null;
+            this.inexact = attribute ? new long[n] : null;
+            this.sumAbs = attribute ? new double[n] : null;
+            this.maxAbs = attribute ? new double[n] : null;
+            this.sum = attribute ? new double[n] : null;
+        }
+
+        public long element(long[] in) {
+        // Run the per-element instructions on one element; returns its result, or for a reduction
+        // kernel the running value of the reduction updated last
+            if (finished) throw new IllegalStateException("Run already finished");
+            if (in.length < inputs.size()) throw new IllegalArgumentException("Need " + inputs.size() + " inputs, got " + in.length);
+            System.arraycopy(in, 0, regs, 0, inputs.size());
+            exec(0, bodyEnd);
+            elements++;
+            return regs[perElement()];
+        }
+
+        public void elements(long[][] columns, long[] out, int from, int to) {
+        // element() over rows [from, to) of the input columns; out[i] receives each result unless out is null
+            if (finished) throw new IllegalStateException("Run already finished");
+            int k = inputs.size();
+            if (columns.length < k) throw new IllegalArgumentException("Need " + k + " input columns, got " + columns.length);
+            int n = out != null ? out.length : Integer.MAX_VALUE;
+            for (int j = 0; j < k; j++) n = Math.min(n, columns[j].length);
+            Objects.checkFromToIndex(from, to, n);
+            long[] r = regs;
+            int last = perElement();
+            for (int i = from; i < to; i++) {
+                for (int j = 0; j < k; j++) r[j] = columns[j][i];
+                exec(0, bodyEnd);
+                if (out != null) out[i] = r[last];
+            }
+            elements += to - from;
+        }
+
+        public long finish() {
+        // Run the instructions outside the reductions once and return the kernel's value
+            if (finished) throw new IllegalStateException("Run already finished");
+            finished = true;
+            exec(bodyEnd, code.length);
+            return regs[result];
+        }
+
+        public long elementCount() { return elements; }
+
+        private int perElement() { return reduces ? args[4 * (bodyEnd - 1)] : result; }
+
+        public List<StepError> errors() {
+        // One entry per instruction, in program order; empty when the run does not attribute
+            List<StepError> list = new ArrayList<>();
+            if (measured == null) return list;
+            for (int pc = 0; pc < code.length; pc++) {
+                long m = measured[pc];
+                list.add(new StepError(steps[pc], m, inexact[pc],
+                    m > 0 ? sumAbs[pc] / m : 0, maxAbs[pc], m > 0 ? sum[pc] / m : 0));
+            }
+            return list;
+        }
+
+        private void exec(int from, int to) {
+        // The interpreter loop: one Binary64Core call per instruction
+            long[] r = regs;
+            Rounding m = mode;
+            for (int pc = from; pc < to; pc++) {
+                int k = pc << 2;
+                long a = r[args[k + 1]], b = r[args[k + 2]], c = r[args[k + 3]];
+                byte op = code[pc];
+                long res = switch (op) {
+                    case ADD -> Binary64Core.addOrSub(a, b, false, m);
+                    case SUB -> Binary64Core.addOrSub(a, b, true, m);
+                    case MUL -> Binary64Core.multiply(a, b, m);
+                    case DIV -> Binary64Core.divide(a, b, m);
+                    case SQRT -> Binary64Core.sqrt(a, m);
+                    case FMA -> Binary64Core.fma(a, b, c, m);
+                    case NEG -> a ^ Long.MIN_VALUE;
+                    default -> a; // MOV
+                };
+                r[args[k]] = res;
+                if (measured != null && op < NEG) attribute(pc, op, a, b, c, res);
+            }
+        }
+
+        private void attribute(int pc, byte op, long a, long b, long c, long res) {
+            double e = localError(op, a, b, c, res);
+            if (Double.isNaN(e)) return;
+            double abs = Math.abs(e);
+            measured[pc]++;
+            if (e != 0) inexact[pc]++;
+            sumAbs[pc] += abs;
+            sum[pc] += e;
+            if (abs > maxAbs[pc]) maxAbs[pc] = abs;
+        }
+    }
+
+    static double localError(byte op, long aBits, long bBits, long cBits, long resBits) {
+    // (rounded - exact) / ulp(rounded) for one instruction, NaN when the result or an operand is not finite.
+    // The residual exact - rounded comes from error-free transformations on hardware doubles: TwoSum for
+    // sums, Math.fma for products and the residuals of div and sqrt. Sums and products are exact; the
+    // others are accurate to a few bits, which is plenty for a value below one ulp.
+        double a = Double.longBitsToDouble(aBits), b = Double.longBitsToDouble(bBits), c = Double.longBitsToDouble(cBits);
+        double r = Double.longBitsToDouble(resBits);
+        if (!Double.isFinite(r)) return Double.NaN;
+        double residual = switch (op) {
+            case ADD -> sumResidual(a, b, r);
+            case SUB -> sumResidual(a, -b, r);
+            case MUL -> Math.fma(a, b, -r);
+            case DIV -> Math.fma(-r, b, a) / b;
+            case SQRT -> r == 0 ? 0 : Math.fma(-r, r, a) / (2 * r);
+            default -> {  // FMA
+                double p = a * b;
+                yield Math.fma(a, b, -p) + sumResidual(p, c, r);
+            }
+        };
+        return Double.isFinite(residual) ? -residual / Math.ulp(r) : Double.NaN;
+    }
+
+    private static double sumResidual(double a, double b, double r) {
+    // (a + b) - r: TwoSum's exact error of the hardware sum s, plus s - r (an exact gap of at most one ulp
+    // when r was rounded under another mode)
+        double s = a + b;
+        double bb = s - a;
+        double t = (a - (s - bb)) + (b - bb);
+        return (s - r) + t;
+    }
+
+    // Compiler: tokens, then recursive descent straight into registers and instructions
+
+    private static final class Compiler {
+        private static final int NUMBER = 0, NAME = 1, PUNCT = 2, END = 3;
+
+        private final String src;
+        private final List<int[]> tokens = new ArrayList<>(); // kind, start, end
+        private int pos;
+
+        private final List<String> inputs = new ArrayList<>();
+        private final List<String> regNames = new ArrayList<>();
+        private final List<Long> preload = new ArrayList<>();
+        private final Map<Long, Integer> constants = new HashMap<>();
+        private final List<int[]> body = new ArrayList<>(), tail = new ArrayList<>(); // op, dst, a, b, c
+        private boolean reduces, inReduction;
+        private int reductions;
+
+        Compiler(String src) {
+            this.src = src;
+            tokenize();
+        }
+
+        Kernel compile() {
+            // Inputs must be registers 0..k-1, so collect their names before anything else gets a register
+            for (int t = 0; t < tokens.size() - 1; t++) {
+                int[] tok = tokens.get(t);
+                if (tok[0] != NAME) continue;
+                String name = text(tok);
+                boolean call = isPunct(tokens.get(t + 1), '(');
+                if (call && (name.equals("sum") || name.equals("kahan"))) reduces = true;
+                if (!call && !name.equals("i") && !inputs.contains(name)) inputs.add(name);
+            }
+            for (String name : inputs) register(name, 0L);
+            if (tokens.size() == 1) throw error("Empty kernel", 0);
+
+            int res = expr();
+            if (peek()[0] != END) throw error("Unexpected " + quote(peek()), peek()[1]);
+
+            // Pack into flat arrays: the per-element instructions first, then the ones run at the end
+            List<int[]> all = new ArrayList<>(body);
+            all.addAll(tail);
+            byte[] code = new byte[all.size()];
+            int[] args = new int[4 * all.size()];
+            String[] steps = new String[all.size()];
+            for (int pc = 0; pc < all.size(); pc++) {
+                int[] ins = all.get(pc);
+                code[pc] = (byte) ins[0];
+                System.arraycopy(ins, 1, args, 4 * pc, 4);
+                steps[pc] = disassemble(ins);
+            }
+            long[] initial = new long[preload.size()];
+            for (int k = 0; k < initial.length; k++) initial[k] = preload.get(k);
+            return new Kernel(src, List.copyOf(inputs), code, args, body.size(), res, reduces, initial, steps);
+        }
+
+        // Grammar
+
+        private int expr() {
+            int left = term();
+            while (isPunct(peek(), '+') || isPunct(peek(), '-')) {
+                byte op = src.charAt(next()[1]) == '+' ? ADD : SUB;
+                left = emit(op, left, term(), 0);
+            }
+            return left;
+        }
+
+        private int term() {
+            int left = unary();
+            while (isPunct(peek(), '*') || isPunct(peek(), '/')) {
+                byte op = src.charAt(next()[1]) == '*' ? MUL : DIV;
+                left = emit(op, left, unary(), 0);
+            }
+            return left;
+        }
+
+        private int unary() {
+            if (isPunct(peek(), '-')) {
+                next();
+                return emit(NEG, unary(), 0, 0);
+            }
+            return atom();
+        }
+
+        private int atom() {
+            int[] tok = next();
+            if (tok[0] == NUMBER) return constant(text(tok), tok[1]);
+            if (isPunct(tok, '(')) {
+                int r = expr();
+                expect(')');
+                return r;
+            }
+            if (tok[0] != NAME) throw error(tok[0] == END ? "Unexpected end of kernel" : "Unexpected " + quote(tok), tok[1]);
+
+            String name = text(tok);
+            if (!isPunct(peek(), '(')) {
+                if (isPunct(peek(), '[')) {
+                    next();
+                    int[] idx = next();
+                    if (idx[0] != NAME || !text(idx).equals("i")) throw error("Only " + name + "[i] is supported", idx[1]);
+                    expect(']');
+                }
+                if (name.equals("i")) throw error("i is only an index", tok[1]);
+                if (reduces && !inReduction) throw error(name + " is per element, so it must be inside sum() or kahan()", tok[1]);
+                return inputs.indexOf(name);
+            }
+            next();
+            int r = switch (name) {
+                case "sqrt" -> emit(SQRT, expr(), 0, 0);
+                case "fma" -> {
+                    int a = expr(); expect(',');
+                    int b = expr(); expect(',');
+                    yield emit(FMA, a, b, expr());
+                }
+                case "sum", "kahan" -> reduction(name, tok[1]);
+                case "horner" -> horner();
+                default -> throw error("Unknown function " + name, tok[1]);
+            };
+            expect(')');
+            return r;
+        }
+
+        private int reduction(String name, int at) {
+        // The argument runs per element; the accumulator starts at +0 and is updated in place
+            if (inReduction) throw error("Reductions cannot be nested", at);
+            inReduction = true;
+            int term = expr();
+            inReduction = false;
+            String id = name + (++reductions);
+            int s = register(id, 0L);
+            if (name.equals("sum")) {
+                body.add(new int[] { ADD, s, s, term, 0 });
+                return s;
+            }
+            // Kahan: y = term - c; t = s + y; c = (t - s) - y; s = t
+            int c = register(id + ".c", 0L);
+            int y = temp(body, SUB, term, c, 0);
+            int t = temp(body, ADD, s, y, 0);
+            int d = temp(body, SUB, t, s, 0);
+            body.add(new int[] { SUB, c, d, y, 0 });
+            body.add(new int[] { MOV, s, t, 0, 0 });
+            return s;
+        }
+
+        private int horner() {
+            int x = expr();
+            List<Integer> coeffs = new ArrayList<>();
+            while (isPunct(peek(), ',')) {
+                next();
+                coeffs.add(expr());
+            }
+            if (coeffs.isEmpty()) throw error("horner needs x and at least one coefficient", peek()[1]);
+            int acc = coeffs.get(coeffs.size() - 1);
+            for (int k = coeffs.size() - 2; k >= 0; k--) acc = emit(ADD, emit(MUL, acc, x, 0), coeffs.get(k), 0);
+            return acc;
+        }
+
+        // Registers and instructions
+
+        private int emit(byte op, int a, int b, int c) {
+        // Outside the reductions of a reduction kernel, instructions run once at the end
+            return temp(reduces && !inReduction ? tail : body, op, a, b, c);
+        }
+
+        private int temp(List<int[]> into, byte op, int a, int b, int c) {
+            int dst = register("t" + (body.size() + tail.size() + 1), 0L);
+            into.add(new int[] { op, dst, a, b, c });
+            return dst;
+        }
+
+        private int register(String name, long value) {
+            preload.add(value);
+            regNames.add(name);
+            return regNames.size() - 1;
+        }
+
+        private int constant(String literal, int at) {
+            long bits;
+            try {
+                bits = BatchCli.parseOperand(literal);
+            } catch (IllegalArgumentException ex) {
+                throw error("Bad number " + literal, at);
+            }
+            Integer r = constants.get(bits);
+            if (r == null) {
+                r = register(literal, bits);
+                constants.put(bits, r);
+            }
+            return r;
+        }
+
+        private String disassemble(int[] ins) {
+            String dst = regNames.get(ins[1]), a = regNames.get(ins[2]), b = regNames.get(ins[3]), c = regNames.get(ins[4]);
+            return switch (ins[0]) {
+                case SQRT -> dst + " = sqrt(" + a + ")";
+                case FMA -> dst + " = fma(" + a + ", " + b + ", " + c + ")";
+                case NEG -> dst + " = -" + a;
+                case MOV -> dst + " = " + a;
+                default -> dst + " = " + a + " " + SYMBOLS[ins[0]] + " " + b;
+            };
+        }
+
+        // Tokens
+
+        private void tokenize() {
+            int i = 0, n = src.length();
+            while (i < n) {
+                char ch = src.charAt(i);
+                if (Character.isWhitespace(ch)) { i++; continue; }
+                int start = i;
+                if (ch == '0' && i + 1 < n && (src.charAt(i + 1) == 'x' || src.charAt(i + 1) == 'X')) {
+                    i += 2;
+                    while (i < n && Character.digit(src.charAt(i), 16) >= 0) i++;
+                    tokens.add(new int[] { NUMBER, start, i });
+                } else if (Character.isDigit(ch) || ch == '.') {
+                    while (i < n && (Character.isDigit(src.charAt(i)) || src.charAt(i) == '.')) i++;
+                    if (i < n && (src.charAt(i) == 'e' || src.charAt(i) == 'E')) {
+                        i++;
+                        if (i < n && (src.charAt(i) == '+' || src.charAt(i) == '-')) i++;
+                        while (i < n && Character.isDigit(src.charAt(i))) i++;
+                    }
+                    tokens.add(new int[] { NUMBER, start, i });
+                } else if (Character.isLetter(ch) || ch == '_') {
+                    while (i < n && (Character.isLetterOrDigit(src.charAt(i)) || src.charAt(i) == '_')) i++;
+                    tokens.add(new int[] { NAME, start, i });
+                } else if ("+-*/(),[]".indexOf(ch) >= 0) {
+                    tokens.add(new int[] { PUNCT, start, ++i });
+                } else {
+                    throw error("Unexpected character '" + ch + "'", i);
+                }
+            }
+            tokens.add(new int[] { END, n, n });
+        }
+
+        private int[] peek() { return tokens.get(pos); }
+
+        private int[] next() {
+            int[] tok = tokens.get(pos);
+            if (tok[0] != END) pos++;
+            return tok;
+        }
+
+        private void expect(char ch) {
+            int[] tok = next();
+            if (!isPunct(tok, ch)) throw error("Expected '" + ch + "' but found " + (tok[0] == END ? "the end" : quote(tok)), tok[1]);
+        }
+
+        private boolean isPunct(int[] tok, char ch) { return tok[0] == PUNCT && src.charAt(tok[1]) == ch; }
+
+        private String text(int[] tok) { return src.substring(tok[1], tok[2]); }
+
+        private String quote(int[] tok) { return "'" + text(tok) + "'"; }
+
+        private IllegalArgumentException error(String message, int at) {
+            return new IllegalArgumentException(message + " at position " + (at + 1) + " of: " + src);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package errorexplorer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+final class MappedBatch {
+    // Runs an operand file through Binary64Core into a result file of the same layout, zero-copy:
+    // both files are mapped one chunk at a time and chunks are spread over a fork-join pool. Each record
+    // gets its result bits and the Binary64Core status word; the result file's header records the rounding mode.
+    // A chunk is marked done in the result file's chunk table only after its data is forced to disk,
+    // so rerunning after an interruption skips finished chunks and redoes the rest.
+    // With a chunk-stats sink, each chunk records its results into a BatchStats of its own (through the
+    // ErrorAnalysis fast path, same bits) and hands it over once the chunk is done.
+
+    record Stats(long records, int chunksRun, int chunksSkipped, long nanos) {}
+
+    private MappedBatch() {}
+
+    static Stats run(Path in, Path out, ForkJoinPool pool) throws IOException {
+        return run(in, out, pool, Rounding.NEAREST_EVEN, null);
+    }
+
+    static Stats run(Path in, Path out, ForkJoinPool pool, Rounding mode, Consumer<BatchStats> chunkStats) throws IOException {
+        try (OperandFile src = OperandFile.open(in, false);
+             OperandFile dst = openOrCreateResults(src, out, mode)) {
+            if (src.kind != OperandFile.KIND_OPERANDS) throw new IOException(in + ": not an operand file");
+
+            MappedByteBuffer table = dst.mapChunkTable(MapMode.READ_WRITE);
+            int chunks = src.chunks();
+            int[] pending = new int[chunks];
+            int n = 0;
+            for (int c = 0; c < chunks; c++) if (table.get(c) == 0) pending[n++] = c;
+
+            LongAdder records = new LongAdder();
+            long t0 = System.nanoTime();
+            try {
+                pool.invoke(new Chunks(src, dst, table, pending, 0, n, mode, records, chunkStats));
+            } catch (UncheckedIOException ex) {
+                throw ex.getCause();
+            }
+            return new Stats(records.sum(), n, chunks - n, System.nanoTime() - t0);
+        }
+    }
+
+    private static OperandFile openOrCreateResults(OperandFile src, Path out, Rounding mode) throws IOException {
+    // Resume into an existing result file for the same input shape and rounding mode, otherwise start a fresh one
+        if (Files.exists(out)) {
+            try {
+                OperandFile f = OperandFile.open(out, true);
+                if (f.kind == OperandFile.KIND_RESULTS && f.count == src.count && f.chunkRecords == src.chunkRecords
+                        && f.rounding == mode) return f;
+                f.close();
+            } catch (IOException ignored) {
+                // not a usable result file; overwrite it
+            }
+        }
+        return OperandFile.create(out, OperandFile.KIND_RESULTS, src.count, src.chunkRecords, mode);
+    }
+
+    private static final class Chunks extends RecursiveAction {
+        // pending[lo, hi) split down to one chunk per task
+        private final OperandFile src, dst;
+        private final MappedByteBuffer table;
+        private final int[] pending;
+        private final int lo, hi;
+        private final Rounding mode;
+        private final LongAdder records;
+        private final Consumer<BatchStats> chunkStats;
+
+        Chunks(OperandFile src, OperandFile dst, MappedByteBuffer table, int[] pending, int lo, int hi, Rounding mode,
+               LongAdder records, Consumer<BatchStats> chunkStats) {
+            this.src = src; this.dst = dst; this.table = table;
+            this.pending = pending; this.lo = lo; this.hi = hi; this.mode = mode; this.records = records; this.chunkStats = chunkStats;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new Chunks(src, dst, table, pending, lo, mid, mode, records, chunkStats),
+                          new Chunks(src, dst, table, pending, mid, hi, mode, records, chunkStats));
+                return;
+            }
+            if (hi == lo) return;
+            try {
+                runChunk(pending[lo]);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        }
+
+        private void runChunk(int chunk) throws IOException {
+            long first = src.chunkStart(chunk);
+            int n = src.chunkLength(chunk);
+            LongBuffer in = src.mapData(first, n, MapMode.READ_ONLY).asLongBuffer();
+            ByteBuffer ops = src.mapOps(first, n, MapMode.READ_ONLY);
+            MappedByteBuffer outData = dst.mapData(first, n, MapMode.READ_WRITE);
+            MappedByteBuffer outOps = dst.mapOps(first, n, MapMode.READ_WRITE);
+            LongBuffer out = outData.asLongBuffer();
+
+            ErrorAnalysis analysis = chunkStats != null ? new ErrorAnalysis() : null;
+            BatchStats stats = chunkStats != null ? new BatchStats() : null;
+            long[] row = new long[Binary64Core.STATUS + 1];
+            for (int i = 0; i < n; i++) {
+                Op op = op(src, ops, i, first);
+                long a = in.get(2 * i), b = in.get(2 * i + 1);
+                if (stats == null) {
+                    Binary64Core.allModes(op, a, b, 0, row, 0);
+                    out.put(2 * i, row[mode.ordinal()]);
+                    out.put(2 * i + 1, row[Binary64Core.STATUS]);
+                } else {
+                    out.put(2 * i, analysis.run(op, a, b, 0, mode));
+                    out.put(2 * i + 1, analysis.status());
+                    stats.record(analysis, op, mode);
+                }
+                outOps.put(i, (byte) op.ordinal());
+            }
+            outData.force();
+            outOps.force();
+            synchronized (table) {
+                table.put(chunk, (byte) 1);
+                table.force();
+            }
+            records.add(n);
+            if (stats != null) chunkStats.accept(stats);
+        }
+    }
+
+    // Text <-> binary conversion for preparing inputs and inspecting results
+
+    static long encode(Path text, Path bin, int chunkRecords) throws IOException {
+    // Two streaming passes over "op a b" lines: count, then fill the mapped file chunk by chunk
+        long count = 0;
+        try (var in = Files.newInputStream(text)) {
+            AsciiIO.Lines lines = new AsciiIO.Lines(in);
+            while (lines.next()) if (!lines.skip()) count++;
+        }
+        try (OperandFile f = OperandFile.create(bin, OperandFile.KIND_OPERANDS, count, chunkRecords);
+             var in = Files.newInputStream(text)) {
+            AsciiIO.Lines r = new AsciiIO.Lines(in);
+            long i = 0;
+            for (int chunk = 0; chunk < f.chunks(); chunk++) {
+                int n = f.chunkLength(chunk);
+                LongBuffer data = f.mapData(f.chunkStart(chunk), n, MapMode.READ_WRITE).asLongBuffer();
+                MappedByteBuffer ops = f.mapOps(f.chunkStart(chunk), n, MapMode.READ_WRITE);
+                for (int k = 0; k < n; ) {
+                    if (!r.next()) throw new IOException(text + " changed while encoding");
+                    if (r.skip()) continue;
+                    try {
+                        int fields = r.split();
+                        Op op = r.op(0);
+                        if (op.arity() > 2) throw new IllegalArgumentException(op + " needs three operands; records hold two");
+                        BatchCli.checkArity(op, fields);
+                        ops.put(k, (byte) op.ordinal());
+                        data.put(2 * k, r.operand(1));
+                        data.put(2 * k + 1, op.arity() > 1 ? r.operand(2) : 0);
+                    } catch (IllegalArgumentException ex) {
+                        throw new IOException(text + ": line " + r.number() + ": " + ex.getMessage());
+                    }
+                    k++;
+                    i++;
+                }
+            }
+            return i;
+        }
+    }
+
+    static void decode(Path bin, AsciiIO.Sink out) throws IOException {
+    // Operand files print as "op a b" (re-encodable); result files as "op result_bits result"
+        try (OperandFile f = OperandFile.open(bin, false)) {
+            boolean results = f.kind == OperandFile.KIND_RESULTS;
+            MappedByteBuffer table = f.mapChunkTable(MapMode.READ_ONLY);
+            for (int chunk = 0; chunk < f.chunks(); chunk++) {
+                if (results && table.get(chunk) == 0) continue; // not computed yet
+                int n = f.chunkLength(chunk);
+                LongBuffer data = f.mapData(f.chunkStart(chunk), n, MapMode.READ_ONLY).asLongBuffer();
+                ByteBuffer ops = f.mapOps(f.chunkStart(chunk), n, MapMode.READ_ONLY);
+                for (int k = 0; k < n; k++) {
+                    Op op = op(f, ops, k, f.chunkStart(chunk));
+                    out.append(op.toString()).append('\t').hex(data.get(2 * k));
+                    if (results) out.append('\t').value(data.get(2 * k));
+                    else if (op.arity() > 1) out.append('\t').hex(data.get(2 * k + 1));
+                    out.append('\n');
+                }
+            }
+        }
+    }
+
+    private static final Op[] CODES = Op.values();
+
+    private static Op op(OperandFile f, ByteBuffer ops, int k, long first) throws IOException {
+    // Record first + k's op from its code; records hold two operands, so FMA cannot appear
+        int code = ops.get(k);
+        if (code < 0 || code >= CODES.length || CODES[code].arity() > 2) {
+            throw new IOException(f.path + ": bad op code " + code + " at record " + (first + k));
+        }
+        return CODES[code];
+    }
+}
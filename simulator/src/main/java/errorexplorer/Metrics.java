@@ -0,0 +1,278 @@
+package errorexplorer;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MXBean;
+import javax.management.ObjectName;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.Timespan;
+
+public final class Metrics {
+    // Hot-path counters for the two binary64 engines: Binary64Core (CORE) and the String/BigInteger
+    // explanation pipeline (PIPELINE). Counts ops run and what happened inside them — special-case
+    // short-circuits, subnormal operands and results, rounding increments, carries out of the significand,
+    // overflows — in striped LongAdders, and times one op in SAMPLE into per-op log2 latency buckets.
+    // Off unless -Derrorexplorer.metrics=true (the GUI and --metrics turn it on): ENABLED is a static final,
+    // so with it false the JIT folds every hook away and the hot paths run exactly as before.
+    // When on, the counters are also published as the MXBean errorexplorer:type=Metrics and as JFR events
+    // (errorexplorer.OpSample per sampled op, errorexplorer.Counters with the running totals once a second).
+
+    public static final boolean ENABLED = Boolean.getBoolean("errorexplorer.metrics");
+
+    static final int CORE = 0, PIPELINE = 1;
+    static final String[] ENGINES = {"core", "pipeline"};
+
+    static final int SPECIAL = 0, SUBNORMAL_OPERAND = 1, SUBNORMAL_RESULT = 2, INCREMENT = 3, CARRY = 4, OVERFLOW = 5;
+    static final String[] EVENTS = {"special", "subnormal operand", "subnormal result", "increment", "carry", "overflow"};
+
+    static final int SAMPLE = 1024;                      // one op in SAMPLE is timed
+    private static final int BUCKETS = 64;               // bucket k holds latencies in [2^k, 2^(k+1)) ns
+
+    private static final Op[] OPS = Op.values();
+    private static final LongAdder[] ops = adders(ENGINES.length * OPS.length);
+    private static final LongAdder[] events = adders(ENGINES.length * EVENTS.length);
+    private static final LongAdder[] latencySum = adders(ENGINES.length * OPS.length);
+    private static final AtomicLongArray latency = new AtomicLongArray(ENGINES.length * OPS.length * BUCKETS);
+
+    static {
+        // Off the caller's thread: bringing up the MBean server and JFR's periodic events takes a good part of a second
+        if (ENABLED) {
+            Thread t = new Thread(Metrics::publish, "metrics-publish");
+            t.setDaemon(true);
+            t.start();
+        }
+    }
+
+    private Metrics() {}
+
+    private static LongAdder[] adders(int n) {
+        LongAdder[] a = new LongAdder[n];
+        for (int i = 0; i < n; i++) a[i] = new LongAdder();
+        return a;
+    }
+
+    // Hooks; callers test ENABLED first so a disabled build pays nothing
+
+    static long begin(int engine, Op op) {
+    // Count the op; returns its start time when this run is sampled, else 0
+        ops[engine * OPS.length + op.ordinal()].increment();
+        return ThreadLocalRandom.current().nextInt(SAMPLE) == 0 ? System.nanoTime() : 0;
+    }
+
+    static void end(int engine, Op op, long t0) {
+        if (t0 == 0) return;
+        long ns = System.nanoTime() - t0;
+        int slot = engine * OPS.length + op.ordinal();
+        latencySum[slot].add(ns);
+        latency.incrementAndGet(slot * BUCKETS + 63 - Long.numberOfLeadingZeros(Math.max(ns, 1)));
+        OpSample e = new OpSample();
+        if (e.isEnabled()) {
+            e.engine = ENGINES[engine];
+            e.op = op.name();
+            e.latency = ns;
+            e.commit();
+        }
+    }
+
+    static void count(int engine, int event) { events[engine * EVENTS.length + event].increment(); }
+
+    public static void reset() {
+        for (LongAdder a : ops) a.reset();
+        for (LongAdder a : events) a.reset();
+        for (LongAdder a : latencySum) a.reset();
+        for (int i = 0; i < latency.length(); i++) latency.set(i, 0);
+    }
+
+    // Reading
+
+    static Snapshot snapshot() {
+        long[] o = new long[ops.length], ev = new long[events.length], sum = new long[latencySum.length];
+        long[] lat = new long[latency.length()];
+        for (int i = 0; i < o.length; i++) o[i] = ops[i].sum();
+        for (int i = 0; i < ev.length; i++) ev[i] = events[i].sum();
+        for (int i = 0; i < sum.length; i++) sum[i] = latencySum[i].sum();
+        for (int i = 0; i < lat.length; i++) lat[i] = latency.get(i);
+        return new Snapshot(System.nanoTime(), o, ev, sum, lat);
+    }
+
+    record Snapshot(long nanos, long[] ops, long[] events, long[] latencySum, long[] latency) {
+        // Counter values at one instant; the latency fields hold only the sampled runs
+
+        long ops(int engine, Op op) { return ops[engine * OPS.length + op.ordinal()]; }
+
+        long events(int engine, int event) { return events[engine * EVENTS.length + event]; }
+
+        long sampled(int engine, Op op) {
+            long n = 0;
+            int base = (engine * OPS.length + op.ordinal()) * BUCKETS;
+            for (int k = 0; k < BUCKETS; k++) n += latency[base + k];
+            return n;
+        }
+
+        double meanNanos(int engine, Op op) {
+            long n = sampled(engine, op);
+            return n == 0 ? Double.NaN : (double) latencySum[engine * OPS.length + op.ordinal()] / n;
+        }
+
+        long percentileNanos(int engine, Op op, double q) {
+        // Upper bound of the log2 bucket holding the q-quantile of the sampled latencies; 0 when none
+            long n = sampled(engine, op), seen = 0;
+            int base = (engine * OPS.length + op.ordinal()) * BUCKETS;
+            for (int k = 0; k < BUCKETS && n > 0; k++) {
+                seen += latency[base + k];
+                if (seen >= Math.ceil(q * n)) return k >= 62 ? Long.MAX_VALUE : 1L << (k + 1);
+            }
+            return 0;
+        }
+
+        String format(Snapshot previous) {
+        // A text table of the counters; with an earlier snapshot, also the op rates since then
+            double seconds = previous == null ? 0 : (nanos - previous.nanos) / 1e9;
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%-9s %-5s %14s %12s %9s %9s %9s %9s%n",
+                "engine", "op", "ops", seconds > 0 ? "ops/s" : "", "sampled", "mean ns", "p50 ns<=", "p99 ns<="));
+            for (int e = 0; e < ENGINES.length; e++) {
+                for (Op op : OPS) {
+                    long n = ops(e, op);
+                    if (n == 0) continue;
+                    String rate = seconds > 0 ? String.format("%.0f", (n - previous.ops(e, op)) / seconds) : "";
+                    long s = sampled(e, op);
+                    sb.append(String.format("%-9s %-5s %14d %12s %9d %9s %9s %9s%n", ENGINES[e], op, n, rate, s,
+                        s == 0 ? "-" : String.format("%.0f", meanNanos(e, op)),
+                        s == 0 ? "-" : percentileNanos(e, op, 0.5), s == 0 ? "-" : percentileNanos(e, op, 0.99)));
+                }
+            }
+            sb.append(String.format("%n%-18s", "event"));
+            for (String engine : ENGINES) sb.append(String.format(" %14s %7s", engine, "per op"));
+            sb.append(String.format("%n"));
+            for (int ev = 0; ev < EVENTS.length; ev++) {
+                sb.append(String.format("%-18s", EVENTS[ev]));
+                for (int e = 0; e < ENGINES.length; e++) {
+                    long total = 0;
+                    for (Op op : OPS) total += ops(e, op);
+                    long k = events(e, ev);
+                    sb.append(String.format(" %14d %7s", k, total == 0 ? "-" : String.format("%.4f", (double) k / total)));
+                }
+                sb.append(String.format("%n"));
+            }
+            return sb.toString();
+        }
+    }
+
+    // JMX and JFR
+
+    @MXBean
+    public interface MetricsMXBean {
+        // Totals keyed "engine op" and "engine event", and mean sampled latency in ns keyed "engine op"
+
+        Map<String, Long> getOps();
+
+        Map<String, Long> getEvents();
+
+        Map<String, Double> getMeanLatencyNanos();
+
+        int getSampleInterval();
+
+        void reset();
+    }
+
+    private static final class Bean implements MetricsMXBean {
+        @Override
+        public Map<String, Long> getOps() {
+            Snapshot s = snapshot();
+            Map<String, Long> m = new LinkedHashMap<>();
+            for (int e = 0; e < ENGINES.length; e++) for (Op op : OPS) m.put(ENGINES[e] + " " + op, s.ops(e, op));
+            return m;
+        }
+
+        @Override
+        public Map<String, Long> getEvents() {
+            Snapshot s = snapshot();
+            Map<String, Long> m = new LinkedHashMap<>();
+            for (int e = 0; e < ENGINES.length; e++) {
+                for (int ev = 0; ev < EVENTS.length; ev++) m.put(ENGINES[e] + " " + EVENTS[ev], s.events(e, ev));
+            }
+            return m;
+        }
+
+        @Override
+        public Map<String, Double> getMeanLatencyNanos() {
+            Snapshot s = snapshot();
+            Map<String, Double> m = new LinkedHashMap<>();
+            for (int e = 0; e < ENGINES.length; e++) {
+                for (Op op : OPS) if (s.sampled(e, op) > 0) m.put(ENGINES[e] + " " + op, s.meanNanos(e, op));
+            }
+            return m;
+        }
+
+        @Override
+        public int getSampleInterval() { return SAMPLE; }
+
+        @Override
+        public void reset() { Metrics.reset(); }
+    }
+
+    @Name("errorexplorer.OpSample")
+    @Label("Sampled Operation")
+    @Category("Floating-Point Error Explorer")
+    @Description("Latency of one sampled simulated operation")
+    static final class OpSample extends Event {
+        @Label("Engine") String engine;
+        @Label("Operation") String op;
+        @Label("Latency") @Timespan(Timespan.NANOSECONDS) long latency;
+    }
+
+    @Name("errorexplorer.Counters")
+    @Label("Operation Counters")
+    @Category("Floating-Point Error Explorer")
+    @Period("1 s")
+    @Description("Running totals since startup or the last reset, not per-period counts: rates are the difference between two events")
+    static final class Counters extends Event {
+        @Label("Core Ops") long coreOps;
+        @Label("Pipeline Ops") long pipelineOps;
+        @Label("Special Cases") long specials;
+        @Label("Subnormal Operands") long subnormalOperands;
+        @Label("Subnormal Results") long subnormalResults;
+        @Label("Rounding Increments") long increments;
+        @Label("Carries") long carries;
+        @Label("Overflows") long overflows;
+    }
+
+    private static void publish() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), new ObjectName("errorexplorer:type=Metrics"));
+        } catch (JMException e) {
+            // Already registered (a second class loader) or no MBean server: the in-process counters still work
+        }
+        FlightRecorder.addPeriodicEvent(Counters.class, () -> counters(snapshot()).commit());
+    }
+
+    static Counters counters(Snapshot s) {
+    // The Counters event for a snapshot: ops per engine, events summed over both
+        Counters c = new Counters();
+        for (Op op : OPS) {
+            c.coreOps += s.ops(CORE, op);
+            c.pipelineOps += s.ops(PIPELINE, op);
+        }
+        for (int e = 0; e < ENGINES.length; e++) {
+            c.specials += s.events(e, SPECIAL);
+            c.subnormalOperands += s.events(e, SUBNORMAL_OPERAND);
+            c.subnormalResults += s.events(e, SUBNORMAL_RESULT);
+            c.increments += s.events(e, INCREMENT);
+            c.carries += s.events(e, CARRY);
+            c.overflows += s.events(e, OVERFLOW);
+        }
+        return c;
+    }
+}
@@ -0,0 +1,53 @@
+package errorexplorer;
+
+import java.awt.*;
+import javax.swing.*;
+
+final class MetricsPanel extends JPanel {
+    // Live view of Metrics: once a second, the per-op counts and rates of each engine since the last tick,
+    // their sampled latencies, and the event counts with their share of ops. Only ticks while showing.
+
+    private final JTextArea table = new JTextArea();
+    private final Timer timer;
+    private Metrics.Snapshot previous;
+
+    MetricsPanel() {
+        super(new BorderLayout(0, 4));
+        table.setEditable(false);
+        table.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        JButton reset = new JButton("Reset");
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT, 6, 0));
+        controls.add(reset);
+        controls.add(new JLabel("one op in " + Metrics.SAMPLE + " is timed; latencies are log2 bucket bounds"));
+        add(controls, BorderLayout.NORTH);
+        add(new JScrollPane(table), BorderLayout.CENTER);
+        setPreferredSize(new Dimension(0, 320));
+
+        timer = new Timer(1000, e -> refresh());
+        reset.addActionListener(e -> {
+            Metrics.reset();
+            previous = null;
+            refresh();
+        });
+        reset.setEnabled(Metrics.ENABLED);
+        if (!Metrics.ENABLED) {
+            table.setText("Metrics are off: start with -Derrorexplorer.metrics=true (or leave the property unset).");
+            return;
+        }
+        addHierarchyListener(e -> {
+            if (isShowing()) {
+                refresh();
+                timer.start();
+            } else {
+                timer.stop();
+            }
+        });
+    }
+
+    private void refresh() {
+        Metrics.Snapshot now = Metrics.snapshot();
+        table.setText(now.format(previous));
+        table.setCaretPosition(0);
+        previous = now;
+    }
+}
@@ -0,0 +1,859 @@
+package errorexplorer;
+
+import java.awt.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import javax.swing.*;
+
+public class Minimal_Floating_Simulator {
+    // Simulates IEEE-754 double-precision floating-point arithmetic with a minimal GUI
+
+    // Field widths come from a Format (binary64 unless a format is passed); the working precision is
+    // the format's precision (hidden 1 + fraction bits) plus three GRS bits
+    private static final int EXT_BITS = 3;                   // guard, round, sticky
+
+    public static void main(String[] args) throws java.io.IOException {
+    // Command-line arguments select the headless batch mode; otherwise launch the GUI on the Swing event thread
+    // Metrics.ENABLED is read once, so the property is settled here before any op runs: on for the GUI's
+    // Metrics tab unless set on the command line, and on for a batch run given --metrics
+        if (args.length > 0) {
+            if (java.util.Arrays.asList(args).contains("--metrics")) System.setProperty("errorexplorer.metrics", "true");
+            System.exit(BatchCli.run(args));
+        }
+        if (System.getProperty("errorexplorer.metrics") == null) System.setProperty("errorexplorer.metrics", "true");
+        SwingUtilities.invokeLater(Minimal_Floating_Simulator::buildUI);
+    }
+
+    // GUI setup and event handling
+
+    private static void buildUI() {
+    // Build the main window and all GUI components
+        JFrame f = new JFrame("Floating-Point Simulator (binary64) — Minimal");
+        f.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        f.setSize(900, 600); // window size
+        f.setLocationRelativeTo(null);
+
+    JTextField aDec = new JTextField("2.5", 16); // Default value A
+    JTextField bDec = new JTextField("3.75", 16); // Default value B
+    JTextField cDec = new JTextField("1", 16);    // Default value C, read by FMA only
+
+    JTextArea out = new JTextArea(18, 80); // More rows and columns for better readability
+    out.setEditable(false);
+    out.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+    JScrollPane scroll = new JScrollPane(out);
+    scroll.setPreferredSize(new Dimension(0, 320)); // Make scroll area taller
+
+    ErrorChartPanel chart = new ErrorChartPanel();
+    JTabbedPane output = new JTabbedPane();
+    output.addTab("Explanation", scroll);
+    output.addTab("Error Growth", chart);
+
+        JPanel top = new JPanel(new GridBagLayout());
+        GridBagConstraints c = new GridBagConstraints();
+        c.insets = new Insets(6,6,6,6);
+        c.fill = GridBagConstraints.HORIZONTAL;
+        int r = 0;
+
+        c.gridx = 0; c.gridy = r; top.add(new JLabel("Decimal A:"), c);
+        c.gridx = 1; c.gridy = r; top.add(aDec, c);
+    c.gridx = 2; c.gridy = r; JButton example1 = new JButton("Example: Precision Error"); top.add(example1, c); r++;
+
+        c.gridx = 0; c.gridy = r; top.add(new JLabel("Decimal B:"), c);
+        c.gridx = 1; c.gridy = r; top.add(bDec, c);
+    c.gridx = 2; c.gridy = r; JButton example2 = new JButton("Example: Loss of Significance"); top.add(example2, c); r++;
+
+        c.gridx = 0; c.gridy = r; top.add(new JLabel("Decimal C (FMA):"), c);
+        c.gridx = 1; c.gridy = r; top.add(cDec, c); r++;
+
+    // Rounding mode used by the operation buttons, the examples and the sweep
+    JComboBox<Rounding> rounding = new JComboBox<>(Rounding.values());
+    output.addTab("Operand Space", new HeatmapPanel(() -> (Rounding) rounding.getSelectedItem()));
+    output.addTab("Step Through", new StepPanel(() -> (Rounding) rounding.getSelectedItem(), name -> switch (name.toLowerCase()) {
+        case "a" -> aDec.getText();
+        case "b" -> bDec.getText();
+        case "c" -> cDec.getText();
+        default -> null;
+    }));
+    ResultsPanel results = new ResultsPanel(() -> (Rounding) rounding.getSelectedItem());
+    output.addTab("Results", results);
+    output.addTab("Metrics", new MetricsPanel());
+        c.gridx = 0; c.gridy = r; top.add(new JLabel("Rounding:"), c);
+        c.gridx = 1; c.gridy = r; top.add(rounding, c); r++;
+
+    // Sweep row: repeat x = x op B starting from x = A and chart the error growth
+    JComboBox<Op> sweepOp = new JComboBox<>(java.util.Arrays.stream(Op.values()).filter(o -> o.arity() == 2).toArray(Op[]::new));
+    JTextField sweepSteps = new JTextField("10000000", 10);
+    JButton sweep = new JButton("Run Sweep");
+    JPanel sweepRow = new JPanel(new FlowLayout(FlowLayout.LEFT, 6, 0));
+    sweepRow.add(new JLabel("x = A, then x = x")); sweepRow.add(sweepOp); sweepRow.add(new JLabel("B, repeated"));
+    sweepRow.add(sweepSteps); sweepRow.add(new JLabel("times"));
+        c.gridx = 0; c.gridy = r; c.gridwidth = 2; top.add(sweepRow, c); c.gridwidth = 1;
+        c.gridx = 2; c.gridy = r; top.add(sweep, c); r++;
+
+        JPanel ops = new JPanel(new GridLayout(1,6,8,8));
+        JButton add = new JButton("Add");
+        JButton sub = new JButton("Sub");
+        JButton mul = new JButton("Mul");
+        JButton div = new JButton("Div");
+        JButton sqrt = new JButton("\u221AA");
+        JButton fma = new JButton("FMA (A*B+C)");
+        ops.add(add); ops.add(sub); ops.add(mul); ops.add(div); ops.add(sqrt); ops.add(fma);
+    // Set up input fields, example buttons, and operation buttons
+    // Example buttons show classic floating-point errors
+    // Operation buttons (Add, Sub, Mul, Div, Sqrt, FMA) perform arithmetic
+
+        JPanel root = new JPanel(new BorderLayout(8,8));
+        root.setBorder(BorderFactory.createEmptyBorder(8,8,8,8));
+        root.add(top, BorderLayout.NORTH);
+        root.add(ops, BorderLayout.CENTER);
+        root.add(output, BorderLayout.SOUTH);
+    // Layout: inputs and examples at top, operations center, output at bottom
+        f.setContentPane(root);
+        f.setVisible(true);
+
+        Runnable runAdd = () -> runOp(aDec, bDec, cDec, out, results, Op.ADD, (Rounding) rounding.getSelectedItem());
+        Runnable runSub = () -> runOp(aDec, bDec, cDec, out, results, Op.SUB, (Rounding) rounding.getSelectedItem());
+        Runnable runMul = () -> runOp(aDec, bDec, cDec, out, results, Op.MUL, (Rounding) rounding.getSelectedItem());
+        Runnable runDiv = () -> runOp(aDec, bDec, cDec, out, results, Op.DIV, (Rounding) rounding.getSelectedItem());
+        Runnable runSqrt = () -> runOp(aDec, bDec, cDec, out, results, Op.SQRT, (Rounding) rounding.getSelectedItem());
+        Runnable runFma = () -> runOp(aDec, bDec, cDec, out, results, Op.FMA, (Rounding) rounding.getSelectedItem());
+    // Runnables for each operation
+
+        add.addActionListener(e -> runAdd.run());
+        sub.addActionListener(e -> runSub.run());
+        mul.addActionListener(e -> runMul.run());
+        div.addActionListener(e -> runDiv.run());
+        sqrt.addActionListener(e -> runSqrt.run());
+        fma.addActionListener(e -> runFma.run());
+    // Add click handlers for all operation buttons
+
+        add.addActionListener(e -> output.setSelectedIndex(0));
+        sub.addActionListener(e -> output.setSelectedIndex(0));
+        mul.addActionListener(e -> output.setSelectedIndex(0));
+        div.addActionListener(e -> output.setSelectedIndex(0));
+        sqrt.addActionListener(e -> output.setSelectedIndex(0));
+        fma.addActionListener(e -> output.setSelectedIndex(0));
+        sweep.addActionListener(e -> { output.setSelectedIndex(1); runSweep(aDec, bDec, (Op) sweepOp.getSelectedItem(), (Rounding) rounding.getSelectedItem(), sweepSteps, chart); });
+
+        example1.addActionListener(e -> { aDec.setText("0.1"); bDec.setText("0.2"); runAdd.run(); });
+        example2.addActionListener(e -> { aDec.setText("10000000000000000"); bDec.setText("1"); runLossOfSignificance(aDec, bDec, out, results, (Rounding) rounding.getSelectedItem()); });
+        example1.addActionListener(e -> output.setSelectedIndex(0));
+        example2.addActionListener(e -> output.setSelectedIndex(0));
+    // Example buttons run preset error examples
+    }
+
+    // Background execution: the simulator runs off the EDT and only the newest request may publish
+
+    private static final ExecutorService WORKER = newWorker();
+    private static Future<?> pending; // EDT-confined, like generation
+    private static long generation;
+
+    private static ExecutorService newWorker() {
+    // Virtual threads where the JDK has them, otherwise a daemon thread pool
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "simulator-worker");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    interface Job {
+        // Background work: may push intermediate UI updates through `progress`, returns the final one
+        Runnable run(Consumer<Runnable> progress) throws Exception;
+    }
+
+    static void submit(Job work) {
+    // Cancel the previous request, run `work` in the background, and apply its UI updates on the EDT
+    // unless a newer click has superseded it in the meantime
+        if (pending != null) pending.cancel(true);
+        long gen = ++generation;
+        Consumer<Runnable> progress = update -> SwingUtilities.invokeLater(() -> { if (gen == generation) update.run(); });
+        pending = WORKER.submit(() -> {
+            Runnable publish;
+            try {
+                publish = work.run(progress);
+            } catch (CancellationException | InterruptedException ex) {
+                return; // superseded
+            } catch (Exception ex) {
+                publish = null;
+                System.err.println("Simulation failed: " + ex);
+            }
+            if (publish == null || Thread.currentThread().isInterrupted()) return;
+            progress.accept(publish);
+        });
+    }
+
+    private static void runOp(JTextField aDec, JTextField bDec, JTextField cDec, JTextArea out, ResultsPanel results, Op op, Rounding mode) {
+    // Read the inputs on the EDT, then simulate and format the output in the background; the result also
+    // becomes a row of the Results table
+        String aText = aDec.getText(), bText = bDec.getText(), cText = cDec.getText();
+        submit(progress -> {
+            String text = describe(aText, bText, cText, op, mode);
+            ResultTableModel.Rows row = ResultsPanel.row(op, mode, aText, bText, cText);
+            return () -> {
+                out.setText(text);
+                if (row != null) results.append(row);
+            };
+        });
+    }
+
+    private static void runLossOfSignificance(JTextField aDec, JTextField bDec, JTextArea out, ResultsPanel results, Rounding mode) {
+    // (1e16 + 1) - 1e16: the sum's bits feed the subtraction directly, nothing is re-parsed from the output;
+    // both operations become rows of the Results table
+        submit(progress -> {
+            double big = 1e16;
+            long bigBits = Double.doubleToRawLongBits(big), oneBits = Double.doubleToRawLongBits(1.0);
+            Simulator.Result sum = Simulator.simulate(Op.ADD, bigBits, oneBits, mode, Trace.OFF);
+            if (Thread.interrupted()) throw new CancellationException();
+            String text = describe(sum.value(), big, 0, Op.SUB, mode);
+            ResultTableModel.Rows rows = ResultsPanel.row(new ResultTableModel.Rows(2), Op.ADD, mode, bigBits, oneBits, 0);
+            ResultsPanel.row(rows, Op.SUB, mode, Double.doubleToRawLongBits(sum.value()), bigBits, 0);
+            return () -> {
+                aDec.setText(Double.toString(sum.value()));
+                bDec.setText("10000000000000000");
+                out.setText(text);
+                results.append(rows);
+            };
+        });
+    }
+
+    private static void runSweep(JTextField aDec, JTextField bDec, Op op, Rounding mode, JTextField stepsField, ErrorChartPanel chart) {
+    // Repeat x = x op B from x = A and stream downsampled error points into the chart as they arrive.
+    // The reference uses the decimals as typed, so the chart includes the error of storing them in binary.
+        Sweep sw;
+        try {
+            BigDecimal a = new BigDecimal(aDec.getText().trim()), b = new BigDecimal(bDec.getText().trim());
+            long steps = BatchCli.count(stepsField.getText().trim());
+            sw = new Sweep(op, Double.doubleToRawLongBits(a.doubleValue()), Double.doubleToRawLongBits(b.doubleValue()),
+                a, b, steps, SWEEP_POINTS, mode);
+        } catch (IllegalArgumentException ex) {
+            chart.reset(1, 0, "Error: " + ex.getMessage());
+            return;
+        }
+        chart.reset(sw.steps(), SWEEP_POINTS + 1,
+            "x = " + aDec.getText().trim() + ", then x = x " + op.symbol() + " " + bDec.getText().trim() + String.format(" (%,d steps, %s)", sw.steps(), mode.abbrev()));
+        submit(progress -> {
+            List<Sweep.Point> batch = new ArrayList<>();
+            long[] lastFlush = { System.nanoTime() };
+            sw.run(p -> {
+                batch.add(p);
+                if (System.nanoTime() - lastFlush[0] > 50_000_000L) { // push to the chart ~20 times a second
+                    List<Sweep.Point> copy = List.copyOf(batch);
+                    batch.clear();
+                    lastFlush[0] = System.nanoTime();
+                    progress.accept(() -> chart.append(copy));
+                }
+            });
+            List<Sweep.Point> rest = List.copyOf(batch);
+            return () -> chart.append(rest);
+        });
+    }
+
+    private static final int SWEEP_POINTS = 2000;
+    private static final java.math.MathContext EXACT_DIGITS = new java.math.MathContext(40);
+
+    private static String describe(String aText, String bText, String cText, Op op, Rounding mode) {
+    // Parse the inputs the op reads and describe the operation, then note any input that binary64 cannot hold
+        try {
+            double a = parseDecimal(aText), b = op.arity() > 1 ? parseDecimal(bText) : 0, c = op.arity() > 2 ? parseDecimal(cText) : 0;
+            StringBuilder text = new StringBuilder(describe(a, b, c, op, mode));
+            String[] names = { "A", "B", "C" }, typed = { aText, bText, cText };
+            double[] stored = { a, b, c };
+            for (int k = 0; k < op.arity(); k++) {
+                String note = representationNote(names[k], typed[k].trim(), stored[k]);
+                if (note != null) text.append(note);
+            }
+            return text.toString();
+        } catch (NumberFormatException ex) {
+            return "Error: Invalid number format";
+        }
+    }
+
+    private static String representationNote(String name, String typed, double stored) {
+    // The decimal as typed versus the binary64 value it became, when they differ
+        if (!Double.isFinite(stored)) return null;
+        BigDecimal exactTyped;
+        try {
+            exactTyped = new BigDecimal(typed);
+        } catch (NumberFormatException ex) {
+            return null; // "Infinity", hex literals and the like: nothing to compare
+        }
+        BigDecimal held = new BigDecimal(stored);
+        if (held.compareTo(exactTyped) == 0) return null;
+        return "Note: " + name + " = " + typed + " has no exact binary64 form; it is stored as " + held.toPlainString()
+            + ", so the operation starts from a value that is already off.\n";
+    }
+
+    private static String describe(double a, double b, double c, Op op, Rounding mode) {
+    // Perform the selected arithmetic operation and build the text for the output area
+        try {
+            String aBits = toBits(a);
+            String bBits = toBits(b);
+
+            // Run the headless simulator (or replay a cached run) and collect the step-by-step explanation and result
+            long aRaw = Double.doubleToRawLongBits(a), bRaw = Double.doubleToRawLongBits(b), cRaw = Double.doubleToRawLongBits(c);
+            ResultCache.Entry sim = ResultCache.shared().get(op, aRaw, bRaw, cRaw, mode);
+            String resBits = toBits(sim.bits());
+            double res = sim.value();
+
+            // Exact result, rounding error and flags, and the notes they call for
+            ErrorAnalysis.Result err = ErrorAnalysis.analyze(op, aRaw, bRaw, cRaw, mode);
+            StringBuilder explanation = new StringBuilder();
+            if (err.has(ErrorAnalysis.Flag.INEXACT) && !err.has(ErrorAnalysis.Flag.OVERFLOW)) {
+                explanation.append("Note: The exact result has no binary64 form, so rounding moved it by ")
+                    .append(String.format("%+.3f", err.ulpError())).append(" ulp.\n");
+            }
+            if ((op == Op.ADD || op == Op.SUB) && b != 0 && Double.isFinite(a) && Double.isFinite(b) && sim.bits() == aRaw) {
+                explanation.append("Note: B is at most half an ulp of A, so combining them leaves A unchanged (absorption).\n");
+            }
+            if ((op == Op.ADD || op == Op.SUB || op == Op.FMA) && res != 0 && Double.isFinite(res)) {
+                double larger = op == Op.FMA ? Math.max(Math.abs(a * b), Math.abs(c)) : Math.max(Math.abs(a), Math.abs(b));
+                int lost = Math.getExponent(larger) - Math.getExponent(res);
+                if (lost > 8) {
+                    explanation.append("Note: The operands nearly cancel, so ").append(lost)
+                        .append(" leading bits are lost; any error already in them is magnified relative to the result.\n");
+                }
+            }
+            return
+                "A  (dec): " + a + "\n" +
+                "A  (bin): " + spaced64(aBits) + "\n" +
+                (op.arity() > 1 ? "B  (dec): " + b + "\n" + "B  (bin): " + spaced64(bBits) + "\n" : "") +
+                (op.arity() > 2 ? "C  (dec): " + c + "\n" + "C  (bin): " + spaced64(toBits(c)) + "\n" : "") +
+                "Op: " + op + "  (rounding: " + mode + ")\n" +
+                "Result (dec): " + res + "\n" +
+                "Result (bin): " + spaced64(resBits) + "\n" +
+                "Exact  (dec): " + (err.exact() == null ? "none (not a real number)" : err.exact().round(EXACT_DIGITS).toString()) + "\n" +
+                "Error: " + String.format("%+.4f ulp, relative %+.3g", err.ulpError(), err.relError())
+                    + "   Flags: " + err.flagNames() + "\n\n" +
+                sim.explanation() +
+                (explanation.length() > 0 ? "\n" + explanation.toString() : "");
+        } catch (IllegalArgumentException ex) {
+            return "Error: " + ex.getMessage();
+        } catch (Exception ex) {
+            return "Error: Unexpected exception: " + ex.getMessage();
+        }
+    }
+
+    // Conversion helpers: decimal <-> binary64
+
+    private static double parseDecimal(String s) { return Double.longBitsToDouble(DecimalCodec.parse(s)); }
+    // Parse a decimal, hex float or raw bit pattern (0x..., 0b...) to double, trimming whitespace
+
+    static String toBits(double x) {
+    // Convert a double to its 64-bit binary string representation
+        return toBits(Double.doubleToRawLongBits(x));
+    }
+
+    static String toBits(long raw) {
+    // Convert raw binary64 bits to a 64-character binary string
+        String bits = Long.toBinaryString(raw);
+        return "0".repeat(64 - bits.length()) + bits;
+    }
+
+    static double fromBits(String bits64) {
+    // Convert a 64-bit binary string back to double
+        if (bits64.length() != 64) throw new IllegalArgumentException("64-bit binary string required.");
+        long v = 0;
+        for (int i = 0; i < 64; i++) {
+            char c = bits64.charAt(i);
+            if (c != '0' && c != '1') throw new IllegalArgumentException("64-bit binary string required.");
+            v = v << 1 | (c - '0');
+        }
+        return Double.longBitsToDouble(v);
+    }
+
+    static String spaced64(String bits) {
+    // Format a 64-bit binary string for easier reading (split into sign, exponent, fraction)
+        return bits.substring(0,1) + " " + bits.substring(1,12) + " " + bits.substring(12);
+    }
+
+    // Unpacking and packing (binary64 by default, any Format when one is passed)
+
+    static class Unpacked {
+    // Helper class to hold unpacked fields
+        int sign;           // 0/1
+        int exp;            // unbiased exponent for normals; for subnormals we use 1-bias
+        boolean isSub, isInf, isNaN;
+        BigInteger mant;    // for normals: precision bits (1.hhhh); for subnormals: fraction only (0.hhhh)
+    }
+
+    static Unpacked unpack(String bits64) { return unpack(Format.BINARY64, bits64); }
+
+    static Unpacked unpack(Format fmt, String bits) {
+    // Unpack a bit string into sign, exponent, mantissa, and flags for special cases
+        Unpacked u = new Unpacked();
+        u.sign = bits.charAt(0) == '1' ? 1 : 0;
+        int e = Integer.parseInt(bits.substring(1, 1 + fmt.expBits), 2);
+        BigInteger f = new BigInteger(bits.substring(1 + fmt.expBits), 2);
+
+        if (e == fmt.expMax) {
+            u.isInf = f.signum() == 0;
+            u.isNaN = f.signum() != 0;
+            return u;
+        }
+        if (e == 0) {
+            if (Metrics.ENABLED && f.signum() != 0) Metrics.count(Metrics.PIPELINE, Metrics.SUBNORMAL_OPERAND);
+            u.isSub = true;
+            u.exp = 1 - fmt.bias;
+            u.mant = f; // no hidden 1
+            return u;
+        }
+        u.exp = e - fmt.bias;
+        u.mant = f.setBit(fmt.fracBits); // precision bits
+        return u;
+    }
+
+    // Pack with final normalization and G/R/S rounding under the selected mode
+    static String pack(int sign, int unbiasedExp, BigInteger mantWithGRS, Rounding mode, Trace trace) {
+        return pack(Format.BINARY64, sign, unbiasedExp, mantWithGRS, mode, trace);
+    }
+
+    static String pack(Format fmt, int sign, int unbiasedExp, BigInteger mantWithGRS, Rounding mode, Trace trace) {
+    // Pack sign, exponent, and mantissa (with GRS bits) into a bit string, with rounding and normalization;
+    // the value is mantWithGRS * 2^(unbiasedExp - fracBits - 3)
+        // If mantissa is zero, return signed zero
+        if (mantWithGRS.signum() == 0) return signedZero(fmt, sign);
+
+        // Normalize mantissa so leading 1 is at the correct position for the format
+        int targetTop = fmt.fracBits;               // 52 for binary64
+        int bitLen = mantWithGRS.bitLength();       // includes GRS region
+        int shift = (bitLen - 1) - (targetTop + EXT_BITS); // align so that [precision main | 3 GRS]
+
+        if (shift > 0) {
+            mantWithGRS = shiftRightWithSticky(mantWithGRS, shift); // dropped bits survive as sticky
+            unbiasedExp += shift;
+            trace.add(Trace.Step.NORM_RIGHT, shift);
+        } else if (shift < 0) {
+            mantWithGRS = mantWithGRS.shiftLeft(-shift);
+            unbiasedExp += shift;
+            trace.add(Trace.Step.NORM_LEFT, -shift);
+        }
+
+        // Below the minimum normal exponent: denormalize before rounding so the value is rounded once
+        boolean subnormal = unbiasedExp + fmt.bias <= 0;
+        if (subnormal) {
+            int k = 1 - (unbiasedExp + fmt.bias); // steps below min normal exponent
+            mantWithGRS = shiftRightWithSticky(mantWithGRS, k);
+            unbiasedExp = 1 - fmt.bias;
+            trace.add(Trace.Step.SUBNORMAL, k);
+            if (Metrics.ENABLED) Metrics.count(Metrics.PIPELINE, Metrics.SUBNORMAL_RESULT);
+        }
+
+        // Split mantissa into main precision bits and 3 rounding bits (guard, round, sticky)
+        BigInteger main53 = mantWithGRS.shiftRight(EXT_BITS);
+        int grs = mantWithGRS.and(BigInteger.valueOf(0b111)).intValue();
+
+        // Apply the rounding mode (shared kernel with Binary64Core)
+        boolean inc = mode.increment(sign, main53.testBit(0), grs);
+        trace.add(Trace.Step.ROUND, grs, inc ? 1 : 0);
+        if (subnormal && grs != 0) trace.add(Trace.Step.UNDERFLOW, main53.signum() == 0 && !inc ? 1 : 0);
+        if (inc) {
+            if (Metrics.ENABLED) Metrics.count(Metrics.PIPELINE, Metrics.INCREMENT);
+            main53 = main53.add(BigInteger.ONE);
+            if (main53.bitLength() > fmt.precision) {
+                main53 = main53.shiftRight(1);
+                unbiasedExp += 1;
+                trace.add(Trace.Step.CARRY);
+                if (Metrics.ENABLED) Metrics.count(Metrics.PIPELINE, Metrics.CARRY);
+            }
+        }
+
+        BigInteger frac = main53.and(BigInteger.ONE.shiftLeft(fmt.fracBits).subtract(BigInteger.ONE));
+        if (subnormal) {
+            // Exponent field stays 0 unless rounding carried into the hidden bit (smallest normal)
+            String e = padLeft(main53.testBit(fmt.fracBits) ? "1" : "0", fmt.expBits);
+            return (sign==1?"1":"0") + e + padLeft(frac.toString(2), fmt.fracBits);
+        }
+
+        int eField = unbiasedExp + fmt.bias;
+        if (eField >= fmt.expMax) {
+            // Overflow to infinity, or to the largest finite value when rounding toward zero
+            trace.add(Trace.Step.OVERFLOW);
+            if (Metrics.ENABLED) Metrics.count(Metrics.PIPELINE, Metrics.OVERFLOW);
+            if (!mode.overflowsToInfinity(sign)) {
+                return (sign==1?"1":"0") + "1".repeat(fmt.expBits - 1) + "0" + "1".repeat(fmt.fracBits);
+            }
+            return inf(fmt, sign);
+        }
+
+        // Normal case: pack sign, exponent, and fraction into a bit string
+        return (sign==1?"1":"0")
+                + padLeft(Integer.toBinaryString(eField), fmt.expBits)
+                + padLeft(frac.toString(2), fmt.fracBits);
+    }
+
+    static String padLeft(String s, int n) {
+    // Pad a string with leading zeros to length n
+        if (s.length() >= n) return s;
+        return "0".repeat(n - s.length()) + s;
+    }
+
+    // Arithmetic operations: add, sub, mul, div
+    // (Binary64Core mirrors these on raw long bits for allocation-free bulk runs)
+
+    private static boolean isZero(Unpacked u) {
+    // Check if an unpacked value is zero (not NaN or Inf)
+        return !u.isNaN && !u.isInf && u.mant != null && u.mant.signum() == 0 && u.isSub;
+    }
+
+    static String addOrSub(String aBits, String bBits, boolean subtractB, Rounding mode, Trace trace) {
+        return addOrSub(Format.BINARY64, aBits, bBits, subtractB, mode, trace);
+    }
+
+    static String addOrSub(Format fmt, String aBits, String bBits, boolean subtractB, Rounding mode, Trace trace) {
+    // Addition and subtraction logic 
+    // Simulate addition or subtraction of two bit strings, with exponent alignment and rounding
+        Unpacked A = unpack(fmt, aBits);
+        Unpacked B = unpack(fmt, bBits);
+        if (subtractB) B.sign ^= 1;
+
+        // Specials
+    String sp = specialsAddLike(fmt, A, B, trace);
+        if (sp != null) return sp;
+
+        // Handle zeros quickly (+0 + -0 is +0, or -0 when rounding toward -infinity)
+        if (isZero(A) || isZero(B)) special(trace, Trace.Step.ZERO_OPERAND);
+        if (isZero(A) && isZero(B)) return signedZero(fmt, A.sign == B.sign ? A.sign : mode.exactZeroSign());
+        if (isZero(A)) return setSign(bBits, B.sign);
+        if (isZero(B)) return setSign(aBits, A.sign);
+
+        // Normalize subnormals for the pipeline
+        int eA = A.exp, eB = B.exp;
+        BigInteger mA = A.isSub ? A.mant : A.mant; // if subnormal, mant has no hidden 1
+        BigInteger mB = B.isSub ? B.mant : B.mant;
+
+        // For normals, we already have full precision; for subnormals, bring them toward it
+        if (!A.isSub && mA.bitLength() < fmt.precision) mA = mA.shiftLeft(fmt.precision - mA.bitLength());
+        if (!B.isSub && mB.bitLength() < fmt.precision) mB = mB.shiftLeft(fmt.precision - mB.bitLength());
+
+        // Align exponents (right-shift smaller exponent’s mantissa with sticky)
+        int exp = Math.max(eA, eB);
+        BigInteger aAcc = mA.shiftLeft(EXT_BITS), bAcc = mB.shiftLeft(EXT_BITS);
+
+        int dA = exp - eA, dB = exp - eB;
+        if (dA > 0) aAcc = shiftRightWithSticky(aAcc, dA);
+        if (dB > 0) bAcc = shiftRightWithSticky(bAcc, dB);
+        trace.add(Trace.Step.ALIGN, Math.max(dA, dB), dB > 0 ? 1 : 0);
+
+        // Signed magnitude add/sub
+        BigInteger res;
+        int sign;
+        if (A.sign == B.sign) {
+            res = aAcc.add(bAcc);
+            sign = A.sign;
+            trace.add(Trace.Step.ADD);
+        } else {
+            int cmp = aAcc.compareTo(bAcc);
+            if (cmp == 0) {
+                trace.add(Trace.Step.CANCEL);
+                return signedZero(fmt, mode.exactZeroSign()); // exact cancellation: +0 unless rounding toward -infinity
+            } else if (cmp > 0) {
+                res = aAcc.subtract(bAcc);
+                sign = A.sign;
+                trace.add(Trace.Step.SUB, 0);
+            } else {
+                res = bAcc.subtract(aAcc);
+                sign = B.sign;
+                trace.add(Trace.Step.SUB, 1);
+            }
+        }
+        if (res.signum() == 0) {
+            return signedZero(fmt, sign);
+        }
+
+        // Normalize accumulator so that after dropping EXT_BITS we have leading 1 at bit fracBits
+        int top = res.bitLength() - 1;
+        int wantTop = fmt.fracBits + EXT_BITS; // 52 + 3 for binary64
+        int s = top - wantTop;
+        if (s > 0) { res = shiftRightWithSticky(res, s); exp += s; trace.add(Trace.Step.NORM_RIGHT, s); }
+        else if (s < 0) { res = res.shiftLeft(-s); exp += s; trace.add(Trace.Step.NORM_LEFT, -s); }
+
+        // Reattach GRS to feed pack()
+        BigInteger main53 = res.shiftRight(EXT_BITS);
+        BigInteger tail = res.subtract(main53.shiftLeft(EXT_BITS));
+        BigInteger mantWithGRS = main53.shiftLeft(EXT_BITS).add(tail);
+
+        String packed = pack(fmt, sign, exp, mantWithGRS, mode, trace);
+        return packed;
+    }
+
+    static BigInteger shiftRightWithSticky(BigInteger x, int k) {
+    // Right-shift with sticky bit: if any lost bits are nonzero, set LSB
+        if (k <= 0) return x;
+        BigInteger main = x.shiftRight(k);
+        BigInteger lost = x.subtract(main.shiftLeft(k));
+        if (lost.signum() != 0) main = main.or(BigInteger.ONE); // fold sticky into LSB
+        return main;
+    }
+
+    private static void special(Trace trace, Trace.Step step) {
+    // A NaN, infinite or zero operand decided the result: record the step and count the short-circuit
+        trace.add(step);
+        if (Metrics.ENABLED) Metrics.count(Metrics.PIPELINE, Metrics.SPECIAL);
+    }
+
+    private static String specialsAddLike(Format fmt, Unpacked A, Unpacked B, Trace trace) {
+    // Handle special cases for add/sub: NaN, Inf, etc.
+        if (A.isNaN || B.isNaN) { special(trace, Trace.Step.NAN_OPERAND); return qnan(fmt); }
+        if (A.isInf && B.isInf) {
+            if (A.sign == B.sign) { special(trace, Trace.Step.INF_OPERAND); return inf(fmt, A.sign); }
+            special(trace, Trace.Step.INVALID);
+            return qnan(fmt);
+        }
+        if (A.isInf) { special(trace, Trace.Step.INF_OPERAND); return inf(fmt, A.sign); }
+        if (B.isInf) { special(trace, Trace.Step.INF_OPERAND); return inf(fmt, B.sign); }
+        return null;
+    }
+
+    static String multiply(String aBits, String bBits, Rounding mode, Trace trace) {
+        return multiply(Format.BINARY64, aBits, bBits, mode, trace);
+    }
+
+    static String multiply(Format fmt, String aBits, String bBits, Rounding mode, Trace trace) {
+    // Multiplication logic
+        Unpacked A = unpack(fmt, aBits);
+        Unpacked B = unpack(fmt, bBits);
+        int p = fmt.precision;
+
+        // Specials
+        if (A.isNaN || B.isNaN) { special(trace, Trace.Step.NAN_OPERAND); return qnan(fmt); }
+        boolean aZero = isZero(A), bZero = isZero(B);
+        if ((A.isInf && bZero) || (B.isInf && aZero)) { special(trace, Trace.Step.INVALID); return qnan(fmt); }
+        if (A.isInf || B.isInf) { special(trace, Trace.Step.INF_OPERAND); return inf(fmt, A.sign ^ B.sign); }
+        if (aZero || bZero) { special(trace, Trace.Step.ZERO_OPERAND); return signedZero(fmt, A.sign ^ B.sign); }
+
+        int sign = A.sign ^ B.sign;
+        int eA = A.exp, eB = B.exp;
+
+        // Bring subnormal mantissas up to full precision, lowering the exponent to match
+        BigInteger mA = A.mant, mB = B.mant;
+        if (A.isSub) { int k = p - mA.bitLength(); mA = mA.shiftLeft(k); eA -= k; }
+        if (B.isSub) { int k = p - mB.bitLength(); mB = mB.shiftLeft(k); eB -= k; }
+
+        // Bit 2p-1 of the product (105 for binary64) is worth 2^(eA+eB+1); normalization below keeps that invariant
+        int exp = eA + eB + 1;
+
+        // pxp -> up to 2p bits (53x53 -> 106 for binary64)
+        BigInteger prod = mA.multiply(mB);
+        trace.add(Trace.Step.MULTIPLY);
+
+        // Normalize so that after slicing we have main53|GRS
+        int wantTop = (p * 2) - 1; // 105 for binary64
+        int top = prod.bitLength() - 1;
+        int s = top - wantTop;
+        if (s > 0) { prod = prod.shiftRight(s); exp += s; }
+        else if (s < 0) { prod = prod.shiftLeft(-s); exp += s; }
+
+        // Keep top p, next 3 as GRS (fold remaining into sticky)
+        int drop = (p * 2) - p; // 53 for binary64
+        BigInteger main53 = prod.shiftRight(drop);
+        BigInteger tail = prod.subtract(main53.shiftLeft(drop));
+        boolean g = tail.testBit(drop - 1);
+        boolean r = drop >= 2 && tail.testBit(drop - 2);
+        boolean st= tail.clearBit(drop - 1).clearBit(Math.max(0, drop - 2)).signum() != 0;
+
+        BigInteger mantWithGRS = main53.shiftLeft(EXT_BITS)
+                .add(BigInteger.valueOf((g?1:0)<<2 | (r?1:0)<<1 | (st?1:0)));
+
+        return pack(fmt, sign, exp, mantWithGRS, mode, trace);
+    }
+
+    static String divide(String aBits, String bBits, Rounding mode, Trace trace) {
+        return divide(Format.BINARY64, aBits, bBits, mode, trace);
+    }
+
+    static String divide(Format fmt, String aBits, String bBits, Rounding mode, Trace trace) {
+    // Division logic
+        Unpacked A = unpack(fmt, aBits);
+        Unpacked B = unpack(fmt, bBits);
+        int p = fmt.precision;
+
+        if (A.isNaN || B.isNaN) { special(trace, Trace.Step.NAN_OPERAND); return qnan(fmt); }
+        boolean aZero = isZero(A), bZero = isZero(B);
+        if ((A.isInf && B.isInf) || (aZero && bZero)) { special(trace, Trace.Step.INVALID); return qnan(fmt); }
+        if (A.isInf || B.isInf) {
+            special(trace, Trace.Step.INF_OPERAND);
+            return A.isInf ? inf(fmt, A.sign ^ B.sign) : signedZero(fmt, A.sign ^ B.sign);
+        }
+        if (bZero) { special(trace, Trace.Step.DIV_BY_ZERO); return inf(fmt, A.sign ^ B.sign); }
+        if (aZero) { special(trace, Trace.Step.ZERO_OPERAND); return signedZero(fmt, A.sign ^ B.sign); }
+
+        int sign = A.sign ^ B.sign;
+
+        // Bring subnormal mantissas up to full precision, lowering the exponent to match
+        int eA = A.exp, eB = B.exp;
+        BigInteger mA = A.mant, mB = B.mant;
+        if (A.isSub) { int k = p - mA.bitLength(); mA = mA.shiftLeft(k); eA -= k; }
+        if (B.isSub) { int k = p - mB.bitLength(); mB = mB.shiftLeft(k); eB -= k; }
+
+        // Fixed-point division with headroom; q carries K fraction bits, pack expects fracBits + 3
+        int K = p + EXT_BITS + 3;
+        int exp = eA - eB - (K - (fmt.fracBits + EXT_BITS));
+        BigInteger numerator = mA.shiftLeft(K);
+        BigInteger[] qr = numerator.divideAndRemainder(mB);
+        BigInteger q = qr[0], r = qr[1];
+        trace.add(Trace.Step.DIVIDE, r.signum() != 0 ? 1 : 0);
+
+        // Align q so that we can take main53|GRS
+        int wantTop = p + EXT_BITS - 1;
+        int top = q.bitLength() - 1;
+        int s = top - wantTop;
+        if (s > 0) { q = shiftRightWithSticky(q, s); exp += s; }
+        else if (s < 0) { q = q.shiftLeft(-s); exp += s; }
+
+        BigInteger main53 = q.shiftRight(EXT_BITS);
+        int grs = q.and(BigInteger.valueOf(0b111)).intValue();
+        boolean g = (grs & 0b100) != 0;
+        boolean rbit = (grs & 0b010) != 0;
+        boolean st = (grs & 0b001) != 0 || r.signum()!=0;
+
+        BigInteger mantWithGRS = main53.shiftLeft(EXT_BITS)
+                .add(BigInteger.valueOf((g?1:0)<<2 | (rbit?1:0)<<1 | (st?1:0)));
+
+        return pack(fmt, sign, exp, mantWithGRS, mode, trace);
+    }
+
+    static String fma(String aBits, String bBits, String cBits, Rounding mode, Trace trace) {
+        return fma(Format.BINARY64, aBits, bBits, cBits, mode, trace);
+    }
+
+    static String fma(Format fmt, String aBits, String bBits, String cBits, Rounding mode, Trace trace) {
+    // Fused multiply-add: the exact 2p-bit product plus C, rounded once
+        Unpacked A = unpack(fmt, aBits);
+        Unpacked B = unpack(fmt, bBits);
+        Unpacked C = unpack(fmt, cBits);
+        int p = fmt.precision;
+
+        // Specials: NaNs, then an invalid product (Inf * 0, or Inf - Inf once C is added), then infinities
+        if (A.isNaN || B.isNaN || C.isNaN) { special(trace, Trace.Step.NAN_OPERAND); return qnan(fmt); }
+        boolean aZero = isZero(A), bZero = isZero(B), cZero = isZero(C);
+        if ((A.isInf && bZero) || (B.isInf && aZero)) { special(trace, Trace.Step.INVALID); return qnan(fmt); }
+        int pSign = A.sign ^ B.sign;
+        if (A.isInf || B.isInf) {
+            if (C.isInf && C.sign != pSign) { special(trace, Trace.Step.INVALID); return qnan(fmt); }
+            special(trace, Trace.Step.INF_OPERAND);
+            return inf(fmt, pSign);
+        }
+        if (C.isInf) { special(trace, Trace.Step.INF_OPERAND); return inf(fmt, C.sign); }
+        if (aZero || bZero) {
+            // Exact zero product: the result is C, with the zero-sum sign rule when C is zero too
+            special(trace, Trace.Step.ZERO_OPERAND);
+            if (cZero) return signedZero(fmt, pSign == C.sign ? pSign : mode.exactZeroSign());
+            return cBits;
+        }
+
+        // Exact product: value = prod * 2^(eA + eB - 2 fracBits)
+        BigInteger prod = A.mant.multiply(B.mant);
+        int eP = A.exp + B.exp - 2 * fmt.fracBits;
+        trace.add(Trace.Step.MULTIPLY);
+        if (cZero) return pack(fmt, pSign, eP + fmt.fracBits + EXT_BITS, prod, mode, trace);
+        trace.add(Trace.Step.FUSED);
+
+        // Align both to a common exponent. Bits more than 2p + 6 below the larger operand's leading bit
+        // can only reach the result as sticky (massive cancellation needs overlapping operands), so the
+        // common exponent is never taken lower than that and the rest folds into sticky as in addOrSub
+        BigInteger mC = C.mant;
+        int eC = C.exp - fmt.fracBits;
+        int top = Math.max(eP + prod.bitLength(), eC + mC.bitLength()) - 1;
+        int t = Math.max(Math.min(eP, eC), top - (2 * p + 6));
+        BigInteger pAcc = eP >= t ? prod.shiftLeft(eP - t) : shiftRightWithSticky(prod, t - eP);
+        BigInteger cAcc = eC >= t ? mC.shiftLeft(eC - t) : shiftRightWithSticky(mC, t - eC);
+        int pShift = Math.max(0, t - eP), cShift = Math.max(0, t - eC);
+        trace.add(Trace.Step.ALIGN, Math.max(pShift, cShift), cShift > 0 ? 1 : 0);
+
+        // Signed magnitude add/sub, as in addOrSub
+        BigInteger res;
+        int sign;
+        if (pSign == C.sign) {
+            res = pAcc.add(cAcc);
+            sign = pSign;
+            trace.add(Trace.Step.ADD);
+        } else {
+            int cmp = pAcc.compareTo(cAcc);
+            if (cmp == 0) {
+                trace.add(Trace.Step.CANCEL);
+                return signedZero(fmt, mode.exactZeroSign());
+            }
+            res = cmp > 0 ? pAcc.subtract(cAcc) : cAcc.subtract(pAcc);
+            sign = cmp > 0 ? pSign : C.sign;
+            trace.add(Trace.Step.SUB, cmp > 0 ? 0 : 1);
+        }
+        // value = res * 2^t = res * 2^(exp - fracBits - 3)
+        return pack(fmt, sign, t + fmt.fracBits + EXT_BITS, res, mode, trace);
+    }
+
+    static String sqrt(String aBits, Rounding mode, Trace trace) {
+        return sqrt(Format.BINARY64, aBits, mode, trace);
+    }
+
+    static String sqrt(Format fmt, String aBits, Rounding mode, Trace trace) {
+    // Square root: integer square root of the scaled mantissa, remainder folded into sticky
+        Unpacked A = unpack(fmt, aBits);
+        int p = fmt.precision;
+
+        if (A.isNaN) { special(trace, Trace.Step.NAN_OPERAND); return qnan(fmt); }
+        if (isZero(A)) { special(trace, Trace.Step.ZERO_OPERAND); return aBits; }        // sqrt(-0) = -0
+        if (A.sign == 1) { special(trace, Trace.Step.INVALID); return qnan(fmt); }
+        if (A.isInf) { special(trace, Trace.Step.INF_OPERAND); return aBits; }
+
+        // value = m * 2^e with e made even, so sqrt(value) = sqrt(m) * 2^(e / 2)
+        BigInteger m = A.mant;
+        int e = A.exp - fmt.fracBits;
+        if ((e & 1) != 0) { m = m.shiftLeft(1); e--; }
+
+        // Scale by 2^2k so the root has at least p + 3 bits: [p main | GRS], with the remainder as sticky
+        int k = Math.max(0, (2 * p + 6 - m.bitLength()) / 2);
+        BigInteger n = m.shiftLeft(2 * k);
+        BigInteger[] sr = n.sqrtAndRemainder();
+        trace.add(Trace.Step.SQRT, sr[1].signum() != 0 ? 1 : 0);
+        BigInteger root = sr[1].signum() != 0 ? sr[0].setBit(0) : sr[0];
+
+        // value = root * 2^(e / 2 - k) = root * 2^(exp - fracBits - 3)
+        return pack(fmt, 0, e / 2 - k + fmt.fracBits + EXT_BITS, root, mode, trace);
+    }
+
+    // Miscellaneous utility methods
+
+    private static String setSign(String bits, int sign) { return (sign==1?"1":"0") + bits.substring(1); }
+    // Set the sign bit of a binary64 string
+
+    static String qnan(Format fmt) { return "0" + "1".repeat(fmt.expBits) + "1" + "0".repeat(fmt.fracBits - 1); }
+    // Return a quiet NaN value in the format
+    private static String inf(Format fmt, int sign) { return (sign==1?"1":"0") + "1".repeat(fmt.expBits) + "0".repeat(fmt.fracBits); }
+    // Return infinity value in the format
+    private static String signedZero(Format fmt, int sign) { return (sign==1?"1":"0") + "0".repeat(fmt.width - 1); }
+    // Return signed zero in the format
+
+    // Compress the step trace into ≤5 lines
+    static String conciseWhy(Trace trace) {
+    // Summarize the step-by-step explanation for the output area
+        // Translate typed trace steps to human-friendly explanations
+        if (trace.size() == 0) return "Steps:\n- The numbers are aligned, operated on, normalized, and rounded.\n";
+        StringBuilder b = new StringBuilder("Steps:\n");
+        int lines = 0;
+        StringBuilder line = new StringBuilder("- ");
+        for (int i = 0; i < trace.size(); i++) {
+            String human = trace.step(i).human(trace.arg(i, 0), trace.arg(i, 1));
+            if (line.length() + human.length() + 1 > 72) {
+                b.append(line).append('\n');
+                lines++;
+                if (lines == 4) break;
+                line = new StringBuilder("- ");
+            }
+            line.append(human).append(' ');
+        }
+        if (lines < 5) b.append(line).append('\n');
+        return b.toString();
+    }
+}
@@ -0,0 +1,211 @@
+package errorexplorer;
+
+final class NarrowCore {
+    // Allocation-free arithmetic for formats up to 32 bits wide (binary16, bfloat16, binary32 and
+    // custom narrow formats) on int bit patterns held in the low `width` bits.
+    // Same pipeline and rounding kernel as Binary64Core; one instance per Format holds the layout.
+    // Mantissas plus GRS need at most 33 bits, so intermediates live in a long: the 2p-bit product
+    // fits in one, and the quotient is a single long division with the remainder as sticky.
+
+    private static final int EXT_BITS = 3;                 // guard, round, sticky
+
+    private final int fracBits, bias, expMax, width;
+    private final int signBit, fracMask, hidden, posInf, maxFinite, qnan;
+    private final int top;                                 // leading 1 of [p main | 3 GRS]
+    private final int minExp;                              // exponent used for subnormals
+    private final Format format;
+
+    NarrowCore(Format f) {
+        format = f;
+        fracBits = f.fracBits;
+        bias = f.bias;
+        expMax = f.expMax;
+        width = f.width;
+        signBit = 1 << (width - 1);
+        fracMask = (1 << fracBits) - 1;
+        hidden = 1 << fracBits;
+        posInf = expMax << fracBits;
+        maxFinite = posInf - 1;
+        qnan = posInf | 1 << (fracBits - 1);
+        top = fracBits + EXT_BITS;
+        minExp = 1 - bias;
+    }
+
+    int compute(Op op, int aBits, int bBits, Rounding mode) {
+        return switch (op) {
+            case ADD -> addOrSub(aBits, bBits, false, mode);
+            case SUB -> addOrSub(aBits, bBits, true, mode);
+            case MUL -> multiply(aBits, bBits, mode);
+            case DIV -> divide(aBits, bBits, mode);
+            case SQRT -> (int) format.compute(op, aBits & 0xFFFF_FFFFL, 0, 0, mode); // no narrow square root yet: the pipeline
+            case FMA -> throw new IllegalArgumentException("FMA takes three operands");
+        };
+    }
+
+    int addOrSub(int aBits, int bBits, boolean subtractB, Rounding mode) {
+    // Exponent alignment with sticky, signed-magnitude add/sub, then pack
+        if (subtractB) bBits ^= signBit;
+        int eA = biasedExp(aBits), eB = biasedExp(bBits);
+        if (eA == expMax || eB == expMax) return specialsAddLike(aBits, bBits);
+
+        int sA = sign(aBits), sB = sign(bBits);
+        long mA = aBits & fracMask, mB = bBits & fracMask;
+
+        // Zeros: x + 0 = x, and +0 + -0 = +0 (-0 when rounding toward -infinity)
+        boolean aZero = eA == 0 && mA == 0, bZero = eB == 0 && mB == 0;
+        if (aZero && bZero) return sA == sB ? aBits : signedZero(mode.exactZeroSign());
+        if (aZero) return bBits;
+        if (bZero) return aBits;
+
+        // Attach the hidden 1 for normals; subnormals use the minimum exponent
+        if (eA != 0) mA |= hidden; else eA = 1;
+        if (eB != 0) mB |= hidden; else eB = 1;
+
+        // Order by magnitude so subtraction never goes negative
+        if (eA < eB || (eA == eB && mA < mB)) {
+            int te = eA; eA = eB; eB = te;
+            long tm = mA; mA = mB; mB = tm;
+            int ts = sA; sA = sB; sB = ts;
+        }
+
+        long aAcc = mA << EXT_BITS;
+        long bAcc = Binary64Core.shiftRightWithSticky(mB << EXT_BITS, eA - eB);
+
+        long res;
+        if (sA == sB) {
+            res = aAcc + bAcc;
+        } else {
+            res = aAcc - bAcc;
+            if (res == 0) return signedZero(mode.exactZeroSign()); // exact cancellation
+        }
+        return pack(sA, eA - bias, res, mode);
+    }
+
+    int multiply(int aBits, int bBits, Rounding mode) {
+    // p x p -> 2p-bit product in one long; pack() keeps the top bits with sticky
+        int sign = sign(aBits ^ bBits);
+        int eA = biasedExp(aBits), eB = biasedExp(bBits);
+        int fA = aBits & fracMask, fB = bBits & fracMask;
+
+        // Specials
+        if (isNaN(eA, fA) || isNaN(eB, fB)) return qnan;
+        boolean aZero = eA == 0 && fA == 0, bZero = eB == 0 && fB == 0;
+        boolean aInf = eA == expMax, bInf = eB == expMax;
+        if ((aInf && bZero) || (bInf && aZero)) return qnan;
+        if (aInf || bInf) return inf(sign);
+        if (aZero || bZero) return signedZero(sign);
+
+        // Both mantissas are in [2^f, 2^(f+1)), so the product is in [2^2f, 2^(2f+2)) and value = product * 2^(xA + xB - 2f)
+        long prod = mantissa(eA, fA) * mantissa(eB, fB);
+        return pack(sign, unbiasedExp(eA, fA) + unbiasedExp(eB, fB) - fracBits + EXT_BITS, prod, mode);
+    }
+
+    int divide(int aBits, int bBits, Rounding mode) {
+    // q = floor(mA * 2^(f+4) / mB) has at least p + 3 bits; a nonzero remainder becomes sticky
+        int sign = sign(aBits ^ bBits);
+        int eA = biasedExp(aBits), eB = biasedExp(bBits);
+        int fA = aBits & fracMask, fB = bBits & fracMask;
+
+        // Specials
+        if (isNaN(eA, fA) || isNaN(eB, fB)) return qnan;
+        boolean aZero = eA == 0 && fA == 0, bZero = eB == 0 && fB == 0;
+        boolean aInf = eA == expMax, bInf = eB == expMax;
+        if (aInf && bInf) return qnan;
+        if (aZero && bZero) return qnan;
+        if (aInf) return inf(sign);
+        if (bInf) return signedZero(sign);
+        if (bZero) return inf(sign);
+        if (aZero) return signedZero(sign);
+
+        long mA = mantissa(eA, fA), mB = mantissa(eB, fB);
+        long num = mA << (fracBits + 4);                   // at most 2f + 5 <= 63 bits
+        long q = num / mB, r = num - q * mB;
+        return pack(sign, unbiasedExp(eA, fA) - unbiasedExp(eB, fB) - 1, q | (r != 0 ? 1 : 0), mode);
+    }
+
+    // Packing with final normalization and G/R/S rounding under the selected mode
+
+    int pack(int sign, int unbiasedExp, long mantWithGRS, Rounding mode) {
+    // Value is mantWithGRS * 2^(unbiasedExp - fracBits - 3); normalize, round once, and assemble the bits
+        if (mantWithGRS == 0) return signedZero(sign);
+
+        int shift = (63 - Long.numberOfLeadingZeros(mantWithGRS)) - top;
+        long m = shift > 0 ? Binary64Core.shiftRightWithSticky(mantWithGRS, shift) : mantWithGRS << -shift;
+        int eField = unbiasedExp + shift + bias;
+
+        if (eField >= expMax) return (mode.overflowsToInfinity(sign) ? posInf : maxFinite) | (sign != 0 ? signBit : 0);
+        if (eField <= 0) {
+            // Subnormal: denormalize first so the single rounding step lands on fracBits bits
+            m = Binary64Core.shiftRightWithSticky(m, 1 - eField);
+            eField = 1;
+        }
+
+        // As in Binary64Core: the hidden 1 in main carries into the exponent field, and one ulp
+        // up from the largest finite magnitude reaches infinity
+        int truncated = ((eField - 1) << fracBits) + (int) (m >>> EXT_BITS);
+        int up = Rounding.incrementMask(sign, (truncated & 1) != 0, (int) m & 0b111);
+        return truncated + (up >>> mode.ordinal() & 1) | (sign != 0 ? signBit : 0);
+    }
+
+    // Conversions to and from binary64
+
+    int fromDouble(double x, Rounding mode) {
+        long bits = Double.doubleToRawLongBits(x);
+        int sign = (int) (bits >>> 63);
+        int e = (int) (bits >>> 52) & 0x7FF;
+        long f = bits & Binary64Core.FRAC_MASK;
+        if (e == 0x7FF) return f != 0 ? qnan : inf(sign);
+        if (e == 0 && f == 0) return signedZero(sign);
+        // value = m * 2^(x - 52) with m the 53-bit mantissa (subnormals unnormalized, pack() normalizes)
+        long m = e != 0 ? f | Binary64Core.HIDDEN : f;
+        int x64 = (e != 0 ? e : 1) - Binary64Core.EXP_BIAS;
+        return pack(sign, x64 - 52 + fracBits + EXT_BITS, m, mode);
+    }
+
+    double toDouble(int bits) {
+    // Exact whenever the format's range fits in binary64 (every standard narrow format)
+        int sign = sign(bits), e = biasedExp(bits), f = bits & fracMask;
+        if (e == expMax) return f != 0 ? Double.NaN : (sign != 0 ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY);
+        if (e == 0 && f == 0) return sign != 0 ? -0.0 : 0.0;
+        if (e != 0 && bias < Binary64Core.EXP_BIAS) {
+            // Normal, and the exponent range fits: rebias and widen the fraction, no rounding involved
+            return Double.longBitsToDouble((long) sign << 63 | (long) (e - bias + Binary64Core.EXP_BIAS) << Binary64Core.FRAC_BITS
+                | (long) f << (Binary64Core.FRAC_BITS - fracBits));
+        }
+        long m = e != 0 ? f | hidden : f;
+        int x = (e != 0 ? e : 1) - bias;
+        // value = m * 2^(x - fracBits) = m * 2^(exp - 55) in Binary64Core.pack terms
+        return Double.longBitsToDouble(Binary64Core.pack(sign, x - fracBits + 55, m));
+    }
+
+    // Field helpers
+
+    private int sign(int bits) { return (bits & signBit) != 0 ? 1 : 0; }
+
+    private int biasedExp(int bits) { return bits >>> fracBits & expMax; }
+
+    private boolean isNaN(int e, int f) { return e == expMax && f != 0; }
+
+    private long mantissa(int e, int f) {
+    // p-bit mantissa with leading 1 at bit fracBits; subnormals are shifted up to match
+        return e != 0 ? f | hidden : (long) f << (Integer.numberOfLeadingZeros(f) - (31 - fracBits));
+    }
+
+    private int unbiasedExp(int e, int f) {
+    // Exponent matching mantissa(e, f)
+        return e != 0 ? e - bias : minExp - (Integer.numberOfLeadingZeros(f) - (31 - fracBits));
+    }
+
+    private int specialsAddLike(int aBits, int bBits) {
+    // At least one operand is Inf or NaN
+        int aMag = aBits & ~signBit, bMag = bBits & ~signBit;
+        if (aMag > posInf || bMag > posInf) return qnan;
+        boolean aInf = aMag == posInf, bInf = bMag == posInf;
+        if (aInf && bInf) return aBits == bBits ? aBits : qnan;
+        return aInf ? aBits : bBits;
+    }
+
+    private int inf(int sign) { return posInf | (sign != 0 ? signBit : 0); }
+
+    private int signedZero(int sign) { return sign != 0 ? signBit : 0; }
+}
@@ -0,0 +1,43 @@
+package errorexplorer;
+
+public enum Op {
+    // Supported arithmetic operations; SQRT reads only A, FMA computes A * B + C with a single rounding
+    ADD("+", 2), SUB("-", 2), MUL("*", 2), DIV("/", 2), SQRT("sqrt", 1), FMA("fma", 3);
+
+    private final String symbol;
+    private final int arity;
+
+    Op(String symbol, int arity) {
+        this.symbol = symbol;
+        this.arity = arity;
+    }
+
+    public String symbol() { return symbol; }
+
+    public int arity() { return arity; }
+
+    public static Op parse(String token) {
+    // Accept the enum name in any case or the operator symbol ("add", "ADD", "+")
+        for (Op op : values()) {
+            if (op.name().equalsIgnoreCase(token) || op.symbol.equals(token)) return op;
+        }
+        throw new IllegalArgumentException("Unknown operation: " + token);
+    }
+
+    public static Op parse(byte[] text, int from, int to) {
+    // parse() over ASCII bytes text[from, to), without building a String
+        for (Op op : values()) {
+            if (matches(text, from, to, op.name(), true) || matches(text, from, to, op.symbol, false)) return op;
+        }
+        throw new IllegalArgumentException("Unknown operation: " + new String(text, from, to - from, java.nio.charset.StandardCharsets.ISO_8859_1));
+    }
+
+    private static boolean matches(byte[] text, int from, int to, String s, boolean ignoreCase) {
+        if (to - from != s.length()) return false;
+        for (int k = 0; k < s.length(); k++) {
+            int c = text[from + k], want = s.charAt(k);
+            if (c != want && !(ignoreCase && (c | 0x20) == (want | 0x20) && Character.isLetter(want))) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,131 @@
+package errorexplorer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+final class OperandFile implements AutoCloseable {
+    // Compact binary operand/result file, read and written through FileChannel.map.
+    // All values are little-endian.
+    //
+    //   header   64 bytes   magic "FPSIMBIN", version, kind, record count, records per chunk, rounding mode
+    //                       (results files; 0 = nearest-even, as files from before it was recorded), section offsets
+    //   chunks   1 byte per chunk, 1 = done (results files use it to resume; padded to 64 bytes)
+    //   data     16 bytes per record: operands (a bits, b bits) or results (result bits, status word)
+    //   ops      1 byte per record: Op ordinal
+    //
+    // Operand and result files share the layout, so record i of a result file answers record i of its input.
+
+    static final long MAGIC = 0x4E49424D49535046L; // "FPSIMBIN" read as a little-endian long
+    static final int VERSION = 1;
+    static final int KIND_OPERANDS = 0, KIND_RESULTS = 1;
+    static final int HEADER_BYTES = 64;
+    static final int RECORD_BYTES = 16;
+    static final int DEFAULT_CHUNK = 1 << 20; // records per chunk: 16 MiB of data per mapping
+    static final int MAX_CHUNK = Integer.MAX_VALUE / RECORD_BYTES; // a chunk's data is one mapping, at most 2 GiB
+    private static final Rounding[] MODES = Rounding.values();
+
+    final Path path;
+    final int kind;
+    final long count;
+    final int chunkRecords;
+    final Rounding rounding;
+    final long tableOffset, dataOffset, opsOffset;
+    private final FileChannel ch;
+
+    private OperandFile(Path path, FileChannel ch, int kind, long count, int chunkRecords, Rounding rounding) {
+        this.path = path;
+        this.ch = ch;
+        this.kind = kind;
+        this.count = count;
+        this.chunkRecords = chunkRecords;
+        this.rounding = rounding;
+        this.tableOffset = HEADER_BYTES;
+        this.dataOffset = align64(tableOffset + chunks());
+        this.opsOffset = dataOffset + count * RECORD_BYTES;
+    }
+
+    static OperandFile create(Path path, int kind, long count, int chunkRecords) throws IOException {
+        return create(path, kind, count, chunkRecords, Rounding.NEAREST_EVEN);
+    }
+
+    static OperandFile create(Path path, int kind, long count, int chunkRecords, Rounding rounding) throws IOException {
+    // New file sized for `count` records; every chunk starts out pending
+        if (count < 0) throw new IllegalArgumentException("Bad record count: " + count);
+        checkChunk(chunkRecords);
+        FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        OperandFile f = new OperandFile(path, ch, kind, count, chunkRecords, rounding);
+        ByteBuffer h = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        h.putLong(0, MAGIC).putInt(8, VERSION).putInt(12, kind).putLong(16, count).putInt(24, chunkRecords)
+         .putInt(28, rounding.ordinal()).putLong(32, f.tableOffset).putLong(40, f.dataOffset).putLong(48, f.opsOffset);
+        ch.write(h, 0);
+        ch.write(ByteBuffer.allocate(1), f.opsOffset + count - 1); // extend to full size (sparse where supported)
+        return f;
+    }
+
+    static OperandFile open(Path path, boolean writable) throws IOException {
+    // Existing file; the header is validated against the file size
+        FileChannel ch = writable
+            ? FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)
+            : FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer h = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (ch.read(h, 0) != HEADER_BYTES || h.getLong(0) != MAGIC) throw new IOException(path + ": not an operand file");
+            if (h.getInt(8) != VERSION) throw new IOException(path + ": unsupported version " + h.getInt(8));
+            int mode = h.getInt(28);
+            if (mode < 0 || mode >= MODES.length) throw new IOException(path + ": corrupt header");
+            OperandFile f = new OperandFile(path, ch, h.getInt(12), h.getLong(16), h.getInt(24), MODES[mode]);
+            if (f.count < 0 || f.chunkRecords < 1 || f.chunkRecords > MAX_CHUNK || h.getLong(40) != f.dataOffset || h.getLong(48) != f.opsOffset
+                    || ch.size() < f.opsOffset + f.count) {
+                throw new IOException(path + ": corrupt header");
+            }
+            return f;
+        } catch (IOException ex) {
+            ch.close();
+            throw ex;
+        }
+    }
+
+    static int checkChunk(long chunkRecords) {
+        if (chunkRecords < 1 || chunkRecords > MAX_CHUNK) {
+            throw new IllegalArgumentException("Records per chunk must be between 1 and " + MAX_CHUNK + ": " + chunkRecords);
+        }
+        return (int) chunkRecords;
+    }
+
+    int chunks() { return (int) ((count + chunkRecords - 1) / chunkRecords); }
+
+    long chunkStart(int chunk) { return (long) chunk * chunkRecords; }
+
+    int chunkLength(int chunk) { return (int) Math.min(chunkRecords, count - chunkStart(chunk)); }
+
+    MappedByteBuffer mapData(long first, int n, MapMode mode) throws IOException {
+    // Records [first, first + n) of the data section
+        return map(dataOffset + first * RECORD_BYTES, (long) n * RECORD_BYTES, mode);
+    }
+
+    MappedByteBuffer mapOps(long first, int n, MapMode mode) throws IOException {
+        return map(opsOffset + first, n, mode);
+    }
+
+    MappedByteBuffer mapChunkTable(MapMode mode) throws IOException {
+        return map(tableOffset, chunks(), mode);
+    }
+
+    private MappedByteBuffer map(long position, long size, MapMode mode) throws IOException {
+        MappedByteBuffer b = ch.map(mode, position, size);
+        b.order(ByteOrder.LITTLE_ENDIAN);
+        return b;
+    }
+
+    @Override
+    public void close() throws IOException { ch.close(); }
+
+    private static long align64(long x) { return (x + 63) & ~63L; }
+}
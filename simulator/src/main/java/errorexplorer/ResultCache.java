@@ -0,0 +1,171 @@
+package errorexplorer;
+
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class ResultCache {
+    // Bounded, thread-safe cache in front of the explanation pipeline, keyed on (op, aBits, bBits, cBits, rounding).
+    // An entry holds the result bits plus the rendered step trace and concise explanation, so a replayed
+    // operand pair skips toBits, the BigInteger pipeline and conciseWhy altogether.
+    // Keys are spread over lock-striped segments; each is an access-ordered LinkedHashMap that evicts its
+    // least recently used entries once it is over its share of the entry or byte budget. A miss computes
+    // outside the lock, so two threads missing on the same key at once may both compute it.
+
+    public record Entry(long bits, String steps, String explanation) {
+        public double value() { return Double.longBitsToDouble(bits); }
+
+        long bytes() {
+        // Rough retained size: key, entry, map node and two strings, at a byte per char while a string is
+        // compact (Latin-1) and two once it holds any other char
+            return 160 + chars(steps) + chars(explanation);
+        }
+
+        private static long chars(String s) {
+            for (int i = 0; i < s.length(); i++) if (s.charAt(i) > 0xFF) return 2L * s.length();
+            return s.length();
+        }
+    }
+
+    public record Stats(long hits, long misses, long evictions, long entries, long bytes) {
+        public double hitRate() { return hits + misses == 0 ? 0 : (double) hits / (hits + misses); }
+
+        @Override
+        public String toString() {
+            return String.format("%,d hits, %,d misses (%.1f%% hit rate), %,d evictions, %,d entries, %,d bytes",
+                hits, misses, 100 * hitRate(), evictions, entries, bytes);
+        }
+    }
+
+    private record Key(Op op, long aBits, long bBits, long cBits, Rounding mode) {}
+
+    private static final class Segment extends LinkedHashMap<Key, Entry> {
+        long bytes; // guarded by this
+
+        Segment() { super(16, 0.75f, true); }
+    }
+
+    private static final int MAX_SEGMENTS = 16, MIN_SEGMENT_ENTRIES = 64;
+    private static volatile ResultCache shared;
+
+    private final Segment[] segments;
+    private final int maxEntriesPerSegment;
+    private final long maxBytesPerSegment;
+    private final LongAdder hits = new LongAdder(), misses = new LongAdder(), evictions = new LongAdder();
+
+    public ResultCache(int maxEntries, long maxBytes) {
+    // maxEntries == 0 disables caching: every lookup is a miss and nothing is kept. Small caches get fewer
+    // segments, and the shares are rounded up, so the segments together hold at least maxEntries
+        if (maxEntries < 0 || maxBytes < 0) throw new IllegalArgumentException("Cache limits must not be negative");
+        int n = Integer.highestOneBit(Math.max(1, Math.min(MAX_SEGMENTS, maxEntries / MIN_SEGMENT_ENTRIES)));
+        segments = new Segment[n];
+        for (int i = 0; i < n; i++) segments[i] = new Segment();
+        maxEntriesPerSegment = (int) ((maxEntries + n - 1L) / n);
+        maxBytesPerSegment = (maxBytes + n - 1) / n;
+    }
+
+    public static ResultCache shared() {
+    // Process-wide cache for the GUI; sized by -Derrorexplorer.cache.entries and -Derrorexplorer.cache.bytes
+        ResultCache c = shared;
+        if (c == null) {
+            synchronized (ResultCache.class) {
+                if ((c = shared) == null) {
+                    shared = c = new ResultCache(Integer.getInteger("errorexplorer.cache.entries", 10_000),
+                        Long.getLong("errorexplorer.cache.bytes", 16L << 20));
+                }
+            }
+        }
+        return c;
+    }
+
+    public Entry get(Op op, long aBits, long bBits, Rounding mode) {
+    // The cached entry, or run the pipeline, keep the result and return it
+        return get(op, aBits, binaryOperand(op, bBits), 0, mode);
+    }
+
+    public Entry get(Op op, long aBits, long bBits, long cBits, Rounding mode) {
+        Objects.requireNonNull(op, "op");
+        Objects.requireNonNull(mode, "mode");
+        Key key = key(op, aBits, bBits, cBits, mode);
+        Segment seg = segmentFor(key);
+        Entry e;
+        synchronized (seg) {
+            e = seg.get(key);
+        }
+        if (e != null) {
+            hits.increment();
+            return e;
+        }
+        misses.increment();
+        Simulator.Result r = Simulator.simulate(op, aBits, bBits, cBits, mode, new Trace());
+        e = new Entry(r.bits(), r.steps(), r.explanation());
+        put(seg, key, e);
+        return e;
+    }
+
+    public Entry getIfPresent(Op op, long aBits, long bBits, Rounding mode) {
+        return getIfPresent(op, aBits, binaryOperand(op, bBits), 0, mode);
+    }
+
+    public Entry getIfPresent(Op op, long aBits, long bBits, long cBits, Rounding mode) {
+        Key key = key(op, aBits, bBits, cBits, mode);
+        Segment seg = segmentFor(key);
+        Entry e;
+        synchronized (seg) {
+            e = seg.get(key);
+        }
+        (e != null ? hits : misses).increment();
+        return e;
+    }
+
+    private void put(Segment seg, Key key, Entry e) {
+        if (maxEntriesPerSegment == 0 || e.bytes() > maxBytesPerSegment) return; // would never fit
+        synchronized (seg) {
+            Entry old = seg.put(key, e);
+            seg.bytes += e.bytes() - (old != null ? old.bytes() : 0);
+            var it = seg.values().iterator(); // least recently used first
+            while (seg.size() > maxEntriesPerSegment || seg.bytes > maxBytesPerSegment) {
+                Entry victim = it.next();
+                it.remove();
+                seg.bytes -= victim.bytes();
+                evictions.increment();
+            }
+        }
+    }
+
+    public Stats stats() {
+        long entries = 0, bytes = 0;
+        for (Segment seg : segments) {
+            synchronized (seg) {
+                entries += seg.size();
+                bytes += seg.bytes;
+            }
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries, bytes);
+    }
+
+    public void clear() {
+    // Drop every entry; the counters keep running
+        for (Segment seg : segments) {
+            synchronized (seg) {
+                seg.clear();
+                seg.bytes = 0;
+            }
+        }
+    }
+
+    private static Key key(Op op, long aBits, long bBits, long cBits, Rounding mode) {
+    // Operands the op does not read are zeroed so they cannot split one result across keys
+        return new Key(op, aBits, op.arity() > 1 ? bBits : 0, op.arity() > 2 ? cBits : 0, mode);
+    }
+
+    private static long binaryOperand(Op op, long bBits) {
+        if (op == Op.FMA) throw new IllegalArgumentException("FMA takes three operands");
+        return bBits;
+    }
+
+    private Segment segmentFor(Key key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & (segments.length - 1)];
+    }
+}
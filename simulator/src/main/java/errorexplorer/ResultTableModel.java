@@ -0,0 +1,168 @@
+package errorexplorer;
+
+import java.util.Arrays;
+import javax.swing.table.AbstractTableModel;
+
+final class ResultTableModel extends AbstractTableModel {
+    // Simulated binary64 ops for a JTable, held column-wise in primitive arrays (about 40 bytes a row and no
+    // object per row), so a batch of millions of rows fits. JTable only asks for the cells of visible rows,
+    // and a cell is formatted only when it is asked for. The outcome filter is an index of the matching rows:
+    // built by one scan over a byte column when the filter changes, and extended as rows arrive.
+    // EDT-confined, except Rows, which a loader fills off the EDT before append() takes it over.
+
+    enum Outcome {
+        // How the final rounding went, from the Binary64Core status word; results the operands decide are special
+        EXACT("exact"), DOWN("rounded down"), UP("rounded up"), OVERFLOW("overflow"), SPECIAL("special");
+
+        private final String label;
+
+        Outcome(String label) { this.label = label; }
+
+        @Override
+        public String toString() { return label; }
+
+        static Outcome of(Op op, long aBits, long bBits, long cBits, long status, Rounding mode) {
+        // Down and up are in magnitude: truncated, or incremented by one ulp
+            if (Binary64Core.special(op, aBits, bBits, cBits)) return SPECIAL;
+            if (Binary64Core.overflowed(status, mode)) return OVERFLOW;
+            if ((status & Binary64Core.STATUS_GRS) == 0) return EXACT;
+            return (status >>> (Binary64Core.STATUS_UP_SHIFT + mode.ordinal()) & 1) != 0 ? UP : DOWN;
+        }
+    }
+
+    static final int ROW = 0, OP = 1, A = 2, B = 3, C = 4, MODE = 5, BITS = 6, RESULT = 7, ULP = 8, OUTCOME = 9;
+    private static final String[] COLUMNS = { "#", "Op", "A", "B", "C", "Mode", "Result bits", "Result", "ulp error", "Rounding" };
+    private static final Op[] OPS = Op.values();
+    private static final Rounding[] MODES = Rounding.values();
+    private static final Outcome[] OUTCOMES = Outcome.values();
+
+    static final class Rows {
+        // A growable block of rows; the model's own storage, and the unit a loader hands over
+
+        long[] a, b, c, res;
+        float[] ulp;                                     // NaN when the result has no ulp error
+        byte[] op, mode, outcome;
+        int size;
+
+        Rows(int capacity) {
+            a = new long[capacity]; b = new long[capacity]; c = new long[capacity]; res = new long[capacity];
+            ulp = new float[capacity];
+            op = new byte[capacity]; mode = new byte[capacity]; outcome = new byte[capacity];
+        }
+
+        void add(Op o, Rounding m, long aBits, long bBits, long cBits, long bits, long status, double ulpError) {
+            if (size == a.length) grow(size + 1);
+            a[size] = aBits; b[size] = bBits; c[size] = cBits; res[size] = bits;
+            ulp[size] = (float) ulpError;
+            op[size] = (byte) o.ordinal();
+            mode[size] = (byte) m.ordinal();
+            outcome[size] = (byte) Outcome.of(o, aBits, bBits, cBits, status, m).ordinal();
+            size++;
+        }
+
+        void add(ErrorAnalysis analysis, Op o, Rounding m, long aBits, long bBits, long cBits, long bits) {
+        // The op `analysis` just ran
+            add(o, m, aBits, bBits, cBits, bits, analysis.status(), analysis.ulpError());
+        }
+
+        private void addAll(Rows r) {
+            if (size + r.size > a.length) grow(size + r.size);
+            System.arraycopy(r.a, 0, a, size, r.size);
+            System.arraycopy(r.b, 0, b, size, r.size);
+            System.arraycopy(r.c, 0, c, size, r.size);
+            System.arraycopy(r.res, 0, res, size, r.size);
+            System.arraycopy(r.ulp, 0, ulp, size, r.size);
+            System.arraycopy(r.op, 0, op, size, r.size);
+            System.arraycopy(r.mode, 0, mode, size, r.size);
+            System.arraycopy(r.outcome, 0, outcome, size, r.size);
+            size += r.size;
+        }
+
+        private void grow(int min) {
+            int n = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(min, a.length * 2L));
+            if (n < min) throw new IllegalStateException("Too many rows: " + min);
+            a = Arrays.copyOf(a, n); b = Arrays.copyOf(b, n); c = Arrays.copyOf(c, n); res = Arrays.copyOf(res, n);
+            ulp = Arrays.copyOf(ulp, n);
+            op = Arrays.copyOf(op, n); mode = Arrays.copyOf(mode, n); outcome = Arrays.copyOf(outcome, n);
+        }
+    }
+
+    private Rows rows = new Rows(1024);
+    private final long[] counts = new long[OUTCOMES.length];
+    private Outcome filter;                              // null shows every row
+    private int[] shown = new int[1024];                 // with a filter, the rows it lets through
+    private int shownSize;
+
+    @Override
+    public int getRowCount() { return filter == null ? rows.size : shownSize; }
+
+    @Override
+    public int getColumnCount() { return COLUMNS.length; }
+
+    @Override
+    public String getColumnName(int column) { return COLUMNS[column]; }
+
+    @Override
+    public Class<?> getColumnClass(int column) { return column == BITS ? Long.class : column == ROW ? Integer.class : String.class; }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int i = modelRow(row);
+        Op o = OPS[rows.op[i]];
+        return switch (column) {
+            case ROW -> i + 1;
+            case OP -> o.toString();
+            case A -> DecimalCodec.toString(rows.a[i]);
+            case B -> o.arity() > 1 ? DecimalCodec.toString(rows.b[i]) : "";
+            case C -> o.arity() > 2 ? DecimalCodec.toString(rows.c[i]) : "";
+            case MODE -> MODES[rows.mode[i]].abbrev();
+            case BITS -> rows.res[i];
+            case RESULT -> DecimalCodec.toString(rows.res[i]);
+            case ULP -> Float.isNaN(rows.ulp[i]) ? "" : String.format("%+.3f", rows.ulp[i]);
+            case OUTCOME -> OUTCOMES[rows.outcome[i]].toString();
+            default -> throw new IllegalArgumentException("No column " + column);
+        };
+    }
+
+    int modelRow(int row) { return filter == null ? row : shown[row]; }
+
+    int size() { return rows.size; }
+
+    long count(Outcome o) { return counts[o.ordinal()]; }
+
+    Outcome filter() { return filter; }
+
+    void append(Rows block) {
+    // Take over a block of rows; only the ones the filter lets through become table rows
+        int first = getRowCount(), from = rows.size;
+        rows.addAll(block);
+        for (int i = from; i < rows.size; i++) {
+            counts[rows.outcome[i]]++;
+            if (filter != null && rows.outcome[i] == filter.ordinal()) show(i);
+        }
+        if (getRowCount() > first) fireTableRowsInserted(first, getRowCount() - 1);
+    }
+
+    void setFilter(Outcome f) {
+        filter = f;
+        shownSize = 0;
+        if (f != null) {
+            byte k = (byte) f.ordinal();
+            for (int i = 0; i < rows.size; i++) if (rows.outcome[i] == k) show(i);
+        }
+        fireTableDataChanged();
+    }
+
+    void clear() {
+        rows = new Rows(1024);
+        shown = new int[1024];
+        shownSize = 0;
+        Arrays.fill(counts, 0);
+        fireTableDataChanged();
+    }
+
+    private void show(int i) {
+        if (shownSize == shown.length) shown = Arrays.copyOf(shown, (int) Math.min(Integer.MAX_VALUE - 8, shown.length * 2L));
+        shown[shownSize++] = i;
+    }
+}
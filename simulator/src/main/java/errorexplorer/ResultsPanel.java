@@ -0,0 +1,206 @@
+package errorexplorer;
+
+import java.awt.*;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Supplier;
+import javax.swing.*;
+import javax.swing.table.TableCellRenderer;
+import javax.swing.table.TableColumnModel;
+
+final class ResultsPanel extends JPanel {
+    // Every result of the operation buttons, and whole --batch input files, as one table. The rows live in a
+    // ResultTableModel, so the table holds millions of them and only the visible ones are ever formatted or
+    // painted; result bits are painted as sign | exponent | fraction straight from the long. A file is read
+    // and simulated on a background thread and handed to the table in blocks; filtering by rounding outcome
+    // swaps in an index of the matching rows.
+
+    private static final int BLOCK = 1 << 16;           // rows per hand-over from the loader
+
+    private final Supplier<Rounding> rounding;
+    private final ResultTableModel model = new ResultTableModel();
+    private final JTable table = new JTable(model);
+    private final JComboBox<Object> filter = new JComboBox<>();
+    private final JLabel status = new JLabel();
+    private volatile long generation;                    // bumped to abandon a load in progress
+    private boolean loading;
+    private long badLines;
+
+    ResultsPanel(Supplier<Rounding> rounding) {
+        super(new BorderLayout(0, 4));
+        this.rounding = rounding;
+        filter.addItem("All outcomes");
+        for (ResultTableModel.Outcome o : ResultTableModel.Outcome.values()) filter.addItem(o);
+
+        JButton load = new JButton("Load Batch\u2026"), clear = new JButton("Clear");
+        load.setToolTipText("Simulate a file of \"op a b\" lines (the --batch format) under the selected rounding mode");
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT, 6, 0));
+        controls.add(load); controls.add(clear); controls.add(new JLabel("Show:")); controls.add(filter); controls.add(status);
+        add(controls, BorderLayout.NORTH);
+
+        table.setAutoResizeMode(JTable.AUTO_RESIZE_OFF);
+        table.setFillsViewportHeight(true);
+        table.setDefaultRenderer(Long.class, new BitsRenderer());
+        int[] widths = { 70, 40, 150, 150, 150, 40, 0, 170, 70, 90 };
+        TableColumnModel columns = table.getColumnModel();
+        for (int k = 0; k < widths.length; k++) {
+            columns.getColumn(k).setPreferredWidth(k == ResultTableModel.BITS ? BitsRenderer.width(table) : widths[k]);
+        }
+        add(new JScrollPane(table), BorderLayout.CENTER);
+        setPreferredSize(new Dimension(0, 320));
+
+        load.addActionListener(e -> chooseFile());
+        clear.addActionListener(e -> {
+            generation++;
+            loading = false;
+            badLines = 0;
+            model.clear();
+            updateStatus();
+        });
+        filter.addActionListener(e -> {
+            Object f = filter.getSelectedItem();
+            model.setFilter(f instanceof ResultTableModel.Outcome o ? o : null);
+            updateStatus();
+        });
+        updateStatus();
+    }
+
+    static ResultTableModel.Rows row(Op op, Rounding mode, String aText, String bText, String cText) {
+    // One row for the operation buttons, computed off the EDT; null when an operand does not parse
+        try {
+            long a = DecimalCodec.parse(aText);
+            long b = op.arity() > 1 ? DecimalCodec.parse(bText) : 0;
+            long c = op.arity() > 2 ? DecimalCodec.parse(cText) : 0;
+            return row(new ResultTableModel.Rows(1), op, mode, a, b, c);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static ResultTableModel.Rows row(ResultTableModel.Rows rows, Op op, Rounding mode, long a, long b, long c) {
+    // The same from bit patterns, added to `rows`, for results that feed the next operation unparsed
+        ErrorAnalysis analysis = new ErrorAnalysis();
+        rows.add(analysis, op, mode, a, b, c, analysis.run(op, a, b, c, mode));
+        return rows;
+    }
+
+    void append(ResultTableModel.Rows row) {
+    // A button's result: added at the end, and scrolled to when the filter shows it
+        int before = model.getRowCount();
+        model.append(row);
+        if (model.getRowCount() > before) table.scrollRectToVisible(table.getCellRect(model.getRowCount() - 1, 0, true));
+        updateStatus();
+    }
+
+    private void chooseFile() {
+        JFileChooser chooser = new JFileChooser(".");
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        Path file = chooser.getSelectedFile().toPath();
+        Rounding mode = rounding.get();
+        long gen = ++generation;
+        loading = true;
+        badLines = 0;
+        updateStatus();
+        Thread t = new Thread(() -> load(file, mode, gen), "results-loader");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private void load(Path file, Rounding mode, long gen) {
+    // Parse and simulate like BatchCli.stream(), handing over a block at a time; stops once superseded
+        ErrorAnalysis analysis = new ErrorAnalysis();
+        ResultTableModel.Rows block = new ResultTableModel.Rows(BLOCK);
+        long bad = 0;
+        String failure = null;
+        try (InputStream in = Files.newInputStream(file)) {
+            AsciiIO.Lines r = new AsciiIO.Lines(in);
+            while (r.next() && gen == generation) {
+                if (r.skip()) continue;
+                try {
+                    int fields = r.split();
+                    Op op = r.op(0);
+                    BatchCli.checkArity(op, fields);
+                    long a = r.operand(1);
+                    long b = op.arity() > 1 ? r.operand(2) : 0;
+                    long c = op.arity() > 2 ? r.operand(3) : 0;
+                    block.add(analysis, op, mode, a, b, c, analysis.run(op, a, b, c, mode));
+                } catch (IllegalArgumentException e) {
+                    bad++;
+                }
+                if (block.size == BLOCK) {
+                    publish(block, bad, false, null, gen);
+                    block = new ResultTableModel.Rows(BLOCK);
+                }
+            }
+        } catch (IOException e) {
+            failure = e.getMessage();
+        }
+        publish(block, bad, true, failure, gen);
+    }
+
+    private void publish(ResultTableModel.Rows block, long bad, boolean done, String failure, long gen) {
+        SwingUtilities.invokeLater(() -> {
+            if (gen != generation) return;
+            model.append(block);
+            badLines = bad;
+            loading = !done;
+            updateStatus();
+            if (failure != null) status.setText("Error: " + failure);
+        });
+    }
+
+    private void updateStatus() {
+        StringBuilder b = new StringBuilder();
+        b.append(String.format("%,d rows", model.size()));
+        if (model.filter() != null) b.append(String.format(", %,d shown", model.getRowCount()));
+        if (loading) b.append(" (loading\u2026)");
+        if (model.size() > 0) {
+            b.append(':');
+            for (ResultTableModel.Outcome o : ResultTableModel.Outcome.values()) {
+                if (model.count(o) > 0) b.append(String.format(" %s %,d", o, model.count(o)));
+            }
+        }
+        if (badLines > 0) b.append(String.format("; %,d bad lines skipped", badLines));
+        status.setText(b.toString());
+    }
+
+    private static final class BitsRenderer extends JComponent implements TableCellRenderer {
+        // A binary64 pattern as sign | exponent | fraction, drawn from the long in three colors, with no String per cell
+
+        private static final Color SIGN = new Color(200, 40, 40), EXPONENT = new Color(30, 90, 200);
+        private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+        private static final int GAP = 1;                // blank characters between fields
+
+        private final char[] digits = new char[64];
+        private Color background, foreground;
+
+        static int width(JComponent c) { return c.getFontMetrics(FONT).charWidth('0') * (64 + 2 * GAP) + 8; }
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus,
+                                                       int row, int column) {
+            long bits = (Long) value;
+            for (int i = 0; i < 64; i++) digits[i] = (char) ('0' + (bits >>> (63 - i) & 1));
+            background = isSelected ? table.getSelectionBackground() : table.getBackground();
+            foreground = isSelected ? table.getSelectionForeground() : table.getForeground();
+            return this;
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            g.setColor(background);
+            g.fillRect(0, 0, getWidth(), getHeight());
+            g.setFont(FONT);
+            FontMetrics fm = g.getFontMetrics();
+            int w = fm.charWidth('0'), y = (getHeight() + fm.getAscent() - fm.getDescent()) / 2, x = 4;
+            g.setColor(SIGN);
+            g.drawChars(digits, 0, 1, x, y);
+            g.setColor(EXPONENT);
+            g.drawChars(digits, 1, 11, x + (1 + GAP) * w, y);
+            g.setColor(foreground);
+            g.drawChars(digits, 12, 52, x + (12 + 2 * GAP) * w, y);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package errorexplorer;
+
+public enum Rounding {
+    // IEEE-754 rounding-direction attributes. incrementMask() is the one rounding kernel both engines
+    // use for normal and subnormal results alike; it decides all five modes at once, so rounding one
+    // intermediate result under every mode costs a single call.
+    NEAREST_EVEN("rne"), NEAREST_AWAY("rna"), TOWARD_ZERO("rtz"), TOWARD_POSITIVE("rtp"), TOWARD_NEGATIVE("rtn");
+
+    private static final Rounding[] MODES = values();
+    private static final int RNE = 1 << NEAREST_EVEN.ordinal(), RNA = 1 << NEAREST_AWAY.ordinal(),
+                             RTP = 1 << TOWARD_POSITIVE.ordinal(), RTN = 1 << TOWARD_NEGATIVE.ordinal();
+
+    private final String abbrev;
+
+    Rounding(String abbrev) { this.abbrev = abbrev; }
+
+    public String abbrev() { return abbrev; }
+
+    static int incrementMask(int sign, boolean lsbOdd, int grs) {
+    // Bit ordinal() is set for each mode that raises the truncated magnitude by one ulp,
+    // given the guard/round/sticky bits below it
+        if (grs == 0) return 0;                                              // exact
+        int m = sign == 0 ? RTP : RTN;                                       // inexact: away from zero toward ±infinity
+        if (grs >= 0b100) m |= RNA;                                          // .5 tie -> away from zero
+        if (grs > 0b100 || (grs == 0b100 && lsbOdd)) m |= RNE;               // .5 tie -> to even
+        return m;
+    }
+
+    boolean increment(int sign, boolean lsbOdd, int grs) {
+        return (incrementMask(sign, lsbOdd, grs) >>> ordinal() & 1) != 0;
+    }
+
+    boolean overflowsToInfinity(int sign) {
+    // Beyond the largest finite magnitude: infinity, or MAX_VALUE when rounding toward zero for this sign
+        return switch (this) {
+            case NEAREST_EVEN, NEAREST_AWAY -> true;
+            case TOWARD_ZERO -> false;
+            case TOWARD_POSITIVE -> sign == 0;
+            case TOWARD_NEGATIVE -> sign != 0;
+        };
+    }
+
+    int exactZeroSign() {
+    // Sign of an exact zero sum of opposite-signed operands: -0 only when rounding toward -infinity
+        return this == TOWARD_NEGATIVE ? 1 : 0;
+    }
+
+    public static Rounding parse(String token) {
+    // Accept the enum name in any case or the abbreviation ("toward_zero", "rtz")
+        for (Rounding r : MODES) {
+            if (r.name().equalsIgnoreCase(token) || r.abbrev.equalsIgnoreCase(token)) return r;
+        }
+        throw new IllegalArgumentException("Unknown rounding mode: " + token);
+    }
+}
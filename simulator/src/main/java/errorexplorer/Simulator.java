@@ -0,0 +1,110 @@
+package errorexplorer;
+
+import java.util.Objects;
+
+public final class Simulator {
+    // Headless simulator API: runs operations on raw binary64 bit patterns without any Swing code.
+    // simulate() goes through the String/BigInteger pipeline and records a typed step Trace;
+    // compute() goes through Binary64Core and allocates nothing.
+
+    private Simulator() {}
+
+    public record Result(Op op, long aBits, long bBits, long cBits, long bits, Trace trace) {
+        // Outcome of one simulated operation: result bits plus the step trace (rendered on demand).
+        // Operands the op does not read (B for SQRT, C for everything but FMA) are 0
+
+        public double value() { return Double.longBitsToDouble(bits); }
+
+        public String steps() { return trace.toString(); }
+
+        public String explanation() { return Minimal_Floating_Simulator.conciseWhy(trace); }
+    }
+
+    public static Result simulate(Op op, long aBits, long bBits) {
+    // Run one operation through the explanation pipeline and return the result bits with a fresh trace
+        return simulate(op, aBits, bBits, Rounding.NEAREST_EVEN, new Trace());
+    }
+
+    public static Result simulate(Op op, long aBits, long bBits, Trace steps) {
+        return simulate(op, aBits, bBits, Rounding.NEAREST_EVEN, steps);
+    }
+
+    public static Result simulate(Op op, long aBits, long bBits, Rounding mode, Trace steps) {
+    // Same, under the given rounding mode and recording into a caller-owned trace (cleared first);
+    // Trace.OFF skips tracing entirely
+        return simulate(op, aBits, binaryOperand(op, bBits), 0, mode, steps);
+    }
+
+    public static Result simulate(Op op, long aBits, long bBits, long cBits, Rounding mode, Trace steps) {
+    // Any op with up to three operands; those the op does not read are ignored
+        Objects.requireNonNull(op, "op");
+        Objects.requireNonNull(mode, "mode");
+        String a = Minimal_Floating_Simulator.toBits(aBits);
+        String b = Minimal_Floating_Simulator.toBits(bBits);
+
+        steps.clear();
+        long t0 = Metrics.ENABLED ? Metrics.begin(Metrics.PIPELINE, op) : 0;
+        String res = switch (op) {
+            case ADD -> Minimal_Floating_Simulator.addOrSub(a, b, false, mode, steps);
+            case SUB -> Minimal_Floating_Simulator.addOrSub(a, b, true,  mode, steps);
+            case MUL -> Minimal_Floating_Simulator.multiply(a, b, mode, steps);
+            case DIV -> Minimal_Floating_Simulator.divide(a, b, mode, steps);
+            case SQRT -> Minimal_Floating_Simulator.sqrt(a, mode, steps);
+            case FMA -> Minimal_Floating_Simulator.fma(a, b, Minimal_Floating_Simulator.toBits(cBits), mode, steps);
+        };
+        if (Metrics.ENABLED) Metrics.end(Metrics.PIPELINE, op, t0);
+        return new Result(op, aBits, op.arity() > 1 ? bBits : 0, op.arity() > 2 ? cBits : 0,
+            Long.parseUnsignedLong(res, 2), steps);
+    }
+
+    public static Result simulate(Op op, double a, double b) {
+        return simulate(op, Double.doubleToRawLongBits(a), Double.doubleToRawLongBits(b));
+    }
+
+    public static long compute(Op op, long aBits, long bBits) {
+    // Result bits only, through the allocation-free long core
+        return switch (op) {
+            case ADD -> Binary64Core.add(aBits, bBits);
+            case SUB -> Binary64Core.sub(aBits, bBits);
+            case MUL -> Binary64Core.multiply(aBits, bBits);
+            case DIV -> Binary64Core.divide(aBits, bBits);
+            case SQRT -> Binary64Core.sqrt(aBits);
+            case FMA -> throw threeOperands();
+        };
+    }
+
+    public static long compute(Op op, long aBits, long bBits, Rounding mode) {
+        return compute(op, aBits, binaryOperand(op, bBits), 0, mode);
+    }
+
+    public static long compute(Op op, long aBits, long bBits, long cBits, Rounding mode) {
+        return switch (op) {
+            case ADD -> Binary64Core.addOrSub(aBits, bBits, false, mode);
+            case SUB -> Binary64Core.addOrSub(aBits, bBits, true, mode);
+            case MUL -> Binary64Core.multiply(aBits, bBits, mode);
+            case DIV -> Binary64Core.divide(aBits, bBits, mode);
+            case SQRT -> Binary64Core.sqrt(aBits, mode);
+            case FMA -> Binary64Core.fma(aBits, bBits, cBits, mode);
+        };
+    }
+
+    public static void computeAllModes(Op op, long aBits, long bBits, long[] out) {
+    // out[mode.ordinal()] for every Rounding mode, from one run of the op
+        computeAllModes(op, aBits, binaryOperand(op, bBits), 0, out);
+    }
+
+    public static void computeAllModes(Op op, long aBits, long bBits, long cBits, long[] out) {
+        if (out.length < Rounding.values().length) throw new IllegalArgumentException("Need room for every rounding mode");
+        Binary64Core.allModes(op, aBits, bBits, cBits, out, 0);
+    }
+
+    private static long binaryOperand(Op op, long bBits) {
+    // The two-operand overloads cannot express FMA; passing C = 0 silently would compute a plain product
+        if (op == Op.FMA) throw threeOperands();
+        return bBits;
+    }
+
+    private static IllegalArgumentException threeOperands() {
+        return new IllegalArgumentException("FMA takes three operands");
+    }
+}
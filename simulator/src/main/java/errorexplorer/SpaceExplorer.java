@@ -0,0 +1,241 @@
+package errorexplorer;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.stream.IntStream;
+
+final class SpaceExplorer {
+    // Rounding error of one op over a whole operand plane, for heatmaps. Both axes enumerate bit patterns
+    // in value order, restricted to a window of biased exponents [expLo, expHi]:
+    //   x = 0 .. width()-1    A = (expLo << fracBits) + x, positive
+    //   y = 0 .. height()-1   B from the most negative up: the lower half is -B, mirrored, the upper half +B
+    // A cell at level `shift` covers 2^shift patterns on each axis, so shift = fracBits makes every cell one
+    // exponent of A against one exponent (and sign) of B. Cells are computed 64 x 64 to a Tile, with the
+    // tile's rows in parallel, and tiles are kept in a bounded LRU cache so panning and zooming back is free.
+    // A cell's statistics cover every pair in it when `exhaustive` (formats up to 16 bits wide: 2^32 pairs
+    // at most) or when it is small, otherwise a stratified 16 x 16 sample of its pairs.
+    // Error per pair is (rounded - exact) / ulp(rounded): binary64 through Kernel.localError's error-free
+    // transformations, narrower formats against the op in binary64, which is exact or far more precise.
+
+    static final int TILE = 64;
+    static final int MAX_BINARY64_EXPONENTS = 512;   // keeps 2 * patterns-per-axis inside a long
+    private static final int SAMPLE = 16;            // per axis, per cell, when sampling
+    private static final int MAX_EXHAUSTIVE_SHIFT = 15;
+    private static final int MAX_TILES = 256;        // ~60 KB each
+
+    final Format format;
+    final Op op;
+    final Rounding mode;
+    final int expLo, expHi;
+    final boolean exhaustive;
+    private final long half;                         // patterns per axis (A, and each sign of B)
+    private final int minExp;                        // exponent of the format's smallest normal
+    private final double maxFinite;
+    private final NarrowCore narrow;                 // null for binary64
+    private final Map<Key, Tile> cache = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Tile> eldest) { return size() > MAX_TILES; }
+    };
+
+    private record Key(int shift, long tx, long ty) {}
+
+    static final class Tile {
+        // Cell (i, j) of the tile at (tx, ty) is cell (tx * TILE + i, ty * TILE + j) of the level;
+        // count is 0 outside the plane, and the errors are NaN where every pair was special
+        final int shift;
+        final long tx, ty;
+        final int[] count = new int[TILE * TILE];    // pairs evaluated
+        final int[] special = new int[TILE * TILE];  // of those, NaN or infinite (or overflowed) results
+        final int[] inexact = new int[TILE * TILE];
+        final float[] meanAbs = new float[TILE * TILE], maxAbs = new float[TILE * TILE], mean = new float[TILE * TILE];
+
+        Tile(int shift, long tx, long ty) {
+            this.shift = shift;
+            this.tx = tx;
+            this.ty = ty;
+        }
+    }
+
+    SpaceExplorer(Format format, Op op, Rounding mode, int expLo, int expHi, boolean exhaustive) {
+        if (format.engine != Format.Engine.NARROW && format.engine != Format.Engine.BINARY64) {
+            throw new IllegalArgumentException("The explorer runs formats up to 32 bits wide and binary64, not " + format);
+        }
+        if (op.arity() != 2) throw new IllegalArgumentException("The explorer maps two-operand ops, not " + op);
+        if (expLo < 0 || expHi >= format.expMax || expLo > expHi) {
+            throw new IllegalArgumentException("Exponent window must lie within 0.." + (format.expMax - 1) + ": " + expLo + ".." + expHi);
+        }
+        if (format.engine == Format.Engine.BINARY64 && expHi - expLo + 1 > MAX_BINARY64_EXPONENTS) {
+            throw new IllegalArgumentException("binary64 windows span at most " + MAX_BINARY64_EXPONENTS + " exponents");
+        }
+        if (exhaustive && format.width > 16) throw new IllegalArgumentException("Exhaustive runs need a format at most 16 bits wide");
+        this.format = format;
+        this.op = op;
+        this.mode = mode;
+        this.expLo = expLo;
+        this.expHi = expHi;
+        this.exhaustive = exhaustive;
+        half = (long) (expHi - expLo + 1) << format.fracBits;
+        minExp = 1 - format.bias;
+        maxFinite = format.toDouble(((long) format.expMax << format.fracBits) - 1);
+        narrow = format.narrow;
+    }
+
+    static SpaceExplorer full(Format format, Op op, Rounding mode, boolean exhaustive) {
+    // Every finite exponent, or 2^-10 .. 2^10 for binary64
+        if (format.engine == Format.Engine.BINARY64) return new SpaceExplorer(format, op, mode, format.bias - 10, format.bias + 10, exhaustive);
+        return new SpaceExplorer(format, op, mode, 0, format.expMax - 1, exhaustive);
+    }
+
+    long width() { return half; }
+
+    long height() { return 2 * half; }
+
+    long aBits(long x) { return ((long) expLo << format.fracBits) + x; }
+
+    long bBits(long y) {
+        return y >= half ? ((long) expLo << format.fracBits) + (y - half)
+                         : ((long) expLo << format.fracBits) + (half - 1 - y) | 1L << (format.width - 1);
+    }
+
+    long cells(long patterns, int shift) { return (patterns + (1L << shift) - 1) >>> shift; }
+
+    // Tiles
+
+    Tile cached(int shift, long tx, long ty) {
+        synchronized (cache) {
+            return cache.get(new Key(shift, tx, ty));
+        }
+    }
+
+    Tile tile(int shift, long tx, long ty) {
+    // From the cache, or computed now (rows in parallel on the common fork-join pool) and cached.
+    // Throws CancellationException if the calling thread is interrupted meanwhile.
+        Tile t = cached(shift, tx, ty);
+        if (t != null) return t;
+        Tile fresh = new Tile(shift, tx, ty);
+        Thread caller = Thread.currentThread();
+        IntStream.range(0, TILE).parallel().forEach(j -> {
+            for (int i = 0; i < TILE; i++) {
+                if (caller.isInterrupted()) return;
+                cell(fresh, i, j);
+            }
+        });
+        if (caller.isInterrupted()) throw new CancellationException();
+        synchronized (cache) {
+            cache.put(new Key(shift, tx, ty), fresh);
+        }
+        return fresh;
+    }
+
+    private void cell(Tile t, int i, int j) {
+        int shift = t.shift, at = j * TILE + i;
+        long x0 = (t.tx * TILE + i) << shift, y0 = (t.ty * TILE + j) << shift;
+        if (x0 >= width() || y0 >= height()) return;
+        long nx = Math.min(1L << shift, width() - x0), ny = Math.min(1L << shift, height() - y0);
+        boolean all = exhaustive ? shift <= MAX_EXHAUSTIVE_SHIFT : nx <= SAMPLE && ny <= SAMPLE;
+        int sx = all ? (int) nx : SAMPLE, sy = all ? (int) ny : SAMPLE;
+        long seed = x0 * 0x9E3779B97F4A7C15L ^ y0 * 0xC2B2AE3D27D4EB4FL;
+        long[] aBits = new long[sx];
+        double[] aValues = new double[sx];
+        for (int u = 0; u < sx; u++) {
+            aBits[u] = aBits(all ? x0 + u : x0 + stratum(nx, u, seed += 0x632BE59BD9B4E019L));
+            aValues[u] = format.toDouble(aBits[u]);
+        }
+        int count = 0, special = 0, inexact = 0;
+        double sumAbs = 0, sum = 0, max = 0;
+        for (int v = 0; v < sy; v++) {
+            long b = bBits(all ? y0 + v : y0 + stratum(ny, v, seed += 0x632BE59BD9B4E019L));
+            double bValue = format.toDouble(b);
+            for (int u = 0; u < sx; u++) {
+                double e = error(aBits[u], aValues[u], b, bValue);
+                count++;
+                if (Double.isNaN(e)) {
+                    special++;
+                    continue;
+                }
+                double abs = Math.abs(e);
+                if (e != 0) inexact++;
+                sumAbs += abs;
+                sum += e;
+                if (abs > max) max = abs;
+            }
+        }
+        int measured = count - special;
+        t.count[at] = count;
+        t.special[at] = special;
+        t.inexact[at] = inexact;
+        t.meanAbs[at] = measured == 0 ? Float.NaN : (float) (sumAbs / measured);
+        t.maxAbs[at] = measured == 0 ? Float.NaN : (float) max;
+        t.mean[at] = measured == 0 ? Float.NaN : (float) (sum / measured);
+    }
+
+    private static long stratum(long n, int k, long seed) {
+    // A pseudo-random position within the k-th of SAMPLE equal slices of [0, n)
+        long lo = n * k / SAMPLE, hi = n * (k + 1) / SAMPLE;
+        seed ^= seed >>> 31;
+        seed *= 0xBF58476D1CE4E5B9L;
+        seed ^= seed >>> 29;
+        return hi <= lo ? lo : lo + Long.remainderUnsigned(seed, hi - lo);
+    }
+
+    double error(long aBits, long bBits) { return error(aBits, format.toDouble(aBits), bBits, format.toDouble(bBits)); }
+
+    private double error(long aBits, double a, long bBits, double b) {
+    // (rounded - exact) in ulps of the rounded result; NaN when it is not finite (NaN, infinity, overflow).
+    // Directed modes overflow to the largest finite value instead of infinity; correct rounding never
+    // lands a whole ulp away otherwise, so a maxFinite result that far off counts as overflow too
+        double res, e;
+        if (narrow == null) {
+            long r = Simulator.compute(op, aBits, bBits, mode);
+            res = Double.longBitsToDouble(r);
+            e = Kernel.localError((byte) op.ordinal(), aBits, bBits, 0, r);
+        } else {
+            res = narrow.toDouble(narrow.compute(op, (int) aBits, (int) bBits, mode));
+            if (!Double.isFinite(res)) return Double.NaN;
+            double exact = switch (op) {
+                case ADD -> a + b;
+                case SUB -> a - b;
+                case MUL -> a * b;
+                default -> a / b;
+            };
+            if (!Double.isFinite(exact)) return Double.NaN;
+            // 1 / ulp(res), built from the exponent bits: a power of two within binary64's normal range
+            int k = format.fracBits - Math.max(Math.getExponent(res), minExp);
+            e = (res - exact) * (k < Double.MAX_EXPONENT ? Double.longBitsToDouble((long) (k + Binary64Core.EXP_BIAS) << Binary64Core.FRAC_BITS) : Math.scalb(1.0, k));
+        }
+        return Math.abs(res) == maxFinite && Math.abs(e) >= 1 ? Double.NaN : e;
+    }
+
+    // Headless: the exponent-by-exponent grid
+
+    void writeGrid(Appendable out) throws IOException {
+    // One CSV row per (exponent of A, sign and exponent of B) cell; subnormals (and zero) show as exponent -bias
+        int shift = format.fracBits;
+        long cx = cells(width(), shift), cy = cells(height(), shift);
+        out.append("# ").append(format.toString()).append(' ').append(op.toString()).append(' ').append(mode.abbrev())
+           .append(exhaustive ? ", every pair\n" : ", " + SAMPLE * SAMPLE + " sampled pairs per cell\n");
+        out.append("a_exp,b_exp,b_sign,pairs,special,inexact,mean_abs_ulp,max_abs_ulp,mean_ulp\n");
+        StringBuilder row = new StringBuilder(96);
+        for (long ty = 0; ty * TILE < cy; ty++) {
+            for (long tx = 0; tx * TILE < cx; tx++) {
+                Tile t = tile(shift, tx, ty);
+                for (int j = 0; j < TILE; j++) {
+                    for (int i = 0; i < TILE; i++) {
+                        int at = j * TILE + i;
+                        if (t.count[at] == 0) continue;
+                        long bits = bBits((ty * TILE + j) << shift);
+                        row.setLength(0);
+                        row.append(expLo + tx * TILE + i - format.bias).append(',')
+                           .append((int) (bits >>> format.fracBits & format.expMax) - format.bias).append(',')
+                           .append(bits >>> (format.width - 1) != 0 ? '-' : '+').append(',')
+                           .append(t.count[at]).append(',').append(t.special[at]).append(',').append(t.inexact[at]).append(',')
+                           .append(t.meanAbs[at]).append(',').append(t.maxAbs[at]).append(',').append(t.mean[at]).append('\n');
+                        out.append(row);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package errorexplorer;
+
+import java.awt.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.swing.*;
+
+final class StepPanel extends JPanel {
+    // Step-through view of a Stepper: a formula over a, b and c (read from the A, B and C fields when Start
+    // is pressed), stepped a stage or an instruction at a time in either direction. Shows the instructions
+    // around the current one and every stage of the current one so far; nothing past the current stage is
+    // computed, and nothing outside that window is rendered, so long formulas step as fast as short ones.
+
+    private static final int CONTEXT = 4;                    // instructions listed before and after the current one
+
+    private final Supplier<Rounding> rounding;
+    private final Function<String, String> inputs;
+    private final JTextField formula = new JTextField("a + b", 24);
+    private final JTextArea view = new JTextArea();
+    private final JButton[] moves;
+    private Stepper stepper;
+
+    StepPanel(Supplier<Rounding> rounding, Function<String, String> inputs) {
+        super(new BorderLayout(0, 4));
+        this.rounding = rounding;
+        this.inputs = inputs;
+        view.setEditable(false);
+        view.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        formula.setToolTipText("A formula over a, b and c, such as \"a + b\", \"fma(a, b, c)\" or \"horner(a, 1, b, c)\"");
+
+        JButton start = new JButton("Start");
+        JButton backOp = new JButton("\u25C0\u25C0 Op"), back = new JButton("\u25C0 Stage");
+        JButton next = new JButton("Stage \u25B6"), nextOp = new JButton("Op \u25B6\u25B6"), end = new JButton("End");
+        moves = new JButton[] { backOp, back, next, nextOp, end };
+        JPanel controls = new JPanel(new FlowLayout(FlowLayout.LEFT, 6, 0));
+        controls.add(new JLabel("Formula:")); controls.add(formula); controls.add(start);
+        for (JButton b : moves) controls.add(b);
+        add(controls, BorderLayout.NORTH);
+        add(new JScrollPane(view), BorderLayout.CENTER);
+        setPreferredSize(new Dimension(0, 320));
+
+        start.addActionListener(e -> start());
+        formula.addActionListener(e -> start());
+        backOp.addActionListener(e -> move(Stepper::backInstruction));
+        back.addActionListener(e -> move(Stepper::back));
+        next.addActionListener(e -> move(Stepper::next));
+        nextOp.addActionListener(e -> move(Stepper::nextInstruction));
+        end.addActionListener(e -> move(Stepper::finish));
+        enableMoves();
+        view.setText("Enter a formula over a, b and c and press Start; a, b and c come from the fields above.");
+    }
+
+    private void start() {
+    // Compile the formula and bind its inputs; each stage after the first is computed only when stepped to
+        try {
+            Kernel k = Kernel.compile(formula.getText());
+            long[] in = new long[k.inputs().size()];
+            for (int i = 0; i < in.length; i++) {
+                String name = k.inputs().get(i), text = inputs.apply(name);
+                if (text == null) throw new IllegalArgumentException("Unknown input " + name + ": use a, b and c");
+                try {
+                    in[i] = DecimalCodec.parse(text);
+                } catch (NumberFormatException ex) {
+                    throw new IllegalArgumentException("Invalid number for " + name + ": " + text.trim());
+                }
+            }
+            stepper = new Stepper(k, in, rounding.get());
+            render();
+        } catch (IllegalArgumentException ex) {
+            stepper = null;
+            view.setText("Error: " + ex.getMessage());
+        }
+        enableMoves();
+    }
+
+    private void move(Consumer<Stepper> step) {
+        if (stepper == null) return;
+        step.accept(stepper);
+        render();
+    }
+
+    private void enableMoves() {
+        for (JButton b : moves) b.setEnabled(stepper != null);
+    }
+
+    private void render() {
+        Kernel k = stepper.kernel();
+        StringBuilder b = new StringBuilder();
+        b.append(k.source()).append("   (rounding: ").append(stepper.mode()).append(")\n");
+        if (k.size() == 0) {
+            view.setText(b.append("Nothing to step: the formula is a single value, ")
+                .append(DecimalCodec.toString(stepper.result())).append('\n').toString());
+            return;
+        }
+        Stepper.Frame f = stepper.current();
+        int pc = f.pc();
+        b.append("Instruction ").append(pc + 1).append(" of ").append(k.size()).append(", stage: ").append(f.stage()).append("\n\n");
+        for (int i = Math.max(0, pc - CONTEXT); i <= Math.min(k.size() - 1, pc + CONTEXT); i++) {
+            b.append(i == pc ? " > " : "   ").append(k.step(i)).append('\n');
+        }
+        b.append('\n');
+        for (Stepper.Frame s : stepper.instruction()) b.append(stepper.describe(s)).append('\n');
+        if (stepper.done()) b.append("Result: ").append(DecimalCodec.toString(stepper.result())).append('\n');
+        view.setText(b.toString());
+        view.setCaretPosition(view.getDocument().getLength());     // the newest stage is last
+    }
+}
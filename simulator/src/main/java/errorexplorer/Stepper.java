@@ -0,0 +1,430 @@
+package errorexplorer;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+public final class Stepper {
+    // Step-through debugger for a Kernel on one element: every instruction runs as a chain of stages
+    // (unpack -> special cases -> align -> add/sub, multiply, divide or root -> normalize -> G/R/S split ->
+    // round -> pack), and a stage is computed only when next() reaches it. Each stage leaves a Frame, the few
+    // fields it produced (sign, exponent, working significand, G/R/S bits, flags), so back() and a later next()
+    // replay stored frames instead of recomputing. Registers change only when an instruction packs its result,
+    // and that frame remembers the value it replaced, so stepping across instruction boundaries is O(1) both
+    // ways however long the chain. The arithmetic is the explanation pipeline's, step for step, on binary64.
+
+    public enum Stage {
+        UNPACK("Unpack"), SPECIALS("Special cases"), ALIGN("Align"), ADD("Add magnitudes"), MULTIPLY("Multiply"),
+        DIVIDE("Divide"), ROOT("Square root"), NORMALIZE("Normalize"), GRS("Split off G/R/S"), ROUND("Round"),
+        PACK("Pack"), NEGATE("Negate"), COPY("Copy");
+
+        private final String label;
+
+        Stage(String label) { this.label = label; }
+
+        @Override
+        public String toString() { return label; }
+    }
+
+    // Frame flags
+    static final int INEXACT = 1, TINY = 2, INCREMENT = 4, CARRY = 8, OVERFLOW = 16, SHIFTED_B = 32, SUBTRACTED = 64, SWAPPED = 128;
+
+    public record Frame(int pc, Stage stage, int sign, int exp, BigInteger mant, int otherSign, BigInteger other,
+                        int shift, int tinyShift, int grs, int flags, Trace.Step special, long bits, long replaced) {
+        // State after one stage of instruction pc: the working value is (-1)^sign * mant * 2^exp, so exp is
+        // the weight of mant's lowest bit. While aligned, `other` is the second addend on the same scale.
+        // `shift` is the stage's alignment or normalization shift (right-positive), tinyShift the further
+        // shift into the subnormal range, grs the bits the split set aside. A frame that writes a register
+        // (PACK, NEGATE, COPY) holds the result in `bits` and the register's previous value in `replaced`;
+        // a special case or an exact cancellation leaves its Trace step in `special`.
+
+        boolean has(int flag) { return (flags & flag) != 0; }
+
+        boolean writes() { return stage == Stage.PACK || stage == Stage.NEGATE || stage == Stage.COPY; }
+    }
+
+    private static final int P = Binary64Core.FRAC_BITS + 1;   // 53
+    private static final int EXT_BITS = Binary64Core.EXT_BITS;
+    private static final int TOP = P - 1 + EXT_BITS;             // 55: the leading bit once normalized
+    private static final int MIN_EXP = 1 - Binary64Core.EXP_BIAS;
+
+    private final Kernel kernel;
+    private final Rounding mode;
+    private final long[] regs;
+    private final List<Frame> frames = new ArrayList<>();
+    private int at = -1;                                         // frames[0 .. at] have been applied
+
+    public Stepper(Kernel kernel, long[] inputs, Rounding mode) {
+        this.kernel = Objects.requireNonNull(kernel, "kernel");
+        this.mode = Objects.requireNonNull(mode, "mode");
+        if (kernel.reduces()) throw new IllegalArgumentException("Step-through needs a formula without sum, kahan or other reductions");
+        this.regs = kernel.registers(inputs);
+        if (kernel.size() > 0) next();
+    }
+
+    public Kernel kernel() { return kernel; }
+
+    public Rounding mode() { return mode; }
+
+    public Frame current() { return at < 0 ? null : frames.get(at); }
+
+    public int position() { return at; }
+
+    public boolean done() { return kernel.size() == 0 || (at >= 0 && current().writes() && current().pc() == kernel.size() - 1); }
+
+    public long result() {
+    // The kernel's value once done()
+        if (!done()) throw new IllegalStateException("Not finished");
+        return regs[kernel.resultRegister()];
+    }
+
+    public long register(int r) { return regs[r]; }
+
+    public List<Frame> instruction() {
+    // The frames of the current instruction up to the current stage
+        if (at < 0) return List.of();
+        int from = at;
+        while (from > 0 && frames.get(from - 1).pc() == frames.get(at).pc()) from--;
+        return List.copyOf(frames.subList(from, at + 1));
+    }
+
+    // Moving
+
+    public boolean next() {
+    // Advance one stage, computing it unless it was computed before; false at the end
+        if (done()) return false;
+        Frame f = at + 1 < frames.size() ? frames.get(at + 1) : compute(current());
+        if (at + 1 == frames.size()) frames.add(f);
+        at++;
+        if (f.writes()) regs[kernel.register(f.pc(), 0)] = f.bits();
+        return true;
+    }
+
+    public boolean back() {
+    // Undo one stage; false at the first
+        if (at <= 0) return false;
+        Frame f = frames.get(at--);
+        if (f.writes()) regs[kernel.register(f.pc(), 0)] = f.replaced();
+        return true;
+    }
+
+    public void nextInstruction() {
+    // To the first stage of the next instruction, or the end
+        int pc = current() == null ? 0 : current().pc();
+        while (next() && current().pc() == pc) { }
+    }
+
+    public void backInstruction() {
+    // To the first stage of this instruction, or of the previous one when already there
+        int pc = current() == null ? 0 : current().pc();
+        boolean atStart = at == 0 || frames.get(at - 1).pc() != pc;
+        if (atStart && back()) pc = current().pc();
+        while (at > 0 && frames.get(at - 1).pc() == pc) back();
+    }
+
+    public void finish() { while (next()) { } }
+
+    // Stages
+
+    private Frame compute(Frame f) {
+        if (f == null || f.writes()) return start(f == null ? 0 : f.pc() + 1);
+        Op op = kernel.op(f.pc());
+        return switch (f.stage()) {
+            case UNPACK -> specials(f.pc(), op);
+            case SPECIALS -> switch (op) {
+                case ADD, SUB -> align(f.pc(), op);
+                case MUL, FMA -> multiply(f.pc());
+                case DIV -> divide(f.pc());
+                case SQRT -> root(f.pc());
+            };
+            case MULTIPLY -> op == Op.FMA && !isZero(operand(f.pc(), 3)) ? alignFused(f) : normalize(f);
+            case ALIGN -> add(f);
+            case ADD, DIVIDE, ROOT -> normalize(f);
+            case NORMALIZE -> split(f);
+            case GRS -> round(f);
+            case ROUND -> pack(f);
+            default -> throw new IllegalStateException("No stage after " + f.stage());
+        };
+    }
+
+    private Frame start(int pc) {
+        Op op = kernel.op(pc);
+        long a = operand(pc, 1);
+        if (op != null) return new Frame(pc, Stage.UNPACK, 0, 0, null, 0, null, 0, 0, 0, 0, null, 0, 0);
+        long bits = kernel.negates(pc) ? a ^ Binary64Core.SIGN_MASK : a;
+        return new Frame(pc, kernel.negates(pc) ? Stage.NEGATE : Stage.COPY, 0, 0, null, 0, null, 0, 0, 0, 0, null,
+            bits, regs[kernel.register(pc, 0)]);
+    }
+
+    private Frame specials(int pc, Op op) {
+    // The pipeline's special-case checks, in its order; a hit goes straight to packing Binary64Core's result
+        long a = operand(pc, 1), b = operand(pc, 2), c = operand(pc, 3);
+        if (op == Op.SUB) b ^= Binary64Core.SIGN_MASK;
+        boolean aNaN = isNaN(a), bNaN = isNaN(b), aInf = isInf(a), bInf = isInf(b), aZero = isZero(a), bZero = isZero(b);
+        Trace.Step s = switch (op) {
+            case ADD, SUB -> aNaN || bNaN ? Trace.Step.NAN_OPERAND
+                : aInf && bInf && sign(a) != sign(b) ? Trace.Step.INVALID
+                : aInf || bInf ? Trace.Step.INF_OPERAND
+                : aZero || bZero ? Trace.Step.ZERO_OPERAND : null;
+            case MUL -> aNaN || bNaN ? Trace.Step.NAN_OPERAND
+                : (aInf && bZero) || (bInf && aZero) ? Trace.Step.INVALID
+                : aInf || bInf ? Trace.Step.INF_OPERAND
+                : aZero || bZero ? Trace.Step.ZERO_OPERAND : null;
+            case DIV -> aNaN || bNaN ? Trace.Step.NAN_OPERAND
+                : (aInf && bInf) || (aZero && bZero) ? Trace.Step.INVALID
+                : aInf || bInf ? Trace.Step.INF_OPERAND
+                : bZero ? Trace.Step.DIV_BY_ZERO
+                : aZero ? Trace.Step.ZERO_OPERAND : null;
+            case SQRT -> aNaN ? Trace.Step.NAN_OPERAND
+                : aZero ? Trace.Step.ZERO_OPERAND
+                : a < 0 ? Trace.Step.INVALID
+                : aInf ? Trace.Step.INF_OPERAND : null;
+            case FMA -> aNaN || bNaN || isNaN(c) ? Trace.Step.NAN_OPERAND
+                : (aInf && bZero) || (bInf && aZero) ? Trace.Step.INVALID
+                : (aInf || bInf) && isInf(c) && sign(c) != (sign(a) ^ sign(b)) ? Trace.Step.INVALID
+                : aInf || bInf || isInf(c) ? Trace.Step.INF_OPERAND
+                : aZero || bZero ? Trace.Step.ZERO_OPERAND : null;
+        };
+        if (s == null) return new Frame(pc, Stage.SPECIALS, 0, 0, null, 0, null, 0, 0, 0, 0, null, 0, 0);
+        long bits = Simulator.compute(op, operand(pc, 1), operand(pc, 2), c, mode);
+        return new Frame(pc, Stage.PACK, 0, 0, null, 0, null, 0, 0, 0, 0, s, bits, regs[kernel.register(pc, 0)]);
+    }
+
+    private Frame align(int pc, Op op) {
+    // Both significands get three G/R/S places; the one with the smaller exponent shifts right with sticky
+        long a = operand(pc, 1), b = operand(pc, 2) ^ (op == Op.SUB ? Binary64Core.SIGN_MASK : 0);
+        int eA = exp(a), eB = exp(b), e = Math.max(eA, eB);
+        BigInteger aAcc = Minimal_Floating_Simulator.shiftRightWithSticky(mant(a).shiftLeft(EXT_BITS), e - eA);
+        BigInteger bAcc = Minimal_Floating_Simulator.shiftRightWithSticky(mant(b).shiftLeft(EXT_BITS), e - eB);
+        return new Frame(pc, Stage.ALIGN, sign(a), e - Binary64Core.FRAC_BITS - EXT_BITS, aAcc, sign(b), bAcc,
+            Math.abs(eA - eB), 0, 0, eB < eA ? SHIFTED_B : 0, null, 0, 0);
+    }
+
+    private Frame alignFused(Frame f) {
+    // The exact product and C on a common scale never more than 2p + 6 bits below the larger leading bit;
+    // anything lower can only reach the result as sticky
+        long c = operand(f.pc(), 3);
+        BigInteger mC = mant(c);
+        int eP = f.exp(), eC = exp(c) - Binary64Core.FRAC_BITS;
+        int top = Math.max(eP + f.mant().bitLength(), eC + mC.bitLength()) - 1;
+        int t = Math.max(Math.min(eP, eC), top - (2 * P + 6));
+        BigInteger pAcc = eP >= t ? f.mant().shiftLeft(eP - t) : Minimal_Floating_Simulator.shiftRightWithSticky(f.mant(), t - eP);
+        BigInteger cAcc = eC >= t ? mC.shiftLeft(eC - t) : Minimal_Floating_Simulator.shiftRightWithSticky(mC, t - eC);
+        int pShift = Math.max(0, t - eP), cShift = Math.max(0, t - eC);
+        return new Frame(f.pc(), Stage.ALIGN, f.sign(), t, pAcc, sign(c), cAcc, Math.max(pShift, cShift), 0, 0,
+            cShift > 0 ? SHIFTED_B : 0, null, 0, 0);
+    }
+
+    private Frame add(Frame f) {
+    // Signed-magnitude add or subtract; an exact cancellation packs the zero right away
+        if (f.sign() == f.otherSign()) {
+            return new Frame(f.pc(), Stage.ADD, f.sign(), f.exp(), f.mant().add(f.other()), 0, null, 0, 0, 0, 0, null, 0, 0);
+        }
+        int cmp = f.mant().compareTo(f.other());
+        if (cmp == 0) {
+            long zero = (long) mode.exactZeroSign() << 63;
+            return new Frame(f.pc(), Stage.PACK, 0, 0, null, 0, null, 0, 0, 0, 0, Trace.Step.CANCEL, zero,
+                regs[kernel.register(f.pc(), 0)]);
+        }
+        BigInteger diff = cmp > 0 ? f.mant().subtract(f.other()) : f.other().subtract(f.mant());
+        return new Frame(f.pc(), Stage.ADD, cmp > 0 ? f.sign() : f.otherSign(), f.exp(), diff, 0, null, 0, 0, 0,
+            SUBTRACTED | (cmp > 0 ? 0 : SWAPPED), null, 0, 0);
+    }
+
+    private Frame multiply(int pc) {
+    // The exact 106-bit product of the significands
+        long a = operand(pc, 1), b = operand(pc, 2);
+        return new Frame(pc, Stage.MULTIPLY, sign(a) ^ sign(b), exp(a) + exp(b) - 2 * Binary64Core.FRAC_BITS,
+            mant(a).multiply(mant(b)), 0, null, 0, 0, 0, 0, null, 0, 0);
+    }
+
+    private Frame divide(int pc) {
+    // Subnormal significands are first brought to full precision; the quotient gets p + 6 fraction bits
+    // and a nonzero remainder sets its lowest bit (sticky)
+        long a = operand(pc, 1), b = operand(pc, 2);
+        BigInteger mA = mant(a), mB = mant(b);
+        int eA = exp(a) - (P - mA.bitLength()), eB = exp(b) - (P - mB.bitLength());
+        mA = mA.shiftLeft(P - mA.bitLength());
+        mB = mB.shiftLeft(P - mB.bitLength());
+        int k = P + EXT_BITS + 3;
+        BigInteger[] qr = mA.shiftLeft(k).divideAndRemainder(mB);
+        boolean inexact = qr[1].signum() != 0;
+        return new Frame(pc, Stage.DIVIDE, sign(a) ^ sign(b), eA - eB - k, inexact ? qr[0].setBit(0) : qr[0],
+            0, null, 0, 0, 0, inexact ? INEXACT : 0, null, 0, 0);
+    }
+
+    private Frame root(int pc) {
+    // value = m * 2^e with e made even; the integer root of m scaled to at least p + 3 bits, remainder as sticky
+        long a = operand(pc, 1);
+        BigInteger m = mant(a);
+        int e = exp(a) - Binary64Core.FRAC_BITS;
+        if ((e & 1) != 0) { m = m.shiftLeft(1); e--; }
+        int k = Math.max(0, (2 * P + 6 - m.bitLength()) / 2);
+        BigInteger[] sr = m.shiftLeft(2 * k).sqrtAndRemainder();
+        boolean inexact = sr[1].signum() != 0;
+        return new Frame(pc, Stage.ROOT, 0, e / 2 - k, inexact ? sr[0].setBit(0) : sr[0], 0, null, 0, 0, 0,
+            inexact ? INEXACT : 0, null, 0, 0);
+    }
+
+    private Frame normalize(Frame f) {
+    // Leading 1 to bit 55 (shifted-out bits kept as sticky); below the smallest normal exponent, shift
+    // on into the subnormal range so the single rounding lands on the right bit. `shift` is right-positive
+        BigInteger m = f.mant();
+        int s = m.bitLength() - 1 - TOP, e = f.exp() + s, flags = 0;
+        m = s > 0 ? Minimal_Floating_Simulator.shiftRightWithSticky(m, s) : m.shiftLeft(-s);
+        int tinyShift = MIN_EXP - (e + TOP);
+        if (tinyShift > 0) {
+            m = Minimal_Floating_Simulator.shiftRightWithSticky(m, tinyShift);
+            e += tinyShift;
+            flags |= TINY;
+        }
+        return new Frame(f.pc(), Stage.NORMALIZE, f.sign(), e, m, 0, null, s, Math.max(0, tinyShift), 0, flags, null, 0, 0);
+    }
+
+    private Frame split(Frame f) {
+        BigInteger m = f.mant();
+        return new Frame(f.pc(), Stage.GRS, f.sign(), f.exp() + EXT_BITS, m.shiftRight(EXT_BITS), 0, null, 0, 0,
+            m.intValue() & 0b111, f.flags() & TINY, null, 0, 0);
+    }
+
+    private Frame round(Frame f) {
+    // The rounding mode decides from the sign, the last kept bit and G/R/S; a carry out renormalizes
+        boolean inc = mode.increment(f.sign(), f.mant().testBit(0), f.grs());
+        BigInteger m = inc ? f.mant().add(BigInteger.ONE) : f.mant();
+        int e = f.exp(), flags = f.flags() | (inc ? INCREMENT : 0) | (f.grs() != 0 ? INEXACT : 0);
+        if (m.bitLength() > P) {
+            m = m.shiftRight(1);
+            e++;
+            flags |= CARRY;
+        }
+        return new Frame(f.pc(), Stage.ROUND, f.sign(), e, m, 0, null, 0, 0, f.grs(), flags, null, 0, 0);
+    }
+
+    private Frame pack(Frame f) {
+    // A 53-bit significand is normal; a shorter one (only after TINY) is subnormal with exponent field 0
+        int eField = f.mant().bitLength() == P ? f.exp() + Binary64Core.FRAC_BITS + Binary64Core.EXP_BIAS : 0;
+        long sign = (long) f.sign() << 63, bits;
+        int flags = f.flags();
+        if (eField >= Binary64Core.EXP_MAX) {
+            bits = sign | (mode.overflowsToInfinity(f.sign()) ? Binary64Core.POS_INF : Binary64Core.POS_INF - 1);
+            flags |= OVERFLOW;
+        } else {
+            bits = sign | (long) eField << Binary64Core.FRAC_BITS | (f.mant().longValue() & Binary64Core.FRAC_MASK);
+        }
+        return new Frame(f.pc(), Stage.PACK, f.sign(), f.exp(), f.mant(), 0, null, 0, 0, f.grs(), flags, null, bits,
+            regs[kernel.register(f.pc(), 0)]);
+    }
+
+    // Operands
+
+    private long operand(int pc, int k) { return regs[kernel.register(pc, k)]; }
+
+    private static int sign(long bits) { return (int) (bits >>> 63); }
+
+    private static int biasedExp(long bits) { return (int) (bits >>> Binary64Core.FRAC_BITS) & Binary64Core.EXP_MAX; }
+
+    private static int exp(long bits) {
+    // Unbiased exponent; subnormals use the minimum exponent
+        return Math.max(biasedExp(bits), 1) - Binary64Core.EXP_BIAS;
+    }
+
+    private static BigInteger mant(long bits) {
+    // Significand with the hidden 1 for normals, the bare fraction for subnormals
+        long f = bits & Binary64Core.FRAC_MASK;
+        return BigInteger.valueOf(biasedExp(bits) != 0 ? f | Binary64Core.HIDDEN : f);
+    }
+
+    private static boolean isNaN(long bits) { return (bits & ~Binary64Core.SIGN_MASK) > Binary64Core.POS_INF; }
+
+    private static boolean isInf(long bits) { return (bits & ~Binary64Core.SIGN_MASK) == Binary64Core.POS_INF; }
+
+    private static boolean isZero(long bits) { return (bits & ~Binary64Core.SIGN_MASK) == 0; }
+
+    // Rendering
+
+    public String describe(Frame f) {
+    // What the stage did, with its significands drawn bit by bit
+        StringBuilder b = new StringBuilder();
+        b.append(kernel.step(f.pc())).append("  [").append(f.stage()).append("]\n");
+        Op op = kernel.op(f.pc());
+        switch (f.stage()) {
+            case UNPACK -> {
+                String[] names = { "A", "B", "C" };
+                for (int k = 0; k < op.arity(); k++) {
+                    long x = operand(f.pc(), k + 1);
+                    b.append("  ").append(names[k]).append(" = ").append(DecimalCodec.toString(x)).append('\n')
+                     .append("    bits  ").append(Minimal_Floating_Simulator.spaced64(Minimal_Floating_Simulator.toBits(x))).append('\n');
+                    if (isNaN(x) || isInf(x)) {
+                        b.append("    exponent all ones: ").append(isNaN(x) ? "NaN" : "infinity").append('\n');
+                    } else if (isZero(x)) {
+                        b.append("    zero\n");
+                    } else {
+                        b.append("    sign ").append(sign(x)).append(", exponent ").append(exp(x))
+                         .append(biasedExp(x) == 0 ? " (subnormal: no hidden 1)" : "").append('\n')
+                         .append("    significand ").append(point(mant(x), P)).append('\n');
+                    }
+                }
+                if (op == Op.SUB) b.append("  Subtraction adds A to B with its sign flipped.\n");
+            }
+            case SPECIALS -> b.append("  No NaN, infinite or zero operand decides the result, so the full pipeline runs.\n");
+            case ALIGN -> {
+                b.append(f.shift() == 0 ? "  The exponents already match.\n"
+                    : "  The smaller operand is shifted right " + f.shift() + " places; bits shifted out fold into the sticky bit.\n");
+                int w = Math.max(f.mant().bitLength(), f.other().bitLength());
+                b.append("    ").append(f.sign() == 1 ? '-' : '+').append(' ').append(grouped(f.mant(), w, EXT_BITS)).append('\n')
+                 .append("    ").append(f.otherSign() == 1 ? '-' : '+').append(' ').append(grouped(f.other(), w, EXT_BITS))
+                 .append("   x 2^").append(f.exp()).append('\n');
+            }
+            case ADD -> {
+                b.append("  ").append(f.has(SUBTRACTED) ? Trace.Step.SUB.human(f.has(SWAPPED) ? 1 : 0, 0) : Trace.Step.ADD.human(0, 0)).append('\n');
+                b.append("    ").append(f.sign() == 1 ? '-' : '+').append(' ').append(grouped(f.mant(), f.mant().bitLength(), EXT_BITS))
+                 .append("   x 2^").append(f.exp()).append('\n');
+            }
+            case MULTIPLY -> b.append("  ").append(Trace.Step.MULTIPLY.human(0, 0)).append(" The ").append(f.mant().bitLength())
+                .append("-bit product is exact:\n    ").append(grouped(f.mant(), f.mant().bitLength(), 0)).append("   x 2^").append(f.exp()).append('\n');
+            case DIVIDE, ROOT -> b.append("  ").append((f.stage() == Stage.DIVIDE ? Trace.Step.DIVIDE : Trace.Step.SQRT).human(0, 0))
+                .append(f.has(INEXACT) ? " The remainder is not zero, so the last bit (sticky) is set:\n" : " The remainder is zero:\n")
+                .append("    ").append(grouped(f.mant(), f.mant().bitLength(), 0)).append("   x 2^").append(f.exp()).append('\n');
+            case NORMALIZE -> {
+                b.append(f.shift() > 0 ? "  Shifted right " + f.shift() + " places (sticky kept) to put the leading 1 at bit 55.\n"
+                       : f.shift() < 0 ? "  Shifted left " + -f.shift() + " places to put the leading 1 at bit 55.\n"
+                       : "  The leading 1 is already at bit 55.\n");
+                if (f.has(TINY)) b.append("  ").append(Trace.Step.SUBNORMAL.human(0, 0)).append(" (" + f.tinyShift() + " more places)\n");
+                b.append("    ").append(grouped(f.mant(), TOP + 1, EXT_BITS)).append("   exponent ")
+                 .append(f.exp() + TOP).append('\n');
+            }
+            case GRS -> b.append("  The significand keeps 53 bits; the three below it are guard ").append(f.grs() >> 2)
+                .append(", round ").append(f.grs() >> 1 & 1).append(", sticky ").append(f.grs() & 1).append(":\n")
+                .append("    ").append(point(f.mant(), P)).append(" | ").append(f.grs() >> 2).append(' ')
+                .append(f.grs() >> 1 & 1).append(' ').append(f.grs() & 1).append('\n');
+            case ROUND -> {
+                b.append("  ").append(mode).append(": ").append(Trace.Step.ROUND.human(f.grs(), f.has(INCREMENT) ? 1 : 0)).append('\n');
+                if (f.has(CARRY)) b.append("  ").append(Trace.Step.CARRY.human(0, 0)).append('\n');
+                b.append("    ").append(point(f.mant(), P)).append('\n');
+            }
+            case PACK -> {
+                if (f.special() != null) b.append("  ").append(f.special().human(0, 0)).append('\n');
+                else if (f.has(OVERFLOW)) b.append("  ").append(Trace.Step.OVERFLOW.human(0, 0)).append('\n');
+                else b.append("  Sign, biased exponent and the 52 fraction bits are assembled.\n");
+                b.append("    bits  ").append(Minimal_Floating_Simulator.spaced64(Minimal_Floating_Simulator.toBits(f.bits()))).append('\n')
+                 .append("    = ").append(DecimalCodec.toString(f.bits())).append('\n');
+            }
+            case NEGATE -> b.append("  The sign bit is flipped; nothing is rounded.\n    = ").append(DecimalCodec.toString(f.bits())).append('\n');
+            case COPY -> b.append("  The value is copied.\n    = ").append(DecimalCodec.toString(f.bits())).append('\n');
+        }
+        return b.toString();
+    }
+
+    private static String point(BigInteger m, int width) {
+    // A significand of `width` bits as 1.xxxx (0.xxxx when subnormal)
+        String s = Minimal_Floating_Simulator.padLeft(m.toString(2), width);
+        return s.charAt(0) + "." + s.substring(1);
+    }
+
+    private static String grouped(BigInteger m, int width, int low) {
+    // `width` bits, with a bar before the lowest `low` (the G/R/S places)
+        String s = Minimal_Floating_Simulator.padLeft(m.toString(2), Math.max(width, low + 1));
+        return low == 0 ? s : s.substring(0, s.length() - low) + "|" + s.substring(s.length() - low);
+    }
+}
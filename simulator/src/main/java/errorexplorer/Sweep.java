@@ -0,0 +1,88 @@
+package errorexplorer;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.concurrent.CancellationException;
+
+final class Sweep {
+    // Error growth over repeated operations: x(n) = x(n-1) op b, simulated step by step through
+    // Binary64Core (under any rounding mode) and compared against the exact value of the same recurrence.
+    // The exact value is only evaluated (in closed form) at evenly spaced sample steps, so memory
+    // and BigDecimal work depend on the number of points, not on the number of steps.
+
+    record Point(long step, double value, double absError, double ulpError) {}
+
+    interface Sink { void accept(Point p); }
+
+    static final long MAX_STEPS = 100_000_000L;
+    private static final MathContext REFERENCE = new MathContext(40); // well past binary64's 17 digits
+
+    private final Op op;
+    private final long startBits, operandBits;
+    private final BigDecimal exactStart, exactOperand;
+    private final long steps;
+    private final int points;
+    private final Rounding mode;
+
+    Sweep(Op op, long startBits, long operandBits, BigDecimal exactStart, BigDecimal exactOperand, long steps, int points, Rounding mode) {
+    // exactStart/exactOperand are the values the reference uses: new BigDecimal(double) measures rounding
+    // error only, the decimal the user typed also counts the error of representing it in binary
+        if (steps < 1 || steps > MAX_STEPS) throw new IllegalArgumentException("Steps must be between 1 and " + MAX_STEPS);
+        if (points < 1) throw new IllegalArgumentException("Need at least one sample point");
+        if (op.arity() != 2) throw new IllegalArgumentException("Sweeps repeat a two-operand op, not " + op);
+        this.op = op;
+        this.startBits = startBits;
+        this.operandBits = operandBits;
+        this.exactStart = exactStart;
+        this.exactOperand = exactOperand;
+        this.steps = steps;
+        this.points = points;
+        this.mode = mode;
+    }
+
+    long steps() { return steps; }
+
+    long stride() { return Math.max(1, (steps + points - 1) / points); }
+
+    void run(Sink sink) {
+    // Iterate all steps, emitting step 0 and every stride-th step (always including the last)
+        long stride = stride();
+        long x = startBits;
+        sink.accept(point(0, x));
+        long next = Math.min(stride, steps);
+        for (long n = 1; n <= steps; n++) {
+            x = Simulator.compute(op, x, operandBits, mode);
+            if (n == next) {
+                if (Thread.currentThread().isInterrupted()) throw new CancellationException();
+                sink.accept(point(n, x));
+                next = Math.min(next + stride, steps);
+            }
+        }
+    }
+
+    private Point point(long n, long bits) {
+        double v = Double.longBitsToDouble(bits);
+        BigDecimal exact = exact(n);
+        if (exact == null || !Double.isFinite(v)) return new Point(n, v, Double.NaN, Double.NaN);
+        double err = new BigDecimal(v).subtract(exact).doubleValue();
+        // An exact zero has no ulp to measure against (Math.ulp(0) is the smallest subnormal), so such a
+        // point keeps its absolute error only
+        return new Point(n, v, err, exact.signum() == 0 ? Double.NaN : err / Math.ulp(exact.doubleValue()));
+    }
+
+    BigDecimal exact(long n) {
+    // Closed form of the recurrence after n steps; null when it has no finite value
+        try {
+            return switch (op) {
+                case ADD -> exactStart.add(exactOperand.multiply(BigDecimal.valueOf(n)));
+                case SUB -> exactStart.subtract(exactOperand.multiply(BigDecimal.valueOf(n)));
+                case MUL -> exactStart.multiply(exactOperand.pow((int) n, REFERENCE), REFERENCE);
+                case DIV -> exactOperand.signum() == 0 ? null
+                          : exactStart.divide(exactOperand.pow((int) n, REFERENCE), REFERENCE);
+                case SQRT, FMA -> null; // rejected by the constructor
+            };
+        } catch (ArithmeticException ex) {
+            return null; // exponent beyond BigDecimal's range; binary64 has long since over/underflowed
+        }
+    }
+}
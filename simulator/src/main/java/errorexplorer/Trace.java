@@ -0,0 +1,129 @@
+package errorexplorer;
+
+import java.util.Arrays;
+
+public final class Trace {
+    // Step trace of one simulated operation: typed step codes with up to two int arguments each,
+    // kept in a reusable int buffer. Nothing is formatted until toString() or conciseWhy() asks,
+    // and Trace.OFF records nothing at all for throughput runs.
+
+    public enum Step {
+        NAN_OPERAND("nan", 0, "An operand is NaN, so the result is NaN."),
+        INVALID("invalid", 0, "The operation has no meaningful value (like Inf - Inf or 0 * Inf), so the result is NaN."),
+        INF_OPERAND("inf", 0, "An operand is infinite, so the result is infinite or zero."),
+        ZERO_OPERAND("zero", 0, "An operand is zero, so no rounding is needed."),
+        DIV_BY_ZERO("divzero", 0, "Dividing a finite number by zero gives infinity."),
+        ALIGN("align", 2, "The exponents are aligned so the numbers can be combined."),   // shift, shifted operand (0 = A, 1 = B)
+        ADD("add", 0, "The mantissas are added together."),
+        SUB("sub", 1, null),                                                               // 0 = A>B, 1 = B>A
+        CANCEL("cancel", 0, "The operands cancel exactly, so the result is zero."),
+        MULTIPLY("mul", 0, "The mantissas are multiplied and the exponents added."),
+        DIVIDE("div", 1, "The mantissas are divided and the exponents subtracted."),       // remainder != 0
+        FUSED("fused", 0, "The product is kept exact, with no rounding, and the third number is added to it."),
+        SQRT("sqrt", 1, "The square root of the mantissa is taken and the exponent halved."), // remainder != 0
+        NORM_RIGHT("normR", 1, "The result is shifted right to normalize it."),            // shift
+        NORM_LEFT("normL", 1, "The result is shifted left to normalize it."),              // shift
+        SUBNORMAL("subnormal", 1, "The result is below the smallest normal number, so it is shifted into the subnormal range."), // shift
+        ROUND("round", 2, null),                                                           // GRS bits, 1 = incremented
+        CARRY("carry", 0, "Rounding caused a carry, so the result was adjusted."),
+        OVERFLOW("overflow", 0, "The result is too large for the format and becomes infinity."),
+        UNDERFLOW("underflow", 1, "The result is tiny and inexact, so precision was lost to underflow.");  // 1 = flushed to zero
+
+        final String token;
+        final int args;
+        private final String human;
+
+        Step(String token, int args, String human) {
+            this.token = token;
+            this.args = args;
+            this.human = human;
+        }
+
+        String human(int a0, int a1) {
+        // One sentence for the explanation view
+            if (this == SUB) return a0 == 0 ? "The first number is larger, so we subtract the second from the first."
+                                            : "The second number is larger, so we subtract the first from the second.";
+            if (this == ROUND) return a1 != 0 ? "The dropped bits make the rounding mode round the magnitude up one ulp."
+                                              : (a0 == 0 ? "The result was exact, so no rounding was needed."
+                                                         : "The dropped bits are discarded; no rounding adjustment was needed.");
+            return human;
+        }
+    }
+
+    public static final Trace OFF = new Trace(false);
+
+    private static final int WIDTH = 3; // step ordinal, arg 0, arg 1
+    private static final Step[] STEPS = Step.values();
+
+    private final boolean on;
+    private int[] buf;
+    private int size;
+
+    public Trace() { this(true); }
+
+    private Trace(boolean on) {
+        this.on = on;
+        this.buf = new int[on ? 16 * WIDTH : 0];
+    }
+
+    public boolean enabled() { return on; }
+
+    public Trace clear() {
+    // Reuse the buffer for the next operation
+        size = 0;
+        return this;
+    }
+
+    void add(Step s) { add(s, 0, 0); }
+
+    void add(Step s, int a0) { add(s, a0, 0); }
+
+    void add(Step s, int a0, int a1) {
+        if (!on) return;
+        int at = size * WIDTH;
+        if (at == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+        buf[at] = s.ordinal();
+        buf[at + 1] = a0;
+        buf[at + 2] = a1;
+        size++;
+    }
+
+    // Read access for rendering and bulk analysis
+
+    public int size() { return size; }
+
+    public Step step(int i) { return STEPS[buf[check(i) * WIDTH]]; }
+
+    public int arg(int i, int k) {
+        if (k < 0 || k > 1) throw new IndexOutOfBoundsException("arg " + k);
+        return buf[check(i) * WIDTH + 1 + k];
+    }
+
+    public boolean contains(Step s) {
+        for (int i = 0; i < size; i++) if (buf[i * WIDTH] == s.ordinal()) return true;
+        return false;
+    }
+
+    private int check(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException("step " + i + " of " + size);
+        return i;
+    }
+
+    public StringBuilder appendTo(StringBuilder b) {
+    // Space-separated tokens such as "align(3,1) add normR(1) round(5,1)"
+        for (int i = 0; i < size; i++) {
+            Step s = STEPS[buf[i * WIDTH]];
+            if (i > 0) b.append(' ');
+            b.append(s.token);
+            if (s.args > 0) {
+                b.append('(').append(buf[i * WIDTH + 1]);
+                if (s.args > 1) b.append(',').append(buf[i * WIDTH + 2]);
+                b.append(')');
+            }
+        }
+        return b;
+    }
+
+    @Override
+    public String toString() { return appendTo(new StringBuilder(size * 12)).toString(); }
+}
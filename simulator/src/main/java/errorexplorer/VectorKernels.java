@@ -0,0 +1,148 @@
+package errorexplorer;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+final class VectorKernels {
+    // Lane-parallel binary64 add/sub on jdk.incubator.vector: the align / add-or-subtract / normalize /
+    // GRS-round / pack steps of Binary64Core.addOrSub, one lane per operand pair.
+    // Lanes the vector path does not cover (zeros, subnormals, Inf/NaN, results that could leave the
+    // normal range) are recomputed with Binary64Core, so every lane is bit-exact.
+    // Only referenced through BatchSimulator, which checks that the incubator module is present.
+
+    private static final VectorSpecies<Long> L = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> D = DoubleVector.SPECIES_PREFERRED;
+
+    private static final long SIGN = Binary64Core.SIGN_MASK;
+    private static final long FRAC = Binary64Core.FRAC_MASK;
+    private static final long HIDDEN = Binary64Core.HIDDEN;
+    private static final int EXT = Binary64Core.EXT_BITS;
+
+    // Largest exponent field a normalization can move by is 55 (full cancellation), plus one for a carry:
+    // operands whose larger exponent lies in [MIN_FAST_EXP, MAX_FAST_EXP] always give a normal result
+    private static final int MIN_FAST_EXP = 64;
+    private static final int MAX_FAST_EXP = 0x7FD;
+
+    private VectorKernels() {}
+
+    static int length() { return L.length(); }
+
+    static void addOrSub(long[] a, long[] b, long[] out, int from, int to, boolean subtractB) {
+        int i = from;
+        int upper = from + L.loopBound(to - from);
+        LongVector flip = LongVector.broadcast(L, subtractB ? SIGN : 0L);
+        for (; i < upper; i += L.length()) {
+            LongVector va = LongVector.fromArray(L, a, i);
+            LongVector vb = LongVector.fromArray(L, b, i).lanewise(VectorOperators.XOR, flip);
+            add(va, vb).intoArray(out, i);
+            fixUp(va, vb, out, i);
+        }
+        for (; i < to; i++) out[i] = Binary64Core.addOrSub(a[i], b[i], subtractB);
+    }
+
+    static void addOrSub(double[] a, double[] b, double[] out, int from, int to, boolean subtractB) {
+        int i = from;
+        int upper = from + D.loopBound(to - from);
+        LongVector flip = LongVector.broadcast(L, subtractB ? SIGN : 0L);
+        for (; i < upper; i += D.length()) {
+            LongVector va = DoubleVector.fromArray(D, a, i).reinterpretAsLongs();
+            LongVector vb = DoubleVector.fromArray(D, b, i).reinterpretAsLongs().lanewise(VectorOperators.XOR, flip);
+            add(va, vb).reinterpretAsDoubles().intoArray(out, i);
+            VectorMask<Long> fast = fastLanes(va, vb);
+            if (!fast.allTrue()) {
+                for (int l = 0; l < L.length(); l++) {
+                    if (!fast.laneIsSet(l)) out[i + l] = Double.longBitsToDouble(Binary64Core.add(va.lane(l), vb.lane(l)));
+                }
+            }
+        }
+        for (; i < to; i++) {
+            long r = Binary64Core.addOrSub(Double.doubleToRawLongBits(a[i]), Double.doubleToRawLongBits(b[i]), subtractB);
+            out[i] = Double.longBitsToDouble(r);
+        }
+    }
+
+    private static void fixUp(LongVector va, LongVector vb, long[] out, int i) {
+    // Scalar fallback for the lanes the vector path does not cover; reads the loaded lanes,
+    // not the arrays, so out may alias a or b
+        VectorMask<Long> fast = fastLanes(va, vb);
+        if (fast.allTrue()) return;
+        for (int l = 0; l < L.length(); l++) {
+            if (!fast.laneIsSet(l)) out[i + l] = Binary64Core.add(va.lane(l), vb.lane(l));
+        }
+    }
+
+    private static VectorMask<Long> fastLanes(LongVector va, LongVector vb) {
+    // Both operands normal, and the larger exponent far enough from both ends of the range
+        LongVector eA = exponent(va), eB = exponent(vb);
+        LongVector eMax = eA.max(eB);
+        return eA.compare(VectorOperators.NE, 0)
+            .and(eB.compare(VectorOperators.NE, 0))
+            .and(eA.compare(VectorOperators.NE, 0x7FF))
+            .and(eB.compare(VectorOperators.NE, 0x7FF))
+            .and(eMax.compare(VectorOperators.GE, MIN_FAST_EXP))
+            .and(eMax.compare(VectorOperators.LE, MAX_FAST_EXP));
+    }
+
+    private static LongVector add(LongVector va, LongVector vb) {
+    // a + b for every lane, valid where fastLanes is set
+        // Order by magnitude (bit order of finite doubles) so subtraction never goes negative
+        VectorMask<Long> swap = va.and(~SIGN).compare(VectorOperators.LT, vb.and(~SIGN));
+        LongVector big = va.blend(vb, swap), small = vb.blend(va, swap);
+
+        LongVector eBig = exponent(big), eSmall = exponent(small);
+        LongVector accBig = big.and(FRAC).or(HIDDEN).lanewise(VectorOperators.LSHL, EXT);
+        LongVector accSmall = small.and(FRAC).or(HIDDEN).lanewise(VectorOperators.LSHL, EXT);
+
+        // Align exponents (right-shift smaller exponent's mantissa with sticky); shifts of 63 clear it fully
+        LongVector d = eBig.sub(eSmall).min(63);
+        LongVector lostMask = LongVector.broadcast(L, 1L).lanewise(VectorOperators.LSHL, d).sub(1);
+        VectorMask<Long> sticky = accSmall.and(lostMask).compare(VectorOperators.NE, 0);
+        accSmall = accSmall.lanewise(VectorOperators.LSHR, d).lanewise(VectorOperators.OR, 1L, sticky);
+
+        // Signed-magnitude add/sub
+        VectorMask<Long> sameSign = va.lanewise(VectorOperators.XOR, vb).compare(VectorOperators.GE, 0);
+        LongVector res = accBig.sub(accSmall).blend(accBig.add(accSmall), sameSign);
+        VectorMask<Long> zero = res.compare(VectorOperators.EQ, 0);
+
+        // Normalize so the leading 1 sits at bit 55: right by 1 after a carry (keeping sticky), left after cancellation
+        LongVector shift = topBit(res).sub(Binary64Core.FRAC_BITS + EXT);
+        LongVector right = shift.max(0), left = shift.neg().max(0);
+        LongVector m = res.lanewise(VectorOperators.LSHR, right).or(res.and(right))
+                          .lanewise(VectorOperators.LSHL, left);
+        LongVector eField = eBig.add(shift);
+
+        // Round to nearest, ties to even, on G/R/S
+        LongVector main = m.lanewise(VectorOperators.LSHR, EXT);
+        LongVector grs = m.and(0b111);
+        VectorMask<Long> inc = grs.compare(VectorOperators.GT, 0b100)
+            .or(grs.compare(VectorOperators.EQ, 0b100).and(main.and(1).compare(VectorOperators.NE, 0)));
+        main = main.add(1, inc);
+
+        // Pack: the hidden 1 in main carries into the exponent on round-up (and reaches Inf on overflow)
+        LongVector bits = eField.sub(1).lanewise(VectorOperators.LSHL, Binary64Core.FRAC_BITS).add(main)
+            .or(big.and(SIGN));
+        return bits.blend(0L, zero); // exact cancellation gives +0
+    }
+
+    private static LongVector exponent(LongVector v) {
+        return v.lanewise(VectorOperators.LSHR, Binary64Core.FRAC_BITS).and(Binary64Core.EXP_MAX);
+    }
+
+    private static LongVector topBit(LongVector x) {
+    // Index of the highest set bit per lane (0 for zero lanes) by binary search;
+    // JDK 17's Vector API has no lane-wise leading-zero count. Unrolled by hand: C2 cannot keep
+    // vectors in registers across loop-carried phis, and a loop here boxes every step.
+        LongVector top = LongVector.zero(L), hi;
+        VectorMask<Long> has;
+        hi = x.lanewise(VectorOperators.LSHR, 32); has = hi.compare(VectorOperators.NE, 0); top = top.add(32, has); x = x.blend(hi, has);
+        hi = x.lanewise(VectorOperators.LSHR, 16); has = hi.compare(VectorOperators.NE, 0); top = top.add(16, has); x = x.blend(hi, has);
+        hi = x.lanewise(VectorOperators.LSHR, 8);  has = hi.compare(VectorOperators.NE, 0); top = top.add(8, has);  x = x.blend(hi, has);
+        hi = x.lanewise(VectorOperators.LSHR, 4);  has = hi.compare(VectorOperators.NE, 0); top = top.add(4, has);  x = x.blend(hi, has);
+        hi = x.lanewise(VectorOperators.LSHR, 2);  has = hi.compare(VectorOperators.NE, 0); top = top.add(2, has);  x = x.blend(hi, has);
+        hi = x.lanewise(VectorOperators.LSHR, 1);  has = hi.compare(VectorOperators.NE, 0); top = top.add(1, has);
+        return top;
+    }
+}
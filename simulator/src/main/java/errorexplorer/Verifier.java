@@ -0,0 +1,227 @@
+package errorexplorer;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+final class Verifier {
+    // Differential verification: checks the simulator bit-for-bit against the JVM's native + - * /,
+    // Math.sqrt and Math.fma over random and edge-biased operands (each pair gets a third operand for FMA), split across all cores with fork-join.
+    // Pair i is generated from (seed, i / BLOCK) alone, so a run is reproducible whatever the thread count.
+
+    enum Engine { CORE, PIPELINE }  // Binary64Core, or the String/BigInteger explanation pipeline
+
+    static final int BLOCK = 1 << 14; // pairs per fork-join leaf
+
+    record Mismatch(long index, Op op, long aBits, long bBits, long cBits, long expected, long actual) {
+        String describe() {
+            return "#" + index + " " + op + " a=" + BatchCli.hex(aBits)
+                + (op.arity() > 1 ? " b=" + BatchCli.hex(bBits) : "") + (op.arity() > 2 ? " c=" + BatchCli.hex(cBits) : "")
+                + " expected=" + BatchCli.hex(expected) + " (" + Double.longBitsToDouble(expected) + ")"
+                + " got=" + BatchCli.hex(actual) + " (" + Double.longBitsToDouble(actual) + ")";
+        }
+    }
+
+    record Report(long pairs, long ops, long nanos, long[] mismatchesPerOp, List<Mismatch> first) {
+        double opsPerSecond() { return nanos == 0 ? 0 : ops * 1e9 / nanos; }
+
+        long mismatches() {
+            long n = 0;
+            for (long m : mismatchesPerOp) n += m;
+            return n;
+        }
+    }
+
+    private final long seed;
+    private final Engine engine;
+    private final int keep;
+    private final LongAdder checked = new LongAdder();
+    private final AtomicLongArray perOp = new AtomicLongArray(Op.values().length);
+    private final PriorityQueue<Mismatch> first; // max-heap on index, holds the `keep` lowest-index mismatches
+
+    Verifier(long seed, Engine engine, int keep) {
+        this.seed = seed;
+        this.engine = engine;
+        this.keep = keep;
+        this.first = new PriorityQueue<>(Comparator.comparingLong(Mismatch::index).reversed());
+    }
+
+    long checked() { return checked.sum(); }
+
+    Report run(long pairs, ForkJoinPool pool) {
+    // Check `pairs` operand pairs under every op; blocks until done
+        long t0 = System.nanoTime();
+        pool.invoke(new Range(0, (pairs + BLOCK - 1) / BLOCK, pairs));
+        long nanos = System.nanoTime() - t0;
+
+        long[] counts = new long[perOp.length()];
+        for (int i = 0; i < counts.length; i++) counts[i] = perOp.get(i);
+        List<Mismatch> list;
+        synchronized (first) { list = new ArrayList<>(first); }
+        list.sort(Comparator.comparingLong(Mismatch::index));
+        return new Report(pairs, checked.sum(), nanos, counts, list);
+    }
+
+    private final class Range extends RecursiveAction {
+        // Half-open range of blocks; splits until one block per task
+        private final long lo, hi, pairs;
+
+        Range(long lo, long hi, long pairs) { this.lo = lo; this.hi = hi; this.pairs = pairs; }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > 1) {
+                long mid = (lo + hi) >>> 1;
+                invokeAll(new Range(lo, mid, pairs), new Range(mid, hi, pairs));
+                return;
+            }
+            long start = lo * BLOCK, end = Math.min(pairs, start + BLOCK);
+            SplittableRandom rnd = new SplittableRandom(seed ^ (lo * 0x9E3779B97F4A7C15L));
+            Op[] ops = Op.values();
+            for (long i = start; i < end; i++) {
+                int kind = rnd.nextInt(KINDS);
+                long a = operand(rnd, kind, 0, 0);
+                long b = operand(rnd, kind, a, 1);
+                long c = addend(rnd, kind, a, b);
+                for (Op op : ops) check(i, op, a, b, c);
+            }
+            checked.add((end - start) * ops.length);
+        }
+    }
+
+    private void check(long index, Op op, long a, long b, long c) {
+        long expected = nativeResult(op, a, b, c);
+        long actual = engine == Engine.CORE
+            ? Simulator.compute(op, a, b, c, Rounding.NEAREST_EVEN)
+            : Simulator.simulate(op, a, b, c, Rounding.NEAREST_EVEN, Trace.OFF).bits();
+        if (actual == expected || (isNaN(actual) && isNaN(expected))) return; // NaN payloads are not specified
+
+        perOp.incrementAndGet(op.ordinal());
+        synchronized (first) {
+            if (first.size() < keep) {
+                first.add(new Mismatch(index, op, a, b, c, expected, actual));
+            } else if (keep > 0 && first.peek().index() > index) {
+                first.poll();
+                first.add(new Mismatch(index, op, a, b, c, expected, actual));
+            }
+        }
+    }
+
+    static long nativeResult(Op op, long aBits, long bBits, long cBits) {
+    // The hardware answer the simulator must reproduce
+        double a = Double.longBitsToDouble(aBits), b = Double.longBitsToDouble(bBits);
+        double r = switch (op) {
+            case ADD -> a + b;
+            case SUB -> a - b;
+            case MUL -> a * b;
+            case DIV -> a / b;
+            case SQRT -> Math.sqrt(a);
+            case FMA -> Math.fma(a, b, Double.longBitsToDouble(cBits));
+        };
+        return Double.doubleToRawLongBits(r);
+    }
+
+    private static boolean isNaN(long bits) { return (bits & ~Binary64Core.SIGN_MASK) > Binary64Core.POS_INF; }
+
+    // Operand generation: uniform bits plus distributions aimed at the tricky paths
+
+    private static final int KINDS = 7;
+
+    static long operand(SplittableRandom r, int kind, long other, int slot) {
+    // slot 0 is A; slot 1 is B and may be derived from A (`other`) to hit alignment and tie cases
+        long sign = r.nextBoolean() ? Binary64Core.SIGN_MASK : 0;
+        long frac = r.nextLong() & Binary64Core.FRAC_MASK;
+        switch (kind) {
+            case 1: // subnormals and the smallest normals (subnormal branch of pack)
+                return sign | ((long) r.nextInt(3) << 52) | frac;
+            case 2: // near overflow
+                return sign | ((long) (0x7F0 + r.nextInt(15)) << 52) | frac;
+            case 3: { // close exponents: cancellation, carries, short alignment shifts
+                if (slot == 0) return sign | ((long) (900 + r.nextInt(250)) << 52) | frac;
+                int e = (int) (other >>> 52) & 0x7FF;
+                e = Math.max(1, Math.min(0x7FE, e + r.nextInt(7) - 3));
+                return sign | ((long) e << 52) | (r.nextInt(4) == 0 ? (other & Binary64Core.FRAC_MASK) ^ (1L << r.nextInt(52)) : frac);
+            }
+            case 4: { // ties: B sits at half an ulp of A (possibly a few ulps away), sticky empty
+                if (slot == 0) return sign | ((long) (60 + r.nextInt(1900)) << 52) | frac;
+                int e = ((int) (other >>> 52) & 0x7FF) - 53 - r.nextInt(3);
+                long f = (long) r.nextInt(8) << 49;
+                return sign | ((long) Math.max(1, e) << 52) | f;
+            }
+            case 5: { // short mantissas: exact products and quotients, and product ties
+                long shortFrac = frac & (-1L << (26 + r.nextInt(26)));
+                return sign | ((long) (800 + r.nextInt(450)) << 52) | (shortFrac & Binary64Core.FRAC_MASK);
+            }
+            case 6: // specials: zeros, infinities, NaNs with payloads, extreme finite values
+                return switch (r.nextInt(8)) {
+                    case 0 -> sign;                                          // ±0
+                    case 1 -> sign | Binary64Core.POS_INF;                   // ±Inf
+                    case 2 -> sign | Binary64Core.QNAN | (frac >>> 1);       // quiet NaN with payload
+                    case 3 -> sign | Binary64Core.POS_INF | (frac >>> 1 | 1); // signaling NaN with payload
+                    case 4 -> sign | 0x7FEFFFFFFFFFFFFFL;                    // ±MAX_VALUE
+                    case 5 -> sign | 1;                                      // ±MIN_VALUE
+                    case 6 -> sign | 0x0010000000000000L;                    // ±MIN_NORMAL
+                    default -> r.nextLong();
+                };
+            default: // uniform over all bit patterns
+                return r.nextLong();
+        }
+    }
+
+    static long addend(SplittableRandom r, int kind, long a, long b) {
+    // FMA's C: often the negated rounded product, nudged by a few ulps, so the sum cancels into the
+    // product's low bits that only a fused operation keeps; otherwise drawn like B
+        if (kind != 6 && r.nextInt(4) == 0) {
+            long p = Double.doubleToRawLongBits(-(Double.longBitsToDouble(a) * Double.longBitsToDouble(b)));
+            return Double.isFinite(Double.longBitsToDouble(p)) ? p + r.nextInt(7) - 3 : p;
+        }
+        return operand(r, kind, a, 1);
+    }
+
+    // Command-line driver
+
+    static int main(long pairs, long seed, int keep, Engine engine, int threads) {
+    // Run with a progress line every few seconds on stderr, then print the report; exit code 1 on mismatch
+        ForkJoinPool pool = threads > 0 ? new ForkJoinPool(threads) : ForkJoinPool.commonPool();
+        Verifier v = new Verifier(seed, engine, keep);
+        System.out.println("Verifying " + pairs + " pairs x " + Op.values().length + " ops against native doubles"
+            + " (engine=" + engine.name().toLowerCase() + ", seed=" + seed + ", threads=" + pool.getParallelism() + ")");
+
+        Thread progress = new Thread(() -> {
+            long t0 = System.nanoTime(), total = pairs * Op.values().length;
+            try {
+                while (true) {
+                    Thread.sleep(5000);
+                    long done = v.checked();
+                    double secs = (System.nanoTime() - t0) / 1e9;
+                    System.err.printf("  %,d / %,d ops (%.1f%%), %,.0f ops/sec%n", done, total, 100.0 * done / total, done / secs);
+                }
+            } catch (InterruptedException ignored) {
+                // run finished
+            }
+        }, "verify-progress");
+        progress.setDaemon(true);
+        progress.start();
+
+        Report rep = v.run(pairs, pool);
+        progress.interrupt();
+        if (pool != ForkJoinPool.commonPool()) pool.shutdown();
+
+        System.out.printf("Checked %,d ops in %.2f s: %,.0f ops/sec%n", rep.ops(), rep.nanos() / 1e9, rep.opsPerSecond());
+        Op[] ops = Op.values();
+        for (int i = 0; i < ops.length; i++) {
+            System.out.printf("  %-3s mismatches: %,d%n", ops[i], rep.mismatchesPerOp()[i]);
+        }
+        if (!rep.first().isEmpty()) {
+            System.out.println("First " + rep.first().size() + " mismatches:");
+            for (Mismatch m : rep.first()) System.out.println("  " + m.describe());
+        }
+        return rep.mismatches() == 0 ? 0 : 1;
+    }
+}
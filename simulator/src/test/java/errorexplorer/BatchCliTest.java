@@ -0,0 +1,134 @@
+package errorexplorer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class BatchCliTest {
+    // Option parsing and the cross-option checks, and stream() on a small input
+
+    private static BatchCli.Options options(String... args) {
+        BatchCli.Options o = BatchCli.Options.parse(args);
+        o.check();
+        return o;
+    }
+
+    private static void rejected(String message, String... args) {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> options(args));
+        assertTrue(ex.getMessage().contains(message), ex::getMessage);
+    }
+
+    @Test
+    void parsesEachMode() {
+        BatchCli.Options o = options("--batch", "in.txt", "--out", "out.txt", "--trace", "--rounding", "rtz");
+        assertEquals("in.txt", o.in);
+        assertEquals("out.txt", o.out);
+        assertTrue(o.trace);
+        assertEquals(Rounding.TOWARD_ZERO, o.rounding);
+        assertTrue(options("--batch", "in.txt", "--rounding", "all").allModes);
+        o = options("--verify", "1000", "--seed", "7", "--engine", "pipeline", "--threads", "2");
+        assertEquals(1000, o.verify);
+        assertEquals(7, o.seed);
+        assertEquals(Verifier.Engine.PIPELINE, o.engine);
+        assertEquals(2, o.threads);
+        o = options("--sweep", "sub", "1", "0.1", "12", "--points", "4");
+        assertEquals("12", o.sweep[3]);
+        assertEquals(4, o.points);
+        assertTrue(options("--mapped", "ops.bin", "--out", "res.bin", "--threads", "3").mapped != null);
+        assertTrue(BatchCli.Options.parse(new String[] { "--help" }).help);
+    }
+
+    @Test
+    void rejectsBadOptions() {
+        rejected("is required");
+        rejected("Unknown option: --bogus", "--batch", "in.txt", "--bogus");
+        rejected("Missing value for --out", "--batch", "in.txt", "--out");
+        rejected("Not a whole number: 1.5", "--verify", "1.5");
+        rejected("--errors takes fast or exact", "--batch", "in.txt", "--errors", "slow");
+        rejected("--out <file.bin> is required", "--encode", "in.txt");
+        rejected("--window and --exhaustive work with --explore only", "--batch", "in.txt", "--exhaustive");
+        rejected("--every works with --stats only", "--batch", "in.txt", "--every", "10");
+        rejected("--rounding all works with --batch only, without --trace", "--batch", "in.txt", "--trace", "--rounding", "all");
+        rejected("--rounding all works with --batch only, without --trace", "--mapped", "ops.bin", "--out", "res.bin", "--rounding", "all");
+    }
+
+    @Test
+    void rejectsConflictingModes() {
+        rejected("pick one", "--batch", "in.txt", "--verify", "1000");
+        rejected("pick one", "--sweep", "add", "0", "1", "10", "--verify", "1000");
+        rejected("pick one", "--batch", "in.txt", "--mapped", "ops.bin", "--out", "res.bin");
+        rejected("pick one", "--encode", "in.txt", "--decode", "ops.bin", "--out", "x.bin");
+        rejected("pick one", "--sweep", "add", "0", "1", "10", "--explore", "add");
+    }
+
+    @Test
+    void rejectsOptionsTheModeIgnores() {
+        rejected("--seed, --mismatches and --engine work with --verify only", "--batch", "in.txt", "--seed", "3");
+        rejected("--threads works with --verify and --mapped only", "--batch", "in.txt", "--threads", "4");
+    }
+
+    @Test
+    void datapathWritesItsOwnErrors() {
+        assertTrue(options("--batch", "in.txt", "--datapath", "working=64").dp != null);
+        rejected("works without --trace, --kernel, --rounding all, --errors and --stats", "--batch", "in.txt", "--datapath", "working=64", "--errors", "exact");
+        rejected("works without --trace, --kernel, --rounding all, --errors and --stats", "--batch", "in.txt", "--datapath", "working=64", "--stats", "st.csv");
+    }
+
+    @Test
+    void cacheNeedsTrace() {
+        assertEquals(5, options("--batch", "in.txt", "--trace", "--cache", "5").cacheEntries);
+        rejected("--cache works with binary64 --trace only", "--batch", "in.txt", "--cache", "5");
+        rejected("--cache works with binary64 --trace only", "--batch", "in.txt", "--trace", "--cache", "5", "--format", "binary32");
+    }
+
+    @Test
+    void tracesWithoutACache() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (AsciiIO.Sink w = new AsciiIO.Sink(out)) {
+            assertEquals(0, BatchCli.stream(new AsciiIO.Lines(new ByteArrayInputStream("add 1 2\nadd 1 2\n".getBytes(StandardCharsets.US_ASCII))),
+                w, true, Rounding.NEAREST_EVEN, (ResultCache) null, System.err));
+        }
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].endsWith("\tsteps"));
+        assertLine(lines[1], "ADD", 3.0);
+        assertEquals(lines[1], lines[2]);
+    }
+
+    @Test
+    void streamsResultsAndSkipsBadLines() throws IOException {
+        String input = "# comment\nadd 1 2\nmul 0.1 3\nsqrt 2\nfma 2 3 1\nadd 1\ndiv 1 0\n";
+        ByteArrayOutputStream out = new ByteArrayOutputStream(), err = new ByteArrayOutputStream();
+        long bad;
+        try (AsciiIO.Sink w = new AsciiIO.Sink(out)) {
+            bad = BatchCli.stream(new AsciiIO.Lines(new ByteArrayInputStream(input.getBytes(StandardCharsets.US_ASCII))), w,
+                false, Rounding.NEAREST_EVEN, (ResultCache) null, new PrintStream(err, true, StandardCharsets.UTF_8));
+        }
+        assertEquals(1, bad);
+        assertTrue(err.toString(StandardCharsets.UTF_8).startsWith("line 6: "), () -> err.toString(StandardCharsets.UTF_8));
+        String[] lines = out.toString(StandardCharsets.US_ASCII).split("\n");
+        assertEquals("# op\ta_bits\tb_bits\tresult_bits\tresult", lines[0]);
+        assertEquals(6, lines.length);
+        assertLine(lines[1], "ADD", 3.0);
+        assertLine(lines[2], "MUL", 0.1 * 3);
+        assertLine(lines[3], "SQRT", Math.sqrt(2));
+        assertLine(lines[4], "FMA", 7.0);
+        assertLine(lines[5], "DIV", Double.POSITIVE_INFINITY);
+        assertEquals("-", lines[3].split("\t")[2]);
+        assertEquals(2, lines[4].split("\t")[2].split(",").length);
+    }
+
+    private static void assertLine(String line, String op, double want) {
+        String[] f = line.split("\t");
+        assertEquals(op, f[0]);
+        assertEquals(Double.doubleToRawLongBits(want), Long.parseUnsignedLong(f[3].substring(2), 16), line);
+        assertEquals(want, Double.parseDouble(f[4]), line);
+    }
+}
@@ -0,0 +1,68 @@
+package errorexplorer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class BatchSimulatorTest {
+    // The column kernels, vectorized where the JDK has the Vector API (surefire adds the module), against
+    // the scalar core one element at a time
+
+    private static final int N = 20_011;             // not a multiple of any vector length, so tails run too
+
+    @Test
+    void columnsMatchScalarCore() {
+        SplittableRandom r = new SplittableRandom(9);
+        long[] a = new long[N], b = new long[N], c = new long[N], out = new long[N];
+        for (int i = 0; i < N; i++) {
+            int kind = r.nextInt(7);
+            a[i] = Verifier.operand(r, kind, 0, 0);
+            b[i] = Verifier.operand(r, kind, a[i], 1);
+            c[i] = Verifier.addend(r, kind, a[i], b[i]);
+        }
+        for (Rounding mode : Rounding.values()) {
+            for (Op op : Op.values()) {
+                if (op == Op.FMA) BatchSimulator.fma(mode, a, b, c, out, 3, N);
+                else BatchSimulator.compute(op, mode, a, b, out, 3, N);
+                for (int i = 3; i < N; i++) {
+                    assertEquals(Simulator.compute(op, a[i], b[i], c[i], mode), out[i], op + " " + mode + " at " + i);
+                }
+            }
+        }
+    }
+
+    @Test
+    void doubleColumnsMatchScalarCore() {
+        SplittableRandom r = new SplittableRandom(10);
+        double[] a = new double[N], b = new double[N], out = new double[N];
+        for (int i = 0; i < N; i++) {
+            int kind = r.nextInt(7);
+            long x = Verifier.operand(r, kind, 0, 0);
+            a[i] = Double.longBitsToDouble(x);
+            b[i] = Double.longBitsToDouble(Verifier.operand(r, kind, x, 1));
+        }
+        for (Op op : new Op[] { Op.ADD, Op.SUB, Op.MUL, Op.DIV }) {
+            BatchSimulator.compute(op, a, b, out);
+            for (int i = 0; i < N; i++) {
+                long want = Simulator.compute(op, Double.doubleToRawLongBits(a[i]), Double.doubleToRawLongBits(b[i]));
+                assertEquals(want, Double.doubleToRawLongBits(out[i]), op + " at " + i);
+            }
+        }
+    }
+
+    @Test
+    void narrowColumnsMatchFormat() {
+        SplittableRandom r = new SplittableRandom(11);
+        Format fmt = Format.BINARY32;
+        int[] a = new int[N], b = new int[N], out = new int[N];
+        for (int i = 0; i < N; i++) { a[i] = r.nextInt(); b[i] = r.nextInt(); }
+        for (Op op : new Op[] { Op.ADD, Op.SUB, Op.MUL, Op.DIV, Op.SQRT }) {
+            BatchSimulator.compute(fmt, op, Rounding.TOWARD_ZERO, a, b, out, 0, N);
+            for (int i = 0; i < N; i++) {
+                long want = fmt.compute(op, a[i] & 0xFFFF_FFFFL, b[i] & 0xFFFF_FFFFL, 0, Rounding.TOWARD_ZERO);
+                assertEquals((int) want, out[i], op + " at " + i);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package errorexplorer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class BatchStatsTest {
+    // The overflow counter agrees with the OVERFLOW flag, including results that only the rounding
+    // increment carries to infinity, and survives merge() and the JSON snapshot
+
+    private static final long MAX = Double.doubleToRawLongBits(Double.MAX_VALUE);
+
+    @Test
+    void countsCarryIntoInfinityAsOverflow() throws IOException {
+        ErrorAnalysis e = new ErrorAnalysis();
+        BatchStats stats = new BatchStats(), other = new BatchStats();
+        long above = Double.doubleToRawLongBits(0x1.8p970), below = Double.doubleToRawLongBits(0x1p969);
+        for (Rounding mode : Rounding.values()) {
+            e.run(Op.ADD, MAX, above, 0, mode);                  // overflows in RNE, RNA and RTP
+            stats.record(e, Op.ADD, mode);
+            e.run(Op.ADD, MAX, below, 0, mode);                  // overflows in RTP only
+            other.record(e, Op.ADD, mode);
+        }
+        assertEquals(3, stats.overflowed());
+        assertEquals(3, stats.count(ErrorAnalysis.Flag.OVERFLOW));
+        assertEquals(1, other.overflowed());
+        stats.merge(other);
+        assertEquals(4, stats.overflowed());
+        assertEquals(stats.count(ErrorAnalysis.Flag.OVERFLOW), stats.overflowed());
+        StringBuilder json = new StringBuilder();
+        stats.writeJson(json);
+        assertTrue(json.indexOf("\"overflowed\":4,") >= 0, json::toString);
+    }
+
+    @Test
+    void overflowedMatchesFlagOverRandomOps() {
+        ErrorAnalysis e = new ErrorAnalysis();
+        BatchStats stats = new BatchStats();
+        SplittableRandom r = new SplittableRandom(15);
+        for (int i = 0; i < 100_000; i++) {
+            int kind = 2 + r.nextInt(5) / 4 * 4;                 // mostly near overflow, some specials
+            long a = Verifier.operand(r, kind, 0, 0), b = Verifier.operand(r, kind, a, 1);
+            Op op = Op.values()[r.nextInt(4)];
+            Rounding mode = Rounding.values()[r.nextInt(5)];
+            e.run(op, a, b, 0, mode);
+            stats.record(e, op, mode);
+        }
+        assertTrue(stats.overflowed() > 0);
+        assertEquals(stats.count(ErrorAnalysis.Flag.OVERFLOW), stats.overflowed());
+    }
+}
@@ -0,0 +1,129 @@
+package errorexplorer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class CoreEquivalenceTest {
+    // The fast engines (Binary64Core, NarrowCore, Binary128Core) bit for bit against the BigInteger
+    // pipeline that explains them, Format.simulate, over every op and rounding mode. NaN payloads are
+    // not compared: any NaN matches any NaN.
+
+    private static final int SAMPLES = 3_000;
+
+    @Test
+    void binary64MatchesPipeline() {
+        SplittableRandom r = new SplittableRandom(4);
+        for (Op op : Op.values()) {
+            for (Rounding mode : Rounding.values()) {
+                for (int i = 0; i < SAMPLES; i++) {
+                    int kind = r.nextInt(7);
+                    long a = Verifier.operand(r, kind, 0, 0), b = Verifier.operand(r, kind, a, 1);
+                    long c = Verifier.addend(r, kind, a, b);
+                    BigInteger want = Format.BINARY64.simulate(op, unsigned(a, 64), unsigned(b, 64), unsigned(c, 64), mode, Trace.OFF);
+                    assertSame(Format.BINARY64, want, unsigned(Simulator.compute(op, a, b, c, mode), 64), op, mode, a, b, c);
+                }
+            }
+        }
+    }
+
+    @Test
+    void narrowFormatsMatchPipeline() {
+        SplittableRandom r = new SplittableRandom(5);
+        Format[] formats = { Format.BINARY16, Format.BFLOAT16, Format.BINARY32, Format.of(4, 3), Format.of(5, 2) };
+        for (Format fmt : formats) {
+            for (Op op : Op.values()) {
+                for (Rounding mode : Rounding.values()) {
+                    for (int i = 0; i < SAMPLES; i++) {
+                        BigInteger a = operand(r, fmt, null), b = operand(r, fmt, a), c = operand(r, fmt, a);
+                        BigInteger want = fmt.simulate(op, a, b, c, mode, Trace.OFF);
+                        long got = fmt.compute(op, a.longValue(), b.longValue(), c.longValue(), mode);
+                        assertSame(fmt, want, BigInteger.valueOf(got), op, mode, a, b, c);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void binary128MatchesPipeline() {
+        SplittableRandom r = new SplittableRandom(6);
+        Format fmt = Format.BINARY128;
+        for (Op op : Op.values()) {
+            for (Rounding mode : Rounding.values()) {
+                for (int i = 0; i < SAMPLES / 3; i++) {
+                    BigInteger a = operand(r, fmt, null), b = operand(r, fmt, a), c = operand(r, fmt, a);
+                    assertSame(fmt, fmt.simulate(op, a, b, c, mode, Trace.OFF), fmt.compute(op, a, b, c, mode), op, mode, a, b, c);
+                }
+            }
+        }
+    }
+
+    @Test
+    void sqrtWithoutFastCoreTakesPipeline() {
+        SplittableRandom r = new SplittableRandom(17);
+        Format quad = Format.BINARY128;
+        long[] out = new long[2];
+        for (Rounding mode : Rounding.values()) {
+            for (int i = 0; i < 200; i++) {
+                BigInteger a = operand(r, Format.BINARY32, null);
+                int got = Format.BINARY32.narrow.compute(Op.SQRT, a.intValue(), 0, mode);
+                assertSame(Format.BINARY32, Format.BINARY32.simulate(Op.SQRT, a, BigInteger.ZERO, mode, Trace.OFF),
+                           unsigned(got, 32), Op.SQRT, mode, a, 0L, 0L);
+                BigInteger q = operand(r, quad, null);
+                Binary128Core.compute(Op.SQRT, q.shiftRight(64).longValue(), q.longValue(), 0, 0, mode, out, 0);
+                BigInteger joined = unsigned(out[0], 64).shiftLeft(64).or(unsigned(out[1], 64));
+                assertSame(quad, quad.simulate(Op.SQRT, q, BigInteger.ZERO, mode, Trace.OFF), joined, Op.SQRT, mode, q, 0L, 0L);
+            }
+        }
+    }
+
+    @Test
+    void combinationsWithoutLongOperandsAreRejected() {
+        Rounding rne = Rounding.NEAREST_EVEN;
+        assertThrows(IllegalArgumentException.class, () -> Format.BINARY128.compute(Op.ADD, 1L, 2L, 0L, rne));
+        assertThrows(IllegalArgumentException.class, () -> Format.of(15, 60).compute(Op.ADD, 1L, 2L, 0L, rne));
+        assertThrows(IllegalArgumentException.class, () -> Format.of(15, 60).fromDouble(1.5, rne));
+        assertThrows(IllegalArgumentException.class, () -> Format.BINARY16.narrow.compute(Op.FMA, 1, 2, rne));
+        assertThrows(IllegalArgumentException.class, () -> Binary128Core.compute(Op.FMA, 0, 1, 0, 2, rne, new long[2], 0));
+    }
+
+    static BigInteger operand(SplittableRandom r, Format fmt, BigInteger near) {
+    // Uniform bit patterns, specials, and (given `near`) exponents within a few of near's, so additions
+    // cancel and carry instead of just returning the larger operand
+        BigInteger frac = new BigInteger(fmt.fracBits, new Random(r.nextLong()));
+        int exp;
+        switch (r.nextInt(near == null ? 3 : 4)) {
+            case 0 -> exp = r.nextInt(fmt.expMax + 1);
+            case 1 -> exp = r.nextInt(8) < 2 ? fmt.expMax : r.nextInt(3) == 0 ? fmt.expMax - 1 : 0;
+            case 2 -> exp = fmt.bias - 4 + r.nextInt(9);
+            default -> exp = Math.max(0, Math.min(fmt.expMax - 1, near.shiftRight(fmt.fracBits).intValue() % (fmt.expMax + 1) + r.nextInt(5) - 2));
+        }
+        if (r.nextInt(8) == 0) frac = frac.shiftRight(fmt.fracBits / 2).shiftLeft(fmt.fracBits / 2); // short mantissas
+        BigInteger bits = BigInteger.valueOf(exp).shiftLeft(fmt.fracBits).or(frac);
+        return r.nextBoolean() ? bits.setBit(fmt.width - 1) : bits;
+    }
+
+    static BigInteger unsigned(long bits, int width) {
+        BigInteger b = BigInteger.valueOf(bits);
+        return b.signum() < 0 ? b.add(BigInteger.ONE.shiftLeft(width)) : b;
+    }
+
+    static boolean isNaN(Format fmt, BigInteger bits) {
+        BigInteger exp = bits.shiftRight(fmt.fracBits).and(BigInteger.valueOf(fmt.expMax));
+        return exp.intValue() == fmt.expMax && bits.getLowestSetBit() < fmt.fracBits && bits.signum() != 0;
+    }
+
+    static void assertSame(Format fmt, BigInteger want, BigInteger got, Op op, Rounding mode, Object a, Object b, Object c) {
+        if (isNaN(fmt, want) && isNaN(fmt, got)) return;
+        assertEquals(want.toString(16), got.toString(16), () -> fmt + " " + op + " " + mode + " " + hex(a) + " " + hex(b) + " " + hex(c));
+    }
+
+    private static String hex(Object bits) {
+        return bits instanceof Long l ? Long.toHexString(l) : ((BigInteger) bits).toString(16);
+    }
+}
@@ -0,0 +1,81 @@
+package errorexplorer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class DatapathTest {
+    // The pipeline's own settings must reproduce Format.compute bit for bit, every setting in range must
+    // compute (the registers are sized for it), and a working precision of at least 2p + 2 with sticky on
+    // makes double rounding innocuous for the basic ops
+
+    private static final Format[] FORMATS = {
+        Format.BINARY16, Format.BFLOAT16, Format.BINARY32, Format.BINARY64, Format.of(4, 3), Format.of(5, 2), Format.of(8, 20),
+    };
+
+    @Test
+    void defaultMatchesFormat() {
+        SplittableRandom r = new SplittableRandom(12);
+        for (Format fmt : FORMATS) {
+            Datapath dp = Datapath.parse(fmt, "");
+            for (Op op : Op.values()) {
+                for (Rounding mode : Rounding.values()) {
+                    for (int i = 0; i < 2_000; i++) check(r, fmt, dp, op, mode);
+                }
+            }
+        }
+    }
+
+    @Test
+    void everySettingComputes() {
+        SplittableRandom r = new SplittableRandom(13);
+        for (Format fmt : FORMATS) {
+            int p = fmt.precision;
+            int[] workings = { p, p + 1, p + 7, 64, 100, 2 * p + 2, 300, 1000, Datapath.MAX_WORKING };
+            int[] extras = { 0, 1, 2, 3, 7, 63, Datapath.MAX_EXTRA };
+            for (int working : workings) {
+                if (working < p) continue;
+                for (int extra : extras) {
+                    for (boolean sticky : new boolean[] { true, false }) {
+                        Datapath dp = new Datapath(fmt, working, extra, sticky);
+                        for (Op op : Op.values()) {
+                            for (Rounding mode : Rounding.values()) {
+                                for (int i = 0; i < 8; i++) {
+                                    long a = operand(r, fmt), b = operand(r, fmt), c = operand(r, fmt);
+                                    long got = dp.compute(op, a, b, c, mode);
+                                    assertTrue(fmt.width == 64 || got >>> fmt.width == 0, () -> dp + " " + op + " " + mode);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void wideWorkingPrecisionRoundsOnce() {
+        SplittableRandom r = new SplittableRandom(14);
+        for (Format fmt : FORMATS) {
+            Datapath dp = new Datapath(fmt, 2 * fmt.precision + 2, 3, true);
+            for (Op op : new Op[] { Op.ADD, Op.SUB, Op.MUL, Op.DIV, Op.SQRT }) {
+                for (Rounding mode : Rounding.values()) {
+                    for (int i = 0; i < 1_000; i++) check(r, fmt, dp, op, mode);
+                }
+            }
+        }
+    }
+
+    private static void check(SplittableRandom r, Format fmt, Datapath dp, Op op, Rounding mode) {
+        long a = operand(r, fmt), b = operand(r, fmt), c = operand(r, fmt);
+        long want = fmt.compute(op, a, b, c, mode), got = dp.compute(op, a, b, c, mode);
+        assertEquals(0, dp.ulps(got, want), () -> dp + " " + op + " " + mode + " " + Long.toHexString(a) + " "
+                + Long.toHexString(b) + " " + Long.toHexString(c) + ": " + Long.toHexString(got) + " != " + Long.toHexString(want));
+    }
+
+    private static long operand(SplittableRandom r, Format fmt) {
+        return CoreEquivalenceTest.operand(r, fmt, null).longValue();
+    }
+}
@@ -0,0 +1,61 @@
+package errorexplorer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class DecimalCodecTest {
+    // DecimalCodec against the JDK: shortest output that reads back to the same bits, and correctly
+    // rounded parsing of arbitrary decimal text
+
+    private static final int SAMPLES = 200_000;
+
+    @Test
+    void formatThenParseRoundTrips() {
+        SplittableRandom r = new SplittableRandom(1);
+        for (int i = 0; i < SAMPLES; i++) {
+            long bits = Verifier.operand(r, r.nextInt(7), 0, 0);
+            String text = DecimalCodec.toString(bits);
+            double x = Double.longBitsToDouble(bits);
+            if (Double.isNaN(x)) {
+                assertTrue(Double.isNaN(Double.longBitsToDouble(DecimalCodec.parse(text))), text);
+                continue;
+            }
+            assertEquals(bits, DecimalCodec.parse(text), text);
+            assertEquals(bits, Double.doubleToRawLongBits(Double.parseDouble(text)), text);
+            assertTrue(text.length() <= Double.toString(x).length(), () -> text + " is longer than " + x);
+        }
+    }
+
+    @Test
+    void parseMatchesParseDouble() {
+        SplittableRandom r = new SplittableRandom(2);
+        for (int i = 0; i < SAMPLES; i++) {
+            String text = decimal(r);
+            assertEquals(Double.doubleToRawLongBits(Double.parseDouble(text)), DecimalCodec.parse(text), text);
+        }
+    }
+
+    @Test
+    void parsesSpecialsAndHex() {
+        assertEquals(Binary64Core.POS_INF, DecimalCodec.parse("Infinity"));
+        assertEquals(Binary64Core.SIGN_MASK | Binary64Core.POS_INF, DecimalCodec.parse("-Infinity"));
+        assertEquals(Binary64Core.SIGN_MASK, DecimalCodec.parse("-0"));
+        assertEquals(0x3FF0000000000001L, DecimalCodec.parse("0x3FF0000000000001"));
+        assertTrue(Double.isNaN(Double.longBitsToDouble(DecimalCodec.parse("NaN"))));
+    }
+
+    private static String decimal(SplittableRandom r) {
+    // Up to 25 significant digits (past the 17 that decide a double) with an exponent over the whole range
+        StringBuilder s = new StringBuilder();
+        if (r.nextBoolean()) s.append('-');
+        int digits = 1 + r.nextInt(25);
+        for (int k = 0; k < digits; k++) {
+            if (k == 1) s.append('.');
+            s.append((char) ('0' + (k == 0 ? 1 + r.nextInt(9) : r.nextInt(10))));
+        }
+        return s.append('e').append(r.nextInt(-330, 310)).toString();
+    }
+}
@@ -0,0 +1,60 @@
+package errorexplorer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ErrorAnalysisTest {
+    // IEEE flags at the top of the range: overflow is raised whenever the result rounded with an unbounded
+    // exponent exceeds MAX_VALUE, including when only the rounding increment carries it to infinity
+
+    private static final double MAX = Double.MAX_VALUE;
+    // Added to MAX_VALUE (whose ulp is 2^971): below half an ulp, exactly half, above half, and past infinity
+    private static final double[] ADDENDS = { 0x1p969, 0x1p970, 0x1.8p970, MAX };
+
+    @Test
+    void carryIntoInfinityOverflowsInEveryMode() {
+        ErrorAnalysis fast = new ErrorAnalysis(), exact = new ErrorAnalysis();
+        for (double addend : ADDENDS) {
+            for (int sign : new int[] { 1, -1 }) {
+                long a = bits(sign * MAX), b = bits(sign * addend);
+                for (Rounding mode : Rounding.values()) {
+                    String what = mode + " " + sign * MAX + " + " + sign * addend;
+                    double x = Double.longBitsToDouble(fast.run(Op.ADD, a, b, 0, mode));
+                    ErrorAnalysis.Result r = exact.runExact(Op.ADD, a, b, 0, mode);
+                    // From half an ulp up, every mode but truncation rounds past MAX_VALUE; below it only rounding away does.
+                    // 2 * MAX_VALUE is out of range before rounding, which is an overflow even where truncation keeps MAX_VALUE
+                    boolean overflow = addend == MAX || addend >= 0x1p970 && !towardZero(mode, sign) || awayFromZero(mode, sign);
+                    assertEquals(overflow && !towardZero(mode, sign), Double.isInfinite(x), what);
+                    for (int flags : new int[] { fast.flags(), r.flags() }) {
+                        assertEquals(overflow, (flags & ErrorAnalysis.Flag.OVERFLOW.bit()) != 0, what);
+                        assertTrue((flags & ErrorAnalysis.Flag.INEXACT.bit()) != 0, what);
+                    }
+                    assertEquals(overflow, Binary64Core.overflowed(fast.status(), mode), what);
+                    if (!overflow) assertEquals(sign * MAX, x, what);
+                }
+            }
+        }
+    }
+
+    @Test
+    void maxValueExactlyIsNotOverflow() {
+        ErrorAnalysis e = new ErrorAnalysis();
+        for (Rounding mode : Rounding.values()) {
+            e.run(Op.MUL, bits(MAX), bits(1.0), 0, mode);
+            assertEquals(0, e.flags(), mode::toString);
+        }
+    }
+
+    private static boolean towardZero(Rounding mode, int sign) {
+    // The mode truncates this sign's magnitude
+        return mode == Rounding.TOWARD_ZERO || mode == (sign > 0 ? Rounding.TOWARD_NEGATIVE : Rounding.TOWARD_POSITIVE);
+    }
+
+    private static boolean awayFromZero(Rounding mode, int sign) {
+        return mode == (sign > 0 ? Rounding.TOWARD_POSITIVE : Rounding.TOWARD_NEGATIVE);
+    }
+
+    private static long bits(double x) { return Double.doubleToRawLongBits(x); }
+}
@@ -0,0 +1,161 @@
+package errorexplorer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class KernelTest {
+    // Parse and compile errors name the problem and where it is; reductions match hardware doubles and
+    // a BigDecimal reference; attribution measures each instruction's local error against exact arithmetic
+
+    private static final MathContext REFERENCE = new MathContext(60);
+
+    private static long bits(double d) { return Double.doubleToRawLongBits(d); }
+
+    private static void rejected(String source, String message, int position) {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> Kernel.compile(source));
+        assertEquals(message + " at position " + position + " of: " + source, ex.getMessage());
+    }
+
+    @Test
+    void reportsParseErrors() {
+        rejected("", "Empty kernel", 1);
+        rejected("a +", "Unexpected end of kernel", 4);
+        rejected("a $ b", "Unexpected character '$'", 3);
+        rejected("a b", "Unexpected 'b'", 3);
+        rejected("(a + b", "Expected ')' but found the end", 7);
+        rejected("fma(a, b)", "Expected ',' but found ')'", 9);
+        rejected("x[j]", "Only x[i] is supported", 3);
+        rejected("1.2.3 * x", "Bad number 1.2.3", 1);
+    }
+
+    @Test
+    void reportsCompileErrors() {
+        rejected("cos(x)", "Unknown function cos", 1);
+        rejected("i + 1", "i is only an index", 1);
+        rejected("sum(kahan(x))", "Reductions cannot be nested", 5);
+        rejected("sum(x) + y", "y is per element, so it must be inside sum() or kahan()", 10);
+        rejected("horner(x)", "horner needs x and at least one coefficient", 9);
+    }
+
+    @Test
+    void bindsInputsInOrderOfFirstAppearance() {
+        Kernel k = Kernel.compile("b[i] * a + b - c");
+        assertEquals(List.of("b", "a", "c"), k.inputs());
+        assertFalse(k.reduces());
+        assertEquals(bits(2.0 * 3 + 2 - 1), k.start(Rounding.NEAREST_EVEN, false).element(new long[] { bits(2), bits(3), bits(1) }));
+        assertThrows(IllegalArgumentException.class, () -> k.start(Rounding.NEAREST_EVEN, false).element(new long[] { bits(1) }));
+    }
+
+    @Test
+    void sumMatchesHardwareAndKahanTheReference() {
+        SplittableRandom r = new SplittableRandom(14);
+        int n = 100_000;
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++) x[i] = r.nextDouble() * Math.scalb(1.0, r.nextInt(-20, 20));
+        Kernel.Run naive = Kernel.compile("sum(x)").start(Rounding.NEAREST_EVEN, false);
+        Kernel.Run kahan = Kernel.compile("kahan(x[i])").start(Rounding.NEAREST_EVEN, false);
+        Kernel.Run half = Kernel.compile("kahan(x) / 2").start(Rounding.NEAREST_EVEN, false);
+        double s = 0, ks = 0, c = 0;
+        BigDecimal exact = BigDecimal.ZERO;
+        for (double v : x) {
+            long[] in = { bits(v) };
+            naive.element(in);
+            kahan.element(in);
+            half.element(in);
+            s += v;
+            double y = v - c, t = ks + y;
+            c = (t - ks) - y;
+            ks = t;
+            exact = exact.add(new BigDecimal(v));
+        }
+        assertEquals(bits(s), naive.finish());
+        double k = Double.longBitsToDouble(kahan.finish());
+        assertEquals(ks, k);
+        assertEquals(ks / 2, Double.longBitsToDouble(half.finish()));
+        double kahanUlps = new BigDecimal(k).subtract(exact).abs().doubleValue() / Math.ulp(k);
+        double naiveUlps = new BigDecimal(s).subtract(exact).abs().doubleValue() / Math.ulp(s);
+        assertTrue(kahanUlps <= 1, "kahan is " + kahanUlps + " ulps off");
+        assertTrue(naiveUlps > kahanUlps, "naive " + naiveUlps + " vs kahan " + kahanUlps);
+    }
+
+    @Test
+    void dotProductFollowsTheRoundingMode() {
+        SplittableRandom r = new SplittableRandom(15);
+        Kernel k = Kernel.compile("sum(x[i] * y[i])");
+        assertTrue(k.reduces());
+        Kernel.Run down = k.start(Rounding.TOWARD_NEGATIVE, false), up = k.start(Rounding.TOWARD_POSITIVE, false);
+        BigDecimal exact = BigDecimal.ZERO;
+        for (int i = 0; i < 10_000; i++) {
+            double a = r.nextDouble(-1, 1), b = r.nextDouble(-1, 1);
+            long[] in = { bits(a), bits(b) };
+            down.element(in);
+            up.element(in);
+            exact = exact.add(new BigDecimal(a).multiply(new BigDecimal(b)));
+        }
+        BigDecimal lo = new BigDecimal(Double.longBitsToDouble(down.finish())), hi = new BigDecimal(Double.longBitsToDouble(up.finish()));
+        assertTrue(lo.compareTo(exact) < 0 && exact.compareTo(hi) < 0, lo + " <= " + exact + " <= " + hi);
+    }
+
+    @Test
+    void attributesLocalErrorToEachInstruction() {
+        SplittableRandom r = new SplittableRandom(16);
+        Kernel k = Kernel.compile("a * b + c");
+        for (Rounding mode : Rounding.values()) {
+            Kernel.Run run = k.start(mode, true);
+            int n = 5_000;
+            for (int i = 0; i < n; i++) run.element(new long[] { bits(r.nextDouble()), bits(r.nextDouble()), bits(r.nextDouble()) });
+            List<Kernel.StepError> errors = run.errors();
+            assertEquals(2, errors.size());
+            assertEquals("t1 = a * b", errors.get(0).step());
+            assertEquals("t2 = t1 + c", errors.get(1).step());
+            for (Kernel.StepError e : errors) {
+                assertEquals(n, e.measured(), e::toString);
+                assertTrue(e.inexact() > n / 2, e::toString);
+                boolean nearest = mode == Rounding.NEAREST_EVEN || mode == Rounding.NEAREST_AWAY;
+                assertTrue(e.maxAbsUlp() <= (nearest ? 0.5 : 1), e::toString);
+                // Positive results: truncation and rounding down land below the exact value, rounding up above
+                if (mode == Rounding.TOWARD_ZERO || mode == Rounding.TOWARD_NEGATIVE) assertTrue(e.meanUlp() < -0.25, e::toString);
+                if (mode == Rounding.TOWARD_POSITIVE) assertTrue(e.meanUlp() > 0.25, e::toString);
+            }
+        }
+        assertTrue(k.start(Rounding.NEAREST_EVEN, false).errors().isEmpty());
+        Kernel.Run exact = k.start(Rounding.NEAREST_EVEN, true);
+        exact.element(new long[] { bits(3), bits(4), bits(5) });
+        assertEquals(0, exact.errors().get(1).inexact());
+        assertEquals(0.0, exact.errors().get(1).maxAbsUlp());
+    }
+
+    @Test
+    void localErrorMatchesBigDecimal() {
+        SplittableRandom r = new SplittableRandom(17);
+        for (Op op : Op.values()) {
+            for (Rounding mode : Rounding.values()) {
+                for (int i = 0; i < 2_000; i++) {
+                    double a = r.nextDouble(0.5, 2) * Math.scalb(1.0, r.nextInt(-30, 30)), b = r.nextDouble(-2, 2), c = r.nextDouble(-2, 2);
+                    long res = Simulator.compute(op, bits(a), bits(b), bits(c), mode);
+                    double got = Kernel.localError((byte) op.ordinal(), bits(a), bits(b), bits(c), res);
+                    BigDecimal x = new BigDecimal(a), y = new BigDecimal(b), z = new BigDecimal(c);
+                    BigDecimal want = switch (op) {
+                        case ADD -> x.add(y);
+                        case SUB -> x.subtract(y);
+                        case MUL -> x.multiply(y);
+                        case DIV -> x.divide(y, REFERENCE);
+                        case SQRT -> x.sqrt(REFERENCE);
+                        case FMA -> x.multiply(y).add(z);
+                    };
+                    double rd = Double.longBitsToDouble(res);
+                    double ulps = new BigDecimal(rd).subtract(want).doubleValue() / Math.ulp(rd);
+                    assertEquals(ulps, got, 1e-9, () -> op + " " + mode + " " + a + " " + b + " " + c);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package errorexplorer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MappedBatchTest {
+    // Binary runs: every record's result bits and status word under the requested rounding mode, the mode
+    // in the result header (a run under another mode starts over instead of resuming), and clean errors
+    // for corrupt op codes and chunks too large to map
+
+    private static final Op[] OPS = { Op.ADD, Op.SUB, Op.MUL, Op.DIV, Op.SQRT };
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void resultsFollowRoundingMode() throws IOException {
+        Path text = dir.resolve("ops.txt"), bin = dir.resolve("ops.bin"), res = dir.resolve("res.bin");
+        SplittableRandom r = new SplittableRandom(16);
+        int n = 1000;
+        Op[] ops = new Op[n];
+        long[] a = new long[n], b = new long[n];
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            int kind = r.nextInt(7);
+            ops[i] = OPS[r.nextInt(OPS.length)];
+            a[i] = Verifier.operand(r, kind, 0, 0);
+            b[i] = ops[i] == Op.SQRT ? 0 : Verifier.operand(r, kind, a[i], 1);
+            lines.append(ops[i]).append(' ').append(hex(a[i]));
+            if (ops[i] != Op.SQRT) lines.append(' ').append(hex(b[i]));
+            lines.append('\n');
+        }
+        Files.writeString(text, lines);
+        assertEquals(n, MappedBatch.encode(text, bin, 64));
+
+        for (Rounding mode : new Rounding[] { Rounding.TOWARD_ZERO, Rounding.NEAREST_AWAY }) {
+            MappedBatch.Stats st = MappedBatch.run(bin, res, ForkJoinPool.commonPool(), mode, null);
+            assertEquals(n, st.records());                       // a different mode recomputes every chunk
+            try (OperandFile f = OperandFile.open(res, false)) {
+                assertEquals(mode, f.rounding);
+                LongBuffer data = f.mapData(0, n, MapMode.READ_ONLY).asLongBuffer();
+                ErrorAnalysis e = new ErrorAnalysis();
+                for (int i = 0; i < n; i++) {
+                    assertEquals(e.run(ops[i], a[i], b[i], 0, mode), data.get(2 * i), mode + " record " + i);
+                    assertEquals(e.status(), data.get(2 * i + 1), mode + " status " + i);
+                }
+            }
+        }
+        MappedBatch.Stats st = MappedBatch.run(bin, res, ForkJoinPool.commonPool(), Rounding.NEAREST_AWAY, null);
+        assertEquals(0, st.records());
+        assertEquals((n + 63) / 64, st.chunksSkipped());
+    }
+
+    @Test
+    void rejectsBadOpCodes() throws IOException {
+        Path text = dir.resolve("ops.txt"), bin = dir.resolve("ops.bin");
+        Files.writeString(text, "add 1 2\nmul 3 4\n");
+        MappedBatch.encode(text, bin, 16);
+        try (OperandFile f = OperandFile.open(bin, false);
+             FileChannel ch = FileChannel.open(bin, StandardOpenOption.WRITE)) {
+            ch.write(ByteBuffer.wrap(new byte[] { 42 }), f.opsOffset + 1);
+        }
+        IOException ex = assertThrows(IOException.class, () -> MappedBatch.decode(bin, new AsciiIO.Sink(OutputStream.nullOutputStream())));
+        assertTrue(ex.getMessage().contains("bad op code 42 at record 1"), ex::getMessage);
+        assertThrows(IOException.class, () -> MappedBatch.run(bin, dir.resolve("res.bin"), ForkJoinPool.commonPool()));
+    }
+
+    @Test
+    void rejectsChunksTooLargeToMap() {
+        assertEquals(OperandFile.MAX_CHUNK, OperandFile.checkChunk(OperandFile.MAX_CHUNK));
+        assertThrows(IllegalArgumentException.class, () -> OperandFile.checkChunk(OperandFile.MAX_CHUNK + 1L));
+        assertThrows(IllegalArgumentException.class, () -> OperandFile.checkChunk(0));
+    }
+
+    private static String hex(long bits) { return String.format("0x%016X", bits); }
+}
@@ -0,0 +1,92 @@
+package errorexplorer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MetricsTest {
+    // The hooks count ops and what happened inside them, the same in both engines, and the JFR event carries
+    // every counter. Runs in its own surefire execution with -Derrorexplorer.metrics=true.
+
+    private static final long ONE = bits(1), MAX = bits(Double.MAX_VALUE);
+
+    // Each op once: exact, rounded up, rounded up with a carry, overflowed before rounding, carried to
+    // infinity, two specials and a subnormal operand with a subnormal result
+    private static final long[][] RUNS = {
+        { Op.ADD.ordinal(), ONE, bits(2) },
+        { Op.ADD.ordinal(), ONE, bits(0x1.8p-53) },
+        { Op.ADD.ordinal(), bits(0x1.fffffffffffffp0), bits(0x1.8p-53) },
+        { Op.MUL.ordinal(), MAX, bits(2) },
+        { Op.ADD.ordinal(), MAX, bits(0x1.8p970) },
+        { Op.ADD.ordinal(), bits(Double.NaN), ONE },
+        { Op.MUL.ordinal(), bits(0), bits(5) },
+        { Op.MUL.ordinal(), bits(Double.MIN_VALUE), bits(3) },
+    };
+
+    private static long bits(double d) { return Double.doubleToRawLongBits(d); }
+
+    @BeforeEach
+    void reset() {
+        assertTrue(Metrics.ENABLED, "run with -Derrorexplorer.metrics=true");
+        Metrics.reset();
+    }
+
+    @Test
+    void coreCountsOpsAndEvents() {
+        for (long[] run : RUNS) Simulator.compute(Op.values()[(int) run[0]], run[1], run[2], Rounding.NEAREST_EVEN);
+        Metrics.Snapshot s = Metrics.snapshot();
+        assertEquals(5, s.ops(Metrics.CORE, Op.ADD));
+        assertEquals(3, s.ops(Metrics.CORE, Op.MUL));
+        assertEquals(0, s.ops(Metrics.PIPELINE, Op.ADD));
+        assertEquals(2, s.events(Metrics.CORE, Metrics.SPECIAL));
+        assertEquals(1, s.events(Metrics.CORE, Metrics.SUBNORMAL_OPERAND));
+        assertEquals(1, s.events(Metrics.CORE, Metrics.SUBNORMAL_RESULT));
+        assertEquals(3, s.events(Metrics.CORE, Metrics.INCREMENT));
+        assertEquals(2, s.events(Metrics.CORE, Metrics.CARRY));
+        assertEquals(2, s.events(Metrics.CORE, Metrics.OVERFLOW));
+    }
+
+    @Test
+    void pipelineCountsLikeTheCore() {
+        for (long[] run : RUNS) {
+            Op op = Op.values()[(int) run[0]];
+            Simulator.compute(op, run[1], run[2], Rounding.NEAREST_EVEN);
+            Simulator.simulate(op, run[1], run[2], Rounding.NEAREST_EVEN, new Trace());
+        }
+        Metrics.Snapshot s = Metrics.snapshot();
+        for (Op op : Op.values()) assertEquals(s.ops(Metrics.CORE, op), s.ops(Metrics.PIPELINE, op), op::toString);
+        for (int ev = 0; ev < Metrics.EVENTS.length; ev++) {
+            assertEquals(s.events(Metrics.CORE, ev), s.events(Metrics.PIPELINE, ev), Metrics.EVENTS[ev]);
+        }
+    }
+
+    @Test
+    void samplesLatencies() {
+        for (int i = 0; i < 100 * Metrics.SAMPLE; i++) Simulator.compute(Op.DIV, ONE, bits(3), Rounding.NEAREST_EVEN);
+        Metrics.Snapshot s = Metrics.snapshot();
+        assertEquals(100 * Metrics.SAMPLE, s.ops(Metrics.CORE, Op.DIV));
+        assertTrue(s.sampled(Metrics.CORE, Op.DIV) > 0);
+        assertTrue(s.meanNanos(Metrics.CORE, Op.DIV) > 0);
+        assertTrue(s.percentileNanos(Metrics.CORE, Op.DIV, 0.99) >= s.percentileNanos(Metrics.CORE, Op.DIV, 0.5));
+    }
+
+    @Test
+    void countersEventCarriesEveryCounter() {
+        for (long[] run : RUNS) {
+            Op op = Op.values()[(int) run[0]];
+            Simulator.compute(op, run[1], run[2], Rounding.NEAREST_EVEN);
+            Simulator.simulate(op, run[1], run[2], Rounding.NEAREST_EVEN, new Trace());
+        }
+        Metrics.Counters c = Metrics.counters(Metrics.snapshot());
+        assertEquals(RUNS.length, c.coreOps);
+        assertEquals(RUNS.length, c.pipelineOps);
+        assertEquals(2 * 2, c.specials);
+        assertEquals(2 * 1, c.subnormalOperands);
+        assertEquals(2 * 1, c.subnormalResults);
+        assertEquals(2 * 3, c.increments);
+        assertEquals(2 * 2, c.carries);
+        assertEquals(2 * 2, c.overflows);
+    }
+}
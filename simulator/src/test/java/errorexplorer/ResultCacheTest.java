@@ -0,0 +1,88 @@
+package errorexplorer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class ResultCacheTest {
+    // Hits return the cached entry with the pipeline's result, the least recently used entry goes first,
+    // and the entry and byte budgets hold, with every lookup counted
+
+    private static final Rounding RNE = Rounding.NEAREST_EVEN;
+
+    private static long bits(double d) { return Double.doubleToRawLongBits(d); }
+
+    @Test
+    void hitsReturnTheCachedEntry() {
+        ResultCache cache = new ResultCache(10, 1 << 20);
+        ResultCache.Entry e = cache.get(Op.ADD, bits(0.1), bits(0.2), RNE);
+        assertEquals(0.1 + 0.2, e.value());
+        assertSame(e, cache.get(Op.ADD, bits(0.1), bits(0.2), RNE));
+        assertTrue(cache.get(Op.ADD, bits(0.1), bits(0.2), Rounding.TOWARD_ZERO) != e);  // the mode is part of the key
+        assertSame(e, cache.getIfPresent(Op.ADD, bits(0.1), bits(0.2), RNE));
+        assertNull(cache.getIfPresent(Op.SUB, bits(0.1), bits(0.2), RNE));
+        ResultCache.Stats st = cache.stats();
+        assertEquals(2, st.hits());
+        assertEquals(3, st.misses());
+        assertEquals(2, st.entries());
+        assertEquals(0, st.evictions());
+        assertEquals(0.4, st.hitRate());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsed() {
+        ResultCache cache = new ResultCache(2, 1 << 20);
+        cache.get(Op.ADD, bits(1), bits(1), RNE);
+        cache.get(Op.ADD, bits(2), bits(2), RNE);
+        cache.get(Op.ADD, bits(1), bits(1), RNE);                          // now the most recently used
+        cache.get(Op.ADD, bits(3), bits(3), RNE);
+        assertNotNull(cache.getIfPresent(Op.ADD, bits(1), bits(1), RNE));
+        assertNull(cache.getIfPresent(Op.ADD, bits(2), bits(2), RNE));
+        assertNotNull(cache.getIfPresent(Op.ADD, bits(3), bits(3), RNE));
+        assertEquals(1, cache.stats().evictions());
+        assertEquals(2, cache.stats().entries());
+    }
+
+    @Test
+    void keepsWithinTheByteBudget() {
+        long one = new ResultCache(1, 1 << 20).get(Op.MUL, bits(3), bits(5), RNE).bytes();
+        ResultCache cache = new ResultCache(100, 3 * one);
+        for (int i = 1; i <= 10; i++) cache.get(Op.MUL, bits(3), bits(i), RNE);
+        ResultCache.Stats st = cache.stats();
+        assertTrue(st.bytes() <= 3 * one, st::toString);
+        assertTrue(st.entries() >= 2 && st.entries() <= 3, st::toString);
+        assertEquals(10 - st.entries(), st.evictions());
+        assertNotNull(cache.getIfPresent(Op.MUL, bits(3), bits(10), RNE));
+    }
+
+    @Test
+    void holdsAtLeastMaxEntries() {
+        // 17 used to make 16 segments of one entry each
+        for (int max : new int[] { 1, 17, 100, 127 }) {
+            ResultCache cache = new ResultCache(max, Long.MAX_VALUE);
+            for (int i = 0; i < max; i++) cache.get(Op.SQRT, bits(i), 0, RNE);
+            assertEquals(max, cache.stats().entries(), "max " + max);
+            assertEquals(0, cache.stats().evictions(), "max " + max);
+        }
+    }
+
+    @Test
+    void zeroEntriesDisablesCaching() {
+        ResultCache cache = new ResultCache(0, 0);
+        ResultCache.Entry e = cache.get(Op.DIV, bits(1), bits(3), RNE);
+        assertEquals(1.0 / 3, e.value());
+        assertNull(cache.getIfPresent(Op.DIV, bits(1), bits(3), RNE));
+        assertEquals(0, cache.stats().entries());
+        assertEquals(2, cache.stats().misses());
+    }
+
+    @Test
+    void sizesWideCharsAtTwoBytes() {
+        ResultCache.Entry latin = new ResultCache.Entry(0, "ab", "c"), wide = new ResultCache.Entry(0, "a\u2192", "c");
+        assertEquals(latin.bytes() + 2, wide.bytes());
+    }
+}
@@ -0,0 +1,53 @@
+package errorexplorer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class ResultTableModelTest {
+    // The Rounding column: special only when an operand decides the result, overflow including the
+    // rounding carry into infinity, and exact results (cancellations too) as exact
+
+    @Test
+    void classifiesOutcomes() {
+        assertEquals(ResultTableModel.Outcome.EXACT, outcome(Op.SUB, 1.5, 1.5, 0, Rounding.NEAREST_EVEN));
+        assertEquals(ResultTableModel.Outcome.EXACT, outcome(Op.FMA, 1.5, 1.5, -2.25, Rounding.TOWARD_NEGATIVE));
+        assertEquals(ResultTableModel.Outcome.EXACT, outcome(Op.MUL, 1.5, 1.5, 0, Rounding.NEAREST_EVEN));
+        assertEquals(ResultTableModel.Outcome.DOWN, outcome(Op.ADD, 1, 0x1p-53, 0, Rounding.NEAREST_EVEN));
+        assertEquals(ResultTableModel.Outcome.UP, outcome(Op.ADD, 1, 0x1p-53, 0, Rounding.TOWARD_POSITIVE));
+        assertEquals(ResultTableModel.Outcome.OVERFLOW, outcome(Op.ADD, Double.MAX_VALUE, 0x1.8p970, 0, Rounding.NEAREST_EVEN));
+        assertEquals(ResultTableModel.Outcome.DOWN, outcome(Op.ADD, Double.MAX_VALUE, 0x1.8p970, 0, Rounding.TOWARD_ZERO));
+        assertEquals(ResultTableModel.Outcome.OVERFLOW, outcome(Op.MUL, Double.MAX_VALUE, 2, 0, Rounding.TOWARD_ZERO));
+        assertEquals(ResultTableModel.Outcome.SPECIAL, outcome(Op.ADD, Double.NaN, 1, 0, Rounding.NEAREST_EVEN));
+        assertEquals(ResultTableModel.Outcome.SPECIAL, outcome(Op.MUL, 0, 3, 0, Rounding.NEAREST_EVEN));
+        assertEquals(ResultTableModel.Outcome.SPECIAL, outcome(Op.DIV, 1, Double.POSITIVE_INFINITY, 0, Rounding.NEAREST_EVEN));
+        assertEquals(ResultTableModel.Outcome.SPECIAL, outcome(Op.SQRT, -4, 0, 0, Rounding.NEAREST_EVEN));
+        assertEquals(ResultTableModel.Outcome.SPECIAL, outcome(Op.FMA, 2, 3, Double.NEGATIVE_INFINITY, Rounding.NEAREST_EVEN));
+        assertEquals(ResultTableModel.Outcome.DOWN, outcome(Op.FMA, 1 + 0x1p-52, 1 + 0x1p-52, 0, Rounding.TOWARD_ZERO));
+    }
+
+    @Test
+    void countsAndFilters() {
+        ResultTableModel model = new ResultTableModel();
+        ResultTableModel.Rows rows = new ResultTableModel.Rows(1);
+        ErrorAnalysis e = new ErrorAnalysis();
+        double[][] ops = { { 1.5, 1.5 }, { 1, 0x1p-60 }, { Double.NaN, 1 }, { 3, 3 } };
+        for (double[] ab : ops) {
+            long a = Double.doubleToRawLongBits(ab[0]), b = Double.doubleToRawLongBits(ab[1]);
+            rows.add(e, Op.SUB, Rounding.NEAREST_EVEN, a, b, 0, e.run(Op.SUB, a, b, 0, Rounding.NEAREST_EVEN));
+        }
+        model.append(rows);
+        assertEquals(4, model.size());
+        assertEquals(2, model.count(ResultTableModel.Outcome.EXACT));
+        model.setFilter(ResultTableModel.Outcome.EXACT);
+        assertEquals(2, model.getRowCount());
+        assertEquals(3, model.modelRow(1));
+    }
+
+    private static ResultTableModel.Outcome outcome(Op op, double a, double b, double c, Rounding mode) {
+        ErrorAnalysis e = new ErrorAnalysis();
+        long ab = Double.doubleToRawLongBits(a), bb = Double.doubleToRawLongBits(b), cb = Double.doubleToRawLongBits(c);
+        e.run(op, ab, bb, cb, mode);
+        return ResultTableModel.Outcome.of(op, ab, bb, cb, e.status(), mode);
+    }
+}
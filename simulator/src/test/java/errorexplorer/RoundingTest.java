@@ -0,0 +1,101 @@
+package errorexplorer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+class RoundingTest {
+    // Every op in every rounding mode against exact BigDecimal arithmetic: the result must be the exact
+    // value or one of the two doubles around it, and the one the mode picks. DIV and SQRT have no finite
+    // decimal value, so candidates are compared with them by cross-multiplying instead.
+
+    private static final int SAMPLES = 4_000;
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+    private interface Exact {
+        // The sign of x minus the exact result
+        int compare(BigDecimal x);
+    }
+
+    @Test
+    void roundsLikeBigDecimal() {
+        SplittableRandom r = new SplittableRandom(3);
+        for (Op op : Op.values()) {
+            for (Rounding mode : Rounding.values()) {
+                int checked = 0;
+                while (checked < SAMPLES) {
+                    int kind = r.nextInt(6);                     // no specials: the exact value has to exist
+                    long a = Verifier.operand(r, kind, 0, 0), b = Verifier.operand(r, kind, a, 1);
+                    long c = Verifier.addend(r, kind, a, b);
+                    double x = Double.longBitsToDouble(Simulator.compute(op, a, b, c, mode));
+                    Exact exact = exact(op, Double.longBitsToDouble(a), Double.longBitsToDouble(b), Double.longBitsToDouble(c));
+                    if (exact == null || !Double.isFinite(x)) continue;
+                    if (check(exact, x, mode, () -> op + " " + mode + " " + Long.toHexString(a) + " "
+                            + Long.toHexString(b) + " " + Long.toHexString(c))) checked++;
+                }
+            }
+        }
+    }
+
+    @Test
+    void tiesFollowTheMode() {
+        // 1 + 2^-53 sits halfway between 1 and 1 + 2^-52, and -1 - 2^-53 mirrors it
+        double next = Math.nextUp(1.0);
+        double[][] expected = {
+            { 1.0, next, 1.0, next, 1.0 },           // RNE RNA RTZ RTP RTN
+            { -1.0, -next, -1.0, -1.0, -next },
+        };
+        for (Rounding mode : Rounding.values()) {
+            assertEquals(expected[0][mode.ordinal()], add(1.0, 0x1p-53, mode), mode::toString);
+            assertEquals(expected[1][mode.ordinal()], add(-1.0, -0x1p-53, mode), mode::toString);
+        }
+    }
+
+    private static double add(double a, double b, Rounding mode) {
+        return Double.longBitsToDouble(Simulator.compute(Op.ADD, Double.doubleToRawLongBits(a), Double.doubleToRawLongBits(b), 0, mode));
+    }
+
+    private static Exact exact(Op op, double a, double b, double c) {
+    // null when the op has no finite exact result
+        if (!Double.isFinite(a) || !Double.isFinite(b) || !Double.isFinite(c)) return null;
+        BigDecimal ba = new BigDecimal(a), bb = new BigDecimal(b);
+        return switch (op) {
+            case ADD -> value(ba.add(bb));
+            case SUB -> value(ba.subtract(bb));
+            case MUL -> value(ba.multiply(bb));
+            case FMA -> value(ba.multiply(bb).add(new BigDecimal(c)));
+            case DIV -> b == 0 ? null : x -> x.multiply(bb).compareTo(ba) * bb.signum();
+            case SQRT -> a < 0 ? null : x -> x.signum() < 0 ? -1 : x.multiply(x).compareTo(ba);
+        };
+    }
+
+    private static Exact value(BigDecimal exact) { return x -> x.compareTo(exact); }
+
+    private static boolean check(Exact exact, double x, Rounding mode, Supplier<String> what) {
+    // false when a neighbour lies beyond the finite range (overflow has its own tests)
+        int cx = exact.compare(new BigDecimal(x));
+        if (cx == 0) return true;
+        double lo = cx < 0 ? x : Math.nextDown(x), hi = cx < 0 ? Math.nextUp(x) : x;
+        if (!Double.isFinite(lo) || !Double.isFinite(hi)) return false;
+        BigDecimal blo = new BigDecimal(lo), bhi = new BigDecimal(hi);
+        assertEquals(-1, Integer.signum(exact.compare(blo)), what);
+        assertEquals(1, Integer.signum(exact.compare(bhi)), what);
+        boolean positive = lo >= 0;
+        double want = switch (mode) {
+            case TOWARD_POSITIVE -> hi;
+            case TOWARD_NEGATIVE -> lo;
+            case TOWARD_ZERO -> positive ? lo : hi;
+            case NEAREST_EVEN, NEAREST_AWAY -> {
+                int mid = Integer.signum(exact.compare(blo.add(bhi).divide(TWO)));
+                if (mid != 0) yield mid > 0 ? lo : hi;
+                if (mode == Rounding.NEAREST_AWAY) yield positive ? hi : lo;
+                yield (Double.doubleToRawLongBits(lo) & 1) == 0 ? lo : hi;
+            }
+        };
+        assertEquals(want, x, what);
+        return true;
+    }
+}
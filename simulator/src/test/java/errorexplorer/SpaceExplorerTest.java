@@ -0,0 +1,64 @@
+package errorexplorer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+class SpaceExplorerTest {
+    // Per-pair errors in ulps, overflow counted as special in every rounding mode (directed modes overflow
+    // to the largest finite value, not infinity), and the grid's pair counts
+
+    private static final long H_MAX = 0x7BFF, H_16 = 0x4C00;             // binary16 65504 and 16
+
+    private static SpaceExplorer explorer(Format f, Op op, Rounding mode) { return SpaceExplorer.full(f, op, mode, false); }
+
+    @Test
+    void narrowOverflowIsSpecialInEveryMode() {
+        for (Rounding mode : Rounding.values()) {
+            SpaceExplorer ex = explorer(Format.BINARY16, Op.ADD, mode);
+            assertTrue(Double.isNaN(ex.error(H_MAX, H_MAX)), mode + ": max + max");
+            assertTrue(Double.isNaN(ex.error(H_MAX | 0x8000, H_MAX | 0x8000)), mode + ": -max - max");
+            assertTrue(Double.isNaN(explorer(Format.BINARY16, Op.MUL, mode).error(H_MAX, H_16)), mode + ": max * 16");
+        }
+    }
+
+    @Test
+    void narrowRoundingBelowOverflowIsMeasured() {
+        // 65504 + 16 = 65520 lies between the largest finite value and 2^16: truncation gives 65504 (half an
+        // ulp of 32 low), and only rounding up in magnitude overflows
+        assertEquals(-0.5, explorer(Format.BINARY16, Op.ADD, Rounding.TOWARD_ZERO).error(H_MAX, H_16));
+        assertEquals(-0.5, explorer(Format.BINARY16, Op.ADD, Rounding.TOWARD_NEGATIVE).error(H_MAX, H_16));
+        assertTrue(Double.isNaN(explorer(Format.BINARY16, Op.ADD, Rounding.TOWARD_POSITIVE).error(H_MAX, H_16)));
+        assertEquals(0.5, explorer(Format.BINARY16, Op.ADD, Rounding.TOWARD_POSITIVE).error(H_MAX | 0x8000, H_16 | 0x8000));
+        assertEquals(0.0, explorer(Format.BINARY16, Op.ADD, Rounding.NEAREST_EVEN).error(0x3C00, 0x3C00));  // 1 + 1
+    }
+
+    @Test
+    void binary64OverflowIsSpecialInEveryMode() {
+        long max = Double.doubleToRawLongBits(Double.MAX_VALUE), two = Double.doubleToRawLongBits(2), half = Double.doubleToRawLongBits(0.5);
+        for (Rounding mode : Rounding.values()) {
+            assertTrue(Double.isNaN(explorer(Format.BINARY64, Op.MUL, mode).error(max, two)), mode + ": max * 2");
+            assertTrue(Double.isNaN(explorer(Format.BINARY64, Op.DIV, mode).error(max, half)), mode + ": max / 0.5");
+            assertTrue(Double.isNaN(explorer(Format.BINARY64, Op.ADD, mode).error(max, max)), mode + ": max + max");
+        }
+        double third = explorer(Format.BINARY64, Op.DIV, Rounding.TOWARD_ZERO).error(Double.doubleToRawLongBits(1), Double.doubleToRawLongBits(3));
+        assertTrue(third < 0 && third > -1, "1/3 truncated: " + third);
+    }
+
+    @Test
+    void gridCountsSpecialsAtTheTopExponent() throws IOException {
+        StringBuilder out = new StringBuilder();
+        new SpaceExplorer(Format.BINARY16, Op.ADD, Rounding.TOWARD_ZERO, 30, 30, true).writeGrid(out);
+        String[] rows = out.toString().split("\n");
+        assertEquals(4, rows.length);                                       // comment, header, -B and +B
+        String[] plus = rows[3].split(",");
+        assertEquals("15", plus[0]);
+        assertEquals("+", plus[2]);
+        int pairs = Integer.parseInt(plus[3]), special = Integer.parseInt(plus[4]);
+        assertEquals(1024 * 1024, pairs);
+        assertEquals(pairs, special, rows[3]);                              // every sum reaches 2^16
+        assertEquals("0", rows[2].split(",")[4]);                           // a - b never overflows here
+    }
+}
@@ -0,0 +1,63 @@
+package errorexplorer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class StepperTest {
+    // Stepping a kernel to the end gives the value the interpreter computes, which for one operation is
+    // the core's; stepping back and forth again does not change it
+
+    private static final String[] KERNELS = {
+        "a + b", "a / b", "sqrt(a)", "fma(a, b, c)",
+        "a * b + c", "sqrt(x * x + y * y)", "(a - b) / (a + b) - -c", "horner(x, 1, 0.5, 0.25, 0.125)",
+    };
+
+    @Test
+    void finishMatchesInterpreter() {
+        SplittableRandom r = new SplittableRandom(7);
+        for (String source : KERNELS) {
+            Kernel k = Kernel.compile(source);
+            for (Rounding mode : Rounding.values()) {
+                for (int i = 0; i < 300; i++) {
+                    long[] in = inputs(r, k.inputs().size());
+                    Stepper s = new Stepper(k, in, mode);
+                    s.finish();
+                    long want = k.start(mode, false).element(in);
+                    assertEquals(want, s.result(), () -> source + " " + mode);
+                    while (s.back()) { }
+                    s.finish();
+                    assertEquals(want, s.result(), () -> source + " " + mode + " after stepping back");
+                }
+            }
+        }
+    }
+
+    @Test
+    void singleOperationMatchesCore() {
+        SplittableRandom r = new SplittableRandom(8);
+        for (Op op : Op.values()) {
+            Kernel k = Kernel.compile(switch (op) {
+                case ADD -> "a + b"; case SUB -> "a - b"; case MUL -> "a * b"; case DIV -> "a / b";
+                case SQRT -> "sqrt(a)"; case FMA -> "fma(a, b, c)";
+            });
+            for (Rounding mode : Rounding.values()) {
+                for (int i = 0; i < 300; i++) {
+                    long[] in = inputs(r, 3);
+                    Stepper s = new Stepper(k, Arrays.copyOf(in, k.inputs().size()), mode);
+                    s.finish();
+                    assertEquals(Simulator.compute(op, in[0], in[1], in[2], mode), s.result(), () -> op + " " + mode);
+                }
+            }
+        }
+    }
+
+    private static long[] inputs(SplittableRandom r, int n) {
+        long[] in = new long[n];
+        int kind = r.nextInt(7);
+        for (int j = 0; j < n; j++) in[j] = Verifier.operand(r, kind, j == 0 ? 0 : in[0], Math.min(j, 1));
+        return in;
+    }
+}
@@ -0,0 +1,57 @@
+package errorexplorer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SweepTest {
+    // Sampled points follow the simulated recurrence, and the ulp error stays on the chart's scale
+    // when the exact value passes through zero
+
+    private static List<Sweep.Point> run(Op op, String start, String operand, long steps, int points, Rounding mode) {
+        BigDecimal a = new BigDecimal(start), b = new BigDecimal(operand);
+        Sweep sw = new Sweep(op, Double.doubleToRawLongBits(a.doubleValue()), Double.doubleToRawLongBits(b.doubleValue()),
+            a, b, steps, points, mode);
+        List<Sweep.Point> out = new ArrayList<>();
+        sw.run(out::add);
+        return out;
+    }
+
+    @Test
+    void crossingZeroHasNoUlpError() {
+        List<Sweep.Point> pts = run(Op.SUB, "1", "0.1", 12, 12, Rounding.NEAREST_EVEN);
+        assertEquals(13, pts.size());
+        double x = 1;
+        for (Sweep.Point p : pts) {
+            assertEquals(x, p.value());
+            x -= 0.1;
+            if (p.step() == 10) {
+                assertTrue(Double.isNaN(p.ulpError()), () -> "ulp error at the zero crossing: " + p.ulpError());
+                assertEquals(p.value(), p.absError());            // exact is 0, so the error is the value itself
+                assertTrue(p.absError() != 0);
+            } else {
+                assertTrue(Math.abs(p.ulpError()) < 64, () -> "step " + p.step() + ": " + p.ulpError());
+            }
+        }
+    }
+
+    @Test
+    void samplesEveryStrideAndTheLastStep() {
+        List<Sweep.Point> pts = run(Op.ADD, "0", "0.1", 1000, 7, Rounding.TOWARD_ZERO);
+        long stride = (1000 + 6) / 7;
+        for (int k = 0; k < pts.size() - 1; k++) assertEquals(k * stride, pts.get(k).step());
+        assertEquals(1000, pts.get(pts.size() - 1).step());
+        // Truncation only ever loses magnitude, so the running sum ends below the exact 100
+        assertTrue(pts.get(pts.size() - 1).absError() < 0);
+    }
+
+    @Test
+    void rejectsUnaryOps() {
+        assertThrows(IllegalArgumentException.class, () -> run(Op.SQRT, "2", "0", 10, 10, Rounding.NEAREST_EVEN));
+    }
+}
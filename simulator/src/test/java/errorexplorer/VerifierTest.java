@@ -0,0 +1,56 @@
+package errorexplorer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class VerifierTest {
+    // A small seeded run of both engines against native doubles finds no mismatch for any op, and counts
+    // the same whatever the parallelism; native doubles only round to nearest even, so the other modes are
+    // checked engine against engine over the Verifier's own operand distributions
+
+    private static final long PAIRS = 3 * Verifier.BLOCK + 123;        // a partial last block too
+
+    @Test
+    void noMismatchesAgainstNativeDoubles() {
+        for (Verifier.Engine engine : Verifier.Engine.values()) {
+            long pairs = engine == Verifier.Engine.CORE ? PAIRS : PAIRS / 8;
+            Verifier.Report rep = new Verifier(20, engine, 5).run(pairs, ForkJoinPool.commonPool());
+            assertEquals(pairs * Op.values().length, rep.ops());
+            for (Op op : Op.values()) assertEquals(0, rep.mismatchesPerOp()[op.ordinal()], () -> engine + " " + op + ": " + rep.first());
+            assertTrue(rep.first().isEmpty());
+        }
+    }
+
+    @Test
+    void countsTheSameOnOneThread() {
+        ForkJoinPool one = new ForkJoinPool(1);
+        try {
+            Verifier.Report rep = new Verifier(21, Verifier.Engine.CORE, 5).run(PAIRS, one);
+            assertEquals(PAIRS * Op.values().length, rep.ops());
+            assertEquals(0, rep.mismatches());
+        } finally {
+            one.shutdown();
+        }
+    }
+
+    @Test
+    void enginesAgreeUnderEveryMode() {
+        SplittableRandom r = new SplittableRandom(22);
+        for (int i = 0; i < 4_000; i++) {
+            int kind = r.nextInt(7);
+            long a = Verifier.operand(r, kind, 0, 0), b = Verifier.operand(r, kind, a, 1), c = Verifier.addend(r, kind, a, b);
+            for (Op op : Op.values()) {
+                for (Rounding mode : Rounding.values()) {
+                    long core = Simulator.compute(op, a, b, c, mode);
+                    long pipeline = Simulator.simulate(op, a, b, c, mode, Trace.OFF).bits();
+                    if (Double.isNaN(Double.longBitsToDouble(core)) && Double.isNaN(Double.longBitsToDouble(pipeline))) continue;
+                    assertEquals(core, pipeline, () -> op + " " + mode + " " + Long.toHexString(a) + " " + Long.toHexString(b) + " " + Long.toHexString(c));
+                }
+            }
+        }
+    }
+}